@@ -0,0 +1,160 @@
+package org.bladerunnerjs.api.memoization;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.spec.utility.LogMessageStore;
+import org.bladerunnerjs.api.spec.utility.MockAppVersionGenerator;
+import org.bladerunnerjs.api.spec.utility.MockPluginLocator;
+import org.bladerunnerjs.api.spec.utility.TestLoggerFactory;
+import org.bladerunnerjs.model.BRJSTestModelFactory;
+import org.bladerunnerjs.utility.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that concurrent callers of a {@link MemoizedValue} share a single computation and never see a value older than one they've already seen,
+ * even while another thread keeps modifying the file it watches.
+ */
+public class MemoizedValueConcurrencyTest
+{
+	private static final int READS_PER_THREAD = 20000;
+
+	private File tempDir;
+	private File watchFile;
+	private BRJS brjs;
+	private FileModificationRegistry fileModificationRegistry;
+
+	@Before
+	public void setUp() throws Exception {
+		tempDir = FileUtils.createTemporaryDirectory( this.getClass() );
+		File sdkDir = new File(tempDir, "sdk");
+		watchFile = new File(sdkDir, "watch-file");
+		sdkDir.mkdir();
+		brjs = BRJSTestModelFactory.createModel(sdkDir, sdkDir, new MockPluginLocator(), new TestLoggerFactory(new LogMessageStore()), new MockAppVersionGenerator());
+		brjs.io().uninstallFileAccessChecker();
+		fileModificationRegistry = brjs.getFileModificationRegistry();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		brjs.close();
+		org.apache.commons.io.FileUtils.deleteQuietly(tempDir);
+	}
+
+	@Test
+	public void concurrentCallersOfAStaleValueWaitForASingleComputation() throws Exception {
+		final MemoizedValue<Integer> memoizedValue = new MemoizedValue<>("id", brjs, watchFile);
+		final AtomicInteger computationCount = new AtomicInteger();
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threadCount; t++) {
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						startLatch.await();
+						return memoizedValue.value(() -> {
+							Thread.sleep(100);
+							return computationCount.incrementAndGet();
+						});
+					}
+				}));
+			}
+			startLatch.countDown();
+
+			for (Future<Integer> result : results) {
+				assertEquals(1, (int) result.get());
+			}
+			assertEquals(1, computationCount.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void changesMadeWhileAValueIsBeingComputedCauseItToBeComputedAgain() throws Exception {
+		MemoizedValue<Integer> memoizedValue = new MemoizedValue<>("id", brjs, watchFile);
+		AtomicInteger computationCount = new AtomicInteger();
+
+		assertEquals(1, (int) memoizedValue.value(() -> {
+			fileModificationRegistry.incrementFileVersion(watchFile);
+			return computationCount.incrementAndGet();
+		}));
+		assertEquals(2, (int) memoizedValue.value(() -> computationCount.incrementAndGet()));
+		assertEquals(2, (int) memoizedValue.value(() -> computationCount.incrementAndGet()));
+	}
+
+	@Test
+	public void memoizedValuesReadConcurrentlyWhileTheirFilesAreModifiedAreNeverStale() throws Exception {
+		int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+		assertEquals(threadCount * READS_PER_THREAD, runReads(threadCount));
+	}
+
+
+	private int runReads(int threadCount) throws Exception {
+		final MemoizedValue<Long> memoizedValue = new MemoizedValue<>("id", brjs, watchFile);
+		final FileVersion fileVersion = fileModificationRegistry.getFileVersionObject(watchFile);
+		final AtomicBoolean readersFinished = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount + 1);
+
+		try {
+			Future<?> modifier = executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					while (!readersFinished.get()) {
+						fileModificationRegistry.incrementFileVersion(watchFile);
+						Thread.yield();
+					}
+				}
+			});
+
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threadCount; t++) {
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						long lastSeenVersion = -1;
+						for (int i = 0; i < READS_PER_THREAD; i++) {
+							long versionBeforeRead = fileVersion.getValue();
+							long version = memoizedValue.value(() -> fileVersion.getValue());
+							// a value computed from a version older than the one that was current before the read began would be stale
+							assertTrue(version >= versionBeforeRead);
+							assertTrue(version >= lastSeenVersion);
+							lastSeenVersion = version;
+						}
+						return READS_PER_THREAD;
+					}
+				}));
+			}
+
+			int readCount = 0;
+			for (Future<Integer> result : results) {
+				readCount += result.get();
+			}
+			readersFinished.set(true);
+			modifier.get();
+			return readCount;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
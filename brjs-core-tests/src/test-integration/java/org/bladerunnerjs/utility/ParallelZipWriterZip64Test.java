@@ -0,0 +1,73 @@
+package org.bladerunnerjs.utility;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/* writes an entry larger than 4GB, which takes tens of seconds, so it's kept out of the ParallelZipWriter unit tests */
+public class ParallelZipWriterZip64Test
+{
+	private static final long LARGE_FILE_SIZE = 0xFFFFFFFFL + 1024;
+
+	private File tempDir;
+	private File largeFile;
+	private File zipFile;
+
+	@Before
+	public void setup() throws Exception
+	{
+		tempDir = FileUtils.createTemporaryDirectory(ParallelZipWriterZip64Test.class);
+		zipFile = new File(tempDir, "test.zip");
+
+		// a sparse file of zeros, so that it takes next to no disk space and deflates to a few megabytes
+		largeFile = new File(tempDir, "large.txt");
+		try (RandomAccessFile largeFileAccess = new RandomAccessFile(largeFile, "rw")) {
+			largeFileAccess.setLength(LARGE_FILE_SIZE);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		org.apache.commons.io.FileUtils.deleteQuietly(tempDir);
+	}
+
+	@Test
+	public void entriesLargerThan4GBAreWrittenWithZip64Sizes() throws Exception
+	{
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile)) {
+			zipWriter.addContent("before.txt", "before".getBytes(StandardCharsets.UTF_8));
+			zipWriter.addFile("large.txt", largeFile);
+			zipWriter.addContent("after.txt", "after".getBytes(StandardCharsets.UTF_8));
+		}
+
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			ZipEntry largeEntry = zip.getEntry("large.txt");
+			assertEquals(LARGE_FILE_SIZE, largeEntry.getSize());
+			assertEquals(ZipEntry.DEFLATED, largeEntry.getMethod());
+			assertEquals(crcOfZeros(LARGE_FILE_SIZE), largeEntry.getCrc());
+			assertEquals("before", IOUtils.toString(zip.getInputStream(zip.getEntry("before.txt")), StandardCharsets.UTF_8));
+			assertEquals("after", IOUtils.toString(zip.getInputStream(zip.getEntry("after.txt")), StandardCharsets.UTF_8));
+		}
+	}
+
+	private long crcOfZeros(long length)
+	{
+		CRC32 crc = new CRC32();
+		byte[] zeros = new byte[1024 * 1024];
+		for (long remaining = length; remaining > 0; remaining -= zeros.length) {
+			crc.update(zeros, 0, (int) Math.min(zeros.length, remaining));
+		}
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,68 @@
+package org.bladerunnerjs.spec;
+
+import static org.junit.Assert.*;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.memoization.MemoizedFile;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.api.spec.model.app.building.AppBuilderUtilis;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Times building a multi-aspect, multi-locale app from scratch, and then incrementally when nothing and when a single class has changed, printing
+ * the timings for each.
+ */
+public class AppBuildPerformanceTest extends SpecTest
+{
+	private static final int ASPECT_COUNT = 4;
+	private static final int CLASS_COUNT = 200;
+
+	private App app;
+	private MemoizedFile buildDir;
+
+	@Before
+	public void initTestObjects() throws Exception {
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated()
+			.and(brjs).hasVersion("1.0");
+			brjs.io().uninstallFileAccessChecker();
+		app = brjs.app("app1");
+		given(app).hasBeenCreated()
+			.and(app.appConf()).supportsLocales("en", "de", "fr");
+
+		String[] classNames = new String[CLASS_COUNT];
+		for (int i = 0; i < CLASS_COUNT; i++) {
+			classNames[i] = "appns/Class" + i;
+		}
+		for (int a = 0; a < ASPECT_COUNT; a++) {
+			Aspect aspect = app.aspect("aspect" + a);
+			given(aspect).hasClasses(classNames)
+				.and(aspect).indexPageRequires(classNames);
+		}
+
+		buildDir = brjs.storageDir("built-apps").file("app1");
+		buildDir.mkdirs();
+	}
+
+	@Test
+	public void incrementalBuildsOnlyRegenerateTheFilesWhoseInputsHaveChanged() throws Exception {
+		long startTime = System.currentTimeMillis();
+		app.build(buildDir, true);
+		System.out.println("Full build: " + (System.currentTimeMillis() - startTime) + " ms");
+
+		startTime = System.currentTimeMillis();
+		app.build(buildDir, true);
+		System.out.println("Incremental build, nothing changed: " + (System.currentTimeMillis() - startTime) + " ms");
+
+		given(app.aspect("aspect0")).classFileHasContent("appns/Class0", "// changed");
+		startTime = System.currentTimeMillis();
+		app.build(buildDir, true);
+		System.out.println("Incremental build, one class changed: " + (System.currentTimeMillis() - startTime) + " ms");
+
+		assertTrue(AppBuilderUtilis.containsBuildManifest(buildDir));
+	}
+
+}
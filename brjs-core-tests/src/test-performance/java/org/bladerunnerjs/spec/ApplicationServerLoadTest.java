@@ -0,0 +1,142 @@
+package org.bladerunnerjs.spec;
+
+import static org.junit.Assert.*;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.BladerunnerConf;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.appserver.BRJSApplicationServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Serves the same request from a number of concurrent clients using each of several application server configurations, printing the number of
+ * requests per second and the 99th percentile latency for each configuration.
+ */
+public class ApplicationServerLoadTest extends SpecTest
+{
+	private static final int CLIENT_THREADS = 32;
+	private static final int REQUESTS_PER_THREAD = 200;
+	private static final String REQUEST_PATH = "/app/";
+
+	private BladerunnerConf bladerunnerConf;
+	private BRJSApplicationServer appServer;
+
+	@Before
+	public void initTestObjects() throws Exception {
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated()
+			.and(brjs).usedForServletModel()
+			.and(brjs).containsFolder("apps")
+			.and(brjs).containsFolder("sdk/system-applications");
+			brjs.io().uninstallFileAccessChecker();
+			brjs.appJars().create();
+			bladerunnerConf = brjs.bladerunnerConf();
+
+		App app = brjs.userApp("app");
+		given(app).hasBeenPopulated("default")
+			.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+			.and(app.defaultAspect()).containsFileWithContents("index.html", "aspect index.html");
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		if (appServer != null) {
+			appServer.stop();
+		}
+	}
+
+	@Test
+	public void requestThroughputAndLatencyForEachServerConfiguration() throws Exception {
+		runConfiguration("jetty defaults");
+
+		bladerunnerConf.setJettyAcceptors(1);
+		bladerunnerConf.setJettySelectors(2);
+		runConfiguration("1 acceptor, 2 selectors");
+
+		bladerunnerConf.setJettyMaxThreads(16);
+		bladerunnerConf.setJettyMaxQueuedRequests(64);
+		runConfiguration("16 threads, 64 queued requests");
+
+		bladerunnerConf.setJettyOutputBufferSize(64 * 1024);
+		runConfiguration("64KB output buffer");
+
+		bladerunnerConf.setUseJettyHttp2Cleartext(true);
+		runConfiguration("h2c enabled (HTTP/1.1 clients)");
+	}
+
+	private void runConfiguration(String configurationName) throws Exception {
+		appServer = new BRJSApplicationServer(brjs, appServerPort);
+		appServer.start();
+		try {
+			request(); // warm up the model before anything is timed
+
+			long startTime = System.currentTimeMillis();
+			long[] latencies = runRequests();
+			long duration = Math.max(1, System.currentTimeMillis() - startTime);
+
+			Arrays.sort(latencies);
+			long p99Latency = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+			System.out.println(configurationName + ": " + (latencies.length * 1000 / duration) + " requests/s, p99 latency " + (p99Latency / 1000) + " us");
+		}
+		finally {
+			appServer.stop();
+			appServer = null;
+		}
+	}
+
+	private long[] runRequests() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+		try {
+			List<Future<long[]>> results = new ArrayList<>();
+			for (int t = 0; t < CLIENT_THREADS; t++) {
+				results.add( executor.submit(new Callable<long[]>() {
+					@Override
+					public long[] call() throws Exception {
+						long[] latencies = new long[REQUESTS_PER_THREAD];
+						for (int r = 0; r < REQUESTS_PER_THREAD; r++) {
+							long requestStartTime = System.nanoTime();
+							request();
+							latencies[r] = System.nanoTime() - requestStartTime;
+						}
+						return latencies;
+					}
+				}) );
+			}
+
+			long[] latencies = new long[CLIENT_THREADS * REQUESTS_PER_THREAD];
+			for (int t = 0; t < CLIENT_THREADS; t++) {
+				System.arraycopy(results.get(t).get(), 0, latencies, t * REQUESTS_PER_THREAD, REQUESTS_PER_THREAD);
+			}
+			return latencies;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void request() throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + appServerPort + REQUEST_PATH).openConnection();
+		try (InputStream inputStream = connection.getInputStream()) {
+			assertEquals(200, connection.getResponseCode());
+			IOUtils.toByteArray(inputStream);
+		}
+	}
+
+}
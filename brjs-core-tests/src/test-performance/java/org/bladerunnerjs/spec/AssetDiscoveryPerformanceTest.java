@@ -0,0 +1,56 @@
+package org.bladerunnerjs.spec;
+
+import static org.junit.Assert.*;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.utility.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Times discovering the assets of an aspect with a large number of classes spread across many packages, and then re-discovering them once a single
+ * class has been added, printing the timings for each.
+ */
+public class AssetDiscoveryPerformanceTest extends SpecTest
+{
+	private static final int PACKAGE_COUNT = 40;
+	private static final int CLASSES_PER_PACKAGE = 100;
+
+	private Aspect aspect;
+
+	@Before
+	public void initTestObjects() throws Exception {
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated();
+			brjs.io().uninstallFileAccessChecker();
+		App app = brjs.app("app1");
+		aspect = app.aspect("default");
+		given(app).hasBeenCreated();
+
+		String[] classNames = new String[PACKAGE_COUNT * CLASSES_PER_PACKAGE];
+		for (int p = 0; p < PACKAGE_COUNT; p++) {
+			for (int c = 0; c < CLASSES_PER_PACKAGE; c++) {
+				classNames[(p * CLASSES_PER_PACKAGE) + c] = "appns/pkg" + p + "/Class" + c;
+			}
+		}
+		given(aspect).hasClasses(classNames);
+	}
+
+	@Test
+	public void addingAFileOnlyRediscoversTheAssetsInItsDirectory() throws Exception {
+		long startTime = System.currentTimeMillis();
+		int assetCount = aspect.assets().size();
+		System.out.println("Initial discovery of " + assetCount + " assets: " + (System.currentTimeMillis() - startTime) + " ms");
+
+		FileUtils.write(aspect, aspect.file("src/appns/pkg0/NewClass.js"), "module.exports = function() {};");
+		startTime = System.currentTimeMillis();
+		int newAssetCount = aspect.assets().size();
+		System.out.println("Re-discovery after adding a file: " + (System.currentTimeMillis() - startTime) + " ms");
+
+		assertEquals(assetCount + 1, newAssetCount);
+	}
+
+}
@@ -0,0 +1,130 @@
+package org.bladerunnerjs.spec;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.BladerunnerConf;
+import org.bladerunnerjs.api.memoization.FileModificationRegistry;
+import org.bladerunnerjs.api.plugin.ResponseContent;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.model.StaticContentAccessor;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Serves the same set of bundle requests from an increasing number of threads, printing the throughput for each thread count,
+ * while another thread keeps invalidating the model as the file watcher would.
+ */
+public class ConcurrentBundleRequestLoadTest extends SpecTest
+{
+	private static final int CLASS_COUNT = 200;
+	private static final int REQUESTS_PER_THREAD = 50;
+	private static final String[] REQUEST_PATHS = { "js/dev/combined/bundle.js", "js/prod/combined/bundle.js" };
+
+	private App app;
+	private Aspect aspect;
+	private FileModificationRegistry modificationRegistry;
+	private String[] expectedResponses = new String[REQUEST_PATHS.length];
+
+	@Before
+	public void initTestObjects() throws Exception {
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated();
+			brjs.io().uninstallFileAccessChecker();
+			app = brjs.app("app1");
+			aspect = app.aspect("default");
+			modificationRegistry = brjs.getFileModificationRegistry();
+
+		String[] classNames = new String[CLASS_COUNT];
+		for (int i = 0; i < CLASS_COUNT; i++) {
+			classNames[i] = "appns/Class" + i;
+		}
+		given(aspect).hasClasses(classNames)
+			.and(aspect).indexPageRequires(classNames);
+		for (int i = 1; i < CLASS_COUNT; i++) {
+			given(aspect).classRequires("appns/Class" + (i - 1), "./Class" + i);
+		}
+
+		for (int i = 0; i < REQUEST_PATHS.length; i++) {
+			expectedResponses[i] = request(REQUEST_PATHS[i]);
+		}
+	}
+
+	@Test
+	public void bundleRequestsCanBeServedConcurrentlyWhileFilesAreBeingModified() throws Exception {
+		int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+		for (int threadCount = 1; threadCount <= maxThreads; threadCount *= 2) {
+			long startTime = System.currentTimeMillis();
+			int requestCount = runRequests(threadCount);
+			long duration = Math.max(1, System.currentTimeMillis() - startTime);
+			System.out.println(threadCount + " thread(s): " + requestCount + " requests in " + duration + " ms (" + (requestCount * 1000 / duration) + " requests/s)");
+		}
+	}
+
+	private int runRequests(int threadCount) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount + 1);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < threadCount; t++) {
+				final int threadNumber = t;
+				results.add( executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						for (int r = 0; r < REQUESTS_PER_THREAD; r++) {
+							int requestIndex = (threadNumber + r) % REQUEST_PATHS.length;
+							modificationRegistry.lockForReading();
+							try {
+								assertEquals(expectedResponses[requestIndex], request(REQUEST_PATHS[requestIndex]));
+							}
+							finally {
+								modificationRegistry.unlockForReading();
+							}
+						}
+						return REQUESTS_PER_THREAD;
+					}
+				}) );
+			}
+
+			Future<?> invalidator = executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					for (int i = 0; i < 10; i++) {
+						modificationRegistry.incrementFileVersion(aspect.file("src/appns/Class" + (i % CLASS_COUNT) + ".js"));
+						Thread.sleep(5);
+					}
+					return null;
+				}
+			});
+
+			int requestCount = 0;
+			for (Future<Integer> result : results) {
+				requestCount += result.get();
+			}
+			invalidator.get();
+			return requestCount;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String request(String requestPath) throws Exception {
+		try (ResponseContent content = aspect.handleLogicalRequest(requestPath, new StaticContentAccessor(app), brjs.getAppVersionGenerator().getVersion())) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			content.write(output);
+			return output.toString(BladerunnerConf.OUTPUT_ENCODING);
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.bladerunnerjs.spec;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.BladerunnerConf;
+import org.bladerunnerjs.api.plugin.ResponseContent;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.model.StaticContentAccessor;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Times the first bundle request made by a newly created model when the persistent dependency cache is empty (a cold start) and when it was
+ * populated by a previous model (a warm start), printing the timings for each.
+ */
+public class DependencyCacheStartupTest extends SpecTest
+{
+	private static final int CLASS_COUNT = 500;
+	private static final String REQUEST_PATH = "js/dev/combined/bundle.js";
+
+	@Before
+	public void initTestObjects() throws Exception {
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated();
+			brjs.io().uninstallFileAccessChecker();
+		Aspect aspect = brjs.app("app1").aspect("default");
+
+		String[] classNames = new String[CLASS_COUNT];
+		for (int i = 0; i < CLASS_COUNT; i++) {
+			classNames[i] = "appns/Class" + i;
+		}
+		given(aspect).hasClasses(classNames)
+			.and(aspect).indexPageRequires(classNames);
+		for (int i = 1; i < CLASS_COUNT; i++) {
+			given(aspect).classRequires("appns/Class" + (i - 1), "./Class" + i);
+		}
+	}
+
+	@Test
+	public void aModelCreatedWithAPopulatedDependencyCacheStartsFasterThanOneWithAnEmptyCache() throws Exception {
+		brjs.close();
+		brjs.storageFile("dependency-cache", "dependencies.cache").delete();
+
+		brjs = createModel();
+		brjs.io().uninstallFileAccessChecker();
+		long startTime = System.currentTimeMillis();
+		String coldResponse = request(brjs);
+		System.out.println("Cold start: " + (System.currentTimeMillis() - startTime) + " ms");
+		brjs.close();
+
+		brjs = createModel();
+		brjs.io().uninstallFileAccessChecker();
+		startTime = System.currentTimeMillis();
+		String warmResponse = request(brjs);
+		System.out.println("Warm start: " + (System.currentTimeMillis() - startTime) + " ms");
+
+		assertEquals(coldResponse, warmResponse);
+	}
+
+	private String request(BRJS brjs) throws Exception {
+		App app = brjs.app("app1");
+		try (ResponseContent content = app.aspect("default").handleLogicalRequest(REQUEST_PATH, new StaticContentAccessor(app), brjs.getAppVersionGenerator().getVersion())) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			content.write(output);
+			return output.toString(BladerunnerConf.OUTPUT_ENCODING);
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.bladerunnerjs.spec;
+
+import static org.junit.Assert.*;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.utility.AppRequestHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Times routing a realistic mix of requests, as the dev servlet filter does for every request it receives, printing the timings for each round.
+ */
+public class RequestRoutingPerformanceTest extends SpecTest
+{
+	private static final int ROUNDS = 5;
+	private static final int REQUESTS_PER_ROUND = 100000;
+
+	private static final String[] REQUEST_MIX = new String[] {
+		"",
+		"en/",
+		"mobile/",
+		"mobile/en_GB/",
+		"v/dev/js/dev/combined/bundle.js",
+		"v/dev/css/standard/bundle.css",
+		"v/dev/cssresource/aspect_default/theme_standard/images/icons/toolbar/large/save.png",
+		"mobile/v/dev/i18n/en_GB.js",
+		"bs/b1/workbench/",
+		"bs/b1/workbench/en/",
+		"bs/b1/workbench/v/dev/js/dev/combined/bundle.js",
+		"servlet/some:thing",
+		"unbundled-resources/some/deeply/nested/path/to/a/resource/file.txt"
+	};
+
+	private App app;
+
+	@Before
+	public void initTestObjects() throws Exception {
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated()
+			.and(brjs).hasVersion("dev");
+			brjs.io().uninstallFileAccessChecker();
+		app = brjs.app("app1");
+		given(app).hasBeenCreated()
+			.and(app.appConf()).supportsLocales("en", "en_GB")
+			.and(app.aspect("default")).hasBeenCreated()
+			.and(app.aspect("mobile")).hasBeenCreated()
+			.and(app.bladeset("bs").blade("b1")).hasBeenCreated();
+	}
+
+	@Test
+	public void routingARequestDoesntDependOnHowManyRequestFormsItDoesntMatch() throws Exception {
+		AppRequestHandler requestHandler = app.requestHandler();
+		int handledRequests = 0;
+
+		for (int round = 0; round < ROUNDS; round++) {
+			long startTime = System.currentTimeMillis();
+			for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+				if (requestHandler.canHandleLogicalRequest(REQUEST_MIX[i % REQUEST_MIX.length])) {
+					handledRequests++;
+				}
+			}
+			System.out.println("Routed " + REQUESTS_PER_ROUND + " requests in " + (System.currentTimeMillis() - startTime) + " ms");
+		}
+
+		assertTrue(handledRequests > 0);
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.bladerunnerjs.utility;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.bladerunnerjs.appserver.util.TokenFinder;
+import org.bladerunnerjs.appserver.util.TokenReplacementException;
+import org.bladerunnerjs.appserver.util.TokenReplacingReader;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Times tokenising multi-megabyte bundles with the {@link TokenReplacingReader}, alongside the time taken to simply copy the same content, printing
+ * the timings for each so that the overhead of tokenising can be seen.
+ */
+public class TokenReplacingReaderPerformanceTest
+{
+	private static final int[] BUNDLE_SIZES = new int[] { 1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024 };
+	private static final int ITERATIONS = 5;
+	private static final int READ_BUFFER_SIZE = 4096;
+
+	private final TokenFinder tokenFinder = new TokenFinder() {
+		@Override
+		public String findTokenValue(String tokenName) throws TokenReplacementException {
+			return "value-of-" + tokenName;
+		}
+	};
+	private String[] bundles = new String[BUNDLE_SIZES.length];
+
+	@Before
+	public void initTestObjects() throws Exception {
+		for (int b = 0; b < BUNDLE_SIZES.length; b++) {
+			StringBuilder bundle = new StringBuilder(BUNDLE_SIZES[b]);
+			for (int line = 0; bundle.length() < BUNDLE_SIZES[b]; line++) {
+				if (line % 500 == 0) {
+					bundle.append("\tthis.serviceUrl = '@SERVICE.URL@/" + line + "';\n");
+				}
+				else if (line % 50 == 0) {
+					bundle.append("\t// contact me@example.com, or see @see tags in the docs\n");
+				}
+				else {
+					bundle.append("\tthis.m_oValue" + line + " = new appns.package.Class(" + line + ", 'some string content');\n");
+				}
+			}
+			bundles[b] = bundle.toString();
+		}
+	}
+
+	@Test
+	public void tokenisingLargeBundlesIsCloseToTheCostOfCopyingThem() throws Exception {
+		assertTrue(tokenise(bundles[0]).contains("value-of-SERVICE.URL/500"));
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			for (String bundle : bundles) {
+				long startTime = System.nanoTime();
+				copy(new StringReader(bundle));
+				long copyDuration = System.nanoTime() - startTime;
+
+				startTime = System.nanoTime();
+				copy(new TokenReplacingReader("app", tokenFinder, new StringReader(bundle)));
+				long tokenisingDuration = System.nanoTime() - startTime;
+
+				System.out.println("Iteration " + (i + 1) + ", " + (bundle.length() / (1024 * 1024)) + " MB bundle: copying " + (copyDuration / 1000000) +
+					" ms, tokenising " + (tokenisingDuration / 1000000) + " ms");
+			}
+		}
+	}
+
+
+	private String tokenise(String content) throws IOException {
+		StringBuilder tokenisedContent = new StringBuilder();
+		try (Reader reader = new TokenReplacingReader("app", tokenFinder, new StringReader(content))) {
+			char[] buffer = new char[READ_BUFFER_SIZE];
+			int charsRead;
+			while ((charsRead = reader.read(buffer, 0, buffer.length)) != -1) {
+				tokenisedContent.append(buffer, 0, charsRead);
+			}
+		}
+		return tokenisedContent.toString();
+	}
+
+	private void copy(Reader reader) throws IOException {
+		char[] buffer = new char[READ_BUFFER_SIZE];
+		try {
+			while (reader.read(buffer, 0, buffer.length) != -1) {
+				// discard the content, we're only interested in how long it takes to read
+			}
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
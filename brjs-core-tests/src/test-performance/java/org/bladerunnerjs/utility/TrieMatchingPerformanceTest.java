@@ -0,0 +1,173 @@
+package org.bladerunnerjs.utility;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.bladerunnerjs.utility.trie.Trie;
+import org.bladerunnerjs.utility.trie.node.BasicRootTrieNode;
+import org.bladerunnerjs.utility.trie.node.TrieNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the time taken to scan generated source files with the compiled {@link Trie} against the backtracking matcher it replaced, printing
+ * the timings for each so that the two can be compared.
+ */
+public class TrieMatchingPerformanceTest
+{
+	private static final int KEY_COUNT = 2000;
+	private static final int FILE_COUNT = 200;
+	private static final int LINES_PER_FILE = 300;
+	private static final int ITERATIONS = 5;
+	private static final Pattern SOURCE_MODULE_MATCHER_PATTERN = Pattern.compile(".*", Pattern.DOTALL);
+	private static final Pattern QUOTED_SOURCE_MODULE_MATCHER_PATTERN = Pattern.compile("[\"']\\S+[\"']");
+
+	private Trie<String> trie;
+	private BacktrackingTrie<String> backtrackingTrie;
+	private String[] files = new String[FILE_COUNT];
+
+	@Before
+	public void initTestObjects() throws Exception {
+		Random random = new Random(1);
+		String[] keys = new String[KEY_COUNT];
+		trie = new Trie<>( '/', new Character[]{'.', '/'} );
+		backtrackingTrie = new BacktrackingTrie<>( '/', new Character[]{'.', '/'} );
+
+		for (int i = 0; i < KEY_COUNT; i++) {
+			keys[i] = (i % 10 == 0) ? "service" + i : "appns/package" + (i % 50) + "/Class" + i;
+			Pattern matchPattern = keys[i].contains("/") ? SOURCE_MODULE_MATCHER_PATTERN : QUOTED_SOURCE_MODULE_MATCHER_PATTERN;
+			trie.add(keys[i], keys[i], matchPattern);
+			backtrackingTrie.add(keys[i], keys[i], matchPattern);
+		}
+		trie.compile();
+
+		for (int f = 0; f < FILE_COUNT; f++) {
+			StringBuilder content = new StringBuilder();
+			for (int l = 0; l < LINES_PER_FILE; l++) {
+				String key = keys[random.nextInt(KEY_COUNT)];
+				switch (random.nextInt(4)) {
+					case 0:
+						content.append("var Class = require('" + key + "');\n");
+						break;
+					case 1:
+						content.append("\tthis.m_oValue = new " + key.replace('/', '.') + "(appns.package1.Class, 'service');\n");
+						break;
+					default:
+						content.append("\t// some appns.package text and a call to something.else(" + l + ");\n");
+				}
+			}
+			files[f] = content.toString();
+		}
+	}
+
+	@Test
+	public void compiledTrieIsFasterThanTheBacktrackingMatcher() throws Exception {
+		for (String file : files) {
+			assertEquals(backtrackingTrie.getMatches(new StringReader(file)), trie.getMatches(new StringReader(file)));
+		}
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			long startTime = System.nanoTime();
+			for (String file : files) {
+				backtrackingTrie.getMatches(new StringReader(file));
+			}
+			long backtrackingDuration = System.nanoTime() - startTime;
+
+			startTime = System.nanoTime();
+			for (String file : files) {
+				trie.getMatches(new StringReader(file));
+			}
+			long compiledDuration = System.nanoTime() - startTime;
+
+			System.out.println("Iteration " + (i + 1) + ": backtracking matcher " + (backtrackingDuration / 1000000) + " ms, compiled trie " + (compiledDuration / 1000000) + " ms");
+		}
+	}
+
+
+	/* the reader based matcher that Trie used prior to being compiled into an automaton, kept here so the two can be compared */
+	private static class BacktrackingTrie<T>
+	{
+		private static final char[] DELIMETERS = " \t\r\n.,;(){}<>[]+-*/'\"\\".toCharArray();
+
+		private final TrieNode<T> root;
+		private final char primarySeperator;
+		private final List<Character> seperators;
+		private int readAheadLimit = 1;
+
+		BacktrackingTrie(char primarySeperator, Character... seperators) {
+			this.primarySeperator = primarySeperator;
+			this.seperators = Arrays.asList(seperators);
+			root = new BasicRootTrieNode<>(primarySeperator, this.seperators);
+		}
+
+		void add(String key, T value, Pattern matchPattern) {
+			for (Character seperator : seperators) {
+				key = key.replace(seperator, primarySeperator);
+			}
+			TrieNode<T> node = root;
+			for (char character : key.toCharArray()) {
+				node = node.getOrCreateNextNode(character);
+			}
+			node.setValue(value, matchPattern);
+			readAheadLimit = Math.max(readAheadLimit, key.length() + 1);
+		}
+
+		@SuppressWarnings("unchecked")
+		List<T> getMatches(Reader reader) throws IOException {
+			reader = new BufferedReader(reader);
+			List<T> matches = new LinkedList<T>();
+			StringBuilder matchString = new StringBuilder();
+			char[] charAtPointOfFirstMatch = new char[1];
+			TrieNode<T>[] nodes = new TrieNode[] { root, null };
+			int nextChar, prevChar = 0;
+
+			while ((nextChar = reader.read()) != -1) {
+				processChar(matches, charAtPointOfFirstMatch, (char) nextChar, (char) prevChar, nodes, reader, matchString);
+				prevChar = nextChar;
+			}
+			processChar(matches, charAtPointOfFirstMatch, '\n', (char) prevChar, nodes, reader, matchString);
+
+			return matches;
+		}
+
+		private void processChar(List<T> matches, char[] charAtPointOfFirstMatch, char nextChar, char prevChar, TrieNode<T>[] nodes, Reader reader, StringBuilder matchString) throws IOException {
+			if (nodes[0] == root) {
+				reader.mark(readAheadLimit);
+				charAtPointOfFirstMatch[0] = prevChar;
+			}
+
+			nodes[1] = nodes[0];
+			nodes[0] = nodes[0].getNextNode(nextChar);
+
+			if (nodes[0] == null) {
+				T previousValue = nodes[1].getValue();
+				if (previousValue != null && (isDelimiter(prevChar) || isDelimiter(nextChar))) {
+					if (!matches.contains(previousValue) && nodes[1].getMatchPattern().matcher(charAtPointOfFirstMatch[0] + matchString.toString() + nextChar).matches()) {
+						matches.add(previousValue);
+					}
+					reader.mark(readAheadLimit);
+				}
+				nodes[0] = root;
+				reader.reset();
+				matchString.setLength(0);
+			}
+			else {
+				matchString.append(nextChar);
+			}
+		}
+
+		private boolean isDelimiter(char character) {
+			return ArrayUtils.contains(DELIMETERS, character);
+		}
+	}
+}
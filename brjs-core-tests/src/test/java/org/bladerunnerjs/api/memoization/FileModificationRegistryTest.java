@@ -81,6 +81,25 @@ public class FileModificationRegistryTest
 		assertEquals(1, fileModificationRegistry.getFileVersion(secondRootDir));
 	}
 	
+	@Test
+	public void fileVersionsCantBeIncrementedByAThreadThatOnlyHasSharedAccess() throws Exception
+	{
+		fileModificationRegistry.lockForReading();
+		try {
+			fileModificationRegistry.incrementFileVersion(fileInChildDir);
+			fail("an IllegalStateException should have been thrown");
+		}
+		catch (IllegalStateException e) {
+			// expected
+		}
+		finally {
+			fileModificationRegistry.unlockForReading();
+		}
+		
+		fileModificationRegistry.incrementFileVersion(fileInChildDir);
+		assertEquals(1, fileModificationRegistry.getFileVersion(fileInChildDir));
+	}
+	
 	
 	
 	private class MatchFileFilter extends AbstractFileFilter implements IOFileFilter {
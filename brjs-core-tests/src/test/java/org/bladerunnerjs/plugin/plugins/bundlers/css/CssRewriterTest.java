@@ -356,4 +356,24 @@ public class CssRewriterTest extends SpecTest
 		then(response).containsText("background: url('data:image/svg+xml;base64,PD94bWwgd...IiB5Mj0iMTAwJSI);");
 	}
 	
+	@Test
+	public void unterminatedUrlsAreNotRewritten() throws Exception
+	{
+		given(aspect).containsFileWithContents("themes/common/style.css", "background:url(image.png\nbackground:url(image2.png);");
+		when(aspect).requestReceivedInDev("css/common/bundle.css", response);
+		then(response).containsText("background:url(image.png\n")
+			.and(response).containsText("background:url(../../cssresource/aspect_default/theme_common/image2.png);");
+	}
+	
+	@Test
+	public void rewrittenCssIsUpdatedWhenTheStylesheetChanges() throws Exception
+	{
+		given(aspect).containsFileWithContents("themes/common/style.css", "background:url('image1.png');")
+			.and(aspect).hasReceivedRequest("css/common/bundle.css");
+		when(aspect).containsFileWithContents("themes/common/style.css", "background:url('image2.png');")
+			.and(aspect).requestReceivedInDev("css/common/bundle.css", response);
+		then(response).containsText("background:url('../../cssresource/aspect_default/theme_common/image2.png');")
+			.and(response).doesNotContainText("image1.png");
+	}
+	
 }
@@ -67,6 +67,24 @@ public class BladerunnerConfTest extends SpecTest {
 				"   - '*'");
 	}
 	
+	@Test
+	public void minifierThreadsDefaultsToTheNumberOfAvailableProcessors() throws Exception {
+		given(brjs).containsFileWithContents("conf/brjs.conf", "defaultFileCharacterEncoding: UTF-8\njettyPort: 7070");
+		then( String.valueOf(brjs.bladerunnerConf().getMinifierThreads()) ).textEquals( String.valueOf(Runtime.getRuntime().availableProcessors()) );
+	}
+	
+	@Test
+	public void minifierThreadsCanBeConfigured() throws Exception {
+		given(brjs).containsFileWithContents("conf/brjs.conf", "defaultFileCharacterEncoding: UTF-8\njettyPort: 7070\nminifierThreads: 3");
+		then( String.valueOf(brjs.bladerunnerConf().getMinifierThreads()) ).textEquals("3");
+	}
+	
+	@Test
+	public void sourceContentStoreSizeCanBeConfigured() throws Exception {
+		given(brjs).containsFileWithContents("conf/brjs.conf", "defaultFileCharacterEncoding: UTF-8\njettyPort: 7070\nsourceContentStoreSize: 16");
+		then( String.valueOf(brjs.bladerunnerConf().getSourceContentStoreSize()) ).textEquals("16");
+	}
+	
 	@Test
 	public void readingAnEmptyBladerunnerConfWillUseTheDefaultValues() throws Exception {
 		given(brjs).containsEmptyFile("conf/brjs.conf");
@@ -110,6 +128,16 @@ public class BladerunnerConfTest extends SpecTest {
 			unquoted("not a valid character encoding"));
 	}
 	
+	@Test
+	public void jettySettingsCanBeConfigured() throws Exception {
+		given(brjs).containsFileWithContents("conf/brjs.conf", "defaultFileCharacterEncoding: UTF-8\njettyPort: 7070\njettyMaxThreads: 50\njettyMaxQueuedRequests: 100\n" +
+				"jettyHttp2Cleartext: true");
+		then( String.valueOf(brjs.bladerunnerConf().getJettyMaxThreads()) ).textEquals("50");
+		then( String.valueOf(brjs.bladerunnerConf().getJettyMaxQueuedRequests()) ).textEquals("100");
+		then( String.valueOf(brjs.bladerunnerConf().useJettyHttp2Cleartext()) ).textEquals("true");
+		then( String.valueOf(brjs.bladerunnerConf().getJettyAcceptors()) ).textEquals("null");
+	}
+	
 	@Test
 	public void readingAnBladerunnerConfFileWithEmptyValuesWillCauseAnException() throws Exception {
 		given(brjs).containsFileWithContents("conf/brjs.conf", "defaultFileCharacterEncoding: \njettyPort: 7070\nloginRealm: BladeRunnerLoginRealm");
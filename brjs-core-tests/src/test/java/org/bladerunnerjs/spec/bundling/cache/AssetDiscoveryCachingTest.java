@@ -0,0 +1,61 @@
+package org.bladerunnerjs.spec.bundling.cache;
+
+import static org.junit.Assert.*;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.Asset;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.utility.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssetDiscoveryCachingTest extends SpecTest
+{
+	private App app;
+	private Aspect aspect;
+
+	@Before
+	public void initTestObjects() throws Exception
+	{
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated();
+			app = brjs.app("app1");
+			aspect = app.aspect("default");
+		given(aspect).hasClasses("appns/Class1", "appns/pkg/Class2");
+			brjs.io().uninstallFileAccessChecker();
+	}
+
+	@Test
+	public void assetsInUnchangedDirectoriesAreReusedWhenAFileIsAddedToAnotherDirectory() throws Exception {
+		Asset class1 = aspect.asset("appns/Class1");
+		Asset class2 = aspect.asset("appns/pkg/Class2");
+
+		FileUtils.write(aspect, aspect.file("src/appns/pkg/Class3.js"), "module.exports = function() {};");
+
+		assertSame(class1, aspect.asset("appns/Class1"));
+		assertNotSame(class2, aspect.asset("appns/pkg/Class2"));
+		assertNotNull(aspect.asset("appns/pkg/Class3"));
+	}
+
+	@Test
+	public void assetsAreReusedWhenTheContentOfAFileInTheirDirectoryChanges() throws Exception {
+		Asset class2 = aspect.asset("appns/pkg/Class2");
+
+		FileUtils.write(aspect, aspect.file("src/appns/pkg/Class2.js"), "module.exports = function() {}; // changed");
+
+		assertSame(class2, aspect.asset("appns/pkg/Class2"));
+	}
+
+	@Test
+	public void assetsForRemovedFilesAreNoLongerDiscovered() throws Exception {
+		Asset class1 = aspect.asset("appns/Class1");
+
+		FileUtils.deleteQuietly(aspect, aspect.file("src/appns/pkg/Class2.js"));
+
+		assertNull(aspect.asset("appns/pkg/Class2"));
+		assertSame(class1, aspect.asset("appns/Class1"));
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.bladerunnerjs.spec.bundling.cache;
+
+import static org.junit.Assert.*;
+
+import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.Asset;
+import org.bladerunnerjs.api.spec.engine.SpecTest;
+import org.bladerunnerjs.utility.FileUtils;
+import org.bladerunnerjs.utility.trie.Trie;
+import org.bladerunnerjs.utility.trie.TrieFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrieCachingTest extends SpecTest
+{
+	private App app;
+	private Aspect aspect;
+
+	@Before
+	public void initTestObjects() throws Exception
+	{
+		given(brjs).automaticallyFindsBundlerPlugins()
+			.and(brjs).automaticallyFindsMinifierPlugins()
+			.and(brjs).hasBeenCreated();
+			app = brjs.app("app1");
+			aspect = app.aspect("default");
+		given(aspect).hasClasses("appns/Class1", "appns/pkg/Class2");
+			brjs.io().uninstallFileAccessChecker();
+	}
+
+	@Test
+	public void theTrieIsReusedWhileTheScopesAssetsAreUnchanged() throws Exception {
+		Trie<Asset> trie = TrieFactory.getFactoryForAssetContainer(aspect).createTrie();
+
+		FileUtils.write(aspect, aspect.file("src/appns/pkg/Class2.js"), "module.exports = function() {}; // changed");
+
+		assertSame(trie, TrieFactory.getFactoryForAssetContainer(aspect).createTrie());
+	}
+
+	@Test
+	public void theTrieNeverReturnsAssetsThatHaveBeenRecreated() throws Exception {
+		Trie<Asset> trie = TrieFactory.getFactoryForAssetContainer(aspect).createTrie();
+		assertSame(aspect.asset("appns/pkg/Class2"), trie.get("appns/pkg/Class2"));
+
+		// adding a file that isn't a source module leaves the require paths unchanged, but re-creates the assets in its directory
+		FileUtils.write(aspect, aspect.file("src/appns/pkg/readme.txt"), "some notes");
+		Trie<Asset> newTrie = TrieFactory.getFactoryForAssetContainer(aspect).createTrie();
+
+		assertNotSame(trie, newTrie);
+		assertSame(aspect.asset("appns/pkg/Class2"), newTrie.get("appns/pkg/Class2"));
+		assertSame(aspect.asset("appns/Class1"), newTrie.get("appns/Class1"));
+	}
+
+}
@@ -363,6 +363,10 @@ public class App extends AbstractBRJSNode implements NamedNode
 		new StaticAppBuilder().build(this, targetDir);
 	}
 	
+	public void build(MemoizedFile targetDir, boolean incremental) throws ModelOperationException {
+		new StaticAppBuilder(incremental).build(this, targetDir);
+	}
+	
 	public void buildWar(MemoizedFile targetFile) throws ModelOperationException {
 		new WarAppBuilder().build(this, targetFile);
 	}
@@ -16,6 +16,7 @@ import org.bladerunnerjs.api.logging.Logger;
 import org.bladerunnerjs.api.memoization.FileModificationRegistry;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.memoization.MemoizedFileAccessor;
+import org.bladerunnerjs.api.memoization.PersistentDependencyCache;
 import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.api.model.exception.InvalidBundlableNodeException;
 import org.bladerunnerjs.api.model.exception.InvalidSdkDirectoryException;
@@ -25,6 +26,7 @@ import org.bladerunnerjs.api.model.exception.command.CommandOperationException;
 import org.bladerunnerjs.api.model.exception.command.NoSuchCommandException;
 import org.bladerunnerjs.api.model.exception.modelupdate.ModelUpdateException;
 import org.bladerunnerjs.api.model.exception.template.TemplateInstallationException;
+import org.bladerunnerjs.api.plugin.Plugin;
 import org.bladerunnerjs.api.plugin.PluginLocator;
 import org.bladerunnerjs.appserver.BRJSApplicationServer;
 import org.bladerunnerjs.memoization.FileModificationRegistryRootFileFilter;
@@ -48,6 +50,7 @@ import org.bladerunnerjs.utility.LoggerFactory;
 import org.bladerunnerjs.utility.PluginLocatorLogger;
 import org.bladerunnerjs.utility.UserCommandRunner;
 import org.bladerunnerjs.utility.VersionInfo;
+import org.bladerunnerjs.utility.reader.SourceContentStore;
 
 public class BRJS extends AbstractBRJSRootNode
 {
@@ -64,6 +67,8 @@ public class BRJS extends AbstractBRJSRootNode
 		public static final String APPS_DISCOVERED = "%s apps found: %s.";
 		public static final String NO_APPS_DISCOVERED = "No %s apps have been found.";
 		public static final String BRJS_LOCATION = "Your BladerunnerJS installation has been found at '%s'.";
+		public static final String DEPENDENCY_CACHE_NOT_SAVED = "The dependency cache could not be saved: %s";
+		public static final String SOURCE_CONTENT_STORE_STATISTICS = "Source content store: %s.";
 	}
 	
 	private NodeList<App> userApps;
@@ -91,6 +96,8 @@ public class BRJS extends AbstractBRJSRootNode
 	private CommandList commandList;
 	private final AppVersionGenerator appVersionGenerator;
 	private final FileModificationRegistry fileModificationRegistry;
+	private final PersistentDependencyCache dependencyCache;
+	private volatile SourceContentStore sourceContentStore;
 	private FileObserver fileObserver;
 	private final JsStyleAccessor jsStyleAccessor = new JsStyleAccessor(this);
 
@@ -137,6 +144,9 @@ public class BRJS extends AbstractBRJSRootNode
 		{
 			throw new RuntimeException(e);
 		}
+		
+		dependencyCache = new PersistentDependencyCache(storageFile("dependency-cache", "dependencies.cache"));
+		dependencyCache.load();
 	}
 	
 	public MemoizedFile appsFolder() {
@@ -212,9 +222,31 @@ public class BRJS extends AbstractBRJSRootNode
 		if (fileObserver != null) {
 			fileObserver.stop();
 		}
+		if (pluginAccessor != null) {
+			for (Plugin plugin : pluginAccessor.allPlugins()) {
+				plugin.close();
+			}
+		}
+		saveDependencyCache();
+		logSourceContentStoreStatistics();
 		closed  = true;
 	}
 	
+	private void saveDependencyCache() {
+		try {
+			dependencyCache.save();
+		}
+		catch (IOException ex) {
+			logger.warn(Messages.DEPENDENCY_CACHE_NOT_SAVED, ex.getMessage());
+		}
+	}
+	
+	private void logSourceContentStoreStatistics() {
+		if (sourceContentStore != null) {
+			logger.debug(Messages.SOURCE_CONTENT_STORE_STATISTICS, sourceContentStore);
+		}
+	}
+	
 	public BundlableNode locateFirstBundlableAncestorNode(File file) throws InvalidBundlableNodeException
 	{
 		Node node = locateFirstAncestorNode( getMemoizedFile(file), BundlableNode.class);
@@ -427,12 +459,23 @@ public class BRJS extends AbstractBRJSRootNode
 	
 	public int runCommand(String... args) throws NoSuchCommandException, CommandArgumentsException, CommandOperationException
 	{
-		return CommandRunner.run(this, getCommandList(), args);
+		try {
+			return CommandRunner.run(this, getCommandList(), args);
+		}
+		finally {
+			saveDependencyCache(); // so a build's results are kept even if the process isn't closed cleanly
+		}
 	}
 	
 	public int runUserCommand(LogLevelAccessor logLevelAccessor, String... args) throws CommandOperationException
 	{
-		return UserCommandRunner.run(this, getCommandList(), logLevelAccessor, args);
+		try {
+			return UserCommandRunner.run(this, getCommandList(), logLevelAccessor, args);
+		}
+		finally {
+			saveDependencyCache();
+			logSourceContentStoreStatistics();
+		}
 	}
 	
 	public ApplicationServer applicationServer() throws ConfigException
@@ -472,6 +515,28 @@ public class BRJS extends AbstractBRJSRootNode
 		return fileModificationRegistry;
 	}
 	
+	public PersistentDependencyCache getDependencyCache()
+	{
+		return dependencyCache;
+	}
+	
+	public SourceContentStore getSourceContentStore()
+	{
+		if (sourceContentStore == null) {
+			synchronized (this) {
+				if (sourceContentStore == null) {
+					try {
+						sourceContentStore = new SourceContentStore(fileModificationRegistry, bladerunnerConf().getSourceContentStoreSize() * 1024L * 1024L);
+					}
+					catch (ConfigException ex) {
+						throw new RuntimeException(ex);
+					}
+				}
+			}
+		}
+		return sourceContentStore;
+	}
+	
 	@Override
 	public MemoizedFile getMemoizedFile(String filePath)
 	{
@@ -12,6 +12,7 @@ import org.bladerunnerjs.yaml.YamlBladerunnerConf;
 public class BladerunnerConf extends ConfFile<YamlBladerunnerConf> {
 	
 	public static final String OUTPUT_ENCODING = "UTF-8";
+	public static final int DEFAULT_SOURCE_CONTENT_STORE_SIZE = 64;
 	
 	public BladerunnerConf(BRJS brjs) throws ConfigException {
 		super(brjs, YamlBladerunnerConf.class, getConfigFilePath(brjs), "UTF-8");
@@ -73,6 +74,99 @@ public class BladerunnerConf extends ConfFile<YamlBladerunnerConf> {
 		verify();
 	}
 	
+	public int getMinifierThreads() throws ConfigException {
+		Integer minifierThreads = getConf().minifierThreads;
+		return (minifierThreads == null) ? Runtime.getRuntime().availableProcessors() : minifierThreads;
+	}
+	
+	public void setMinifierThreads(int minifierThreads) throws ConfigException {
+		getConf().minifierThreads = minifierThreads;
+		verify();
+	}
+	
+	public int getSourceContentStoreSize() throws ConfigException {
+		Integer sourceContentStoreSize = getConf().sourceContentStoreSize;
+		return (sourceContentStoreSize == null) ? DEFAULT_SOURCE_CONTENT_STORE_SIZE : sourceContentStoreSize;
+	}
+	
+	public void setSourceContentStoreSize(int sourceContentStoreSize) throws ConfigException {
+		getConf().sourceContentStoreSize = sourceContentStoreSize;
+		verify();
+	}
+	
+	public Integer getJettyAcceptors() throws ConfigException {
+		return getConf().jettyAcceptors;
+	}
+	
+	public void setJettyAcceptors(Integer jettyAcceptors) throws ConfigException {
+		getConf().jettyAcceptors = jettyAcceptors;
+		verify();
+	}
+	
+	public Integer getJettySelectors() throws ConfigException {
+		return getConf().jettySelectors;
+	}
+	
+	public void setJettySelectors(Integer jettySelectors) throws ConfigException {
+		getConf().jettySelectors = jettySelectors;
+		verify();
+	}
+	
+	public Integer getJettyMinThreads() throws ConfigException {
+		return getConf().jettyMinThreads;
+	}
+	
+	public void setJettyMinThreads(Integer jettyMinThreads) throws ConfigException {
+		getConf().jettyMinThreads = jettyMinThreads;
+		verify();
+	}
+	
+	public Integer getJettyMaxThreads() throws ConfigException {
+		return getConf().jettyMaxThreads;
+	}
+	
+	public void setJettyMaxThreads(Integer jettyMaxThreads) throws ConfigException {
+		getConf().jettyMaxThreads = jettyMaxThreads;
+		verify();
+	}
+	
+	public Integer getJettyMaxQueuedRequests() throws ConfigException {
+		return getConf().jettyMaxQueuedRequests;
+	}
+	
+	public void setJettyMaxQueuedRequests(Integer jettyMaxQueuedRequests) throws ConfigException {
+		getConf().jettyMaxQueuedRequests = jettyMaxQueuedRequests;
+		verify();
+	}
+	
+	public Integer getJettyIdleTimeout() throws ConfigException {
+		return getConf().jettyIdleTimeout;
+	}
+	
+	public void setJettyIdleTimeout(Integer jettyIdleTimeout) throws ConfigException {
+		getConf().jettyIdleTimeout = jettyIdleTimeout;
+		verify();
+	}
+	
+	public Integer getJettyOutputBufferSize() throws ConfigException {
+		return getConf().jettyOutputBufferSize;
+	}
+	
+	public void setJettyOutputBufferSize(Integer jettyOutputBufferSize) throws ConfigException {
+		getConf().jettyOutputBufferSize = jettyOutputBufferSize;
+		verify();
+	}
+	
+	public boolean useJettyHttp2Cleartext() throws ConfigException {
+		Boolean jettyHttp2Cleartext = getConf().jettyHttp2Cleartext;
+		return (jettyHttp2Cleartext == null) ? false : jettyHttp2Cleartext;
+	}
+	
+	public void setUseJettyHttp2Cleartext(boolean jettyHttp2Cleartext) throws ConfigException {
+		getConf().jettyHttp2Cleartext = jettyHttp2Cleartext;
+		verify();
+	}
+	
 	public String getFileObserverValue() throws ConfigException {
 		return getConf().fileObserver;
 	}
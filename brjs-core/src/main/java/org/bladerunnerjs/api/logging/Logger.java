@@ -6,6 +6,9 @@ package org.bladerunnerjs.api.logging;
  * 
  * {@link Logger#error}, {@link Logger#warn}, {@link Logger#info} &amp; {@link Logger#debug} all correspond to the various log levels that can be configured and are output using a logging framework.
  * {@link Logger#println} &amp; {@link Logger#console} both log directly to {@link System#err}. 
+ * 
+ * Each log level also has overloads for up to three parameters so that no parameter array needs to be allocated for messages at levels which aren't
+ * enabled, and an <code>is...Enabled()</code> method that should be used to guard any messages whose parameters are expensive to create.
  *
  */
 public interface Logger
@@ -19,4 +22,84 @@ public interface Logger
 	
 	public void println(String message, Object... params);
 	public void console(String message, Object... params);
+	
+	public default boolean isErrorEnabled() {
+		return true;
+	}
+	
+	public default boolean isWarnEnabled() {
+		return true;
+	}
+	
+	public default boolean isInfoEnabled() {
+		return true;
+	}
+	
+	public default boolean isDebugEnabled() {
+		return true;
+	}
+	
+	public default void error(String message) {
+		error(message, new Object[0]);
+	}
+	
+	public default void error(String message, Object param1) {
+		error(message, new Object[] { param1 });
+	}
+	
+	public default void error(String message, Object param1, Object param2) {
+		error(message, new Object[] { param1, param2 });
+	}
+	
+	public default void error(String message, Object param1, Object param2, Object param3) {
+		error(message, new Object[] { param1, param2, param3 });
+	}
+	
+	public default void warn(String message) {
+		warn(message, new Object[0]);
+	}
+	
+	public default void warn(String message, Object param1) {
+		warn(message, new Object[] { param1 });
+	}
+	
+	public default void warn(String message, Object param1, Object param2) {
+		warn(message, new Object[] { param1, param2 });
+	}
+	
+	public default void warn(String message, Object param1, Object param2, Object param3) {
+		warn(message, new Object[] { param1, param2, param3 });
+	}
+	
+	public default void info(String message) {
+		info(message, new Object[0]);
+	}
+	
+	public default void info(String message, Object param1) {
+		info(message, new Object[] { param1 });
+	}
+	
+	public default void info(String message, Object param1, Object param2) {
+		info(message, new Object[] { param1, param2 });
+	}
+	
+	public default void info(String message, Object param1, Object param2, Object param3) {
+		info(message, new Object[] { param1, param2, param3 });
+	}
+	
+	public default void debug(String message) {
+		debug(message, new Object[0]);
+	}
+	
+	public default void debug(String message, Object param1) {
+		debug(message, new Object[] { param1 });
+	}
+	
+	public default void debug(String message, Object param1, Object param2) {
+		debug(message, new Object[] { param1, param2 });
+	}
+	
+	public default void debug(String message, Object param1, Object param2, Object param3) {
+		debug(message, new Object[] { param1, param2, param3 });
+	}
 }
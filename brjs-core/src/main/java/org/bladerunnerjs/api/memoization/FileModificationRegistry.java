@@ -5,12 +5,11 @@ import java.io.FileFilter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.io.filefilter.AndFileFilter;
 import org.apache.commons.io.filefilter.DelegateFileFilter;
@@ -21,6 +20,10 @@ import org.bladerunnerjs.model.engine.RootNode;
 /**
  * The {@link FileModificationRegistry} tracks the 'version' of files. It's used by {@link MemoizedFile} and {@link MemoizedValue} to determine whether
  * or not a value needs to be re-calculated based on if any dependent files need to change.
+ * 
+ * The registry also owns the model access lock. Any number of readers (e.g. concurrent bundle requests) can hold the read lock at once and
+ * will see a stable set of file versions, while incrementing file versions is an exclusive operation that waits for in-flight readers to finish.
+ * Looking up a file's version doesn't require either lock, and versions are incremented atomically.
  *
  */
 @SuppressWarnings("unused")
@@ -29,6 +32,7 @@ public class FileModificationRegistry
 	private Map<String,FileVersion> lastModifiedMap = new ConcurrentHashMap<>();
 	private FileFilter rootFileFilter;
 	private FileFilter globalFileFilter;
+	private final ReentrantReadWriteLock modelAccessLock = new ReentrantReadWriteLock();
 
 	public FileModificationRegistry(FileFilter rootFileFilter, FileFilter globalFileFilter) {
 		this.rootFileFilter = rootFileFilter;
@@ -44,10 +48,16 @@ public class FileModificationRegistry
 	}
 	
 	public void incrementFileVersion(File file) {
-		if (globalFileFilter.accept(file)) {
-			incrementAllFileVersions();
-		} else {
-			incrementFileAndParentVersion(file);
+		lockForWriting();
+		try {
+			if (globalFileFilter.accept(file)) {
+				incrementAllFileVersions();
+			} else {
+				incrementFileAndParentVersion(file);
+			}
+		}
+		finally {
+			unlockForWriting();
 		}
 	}
 	
@@ -56,23 +66,63 @@ public class FileModificationRegistry
 			file = new File(file.getAbsolutePath()); // create a standard file so listFiles() isnt cached
 		}
 		
-		incrementFileVersion(file);
-		
-		String filePath = file.getAbsolutePath();
-		Set<String> lastModifiedMapKeySet = new LinkedHashSet<>( lastModifiedMap.keySet() ); // copy the set to prevent concurrent modified exceptions
-		for (String path : lastModifiedMapKeySet) {
-			if (path.startsWith(filePath)) {
-				lastModifiedMap.get(path).incrementValue();
+		lockForWriting();
+		try {
+			incrementFileVersion(file);
+			
+			String filePath = file.getAbsolutePath();
+			for (Map.Entry<String,FileVersion> entry : lastModifiedMap.entrySet()) { // the map's iterators are weakly consistent so there's no need to copy it first
+				if (entry.getKey().startsWith(filePath)) {
+					entry.getValue().incrementValue();
+				}
 			}
 		}
+		finally {
+			unlockForWriting();
+		}
 	}
 	
 	public void incrementAllFileVersions() {
-		for (FileVersion version : lastModifiedMap.values()) {
-			version.incrementValue();
+		lockForWriting();
+		try {
+			for (FileVersion version : lastModifiedMap.values()) {
+				version.incrementValue();
+			}
+		}
+		finally {
+			unlockForWriting();
 		}
 	}
 	
+	/**
+	 * Acquires shared access to the model. Many threads can hold shared access at the same time, and file versions will not change until
+	 * every reader has called {@link #unlockForReading()}.
+	 */
+	public void lockForReading() {
+		modelAccessLock.readLock().lock();
+	}
+	
+	public void unlockForReading() {
+		modelAccessLock.readLock().unlock();
+	}
+	
+	/**
+	 * Acquires exclusive access to the model, waiting for any readers to release their shared access first.
+	 * 
+	 * A {@link ReentrantReadWriteLock} can't be upgraded, so a thread that holds shared access must release it before modifying the model
+	 * (e.g. by writing files after its content has been generated) otherwise an {@link IllegalStateException} is thrown rather than deadlocking.
+	 */
+	public void lockForWriting() {
+		if (modelAccessLock.getReadHoldCount() > 0 && !modelAccessLock.isWriteLockedByCurrentThread()) {
+			throw new IllegalStateException("The model can't be modified by a thread that only has shared access to it, release the shared access first.");
+		}
+		modelAccessLock.writeLock().lock();
+	}
+	
+	public void unlockForWriting() {
+		modelAccessLock.writeLock().unlock();
+	}
+	
 	private void incrementFileAndParentVersion(File file)  {
 		File nextFile = file;
 		do {
@@ -90,14 +140,11 @@ public class FileModificationRegistry
 		return getOrCreateVersionValue( file.getAbsolutePath() );
 	}
 	
-	private synchronized FileVersion getOrCreateVersionValue(String filePath)
+	private FileVersion getOrCreateVersionValue(String filePath)
 	{
-		FileVersion version;
-		if (!lastModifiedMap.containsKey(filePath)) {
-			version = new FileVersion();
-			lastModifiedMap.put(filePath, version);
-		} else {
-			version = lastModifiedMap.get(filePath);
+		FileVersion version = lastModifiedMap.get(filePath);
+		if (version == null) {
+			version = lastModifiedMap.computeIfAbsent(filePath, (path) -> new FileVersion());
 		}
 		return version;
 	}
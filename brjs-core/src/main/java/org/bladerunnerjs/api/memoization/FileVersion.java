@@ -1,16 +1,18 @@
 package org.bladerunnerjs.api.memoization;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 
 public class FileVersion
 {
-	private long value = Long.valueOf(0);
+	private final AtomicLong value = new AtomicLong();
 	
 	long getValue() {
-		return value;
+		return value.get();
 	}
 	
 	void incrementValue() {
-		value++;
+		value.incrementAndGet();
 	}
 	
 }
@@ -2,8 +2,10 @@ package org.bladerunnerjs.api.memoization;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -217,6 +219,22 @@ public class MemoizedFile extends File implements Comparable<File>
 		return wrappedFile;
 	}
 	
+	/**
+	 * Records that this file is being read, so that the read can be checked against the files watched by any value currently being memoized.
+	 */
+	public void recordRead()
+	{
+		rootNode.io().recordRead(wrappedFile);
+	}
+	
+	/**
+	 * Records that this file is being read, as {@link #recordRead} does, and opens it.
+	 */
+	public InputStream openForReading() throws FileNotFoundException
+	{
+		return rootNode.io().openForReading(wrappedFile);
+	}
+	
 	public String getRelativePath(MemoizedFile childFile) {
 		return MemoizedFileRelativePathUtility.getRelativePath(this, childFile);
 	}
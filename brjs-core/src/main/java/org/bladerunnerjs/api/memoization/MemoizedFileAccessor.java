@@ -2,7 +2,7 @@ package org.bladerunnerjs.api.memoization;
 
 import java.io.File;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
 import org.bladerunnerjs.model.engine.RootNode;
@@ -11,7 +11,7 @@ import org.bladerunnerjs.model.engine.RootNode;
 public class MemoizedFileAccessor
 {
 
-	private Map<String,MemoizedFile> memoizedFileMap = new TreeMap<>();
+	private Map<String,MemoizedFile> memoizedFileMap = new ConcurrentHashMap<>();
 	private RootNode rootNode;
 	
 	public MemoizedFileAccessor(RootNode rootNode) {
@@ -21,19 +21,19 @@ public class MemoizedFileAccessor
 	public MemoizedFile getMemoizedFile(File file) {
 		if (file == null) return null;
 		
-		MemoizedFile memoizedFile;
 		if (file instanceof MemoizedFile) {
-			memoizedFile = (MemoizedFile) file;
-			if (!memoizedFileMap.containsKey(memoizedFile.getAbsolutePath())) {
-				memoizedFileMap.put( memoizedFile.getAbsolutePath(), memoizedFile );
-			}
-		} else {
-			String pathKey = FilenameUtils.normalize( file.getAbsolutePath() );
-			if (memoizedFileMap.containsKey(pathKey)) {
-				memoizedFile = memoizedFileMap.get(pathKey);
-			} else {
-				memoizedFile = new MemoizedFile(rootNode, pathKey);
-				memoizedFileMap.put(pathKey, memoizedFile);
+			MemoizedFile memoizedFile = (MemoizedFile) file;
+			memoizedFileMap.putIfAbsent( memoizedFile.getAbsolutePath(), memoizedFile );
+			return memoizedFile;
+		}
+		
+		String pathKey = FilenameUtils.normalize( file.getAbsolutePath() );
+		MemoizedFile memoizedFile = memoizedFileMap.get(pathKey);
+		if (memoizedFile == null) {
+			MemoizedFile newMemoizedFile = new MemoizedFile(rootNode, pathKey);
+			memoizedFile = memoizedFileMap.putIfAbsent(pathKey, newMemoizedFile);
+			if (memoizedFile == null) {
+				memoizedFile = newMemoizedFile;
 			}
 		}
 		return memoizedFile;
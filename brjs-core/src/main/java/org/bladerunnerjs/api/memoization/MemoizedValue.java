@@ -3,7 +3,14 @@ package org.bladerunnerjs.api.memoization;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bladerunnerjs.api.logging.Logger;
 import org.bladerunnerjs.model.FileAccessLimitScope;
@@ -21,10 +28,14 @@ public class MemoizedValue<T extends Object> {
 	public static final String RECALCULATING_VALUE_MSG = "Recalculating memoized value for '%s'";
 	public static final String USING_MEMOIZED_VALUE_MSG = "Using memoized value for '%s' as no files have changed";
 	
-	private final List<FileModifiedChecker> watchList = new ArrayList<>();
+	private static final Map<Thread, MemoizedValue<?>.Computation> awaitedComputations = new ConcurrentHashMap<>();
+	
 	private final File[] watchItems;
-	private boolean exceptionThrownOnLastCompute;
-	private T value;
+	private final FileModificationRegistry fileModificationRegistry;
+	private final AtomicLong invalidationCount = new AtomicLong();
+	private final Object computeLock = new Object();
+	private volatile ComputedValue computedValue;
+	private Computation pendingComputation;
 	private final RootNode rootNode;
 	private final String valueIdentifier;
 	private Logger logger;
@@ -46,14 +57,8 @@ public class MemoizedValue<T extends Object> {
 			throw new IllegalStateException("At least one directory or file must be provided within the watch list.");
 		}
 		
-		FileModificationRegistry fileModificationRegistry = rootNode.getFileModificationRegistry();
-		
-		List<File> watchItemsList = new ArrayList<>();
-		for(File file : watchItems) {
-			watchList.add( new FileModifiedChecker(fileModificationRegistry, rootNode, file));				
-			watchItemsList.add( file );
-		}
-		this.watchItems = watchItemsList.toArray(new File[0]);
+		fileModificationRegistry = rootNode.getFileModificationRegistry();
+		this.watchItems = new ArrayList<>(watchItems).toArray(new File[0]);
 		logger = rootNode.logger(this.getClass());
 	}
 	
@@ -72,41 +77,182 @@ public class MemoizedValue<T extends Object> {
 	 * 
 	 * Be aware that using Lambdas is only supported in Java8.
 	 * 
+	 * Reading a value that's still valid doesn't take any locks. If the value needs to be recomputed only one thread computes it, and any other
+	 * threads requesting the value at the same time wait for that computation rather than repeating it. No lock is held while the getter runs,
+	 * and a thread that requests the value from within its own computation of it, directly or via other threads, computes it again rather than
+	 * waiting for itself.
+	 * 
 	 * @param <E> the type of exception
 	 * @param getter The getter used to calculate the value
 	 * @return The calculated value
 	 * @throws E for any exception
 	 */
-	@SuppressWarnings({ "unchecked", "javadoc" })
+	@SuppressWarnings("javadoc")
 	public <E extends Exception> T value(Getter<E> getter) throws E {
-		if (valueNeedsToBeRecomputed()) {
-			
-			logger.debug(RECALCULATING_VALUE_MSG, valueIdentifier);
+		ComputedValue currentValue = computedValue;
+		if (currentValue != null && currentValue.isUpToDate()) {
+			logger.debug(USING_MEMOIZED_VALUE_MSG, valueIdentifier);
+			return currentValue.value;
+		}
+		
+		Computation computation;
+		boolean computeOnThisThread = false;
+		synchronized (computeLock) {
+			currentValue = computedValue;
+			if (currentValue != null && currentValue.isUpToDate()) {
+				logger.debug(USING_MEMOIZED_VALUE_MSG, valueIdentifier);
+				return currentValue.value;
+			}
 			
-			try (FileAccessLimitScope scope = rootNode.io().limitAccessToWithin(valueIdentifier, watchItems)) {
-				exceptionThrownOnLastCompute = false;
-				value = (T) getter.get();
+			computation = pendingComputation;
+			if (computation == null) {
+				logger.debug(RECALCULATING_VALUE_MSG, valueIdentifier);
+				computation = new Computation(getter);
+				pendingComputation = computation;
+				computeOnThisThread = true;
 			}
-			catch(Throwable e) {
-				exceptionThrownOnLastCompute = true;
-				throw e;
+		}
+		
+		// the getter is run without holding the lock, so a getter that blocks on another lock or memoized value can't leave this one locked
+		if (computeOnThisThread) {
+			try {
+				computation.run();
 			}
-		} else {
-			logger.debug(USING_MEMOIZED_VALUE_MSG, valueIdentifier);
+			finally {
+				synchronized (computeLock) {
+					pendingComputation = null;
+				}
+			}
+			return computationResult(computation);
+		}
+		return awaitComputation(computation, getter);
+	}
+	
+	/**
+	 * Forces the value to be recomputed the next time it is accessed. This is for values that depend on other in-memory state as well as the
+	 * files in their watch list, where that state is cheaper to compare than to watch a wider set of files. 
+	 */
+	public void invalidate() {
+		invalidationCount.incrementAndGet();
+	}
+	
+	
+	/*
+	 * Waits for the given computation to complete, unless the thread running it is itself waiting, directly or via other computations, for one
+	 * being run by this thread, in which case waiting would deadlock and the value is computed again on this thread without being stored. This
+	 * thread is registered as waiting before the check is made, so that of any two threads that would wait for each other, at least one sees it.
+	 */
+	private <E extends Exception> T awaitComputation(Computation computation, Getter<E> getter) throws E {
+		Thread currentThread = Thread.currentThread();
+		awaitedComputations.put(currentThread, computation);
+		try {
+			if (waitingWouldDeadlock(computation)) {
+				awaitedComputations.remove(currentThread);
+				return compute(getter);
+			}
+			return computationResult(computation);
+		}
+		finally {
+			awaitedComputations.remove(currentThread);
 		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <E extends Exception> T computationResult(Computation computation) throws E {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return computation.get();
+				}
+				catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw (E) cause;
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	private static boolean waitingWouldDeadlock(MemoizedValue<?>.Computation computation) {
+		Thread currentThread = Thread.currentThread();
+		Set<Thread> visitedThreads = new HashSet<>();
+		MemoizedValue<?>.Computation awaitedComputation = computation;
+		while (awaitedComputation != null && visitedThreads.add(awaitedComputation.computingThread)) {
+			if (awaitedComputation.computingThread == currentThread) {
+				return true;
+			}
+			awaitedComputation = awaitedComputations.get(awaitedComputation.computingThread);
+		}
+		return false;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <E extends Exception> T compute(Getter<E> getter) throws E {
+		try (FileAccessLimitScope scope = rootNode.io().limitAccessToWithin(valueIdentifier, watchItems)) {
+			return (T) getter.get();
+		}
+	}
+	
+	/* a computation of the value that other threads can wait on, which stores the value it computes once it's complete */
+	private class Computation extends FutureTask<T> {
+		private final Thread computingThread = Thread.currentThread();
 		
-		return value;
+		public <E extends Exception> Computation(Getter<E> getter) {
+			super(() -> {
+				// the versions are read before computing so that any change made while the value is being computed causes it to be computed again
+				long computedInvalidationCount = invalidationCount.get();
+				FileVersion[] fileVersions = new FileVersion[watchItems.length];
+				long[] computedFileVersions = new long[watchItems.length];
+				for (int i = 0; i < watchItems.length; i++) {
+					fileVersions[i] = fileModificationRegistry.getFileVersionObject(watchItems[i]);
+					computedFileVersions[i] = fileVersions[i].getValue();
+				}
+				
+				T value = compute(getter);
+				computedValue = new ComputedValue(value, fileVersions, computedFileVersions, computedInvalidationCount);
+				return value;
+			});
+		}
 	}
 	
-	private boolean valueNeedsToBeRecomputed() {
-		boolean valueNeedsToBeRecomputed = exceptionThrownOnLastCompute;
+	
+	private class ComputedValue {
+		private final T value;
+		private final FileVersion[] fileVersions;
+		private final long[] computedFileVersions;
+		private final long computedInvalidationCount;
 		
-		for(FileModifiedChecker fileModifiedChecker : watchList) {
-			if(fileModifiedChecker.hasChangedSinceLastCheck()) {
-				valueNeedsToBeRecomputed = true;
-			}
+		public ComputedValue(T value, FileVersion[] fileVersions, long[] computedFileVersions, long computedInvalidationCount) {
+			this.value = value;
+			this.fileVersions = fileVersions;
+			this.computedFileVersions = computedFileVersions;
+			this.computedInvalidationCount = computedInvalidationCount;
 		}
 		
-		return valueNeedsToBeRecomputed;
+		public boolean isUpToDate() {
+			if (invalidationCount.get() != computedInvalidationCount) {
+				return false;
+			}
+			for (int i = 0; i < fileVersions.length; i++) {
+				if (fileVersions[i].getValue() != computedFileVersions[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
 	}
 }
@@ -0,0 +1,336 @@
+package org.bladerunnerjs.api.memoization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link PersistentDependencyCache} stores the results of parsing source files (e.g. the require paths a source module uses) on disk so that they
+ * survive between runs. {@link MemoizedValue} only caches values for the lifetime of the model, whereas this cache allows a new model to skip re-parsing
+ * any files that haven't changed since the cache was last saved.
+ *
+ * Entries are keyed by a name chosen by the caller and are only valid while each of the input files has the same path, size and either the same
+ * last modified time or the same content hash as when the entry was stored. Callers can also provide a version string that must match, for
+ * anything other than the input files that the stored values depend on.
+ *
+ * A file's last modified time is only relied upon if it's older than the moment the file was stamped (or the cache was saved, for stamps that have
+ * been loaded) by more than the file system's timestamp granularity, since otherwise the file could have been changed again within the same tick
+ * without its modification time changing. The content of any such file is hashed instead.
+ *
+ * The cache is saved when {@link #save()} is called, and also whenever entries are stored once the save interval has elapsed since the
+ * last save, so that long running processes such as the development server don't only persist their results when they are shut down.
+ */
+public class PersistentDependencyCache
+{
+	private static final int CACHE_FORMAT_VERSION = 2;
+	private static final long MODIFICATION_TIME_GRANULARITY = 2000;
+	private static final long DEFAULT_SAVE_INTERVAL = 60000;
+
+	private final File cacheFile;
+	private final long saveInterval;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile boolean modified = false;
+	private volatile long lastSaveTime = System.currentTimeMillis();
+
+	public PersistentDependencyCache(File cacheFile) {
+		this(cacheFile, DEFAULT_SAVE_INTERVAL);
+	}
+
+	public PersistentDependencyCache(File cacheFile, long saveInterval) {
+		this.cacheFile = cacheFile;
+		this.saveInterval = saveInterval;
+	}
+
+	/**
+	 * Loads any previously saved entries, discarding the cache file if it can't be read.
+	 */
+	public void load() {
+		entries.clear();
+		if (!cacheFile.isFile()) {
+			return;
+		}
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (input.readInt() != CACHE_FORMAT_VERSION) {
+				return;
+			}
+
+			long savedAt = input.readLong();
+			int entryCount = input.readInt();
+			for (int i = 0; i < entryCount; i++) {
+				String key = input.readUTF();
+				entries.put(key, Entry.read(input, savedAt));
+			}
+		}
+		catch (IOException ex) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Writes the cache to disk if any entries have been stored since it was loaded. Entries whose primary input file no longer exists are dropped.
+	 */
+	public synchronized void save() throws IOException {
+		lastSaveTime = System.currentTimeMillis();
+		if (!modified) {
+			return;
+		}
+		// cleared before the entries are written so that any entries stored while saving are written by the next save
+		modified = false;
+
+		Map<String, Entry> liveEntries = new LinkedHashMap<>();
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			if (new File(entry.getValue().inputFiles[0].path).exists()) {
+				liveEntries.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		cacheFile.getParentFile().mkdirs();
+		File tempCacheFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempCacheFile)))) {
+			output.writeInt(CACHE_FORMAT_VERSION);
+			output.writeLong(lastSaveTime);
+			output.writeInt(liveEntries.size());
+			for (Map.Entry<String, Entry> entry : liveEntries.entrySet()) {
+				output.writeUTF(entry.getKey());
+				entry.getValue().write(output);
+			}
+		}
+
+		cacheFile.delete();
+		if (!tempCacheFile.renameTo(cacheFile)) {
+			modified = true;
+			throw new IOException("Unable to write the dependency cache to '" + cacheFile.getPath() + "'");
+		}
+	}
+
+	/**
+	 * Saves the cache if entries have been stored and the save interval has elapsed since it was last saved.
+	 */
+	public void saveIfDue() throws IOException {
+		if (modified && System.currentTimeMillis() - lastSaveTime >= saveInterval) {
+			save();
+		}
+	}
+
+	/**
+	 * Looks up the entry for the given key. The state of the input files is captured at this point so that the values computed following a miss can be
+	 * stored against the file contents they were computed from.
+	 *
+	 * @param key the key the values are stored against
+	 * @param version a string that must match the version the values were stored with
+	 * @param inputFiles the files the values are derived from, the first of which is the primary file for the entry
+	 */
+	public Lookup lookup(String key, String version, File... inputFiles) {
+		return new Lookup(key, version, inputFiles);
+	}
+
+	public static String hash(String content) {
+		MessageDigest digest = createDigest();
+		digest.update(content.getBytes(StandardCharsets.UTF_8));
+		return toHex(digest.digest());
+	}
+
+	private static String hash(File file) throws IOException {
+		MessageDigest digest = createDigest();
+		byte[] buffer = new byte[8192];
+		try (InputStream input = new FileInputStream(file)) {
+			int bytesRead;
+			while ((bytesRead = input.read(buffer)) != -1) {
+				digest.update(buffer, 0, bytesRead);
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	public class Lookup {
+		private final String key;
+		private final String version;
+		private final FileStamp[] inputFiles;
+		private final Map<String, List<String>> values;
+
+		private Lookup(String key, String version, File[] files) {
+			this.key = key;
+			this.version = version;
+			inputFiles = new FileStamp[files.length];
+
+			Entry entry = entries.get(key);
+			boolean entryValid = entry != null && entry.version.equals(version) && entry.inputFiles.length == files.length;
+			boolean stampsChanged = false;
+			for (int i = 0; i < files.length; i++) {
+				FileStamp storedStamp = (entryValid) ? entry.inputFiles[i] : null;
+				inputFiles[i] = FileStamp.create(files[i], storedStamp);
+				entryValid &= inputFiles[i].equals(storedStamp);
+				stampsChanged |= inputFiles[i] != storedStamp;
+			}
+
+			values = (entryValid) ? entry.values : null;
+			if (entryValid && stampsChanged) {
+				// keep the new stamps so the unchanged content doesn't need to be hashed again next time
+				store(values);
+			}
+		}
+
+		public boolean isHit() {
+			return values != null;
+		}
+
+		public List<String> getValues(String name) {
+			List<String> namedValues = values.get(name);
+			return (namedValues == null) ? Collections.<String>emptyList() : namedValues;
+		}
+
+		public void store(Map<String, List<String>> values) {
+			Map<String, List<String>> storedValues = new LinkedHashMap<>();
+			for (Map.Entry<String, List<String>> namedValues : values.entrySet()) {
+				storedValues.put(namedValues.getKey(), new ArrayList<>(namedValues.getValue()));
+			}
+			entries.put(key, new Entry(version, inputFiles, storedValues));
+			modified = true;
+			try {
+				saveIfDue();
+			}
+			catch (IOException ex) {
+				// the entries will be written by the next save
+			}
+		}
+	}
+
+	private static class Entry {
+		private final String version;
+		private final FileStamp[] inputFiles;
+		private final Map<String, List<String>> values;
+
+		Entry(String version, FileStamp[] inputFiles, Map<String, List<String>> values) {
+			this.version = version;
+			this.inputFiles = inputFiles;
+			this.values = values;
+		}
+
+		static Entry read(DataInputStream input, long savedAt) throws IOException {
+			String version = input.readUTF();
+			FileStamp[] inputFiles = new FileStamp[input.readInt()];
+			for (int i = 0; i < inputFiles.length; i++) {
+				inputFiles[i] = new FileStamp(input.readUTF(), input.readLong(), input.readLong(), input.readUTF(), savedAt);
+			}
+
+			Map<String, List<String>> values = new LinkedHashMap<>();
+			int valueListCount = input.readInt();
+			for (int i = 0; i < valueListCount; i++) {
+				String name = input.readUTF();
+				List<String> namedValues = new ArrayList<>();
+				int valueCount = input.readInt();
+				for (int j = 0; j < valueCount; j++) {
+					namedValues.add(input.readUTF());
+				}
+				values.put(name, namedValues);
+			}
+
+			return new Entry(version, inputFiles, values);
+		}
+
+		void write(DataOutputStream output) throws IOException {
+			output.writeUTF(version);
+			output.writeInt(inputFiles.length);
+			for (FileStamp inputFile : inputFiles) {
+				output.writeUTF(inputFile.path);
+				output.writeLong(inputFile.size);
+				output.writeLong(inputFile.lastModified);
+				output.writeUTF(inputFile.contentHash);
+			}
+
+			output.writeInt(values.size());
+			for (Map.Entry<String, List<String>> namedValues : values.entrySet()) {
+				output.writeUTF(namedValues.getKey());
+				output.writeInt(namedValues.getValue().size());
+				for (String value : namedValues.getValue()) {
+					output.writeUTF(value);
+				}
+			}
+		}
+	}
+
+	private static class FileStamp {
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final String contentHash;
+		private final boolean modificationTimeVerified;
+
+		FileStamp(String path, long size, long lastModified, String contentHash, long stampedAt) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.contentHash = contentHash;
+			modificationTimeVerified = lastModified < stampedAt - MODIFICATION_TIME_GRANULARITY;
+		}
+
+		static FileStamp create(File file, FileStamp storedStamp) {
+			String path = file.getAbsolutePath();
+			long stampedAt = System.currentTimeMillis();
+			if (!file.isFile()) {
+				return (storedStamp != null && storedStamp.path.equals(path) && storedStamp.size == -1) ? storedStamp : new FileStamp(path, -1, 0, "", stampedAt);
+			}
+
+			long size = file.length();
+			long lastModified = file.lastModified();
+			// the content only needs to be hashed if the file might have changed, e.g. when it's been touched or re-checked out
+			if (storedStamp != null && storedStamp.modificationTimeVerified && storedStamp.path.equals(path) && storedStamp.size == size && storedStamp.lastModified == lastModified) {
+				return storedStamp;
+			}
+
+			try {
+				return new FileStamp(path, size, lastModified, hash(file), stampedAt);
+			}
+			catch (IOException ex) {
+				return new FileStamp(path, -1, 0, "", stampedAt);
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof FileStamp)) {
+				return false;
+			}
+			FileStamp stamp = (FileStamp) obj;
+			return path.equals(stamp.path) && size == stamp.size && contentHash.equals(stamp.contentHash);
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode();
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package org.bladerunnerjs.api.plugin;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.bladerunnerjs.api.Asset;
+import org.bladerunnerjs.api.LinkedAsset;
+import org.bladerunnerjs.api.memoization.MemoizedFile;
+
+/**
+ * Holds the assets each {@link DirectoryAssetPlugin} discovered for each directory of an asset container, so that when the container's assets are
+ * re-discovered the existing assets for any directory whose files haven't changed can be re-registered rather than re-created.
+ *
+ * A cache should only be used by one {@link DefaultAssetRegistry} at a time, and {@link #discoveryComplete} must be invoked once each registry has
+ * finished discovering assets so that the entries for directories that no longer exist are dropped.
+ */
+public class AssetDiscoveryCache
+{
+	private Map<String, DirectoryAssets> cachedDirectoryAssets = new HashMap<>();
+	private Map<String, DirectoryAssets> usedDirectoryAssets = new HashMap<>();
+
+	public void discoveryComplete() {
+		cachedDirectoryAssets = usedDirectoryAssets;
+		usedDirectoryAssets = new HashMap<>();
+	}
+
+	DirectoryAssets getReusableDirectoryAssets(String cacheKey, MemoizedFile dir) {
+		DirectoryAssets directoryAssets = cachedDirectoryAssets.get(cacheKey);
+		if (directoryAssets == null || usedDirectoryAssets.containsKey(cacheKey) || !directoryAssets.isUpToDate(dir)) {
+			return null;
+		}
+		return directoryAssets;
+	}
+
+	void put(String cacheKey, DirectoryAssets directoryAssets) {
+		if (!usedDirectoryAssets.containsKey(cacheKey)) {
+			usedDirectoryAssets.put(cacheKey, directoryAssets);
+		}
+	}
+
+	static String cacheKey(AssetPlugin assetPlugin, MemoizedFile dir, String requirePrefix) {
+		return assetPlugin.getPluginClass().getName() + ":" + requirePrefix + ":" + dir.getAbsolutePath();
+	}
+
+
+	static class DirectoryAssets
+	{
+		final ImplicitDependencies implicitDependencies;
+		final List<Asset> assets = new ArrayList<>();
+		final List<LinkedAsset> seedAssets = new ArrayList<>();
+		final List<String> skippedRequirePaths = new ArrayList<>();
+		private final MemoizedFile[] dirFiles;
+		private final Object jsStyle;
+		private boolean reusable = true;
+
+		DirectoryAssets(MemoizedFile dir, List<Asset> implicitDependencies) {
+			this.implicitDependencies = new ImplicitDependencies(implicitDependencies);
+			dirFiles = dir.listFiles();
+			jsStyle = dir.jsStyle();
+		}
+
+		void assetRegistered(Asset asset) {
+			assets.add(asset);
+		}
+
+		void seedAssetRegistered(LinkedAsset asset) {
+			seedAssets.add(asset);
+		}
+
+		void registeredRequirePathSkipped(String requirePath) {
+			skippedRequirePaths.add(requirePath);
+		}
+
+		void preventReuse() {
+			reusable = false;
+		}
+
+		boolean isReusable() {
+			return reusable;
+		}
+
+		void refreshImplicitDependencies(List<Asset> implicitDependencies) {
+			// the assets all share this list, so replacing its contents means they now depend on the newly discovered implicit dependencies, and
+			// since the contents are replaced in a single step, bundling that reads the list at the same time sees either the old or new dependencies
+			this.implicitDependencies.replaceWith(implicitDependencies);
+		}
+
+		private boolean isUpToDate(MemoizedFile dir) {
+			return jsStyle.equals(dir.jsStyle()) && Arrays.equals(dirFiles, dir.listFiles());
+		}
+	}
+
+
+	/**
+	 * The implicit dependencies shared by the assets discovered within a directory. The list holds an immutable snapshot that's replaced as a
+	 * whole whenever it's changed, so readers always see a complete set of dependencies and iterating it never fails because of a concurrent change.
+	 */
+	static class ImplicitDependencies extends AbstractList<Asset>
+	{
+		private volatile List<Asset> dependencies;
+
+		ImplicitDependencies(List<Asset> dependencies) {
+			this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+		}
+
+		synchronized void replaceWith(List<Asset> newDependencies) {
+			dependencies = Collections.unmodifiableList(new ArrayList<>(newDependencies));
+		}
+
+		@Override
+		public synchronized boolean addAll(Collection<? extends Asset> addedDependencies) {
+			List<Asset> newDependencies = new ArrayList<>(dependencies);
+			newDependencies.addAll(addedDependencies);
+			dependencies = Collections.unmodifiableList(newDependencies);
+			return !addedDependencies.isEmpty();
+		}
+
+		@Override
+		public boolean add(Asset addedDependency) {
+			return addAll(Collections.singletonList(addedDependency));
+		}
+
+		@Override
+		public Asset get(int index) {
+			return dependencies.get(index);
+		}
+
+		@Override
+		public int size() {
+			return dependencies.size();
+		}
+
+		@Override
+		public Iterator<Asset> iterator() {
+			return dependencies.iterator();
+		}
+
+		@Override
+		public Object[] toArray() {
+			return dependencies.toArray();
+		}
+
+		@Override
+		public <T> T[] toArray(T[] array) {
+			return dependencies.toArray(array);
+		}
+	}
+}
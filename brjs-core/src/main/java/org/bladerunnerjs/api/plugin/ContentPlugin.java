@@ -79,6 +79,20 @@ public interface ContentPlugin extends Plugin {
 	 */
 	List<String> getValidContentPaths(BundleSet bundleSet, RequestMode requestMode, Locale... locales) throws ContentProcessingException;
 	
+	/**
+	 * Returns content paths whose combined content is the same as that of the prod content paths, but where each content path covers no more than a
+	 * single source module where possible, so that minifiers that minify each input source independently can re-use the output for any modules that
+	 * haven't changed.
+	 * 
+	 * @param bundleSet The bundle-set for which content paths must be generated.
+	 * @param locales The locale for which content paths must be generated.
+	 * 
+	 * @throws ContentProcessingException if a problem is encountered.
+	 * 
+	 * @return The list of content paths, in the order their content appears within the prod content
+	 */
+	List<String> getValidProdModuleContentPaths(BundleSet bundleSet, Locale... locales) throws ContentProcessingException;
+	
 	
 	List<String> getUsedContentPaths(BundleSet bundleSet, RequestMode requestMode, Locale... locales) throws ContentProcessingException;
 	
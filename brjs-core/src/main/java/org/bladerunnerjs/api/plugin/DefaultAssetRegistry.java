@@ -11,6 +11,7 @@ import java.util.Stack;
 import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.LinkedAsset;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
+import org.bladerunnerjs.api.plugin.AssetDiscoveryCache.DirectoryAssets;
 import org.bladerunnerjs.model.AssetContainer;
 
 public class DefaultAssetRegistry implements AssetRegistry {
@@ -19,9 +20,16 @@ public class DefaultAssetRegistry implements AssetRegistry {
 	final List<LinkedAsset> seedAssets = new ArrayList<>();
 	private AssetContainer assetContainer;
 	private Stack<List<Asset>> currentDirectoryAssetList = new Stack<>();
+	private AssetDiscoveryCache assetDiscoveryCache;
+	private DirectoryAssets currentDirectoryAssets;
 	
 	public DefaultAssetRegistry(AssetContainer assetContainer) {
+		this(assetContainer, null);
+	}
+	
+	public DefaultAssetRegistry(AssetContainer assetContainer, AssetDiscoveryCache assetDiscoveryCache) {
 		this.assetContainer = assetContainer;
+		this.assetDiscoveryCache = assetDiscoveryCache;
 	}
 	
 	@Override
@@ -29,6 +37,9 @@ public class DefaultAssetRegistry implements AssetRegistry {
 	{
 		registerAsset(asset);
 		seedAssets.add(asset);
+		if (currentDirectoryAssets != null) {
+			currentDirectoryAssets.seedAssetRegistered(asset);
+		}
 	}
 	
 	@Override
@@ -40,6 +51,9 @@ public class DefaultAssetRegistry implements AssetRegistry {
 			); 
 		}
 		seedAssets.add(asset);
+		if (currentDirectoryAssets != null) {
+			currentDirectoryAssets.preventReuse();
+		}
 	}
 	
 	@Override
@@ -54,6 +68,9 @@ public class DefaultAssetRegistry implements AssetRegistry {
 			assets.put(requirePath, asset);
 		}
 		currentDirectoryAssetList.peek().add(asset);
+		if (currentDirectoryAssets != null) {
+			currentDirectoryAssets.assetRegistered(asset);
+		}
 	}
 
 	@Override
@@ -68,7 +85,11 @@ public class DefaultAssetRegistry implements AssetRegistry {
 	@Override
 	public boolean hasRegisteredAsset(String requirePath)
 	{
-		return assets.containsKey(requirePath);
+		boolean hasRegisteredAsset = assets.containsKey(requirePath);
+		if (hasRegisteredAsset && currentDirectoryAssets != null) {
+			currentDirectoryAssets.registeredRequirePathSkipped(requirePath);
+		}
+		return hasRegisteredAsset;
 	}
 	
 	@Override
@@ -94,8 +115,13 @@ public class DefaultAssetRegistry implements AssetRegistry {
 	{
 		currentDirectoryAssetList.push(new ArrayList<>());
 		for (AssetPlugin assetPlugin : assetContainer.root().plugins().assetPlugins()) {
-			// do not remove the new ArrayList - we need to pass a new instance so SourceModules aren't all changing the same instance
-			assetPlugin.discoverAssets(assetContainer, dir, requirePrefix, new ArrayList<>(implicitDependencies), this);
+			if (assetDiscoveryCache != null && assetPlugin.instanceOf(DirectoryAssetPlugin.class)) {
+				discoverDirectoryAssets(assetPlugin, dir, requirePrefix, implicitDependencies);
+			}
+			else {
+				// do not remove the new ArrayList - we need to pass a new instance so SourceModules aren't all changing the same instance
+				assetPlugin.discoverAssets(assetContainer, dir, requirePrefix, new ArrayList<>(implicitDependencies), this);
+			}
 		}
 		return discoveredAssets();
 	}
@@ -104,4 +130,55 @@ public class DefaultAssetRegistry implements AssetRegistry {
 		return currentDirectoryAssetList.pop();
 	}
 	
+	private void discoverDirectoryAssets(AssetPlugin assetPlugin, MemoizedFile dir, String requirePrefix, List<Asset> implicitDependencies)
+	{
+		String cacheKey = AssetDiscoveryCache.cacheKey(assetPlugin, dir, requirePrefix);
+		DirectoryAssets cachedDirectoryAssets = assetDiscoveryCache.getReusableDirectoryAssets(cacheKey, dir);
+		
+		if (cachedDirectoryAssets != null && canReplay(cachedDirectoryAssets)) {
+			cachedDirectoryAssets.refreshImplicitDependencies(implicitDependencies);
+			for (Asset asset : cachedDirectoryAssets.assets) {
+				if (cachedDirectoryAssets.seedAssets.contains(asset)) {
+					registerSeedAsset((LinkedAsset) asset);
+				}
+				else {
+					registerAsset(asset);
+				}
+			}
+			assetDiscoveryCache.put(cacheKey, cachedDirectoryAssets);
+		}
+		else {
+			DirectoryAssets directoryAssets = new DirectoryAssets(dir, implicitDependencies);
+			DirectoryAssets previousDirectoryAssets = currentDirectoryAssets;
+			currentDirectoryAssets = directoryAssets;
+			try {
+				assetPlugin.discoverAssets(assetContainer, dir, requirePrefix, directoryAssets.implicitDependencies, this);
+			}
+			finally {
+				currentDirectoryAssets = previousDirectoryAssets;
+			}
+			
+			if (directoryAssets.isReusable()) {
+				assetDiscoveryCache.put(cacheKey, directoryAssets);
+			}
+		}
+	}
+	
+	private boolean canReplay(DirectoryAssets directoryAssets) {
+		// the plug-in would only make the same registrations if everything it skipped is still registered and nothing it registered has been
+		for (String requirePath : directoryAssets.skippedRequirePaths) {
+			if (!assets.containsKey(requirePath)) {
+				return false;
+			}
+		}
+		for (Asset asset : directoryAssets.assets) {
+			for (String requirePath : asset.getRequirePaths()) {
+				if (assets.containsKey(requirePath)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package org.bladerunnerjs.api.plugin;
+
+/**
+ * <p>
+ * The <code>DirectoryAssetPlugin</code> interface should be used by asset plug-ins whose discovered assets only depend on the files directly within the
+ * directory they are given, its JS style, the require prefix and the implicit dependencies passed to them. Such plug-ins should only ever register
+ * assets, using either {@link AssetRegistry#registerAsset} or {@link AssetRegistry#registerSeedAsset}, and must not discover assets for any other
+ * directory.</p>
+ *
+ * <p>This allows the assets discovered for a directory to be re-used when the rest of an asset container is re-discovered, so that a change to one
+ * directory does not cause the assets, and any values they have memoized, to be re-created for every other directory.</p>
+ */
+public interface DirectoryAssetPlugin extends AssetPlugin {
+}
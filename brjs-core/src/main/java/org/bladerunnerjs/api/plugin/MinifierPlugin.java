@@ -29,6 +29,16 @@ import org.bladerunnerjs.api.model.exception.request.ResourceNotFoundException;
  */
 public interface MinifierPlugin extends Plugin {
 	List<String> getSettingNames();
+	
+	/**
+	 * Whether the given setting minifies each input source without reference to the others, in which case the input sources are provided one per
+	 * source module rather than one per content plug-in, allowing minifiers to re-use the output for any modules that haven't changed.
+	 * 
+	 * @param settingName The minifier setting being used.
+	 * @return <code>true</code>, if the input sources can be minified independently, and <code>false</code> otherwise.
+	 */
+	boolean minifiesInputSourcesIndependently(String settingName);
+	
 	Reader minify(String settingName, List<InputSource> inputSources) throws ContentProcessingException, ResourceNotFoundException;
 	Reader generateSourceMap(String minifierLevel, List<InputSource> inputSources) throws ContentProcessingException;
 }
@@ -30,6 +30,11 @@ public abstract class AbstractContentPlugin extends AbstractPlugin implements Co
 		return true;
 	}
 	
+	@Override
+	public List<String> getValidProdModuleContentPaths(BundleSet bundleSet, Locale... locales) throws ContentProcessingException {
+		return getValidContentPaths(bundleSet, RequestMode.Prod, locales);
+	}
+	
 	@Override
 	public List<String> getUsedContentPaths(BundleSet bundleSet, RequestMode requestMode, Locale... locales) throws ContentProcessingException {
 		try
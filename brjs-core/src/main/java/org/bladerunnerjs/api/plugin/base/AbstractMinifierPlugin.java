@@ -7,4 +7,8 @@ import org.bladerunnerjs.api.plugin.MinifierPlugin;
  * A specialization of {@link AbstractPlugin} for developers that need to implement {@link MinifierPlugin}.
  */
 public abstract class AbstractMinifierPlugin extends AbstractPlugin implements MinifierPlugin {
+	@Override
+	public boolean minifiesInputSourcesIndependently(String settingName) {
+		return false;
+	}
 }
@@ -0,0 +1,154 @@
+package org.bladerunnerjs.api.spec.model.app.building;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a hash of the inputs each file within a built app was generated from, so that an incremental build can skip generating any file whose
+ * inputs haven't changed since the previous build. The manifest is stored within the directory the app is built to.
+ */
+class AppBuildManifest
+{
+	static final String MANIFEST_FILE_NAME = ".brjs-build-manifest";
+
+	private final File targetDir;
+	private final Map<String, String> outputInputHashes = new ConcurrentHashMap<>();
+	private final Map<File, String> fileHashes = new ConcurrentHashMap<>();
+
+	AppBuildManifest(File targetDir) {
+		this.targetDir = targetDir;
+	}
+
+	static AppBuildManifest load(File targetDir) throws IOException {
+		AppBuildManifest manifest = new AppBuildManifest(targetDir);
+		File manifestFile = new File(targetDir, MANIFEST_FILE_NAME);
+		if (manifestFile.isFile()) {
+			Properties outputInputHashes = new Properties();
+			try (InputStream input = new FileInputStream(manifestFile)) {
+				outputInputHashes.load(input);
+			}
+			for (String outputPath : outputInputHashes.stringPropertyNames()) {
+				manifest.outputInputHashes.put(outputPath, outputInputHashes.getProperty(outputPath));
+			}
+		}
+		return manifest;
+	}
+
+	static boolean exists(File targetDir) {
+		return new File(targetDir, MANIFEST_FILE_NAME).isFile();
+	}
+
+	void save() throws IOException {
+		Properties outputInputHashes = new Properties();
+		outputInputHashes.putAll(this.outputInputHashes);
+		try (OutputStream output = new FileOutputStream(new File(targetDir, MANIFEST_FILE_NAME))) {
+			outputInputHashes.store(output, null);
+		}
+	}
+
+	boolean isUpToDate(String outputPath, String inputHash) {
+		return inputHash.equals(outputInputHashes.get(outputPath)) && new File(targetDir, outputPath).isFile();
+	}
+
+	void record(String outputPath, String inputHash) {
+		outputInputHashes.put(outputPath, inputHash);
+	}
+
+	/**
+	 * Deletes any files that were generated by the build this manifest was loaded from but which weren't generated by the current build.
+	 */
+	void deleteOutputsNotIn(AppBuildManifest currentManifest) {
+		for (String outputPath : outputInputHashes.keySet()) {
+			if (!currentManifest.outputInputHashes.containsKey(outputPath)) {
+				new File(targetDir, outputPath).delete();
+			}
+		}
+	}
+
+	/**
+	 * Hashes the path and content of each of the given files, and of every file within any of them that are directories, other than those in the
+	 * directory the app is being built to. The hash for each file is only calculated once per build, however many outputs it's an input to.
+	 */
+	String hashFiles(Collection<? extends File> files) throws IOException {
+		MessageDigest digest = createDigest();
+		for (File file : files) {
+			String fileHash = fileHashes.get(file);
+			if (fileHash == null) {
+				MessageDigest fileDigest = createDigest();
+				updateDigest(fileDigest, file);
+				fileHash = toHex(fileDigest.digest());
+				fileHashes.put(file, fileHash);
+			}
+			update(digest, fileHash);
+		}
+		return toHex(digest.digest());
+	}
+
+	static String hash(String... values) {
+		MessageDigest digest = createDigest();
+		for (String value : values) {
+			update(digest, value);
+		}
+		return toHex(digest.digest());
+	}
+
+	private void updateDigest(MessageDigest digest, File file) throws IOException {
+		if (file.equals(targetDir)) {
+			return;
+		}
+
+		update(digest, file.getAbsolutePath());
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					updateDigest(digest, child);
+				}
+			}
+		}
+		else if (file.isFile()) {
+			byte[] buffer = new byte[8192];
+			try (InputStream input = new FileInputStream(file)) {
+				int bytesRead;
+				while ((bytesRead = input.read(buffer)) != -1) {
+					digest.update(buffer, 0, bytesRead);
+				}
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
@@ -1,5 +1,7 @@
 package org.bladerunnerjs.api.spec.model.app.building;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -7,9 +9,27 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringReader;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.TeeOutputStream;
+import org.apache.commons.io.output.WriterOutputStream;
 import org.bladerunnerjs.api.App;
 import org.bladerunnerjs.api.Aspect;
+import org.bladerunnerjs.api.Asset;
+import org.bladerunnerjs.api.BladerunnerConf;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.BundleSet;
 import org.bladerunnerjs.api.model.exception.ModelOperationException;
@@ -22,7 +42,10 @@ import org.bladerunnerjs.api.plugin.CompositeContentPlugin;
 import org.bladerunnerjs.api.plugin.ContentPlugin;
 import org.bladerunnerjs.api.plugin.Locale;
 import org.bladerunnerjs.api.plugin.ResponseContent;
+import org.bladerunnerjs.appserver.filter.PrecompressedContentFilter;
+import org.bladerunnerjs.appserver.util.TokenDetectingWriter;
 import org.bladerunnerjs.appserver.util.TokenReplacingReader;
+import org.bladerunnerjs.model.AssetContainer;
 import org.bladerunnerjs.model.RequestMode;
 import org.bladerunnerjs.model.StaticContentAccessor;
 import org.bladerunnerjs.model.UrlContentAccessor;
@@ -30,44 +53,96 @@ import org.bladerunnerjs.utility.AppMetadataUtility;
 import org.bladerunnerjs.utility.AppRequestHandler;
 import org.bladerunnerjs.utility.BrjsPropertyTokenFinder;
 import org.bladerunnerjs.utility.FileUtils;
+import org.bladerunnerjs.utility.ParallelZipWriter;
 import org.bladerunnerjs.utility.WebXmlCompiler;
+import org.bladerunnerjs.utility.ZipUtility;
 
 
 public class AppBuilderUtilis
 {
+	private static final List<String> PRECOMPRESSED_EXTENSIONS = Arrays.asList("js", "css", "html", "htm", "xml", "json", "txt", "svg", "map");
+	private static final List<String> RESOURCE_DIR_NAMES = Arrays.asList("themes", "resources", "unbundled-resources");
 
 	public static void build(App app, File targetDir) throws ModelOperationException {
+		build(app, targetDir, false);
+	}
+	
+	/**
+	 * Builds the app into the given directory. Each of the files generated for an aspect is built as a separate task on a work stealing pool. When
+	 * building incrementally a manifest of the inputs each file was generated from is kept within the target directory, and files whose inputs
+	 * are unchanged since the previous build are left as they are.
+	 */
+	public static void build(App app, File targetDir, boolean incremental) throws ModelOperationException {
 		
 		File targetContainer = targetDir.getParentFile();
 		if(!targetContainer.isDirectory()) throw new ModelOperationException("'" + targetContainer.getPath() + "' is not a directory.");
 		
+		build(app, new DirectoryBuildOutput(app, targetDir), incremental);
+	}
+	
+	/**
+	 * Builds the app straight into the given zip, rather than building it into a directory that then needs to be zipped.
+	 */
+	public static void build(App app, ParallelZipWriter zipWriter) throws ModelOperationException {
+		build(app, new ZipBuildOutput(app, zipWriter), false);
+	}
+	
+	private static void build(App app, BuildOutput output, boolean incremental) throws ModelOperationException {
+		ForkJoinPool buildPool = new ForkJoinPool();
 		try {
 			String version = app.root().getAppVersionGenerator().getVersion();
 			BRJS brjs = app.root();
 			UrlContentAccessor urlContentAccessor = new StaticContentAccessor(app);
 			Locale[] locales = app.appConf().getLocales();
+			File targetDir = output.targetDir();
+			AppBuildManifest previousManifest = (incremental) ? AppBuildManifest.load(targetDir) : null;
+			AppBuildManifest manifest = (incremental) ? new AppBuildManifest(targetDir) : null;
+			String appInputHash = (incremental) ? AppBuildManifest.hash(version, AppRequestHandler.getPropertiesEnvironment(brjs), 
+				manifest.hashFiles(Arrays.asList(app.file("app.conf"), app.file("app-properties"), brjs.file("conf")))) : null;
 			
-			filterAppWebXml(app, targetDir, version);
+			output.writeWebInf(version);
 			
+			List<Callable<Void>> aspectTasks = new ArrayList<>();
 			for (Aspect aspect : app.aspects()) {
-				BundleSet bundleSet = aspect.getBundleSet();				
-								
-				writeLocaleForwardingFileForAspect(bundleSet, targetDir, aspect, urlContentAccessor, version);
-				
-				for (Locale locale : locales) {
-					outputAspectIndexPage(aspect, locale, bundleSet, targetDir, urlContentAccessor, version);
-				}
-				
-				for (ContentPlugin contentPlugin : brjs.plugins().contentPlugins()) {
-					outputContentPluginBundles(contentPlugin, bundleSet, locales, targetDir, version, aspect, urlContentAccessor);
-				}
+				aspectTasks.add( () -> {
+					BundleSet bundleSet = aspect.getBundleSet();
+					BuildContext context = new BuildContext(bundleSet, output, version, urlContentAccessor, previousManifest, manifest, 
+						(incremental) ? AppBuildManifest.hash(appInputHash, manifest.hashFiles(bundleSetInputFiles(aspect, bundleSet))) : null);
+					List<Callable<Void>> outputTasks = new ArrayList<>();
+					
+					outputTasks.add( () -> { writeLocaleForwardingFileForAspect(context, aspect); return null; } );
+					
+					for (Locale locale : locales) {
+						outputTasks.add( () -> { outputAspectIndexPage(context, aspect, locale); return null; } );
+					}
+					
+					for (ContentPlugin contentPlugin : brjs.plugins().contentPlugins()) {
+						outputTasks.addAll( contentPluginBundleTasks(context, contentPlugin, locales, aspect) );
+					}
+					
+					invokeAll(buildPool, outputTasks);
+					return null;
+				} );
+			}
+			invokeAll(buildPool, aspectTasks);
+			
+			if (incremental) {
+				previousManifest.deleteOutputsNotIn(manifest);
+				manifest.save();
 			}
 		}
 		catch(Exception e) {
 			throw new ModelOperationException(e);
 		}
+		finally {
+			buildPool.shutdown();
+		}
 	}
-
+	
+	public static boolean containsBuildManifest(File targetDir) {
+		return AppBuildManifest.exists(targetDir);
+	}
+	
 	public static File getTemporaryExportDir(App app) throws ModelOperationException
 	{
 		try
@@ -80,20 +155,57 @@ public class AppBuilderUtilis
 		}
 	}
 	
-	private static void outputContentPluginBundles(ContentPlugin contentPlugin, BundleSet bundleSet, Locale[] locales, File target, String version, Aspect aspect, UrlContentAccessor urlContentAccessor) throws ContentProcessingException, MalformedTokenException, MalformedRequestException, IOException, FileNotFoundException, ResourceNotFoundException, ModelOperationException
+	private static void invokeAll(ForkJoinPool buildPool, List<Callable<Void>> tasks) throws Exception
+	{
+		for (Future<Void> task : buildPool.invokeAll(tasks)) {
+			try {
+				task.get();
+			}
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof Exception) {
+					throw (Exception) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+	}
+	
+	/* the files the aspect's bundle set was created from, along with the resources that are served from outside of it as they are, e.g. images */
+	private static Set<File> bundleSetInputFiles(Aspect aspect, BundleSet bundleSet)
+	{
+		Set<File> inputFiles = new TreeSet<>();
+		for (Asset asset : bundleSet.seedAssets()) {
+			inputFiles.add( asset.file() );
+		}
+		for (Asset asset : bundleSet.assets()) {
+			inputFiles.add( asset.file() );
+		}
+		for (AssetContainer assetContainer : aspect.scopeAssetContainers()) {
+			for (String resourceDirName : RESOURCE_DIR_NAMES) {
+				inputFiles.add( assetContainer.file(resourceDirName) );
+			}
+		}
+		inputFiles.add( aspect.app().file("favicon.ico") );
+		inputFiles.add( aspect.root().file("js-patches") );
+		return inputFiles;
+	}
+	
+	private static List<Callable<Void>> contentPluginBundleTasks(BuildContext context, ContentPlugin contentPlugin, Locale[] locales, Aspect aspect) throws ContentProcessingException
 	{
+		List<Callable<Void>> bundleTasks = new ArrayList<>();
 		if (!contentPlugin.instanceOf(CompositeContentPlugin.class)) {
-			for (String contentPath : contentPlugin.getUsedContentPaths(bundleSet, RequestMode.Prod, locales)) {
-				writeContentFile(bundleSet, urlContentAccessor, target, version, aspect, contentPlugin, contentPath);
+			for (String contentPath : contentPlugin.getUsedContentPaths(context.bundleSet, RequestMode.Prod, locales)) {
+				bundleTasks.add( () -> { writeContentFile(context, aspect, contentPath); return null; } );
 			}
 		}
 		else {
-			bundleSet.bundlableNode().root().logger(AppBuilderUtilis.class).info("The content plugin '%s' implements ComposisteContentPlugin so no files will be generated.", contentPlugin.getPluginClass().getSimpleName());
+			context.bundleSet.bundlableNode().root().logger(AppBuilderUtilis.class).info("The content plugin '%s' implements ComposisteContentPlugin so no files will be generated.", contentPlugin.getPluginClass().getSimpleName());
 		}
+		return bundleTasks;
 	}
 
 
-	private static void outputAspectIndexPage(Aspect aspect, Locale locale, BundleSet bundleSet, File targetDir, UrlContentAccessor urlContentAccessor, String version) throws MalformedTokenException, IOException, FileNotFoundException, ContentProcessingException, ResourceNotFoundException, MalformedRequestException, ModelOperationException
+	private static void outputAspectIndexPage(BuildContext context, Aspect aspect, Locale locale) throws MalformedTokenException, IOException, FileNotFoundException, ContentProcessingException, ResourceNotFoundException, MalformedRequestException, ModelOperationException
 	{
 		String indexPageExtension = (aspect.file("index.jsp").exists()) ? ".jsp" : ".html";
 		String indexPageRequestPath = aspect.requestHandler().createIndexPageRequest(locale);
@@ -106,30 +218,33 @@ public class AppBuilderUtilis
 			indexPageFileName = indexPageRequestPath;
 		}
 		
-		File localeIndexPageFile = new File(targetDir, indexPageFileName + indexPageExtension);
-		localeIndexPageFile.getParentFile().mkdirs();
+		String outputPath = indexPageFileName + indexPageExtension;
+		if (context.isUpToDate(outputPath)) {
+			return;
+		}
 		
-		try (FileOutputStream indexFileOutputStream = new FileOutputStream(localeIndexPageFile);
-				ResponseContent responseContent = aspect.app().requestHandler().handleLogicalRequest(indexPageRequestPath, urlContentAccessor, RequestMode.Prod); )
+		try (ResponseContent responseContent = aspect.app().requestHandler().handleLogicalRequest(indexPageRequestPath, context.urlContentAccessor, RequestMode.Prod); )
 		{
-			responseContent.write( indexFileOutputStream );
+			context.output.write( outputPath, responseContent, false );
 		}
-		
+		context.recordOutput(outputPath);
 	}
 
-	private static void writeLocaleForwardingFileForAspect(BundleSet bundleSet, File target, Aspect aspect, UrlContentAccessor urlContentAccessor, String version) throws MalformedTokenException, IOException, FileNotFoundException, ContentProcessingException, ResourceNotFoundException
+	private static void writeLocaleForwardingFileForAspect(BuildContext context, Aspect aspect) throws MalformedTokenException, IOException, FileNotFoundException, ContentProcessingException, ResourceNotFoundException
 	{
-		App app = bundleSet.bundlableNode().app();
+		App app = context.bundleSet.bundlableNode().app();
 		
 		if(app.isMultiLocaleApp()) {
-			File localeForwardingFile = new File(target, aspect.requestHandler().createLocaleForwardingRequest()+"index.html");
-			localeForwardingFile.getParentFile().mkdirs();
+			String outputPath = aspect.requestHandler().createLocaleForwardingRequest()+"index.html";
+			if (context.isUpToDate(outputPath)) {
+				return;
+			}
 			
-			try (OutputStream os = new FileOutputStream(localeForwardingFile);
-				ResponseContent content = aspect.requestHandler().getLocaleForwardingPageContent(aspect, urlContentAccessor, version); )
+			try (ResponseContent content = aspect.requestHandler().getLocaleForwardingPageContent(aspect, context.urlContentAccessor, context.version); )
 			{
-				content.write(os);
+				context.output.write( outputPath, content, false );
 			}
+			context.recordOutput(outputPath);
 		}
 	}
 
@@ -160,19 +275,200 @@ public class AppBuilderUtilis
 		}
 	}
 
-	private static void writeContentFile(BundleSet bundleSet, UrlContentAccessor contentAccessor, File target, String version, Aspect aspect, ContentPlugin contentPlugin, String contentPath) throws MalformedTokenException, MalformedRequestException, IOException, FileNotFoundException, ContentProcessingException, ResourceNotFoundException, ModelOperationException
+	private static void writeContentFile(BuildContext context, Aspect aspect, String contentPath) throws MalformedTokenException, MalformedRequestException, IOException, FileNotFoundException, ContentProcessingException, ResourceNotFoundException, ModelOperationException
 	{
 		App app = aspect.app();
-		String appBundleRequest = app.requestHandler().createBundleRequest(aspect, contentPath, version);
-		File bundleFile = new File(target, appBundleRequest);
+		String appBundleRequest = app.requestHandler().createBundleRequest(aspect, contentPath, context.version);
+		if (context.isUpToDate(appBundleRequest)) {
+			return;
+		}
 		
-		bundleFile.getParentFile().mkdirs();
-		bundleFile.createNewFile();
+		boolean gzipVariantWritten;
+		try (ResponseContent pluginContent = app.requestHandler().handleLogicalRequest(appBundleRequest, context.urlContentAccessor, RequestMode.Prod); )
+		{
+			gzipVariantWritten = context.output.write(appBundleRequest, pluginContent, PRECOMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(appBundleRequest)));
+		}
+		context.recordOutput(appBundleRequest);
 		
-		try (FileOutputStream bundleFileOutputStream = new FileOutputStream(bundleFile);
-			ResponseContent pluginContent = app.requestHandler().handleLogicalRequest(appBundleRequest, contentAccessor, RequestMode.Prod); )
+		if (gzipVariantWritten) {
+			context.recordOutput(appBundleRequest + PrecompressedContentFilter.GZIP_SUFFIX);
+		}
+	}
+	
+	/*
+	 * Streams the content to the output stream, and when a gzip variant stream is given, compresses it to that stream at the same time. The return
+	 * value says whether the gzip variant is worth keeping, which it's only if it's smaller than the content and the content won't be tokenised when
+	 * it's served, since PrecompressedContentFilter serves the variant as it is.
+	 */
+	private static boolean writeContent(ResponseContent content, OutputStream outputStream, OutputStream gzipVariantStream) throws IOException
+	{
+		if (gzipVariantStream == null) {
+			content.write(outputStream);
+			return false;
+		}
+		
+		CountingOutputStream contentStream = new CountingOutputStream(outputStream);
+		CountingOutputStream compressedStream = new CountingOutputStream(gzipVariantStream);
+		// the content is decoded before looking for tokens, so that it's checked for exactly the same tokens as the servlet filter would replace
+		TokenDetectingWriter tokenDetector = new TokenDetectingWriter();
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(new CloseShieldOutputStream(compressedStream), 8192) { { def.setLevel(Deflater.BEST_COMPRESSION); } };
+			WriterOutputStream tokenDetectorStream = new WriterOutputStream(tokenDetector, BladerunnerConf.OUTPUT_ENCODING))
 		{
-			pluginContent.write( bundleFileOutputStream );
+			content.write(new TeeOutputStream(contentStream, new TeeOutputStream(tokenDetectorStream, gzipOutputStream)));
+		}
+		return !tokenDetector.tokenDetected() && compressedStream.getByteCount() < contentStream.getByteCount();
+	}
+	
+	private static class BuildContext
+	{
+		private final BundleSet bundleSet;
+		private final BuildOutput output;
+		private final String version;
+		private final UrlContentAccessor urlContentAccessor;
+		private final AppBuildManifest previousManifest;
+		private final AppBuildManifest manifest;
+		private final String inputHash;
+		
+		BuildContext(BundleSet bundleSet, BuildOutput output, String version, UrlContentAccessor urlContentAccessor, AppBuildManifest previousManifest, AppBuildManifest manifest, String inputHash)
+		{
+			this.bundleSet = bundleSet;
+			this.output = output;
+			this.version = version;
+			this.urlContentAccessor = urlContentAccessor;
+			this.previousManifest = previousManifest;
+			this.manifest = manifest;
+			this.inputHash = inputHash;
+		}
+		
+		boolean isUpToDate(String outputPath)
+		{
+			if (manifest == null) {
+				return false;
+			}
+			String inputHash = AppBuildManifest.hash(inputHash, outputPath);
+			if (previousManifest.isUpToDate(outputPath, inputHash)) {
+				manifest.record(outputPath, inputHash);
+				String gzipOutputPath = outputPath + PrecompressedContentFilter.GZIP_SUFFIX;
+				String gzipInputHash = AppBuildManifest.hash(inputHash, gzipOutputPath);
+				if (previousManifest.isUpToDate(gzipOutputPath, gzipInputHash)) {
+					manifest.record(gzipOutputPath, gzipInputHash);
+				}
+				return true;
+			}
+			return false;
+		}
+		
+		void recordOutput(String outputPath)
+		{
+			if (manifest != null) {
+				manifest.record(outputPath, AppBuildManifest.hash(inputHash, outputPath));
+			}
+		}
+	}
+	
+	private interface BuildOutput
+	{
+		File targetDir();
+		
+		void writeWebInf(String version) throws IOException, ParseException, ModelOperationException;
+		
+		/* writes the content, along with a gzip variant of it if one is wanted and worth keeping, returning whether the variant was written */
+		boolean write(String outputPath, ResponseContent content, boolean gzipVariant) throws IOException;
+	}
+	
+	private static class DirectoryBuildOutput implements BuildOutput
+	{
+		private final App app;
+		private final File targetDir;
+		
+		DirectoryBuildOutput(App app, File targetDir)
+		{
+			this.app = app;
+			this.targetDir = targetDir;
+		}
+		
+		@Override
+		public File targetDir()
+		{
+			return targetDir;
+		}
+		
+		@Override
+		public void writeWebInf(String version) throws IOException, ParseException
+		{
+			filterAppWebXml(app, targetDir, version);
+		}
+		
+		@Override
+		public boolean write(String outputPath, ResponseContent content, boolean gzipVariant) throws IOException
+		{
+			File outputFile = new File(targetDir, outputPath);
+			File gzipVariantFile = new File(targetDir, outputPath + PrecompressedContentFilter.GZIP_SUFFIX);
+			outputFile.getParentFile().mkdirs();
+			
+			boolean gzipVariantWritten;
+			try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile));
+				OutputStream gzipVariantStream = (gzipVariant) ? new BufferedOutputStream(new FileOutputStream(gzipVariantFile)) : null)
+			{
+				gzipVariantWritten = writeContent(content, outputStream, gzipVariantStream);
+			}
+			
+			if (!gzipVariantWritten) {
+				gzipVariantFile.delete();
+			}
+			return gzipVariantWritten;
+		}
+	}
+	
+	private static class ZipBuildOutput implements BuildOutput
+	{
+		private final App app;
+		private final ParallelZipWriter zipWriter;
+		
+		ZipBuildOutput(App app, ParallelZipWriter zipWriter)
+		{
+			this.app = app;
+			this.zipWriter = zipWriter;
+		}
+		
+		@Override
+		public File targetDir()
+		{
+			return null;
+		}
+		
+		/* web.xml is compiled in place, so WEB-INF is still staged in a temporary directory before being added to the zip */
+		@Override
+		public void writeWebInf(String version) throws IOException, ParseException, ModelOperationException
+		{
+			if (!app.file("WEB-INF").exists()) {
+				return;
+			}
+			
+			File webInfStagingDir = getTemporaryExportDir(app);
+			try {
+				filterAppWebXml(app, webInfStagingDir, version);
+				ZipUtility.addFolderContentsToZip(zipWriter, "", webInfStagingDir);
+				zipWriter.flush();
+			}
+			finally {
+				org.apache.commons.io.FileUtils.deleteQuietly(webInfStagingDir);
+			}
+		}
+		
+		/* the zip writer compresses each entry from memory, so the content is buffered rather than streamed */
+		@Override
+		public boolean write(String outputPath, ResponseContent content, boolean gzipVariant) throws IOException
+		{
+			ByteArrayOutputStream contentBytes = new ByteArrayOutputStream();
+			ByteArrayOutputStream gzipVariantBytes = (gzipVariant) ? new ByteArrayOutputStream() : null;
+			boolean gzipVariantWritten = writeContent(content, contentBytes, gzipVariantBytes);
+			
+			zipWriter.addContent(outputPath, contentBytes.toByteArray());
+			if (gzipVariantWritten) {
+				zipWriter.addContent(outputPath + PrecompressedContentFilter.GZIP_SUFFIX, gzipVariantBytes.toByteArray());
+			}
+			return gzipVariantWritten;
 		}
 	}
 	
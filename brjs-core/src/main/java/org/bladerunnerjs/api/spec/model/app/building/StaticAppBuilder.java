@@ -12,12 +12,31 @@ import org.bladerunnerjs.utility.MissingAppJarsException;
 
 public class StaticAppBuilder implements AppBuilder {
 	
+	private final boolean incremental;
+	
+	public StaticAppBuilder() {
+		this(false);
+	}
+	
+	/**
+	 * @param incremental whether the app should be built directly into the build directory, only re-generating the files whose inputs have changed
+	 * since the app was last built there
+	 */
+	public StaticAppBuilder(boolean incremental) {
+		this.incremental = incremental;
+	}
+	
 	public void build(App app, MemoizedFile appBuildDir) throws ModelOperationException {
 		if (!appBuildDir.exists()) throw new ModelOperationException("'" + appBuildDir.getPath() + "' does not exist");
 
 		if (app.file("WEB-INF").isDirectory() && !MissingAppJarChecker.hasCorrectApplicationLibVersions(app)) {
 			throw new MissingAppJarsException(app);
 		}
+		
+		if (incremental) {
+			AppBuilderUtilis.build(app, appBuildDir, true);
+			return;
+		}
 
 		File exportDir = AppBuilderUtilis.getTemporaryExportDir(app);
 		AppBuilderUtilis.build(app, exportDir);
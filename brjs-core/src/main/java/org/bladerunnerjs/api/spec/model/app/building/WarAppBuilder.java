@@ -1,6 +1,5 @@
 package org.bladerunnerjs.api.spec.model.app.building;
 
-import java.io.File;
 import java.io.IOException;
 
 import org.bladerunnerjs.api.App;
@@ -8,7 +7,7 @@ import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.model.exception.ModelOperationException;
 import org.bladerunnerjs.utility.MissingAppJarChecker;
 import org.bladerunnerjs.utility.MissingAppJarsException;
-import org.bladerunnerjs.utility.ZipUtility;
+import org.bladerunnerjs.utility.ParallelZipWriter;
 
 
 
@@ -23,19 +22,27 @@ public class WarAppBuilder implements AppBuilder
 			throw new MissingAppJarsException(app);
 		}
 		
-		File exportDir = AppBuilderUtilis.getTemporaryExportDir(app);
-		AppBuilderUtilis.build(app, exportDir);
-		
+		boolean built = false;
 		try
 		{
-			ZipUtility.zipFolder(exportDir, appWarFile, true);
-			appWarFile.incrementFileVersion();
-			org.apache.commons.io.FileUtils.deleteQuietly(exportDir);
+			try (ParallelZipWriter zipWriter = new ParallelZipWriter(appWarFile))
+			{
+				AppBuilderUtilis.build(app, zipWriter);
+			}
+			built = true;
 		}
 		catch (IOException ex)
 		{
 			throw new ModelOperationException(ex);
 		}
+		finally
+		{
+			// the bundles are written straight into the war, so don't leave a partially written war behind
+			if (!built) {
+				org.apache.commons.io.FileUtils.deleteQuietly(appWarFile);
+			}
+		}
+		appWarFile.incrementFileVersion();
 	}
 	
 }
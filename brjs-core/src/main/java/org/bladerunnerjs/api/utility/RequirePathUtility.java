@@ -91,8 +91,11 @@ public class RequirePathUtility
 	public static void addRequirePathsFromReader(Reader reader, Set<String> dependencies, List<String> aliases) throws IOException {
 		StringWriter stringWriter = new StringWriter();
 		IOUtils.copy(reader, stringWriter);
+		addRequirePaths(stringWriter.getBuffer(), dependencies, aliases);
+	}
 
-		Matcher m = matcherPattern.matcher(stringWriter.toString());
+	public static void addRequirePaths(CharSequence content, Set<String> dependencies, List<String> aliases) {
+		Matcher m = matcherPattern.matcher(content);
 		while (m.find()) {
 			String methodArgument = m.group(2);
 
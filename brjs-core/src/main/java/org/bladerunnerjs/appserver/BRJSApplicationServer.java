@@ -1,20 +1,29 @@
 package org.bladerunnerjs.appserver;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.servlet.Servlet;
 
 import org.bladerunnerjs.api.App;
 import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.BladerunnerConf;
 import org.bladerunnerjs.api.appserver.ApplicationServer;
 import org.bladerunnerjs.api.logging.Logger;
+import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.utility.ServerUtility;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.webapp.WebAppContext;
 
 import static org.bladerunnerjs.appserver.BRJSApplicationServer.Messages.*;
@@ -47,13 +56,7 @@ public class BRJSApplicationServer implements ApplicationServer
 		this.port = port;
 		logger = brjs.logger(ApplicationServer.class);
 		
-		server = new Server();
-		ServerConnector connector = new ServerConnector(server);
-        connector.setPort(port);
-        server.setConnectors(new Connector[] { connector });
-		
 		contexts = new ContextHandlerCollection();
-		server.setHandler(contexts);
 	}
 
 	@Override
@@ -72,6 +75,8 @@ public class BRJSApplicationServer implements ApplicationServer
 		
 		if(!brjs.appJars().dirExists()) throw new IllegalStateException( "The directory containing the app jars, located at '" + brjs.appJars().dir().getPath() + "', is not present");
 		
+		server = createServer(brjs.bladerunnerConf());
+		
 		ApplicationServerUtils.addAuthRealmToWebServer(brjs, server);
 		ApplicationServerUtils.addRootContext(brjs, contexts);
 		contextMap = ApplicationServerUtils.addAppContexts(brjs, contexts);
@@ -123,6 +128,70 @@ public class BRJSApplicationServer implements ApplicationServer
 		this.fileWatcherInterval = interval;
 	}
 
+	private Server createServer(BladerunnerConf bladerunnerConf) throws ConfigException
+	{
+		QueuedThreadPool threadPool = createThreadPool(bladerunnerConf);
+		Server server = new Server(threadPool);
+		
+		HttpConfiguration httpConfiguration = new HttpConfiguration();
+		if (bladerunnerConf.getJettyOutputBufferSize() != null)
+		{
+			httpConfiguration.setOutputBufferSize( bladerunnerConf.getJettyOutputBufferSize() );
+		}
+		
+		List<ConnectionFactory> connectionFactories = new ArrayList<>();
+		connectionFactories.add( new HttpConnectionFactory(httpConfiguration) );
+		if (bladerunnerConf.useJettyHttp2Cleartext())
+		{
+			connectionFactories.add( new HTTP2CServerConnectionFactory(httpConfiguration) );
+		}
+		
+		// jetty picks the number of acceptors and selectors based on the available processors when they are -1
+		int acceptors = (bladerunnerConf.getJettyAcceptors() == null) ? -1 : bladerunnerConf.getJettyAcceptors();
+		int selectors = (bladerunnerConf.getJettySelectors() == null) ? -1 : bladerunnerConf.getJettySelectors();
+		ServerConnector connector = new ServerConnector(server, acceptors, selectors, connectionFactories.toArray(new ConnectionFactory[0]));
+		connector.setPort(port);
+		if (bladerunnerConf.getJettyIdleTimeout() != null)
+		{
+			connector.setIdleTimeout( bladerunnerConf.getJettyIdleTimeout() );
+		}
+		
+		server.setConnectors(new Connector[] { connector });
+		if (bladerunnerConf.getJettyMaxQueuedRequests() != null)
+		{
+			RequestLimitingHandler requestLimitingHandler = new RequestLimitingHandler( threadPool, bladerunnerConf.getJettyMaxQueuedRequests() );
+			requestLimitingHandler.setHandler(contexts);
+			server.setHandler(requestLimitingHandler);
+		}
+		else
+		{
+			server.setHandler(contexts);
+		}
+		
+		return server;
+	}
+	
+	private QueuedThreadPool createThreadPool(BladerunnerConf bladerunnerConf) throws ConfigException
+	{
+		// the queue is left unbounded since jetty's own jobs are queued alongside requests, and the RequestLimitingHandler limits requests instead
+		QueuedThreadPool threadPool = new QueuedThreadPool();
+		if (bladerunnerConf.getJettyMaxThreads() != null)
+		{
+			threadPool.setMaxThreads( bladerunnerConf.getJettyMaxThreads() );
+		}
+		if (bladerunnerConf.getJettyMinThreads() != null)
+		{
+			threadPool.setMinThreads( bladerunnerConf.getJettyMinThreads() );
+		}
+		if (bladerunnerConf.getJettyIdleTimeout() != null)
+		{
+			threadPool.setIdleTimeout( bladerunnerConf.getJettyIdleTimeout() );
+		}
+		threadPool.setName("brjs-appserver");
+		
+		return threadPool;
+	}
+	
 	@Override
 	public void join() throws Exception
 	{
@@ -80,7 +80,7 @@ public class BRJSDevServlet extends HttpServlet {
 			}
 		}
 
-		ThreadSafeStaticBRJSAccessor.acquireModel();
+		ThreadSafeStaticBRJSAccessor.acquireModel(); // shared access, so requests for different bundles are handled concurrently
 		UrlContentAccessor contentAccessor = new ServletContentAccessor(app, servletContext, request, response);
 		try ( ResponseContent content = app.requestHandler().handleLogicalRequest(requestPath, contentAccessor, RequestMode.Dev); )
 		{
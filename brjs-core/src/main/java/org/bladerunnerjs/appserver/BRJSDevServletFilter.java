@@ -25,6 +25,8 @@ import org.bladerunnerjs.model.ThreadSafeStaticBRJSAccessor;
 
 public class BRJSDevServletFilter implements Filter {
 	public static final String IGNORE_REQUEST_ATTRIBUTE = "brjs-ignore-request";
+	private static final Pattern ASPECT_NAME_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]+$");
+	private static final Pattern LOCALE_PATTERN = Pattern.compile(Locale.LANGUAGE_AND_COUNTRY_CODE_FORMAT);
 	
 	private ServletContext servletContext;
 	private BRJS brjs;
@@ -67,7 +69,7 @@ public class BRJSDevServletFilter implements Filter {
 		HttpServletRequest request = (HttpServletRequest) servletRequest;
 		HttpServletResponse response = (HttpServletResponse) servletResponse;
 		String servletPath = request.getServletPath();
-		String requestPath = request.getRequestURI().replaceFirst("^" + request.getContextPath() + "/", "");
+		String requestPath = StringUtils.removeStart(request.getRequestURI(), request.getContextPath() + "/");
 		
 		if (requestShouldHaveASlashAppended(requestPath, app)) {
 			/* this is done here rather than in the model for several reasons:
@@ -90,16 +92,16 @@ public class BRJSDevServletFilter implements Filter {
 			return false;
 		}
 		
-		boolean appCanHandleRequestWithAppendedSlash = app.requestHandler().canHandleLogicalRequest(requestPath+"/");
-		if (Pattern.matches("^[a-zA-Z0-9_-]+$", requestPath) && appCanHandleRequestWithAppendedSlash) {
+		// the cheaper checks are made first so that the request is only routed a second time if a slash might need appending
+		if (ASPECT_NAME_PATTERN.matcher(requestPath).matches() && app.requestHandler().canHandleLogicalRequest(requestPath+"/")) {
 			return true; // /app/aspect was requested
 		}
-		if (requestPath.endsWith("/workbench") && appCanHandleRequestWithAppendedSlash) {
+		if (requestPath.endsWith("/workbench") && app.requestHandler().canHandleLogicalRequest(requestPath+"/")) {
 			return true; // a workbench without a trailing / was requested
 		}
 		
 		String lastPartOfUrl = StringUtils.substringAfterLast(requestPath, "/");
-		if (Pattern.matches(Locale.LANGUAGE_AND_COUNTRY_CODE_FORMAT, lastPartOfUrl) && appCanHandleRequestWithAppendedSlash) {
+		if (LOCALE_PATTERN.matcher(lastPartOfUrl).matches() && app.requestHandler().canHandleLogicalRequest(requestPath+"/")) {
 			for (Locale supportedLocale : getAppLocales(app)) {
 				if (supportedLocale.toString().equals(lastPartOfUrl)) {
 					return true; // a locale without a trailing / was requested
@@ -0,0 +1,44 @@
+package org.bladerunnerjs.appserver;
+
+import java.io.IOException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * Sheds load once the server has fallen behind, by responding with a 503 to requests that are dispatched while more than the maximum number
+ * of jobs are waiting for one of the request threads.
+ *
+ * The limit is applied here, when a request is dispatched, rather than by bounding the thread pool's queue, since the thread pool also runs
+ * Jetty's own jobs, such as reading from and writing to connections, and those must never be rejected.
+ */
+public class RequestLimitingHandler extends HandlerWrapper
+{
+	private final QueuedThreadPool threadPool;
+	private final int maxQueuedRequests;
+
+	public RequestLimitingHandler(QueuedThreadPool threadPool, int maxQueuedRequests)
+	{
+		this.threadPool = threadPool;
+		this.maxQueuedRequests = maxQueuedRequests;
+	}
+
+	@Override
+	public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+	{
+		// requests that are resumed after being suspended are already being handled, so only new requests are turned away
+		if (baseRequest.getDispatcherType() == DispatcherType.REQUEST && threadPool.getQueueSize() > maxQueuedRequests)
+		{
+			baseRequest.setHandled(true);
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+		super.handle(target, baseRequest, request, response);
+	}
+}
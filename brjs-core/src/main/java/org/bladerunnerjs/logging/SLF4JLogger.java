@@ -1,14 +1,17 @@
 package org.bladerunnerjs.logging;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.IllegalFormatException;
 
 import org.bladerunnerjs.api.logging.Logger;
 
 public class SLF4JLogger implements Logger
 {
+	private static final Object[] NO_PARAMS = new Object[0];
+	private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd.HH.mm.ss");
+	
 	private final org.slf4j.Logger slf4jLogger;
 	private final String name;
 	private LoggerTimeAccessor timeAccessor;
@@ -22,7 +25,7 @@ public class SLF4JLogger implements Logger
 	{
 		this.slf4jLogger = slf4jLogger;
 		this.name = name;
-		this.timeAccessor = (timeAccessor != null) ? timeAccessor : new DefaultTimeAccessor();;
+		this.timeAccessor = (timeAccessor != null) ? timeAccessor : new DefaultTimeAccessor();
 	}
 	
 	@Override
@@ -34,6 +37,42 @@ public class SLF4JLogger implements Logger
 		}
 	}
 
+	@Override
+	public void error(String message)
+	{
+		if (slf4jLogger.isErrorEnabled())
+		{
+			slf4jLogger.error( getFormattedString(message, NO_PARAMS) );
+		}
+	}
+
+	@Override
+	public void error(String message, Object param1)
+	{
+		if (slf4jLogger.isErrorEnabled())
+		{
+			slf4jLogger.error( getFormattedString(message, param1) );
+		}
+	}
+
+	@Override
+	public void error(String message, Object param1, Object param2)
+	{
+		if (slf4jLogger.isErrorEnabled())
+		{
+			slf4jLogger.error( getFormattedString(message, param1, param2) );
+		}
+	}
+
+	@Override
+	public void error(String message, Object param1, Object param2, Object param3)
+	{
+		if (slf4jLogger.isErrorEnabled())
+		{
+			slf4jLogger.error( getFormattedString(message, param1, param2, param3) );
+		}
+	}
+
 	@Override
 	public void warn(String message, Object... params)
 	{
@@ -43,6 +82,42 @@ public class SLF4JLogger implements Logger
 		}
 	}
 
+	@Override
+	public void warn(String message)
+	{
+		if (slf4jLogger.isWarnEnabled())
+		{
+			slf4jLogger.warn( getFormattedString(message, NO_PARAMS) );
+		}
+	}
+
+	@Override
+	public void warn(String message, Object param1)
+	{
+		if (slf4jLogger.isWarnEnabled())
+		{
+			slf4jLogger.warn( getFormattedString(message, param1) );
+		}
+	}
+
+	@Override
+	public void warn(String message, Object param1, Object param2)
+	{
+		if (slf4jLogger.isWarnEnabled())
+		{
+			slf4jLogger.warn( getFormattedString(message, param1, param2) );
+		}
+	}
+
+	@Override
+	public void warn(String message, Object param1, Object param2, Object param3)
+	{
+		if (slf4jLogger.isWarnEnabled())
+		{
+			slf4jLogger.warn( getFormattedString(message, param1, param2, param3) );
+		}
+	}
+
 	@Override
 	public void info(String message, Object... params)
 	{
@@ -52,6 +127,42 @@ public class SLF4JLogger implements Logger
 		}
 	}
 
+	@Override
+	public void info(String message)
+	{
+		if (slf4jLogger.isInfoEnabled())
+		{
+			slf4jLogger.info( getFormattedString(message, NO_PARAMS) );
+		}
+	}
+
+	@Override
+	public void info(String message, Object param1)
+	{
+		if (slf4jLogger.isInfoEnabled())
+		{
+			slf4jLogger.info( getFormattedString(message, param1) );
+		}
+	}
+
+	@Override
+	public void info(String message, Object param1, Object param2)
+	{
+		if (slf4jLogger.isInfoEnabled())
+		{
+			slf4jLogger.info( getFormattedString(message, param1, param2) );
+		}
+	}
+
+	@Override
+	public void info(String message, Object param1, Object param2, Object param3)
+	{
+		if (slf4jLogger.isInfoEnabled())
+		{
+			slf4jLogger.info( getFormattedString(message, param1, param2, param3) );
+		}
+	}
+
 	@Override
 	public void debug(String message, Object... params)
 	{
@@ -60,11 +171,71 @@ public class SLF4JLogger implements Logger
 			slf4jLogger.debug( getFormattedString(message, params) );
 		}
 	}
-	
+
+	@Override
+	public void debug(String message)
+	{
+		if (slf4jLogger.isDebugEnabled())
+		{
+			slf4jLogger.debug( getFormattedString(message, NO_PARAMS) );
+		}
+	}
+
+	@Override
+	public void debug(String message, Object param1)
+	{
+		if (slf4jLogger.isDebugEnabled())
+		{
+			slf4jLogger.debug( getFormattedString(message, param1) );
+		}
+	}
+
+	@Override
+	public void debug(String message, Object param1, Object param2)
+	{
+		if (slf4jLogger.isDebugEnabled())
+		{
+			slf4jLogger.debug( getFormattedString(message, param1, param2) );
+		}
+	}
+
+	@Override
+	public void debug(String message, Object param1, Object param2, Object param3)
+	{
+		if (slf4jLogger.isDebugEnabled())
+		{
+			slf4jLogger.debug( getFormattedString(message, param1, param2, param3) );
+		}
+	}
+
+	@Override
+	public boolean isErrorEnabled()
+	{
+		return slf4jLogger.isErrorEnabled();
+	}
+
+	@Override
+	public boolean isWarnEnabled()
+	{
+		return slf4jLogger.isWarnEnabled();
+	}
+
+	@Override
+	public boolean isInfoEnabled()
+	{
+		return slf4jLogger.isInfoEnabled();
+	}
+
+	@Override
+	public boolean isDebugEnabled()
+	{
+		return slf4jLogger.isDebugEnabled();
+	}
+
 	private String getFormattedString(String message, Object... params)
 	{
-		String timestamp = timeAccessor.getTimestamp();
-		String timestampPrefix = (slf4jLogger.isDebugEnabled() && timestamp != null) ? timestamp+" - " : ""; 
+		String timestamp = (slf4jLogger.isDebugEnabled()) ? timeAccessor.getTimestamp() : null;
+		String timestampPrefix = (timestamp != null) ? timestamp+" - " : ""; 
 		try {
 			return timestampPrefix + ((params.length == 0) ? message : String.format(message, params));
 		}
@@ -96,11 +267,11 @@ public class SLF4JLogger implements Logger
 	}
 
 	
-	private class DefaultTimeAccessor implements LoggerTimeAccessor {
+	private static class DefaultTimeAccessor implements LoggerTimeAccessor {
 		@Override
 		public String getTimestamp()
 		{
-			return new SimpleDateFormat("yyyy.MM.dd.HH.mm.ss").format(new Date());
+			return TIMESTAMP_FORMATTER.format(LocalDateTime.now());
 		}
 	}
 	
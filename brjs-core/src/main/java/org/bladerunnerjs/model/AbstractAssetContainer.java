@@ -14,6 +14,7 @@ import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.memoization.MemoizedValue;
 import org.bladerunnerjs.api.model.exception.RequirePathException;
 import org.bladerunnerjs.api.model.exception.UnresolvableRelativeRequirePathException;
+import org.bladerunnerjs.api.plugin.AssetDiscoveryCache;
 import org.bladerunnerjs.api.plugin.AssetRegistry;
 import org.bladerunnerjs.api.plugin.DefaultAssetRegistry;
 import org.bladerunnerjs.model.engine.Node;
@@ -22,6 +23,7 @@ import org.bladerunnerjs.model.engine.RootNode;
 public abstract class AbstractAssetContainer extends AbstractBRJSNode implements AssetContainer {
 	
 	private final MemoizedValue<AssetRegistry> assetDiscoveryResult;
+	private final AssetDiscoveryCache assetDiscoveryCache = new AssetDiscoveryCache();
 	
 	public AbstractAssetContainer(RootNode rootNode, Node parent, MemoizedFile dir) {
 		super(rootNode, parent, dir);
@@ -100,8 +102,13 @@ public abstract class AbstractAssetContainer extends AbstractBRJSNode implements
 	
 	protected AssetRegistry assetDiscoveryResult() {
 		return assetDiscoveryResult.value(() -> {
-			AssetRegistry assetRegistry = new DefaultAssetRegistry(this);
-			assetRegistry.discoverFurtherAssets(dir(), requirePrefix(), Collections.emptyList());
+			AssetRegistry assetRegistry = new DefaultAssetRegistry(this, assetDiscoveryCache);
+			try {
+				assetRegistry.discoverFurtherAssets(dir(), requirePrefix(), Collections.emptyList());
+			}
+			finally {
+				assetDiscoveryCache.discoveryComplete();
+			}
 			return assetRegistry;
 		});
 	}
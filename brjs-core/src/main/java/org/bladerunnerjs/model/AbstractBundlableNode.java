@@ -1,6 +1,8 @@
 package org.bladerunnerjs.model;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -8,6 +10,7 @@ import org.bladerunnerjs.api.App;
 import org.bladerunnerjs.api.Aspect;
 import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.Blade;
+import org.bladerunnerjs.api.BladerunnerConf;
 import org.bladerunnerjs.api.Bladeset;
 import org.bladerunnerjs.api.BundlableNode;
 import org.bladerunnerjs.api.BundleSet;
@@ -48,7 +51,18 @@ public abstract class AbstractBundlableNode extends AbstractAssetContainer imple
 	public AbstractBundlableNode(RootNode rootNode, Node parent, MemoizedFile dir) {
 		super(rootNode, parent, dir);
 		defaultRequirePlugin = root().plugins().requirePlugin("default");
-		bundleSet = new MemoizedValue<>(this.getClass().getSimpleName()+" bundleSet", root(), root().dir(), app().dir());
+		bundleSet = new MemoizedValue<>(this.getClass().getSimpleName()+" bundleSet", root(), bundleSetScopeFiles());
+	}
+	
+	/* 
+	 * the bundle set is only re-created when something within the app's scope changes rather than anywhere beneath the BRJS root, and since 
+	 * each asset memoizes its own dependencies re-creating the bundle set only re-scans the assets whose files have changed
+	 */
+	private List<File> bundleSetScopeFiles() {
+		List<File> scopeFiles = new ArrayList<>( Arrays.asList(app().memoizedScopeFiles()) );
+		scopeFiles.add( root().file("js-patches") );
+		scopeFiles.add( BladerunnerConf.getConfigFilePath(root()) );
+		return scopeFiles;
 	}
 
 	@Override
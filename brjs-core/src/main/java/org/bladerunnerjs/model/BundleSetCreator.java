@@ -39,11 +39,13 @@ public class BundleSetCreator {
 		if(seedFiles.isEmpty()) {
 			logger.debug(Messages.BUNDLABLE_NODE_HAS_NO_SEED_FILES_MSG, bundlableNode.getTypeName(), name);
 		}
-		else {
+		else if(logger.isDebugEnabled()) {
 			logger.debug(Messages.BUNDLABLE_NODE_SEED_FILES_MSG, bundlableNode.getTypeName(), name, seedFilePaths(bundlableNode, seedFiles));
 		}
 		
-		logger.debug(Messages.APP_SOURCE_LOCATIONS_MSG, bundlableNode.app().getName(), assetContainerPaths(bundlableNode.app()));
+		if(logger.isDebugEnabled()) {
+			logger.debug(Messages.APP_SOURCE_LOCATIONS_MSG, bundlableNode.app().getName(), assetContainerPaths(bundlableNode.app()));
+		}
 		
 		bundleSetBuilder.addSeedFiles(seedFiles);
 		
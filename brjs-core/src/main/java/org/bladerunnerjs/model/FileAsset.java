@@ -8,7 +8,6 @@ import java.util.List;
 import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.model.exception.ConfigException;
-import org.bladerunnerjs.utility.UnicodeReader;
 
 public class FileAsset implements Asset {
 	private MemoizedFile file;
@@ -32,7 +31,7 @@ public class FileAsset implements Asset {
 	
 	@Override
 	public Reader getReader() throws IOException {
-		return new UnicodeReader(file, defaultFileCharacterEncoding);
+		return assetContainer.root().getSourceContentStore().getReader(file, defaultFileCharacterEncoding);
 	}
 	
 	@Override
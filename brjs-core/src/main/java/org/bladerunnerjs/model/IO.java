@@ -1,51 +1,88 @@
 package org.bladerunnerjs.model;
 
 import java.io.File;
-import java.io.FileFilter;
-import java.util.Arrays;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-import org.apache.commons.io.filefilter.DelegateFileFilter;
 import org.apache.commons.io.filefilter.IOFileFilter;
-import org.apache.commons.io.filefilter.OrFileFilter;
-import org.apache.commons.io.filefilter.SuffixFileFilter;
 
+/**
+ * Checks that the files read while a memoized value is being computed are within the files and directories that value watches, since otherwise
+ * the value wouldn't be recomputed when those files change.
+ *
+ * Reads are reported to {@link #recordRead}, or made using {@link #openForReading}, by the model's own file reading code (e.g.
+ * {@link org.bladerunnerjs.utility.UnicodeReader}, {@link org.bladerunnerjs.utility.EncodedFileUtil} and the content plugins) rather than being
+ * intercepted for the whole JVM, so that reads made by the app server, the minifiers or class loading aren't checked, and so that nothing is
+ * checked at all unless the file access checker has been installed. Any new code that reads files a memoized value depends on must do the same,
+ * preferably by opening them using {@link #openForReading} so that the read can't happen without being reported.
+ *
+ * Reads are only checked, not recorded: memoized values are still invalidated using the files and directories they declare they watch, rather
+ * than a set of dependencies discovered from the files they actually read, and the checks only verify that those declarations are complete.
+ */
 public class IO {
-	private final Map<FileAccessLimitScope, File[]> activeScopes = new LinkedHashMap<>();
-	private final SecurityManager securityManager;
-	private final IOFileFilter classFileAndJarFileFilter = new SuffixFileFilter( new String[] { ".class", ".jar" } );
-	private final IOFileFilter jrePathFileFilter = new DelegateFileFilter(new FileFilter() {
-		public boolean accept(File pathname) {
-			return pathname.getAbsolutePath().replace("\\", "/").contains("jre/lib");
-		}
-	});;
+	// scopes are tracked per thread so that concurrent requests don't have their file access checked against each other's scopes
+	private final ThreadLocal<Map<FileAccessLimitScope, File[]>> activeScopes = ThreadLocal.withInitial(LinkedHashMap::new);
+	private final IOFileFilter globalFileFilter;
+	private volatile boolean fileAccessCheckerInstalled = false;
 	
 	public IO(IOFileFilter globalFileFilter) {
-		securityManager = new BRJSSecurityManager( new OrFileFilter(Arrays.asList(jrePathFileFilter, classFileAndJarFileFilter, globalFileFilter)), activeScopes);
+		this.globalFileFilter = globalFileFilter;
 	}
 	
 	public FileAccessLimitScope limitAccessToWithin(String scopeIdentifier, File[] watchItems) {
-		return new FileAccessLimitScope(scopeIdentifier, activeScopes, watchItems);
+		return new FileAccessLimitScope(scopeIdentifier, activeScopes.get(), watchItems);
 	}
 	
 	public void installFileAccessChecker() {
-		executeFileAccessingStaticInitializers();
-		System.setSecurityManager(securityManager);
+		fileAccessCheckerInstalled = true;
 	}
 	
 	public void uninstallFileAccessChecker() {
-		System.setSecurityManager(null);
+		fileAccessCheckerInstalled = false;
+	}
+	
+	/**
+	 * Records that the given file is being read, throwing a {@link BRJSMemoizationFileAccessException} if the file access checker has been installed
+	 * and the file isn't within every scope that's currently active on this thread. 
+	 */
+	public void recordRead(File file) throws BRJSMemoizationFileAccessException {
+		if (fileAccessCheckerInstalled) {
+			assertWithinScope(file);
+		}
+	}
+	
+	/**
+	 * Records that the given file is being read, as {@link #recordRead} does, and opens it.
+	 */
+	public InputStream openForReading(File file) throws FileNotFoundException, BRJSMemoizationFileAccessException {
+		recordRead(file);
+		return new FileInputStream(file);
 	}
 	
-	private void executeFileAccessingStaticInitializers() {
-		try {
-			Class.forName("java.util.Currency");
-			Class.forName("org.bladerunnerjs.plugin.bundlers.aliasing.AliasesReader");
-			Class.forName("org.bladerunnerjs.plugin.bundlers.aliasing.AliasDefinitionsReader");
+	private void assertWithinScope(File file) {
+		Map<FileAccessLimitScope, File[]> threadScopes = activeScopes.get();
+		if (threadScopes.isEmpty() || globalFileFilter.accept(file)) {
+			return;
 		}
-		catch (ClassNotFoundException e) {
-			// do nothing since the classes might not be available
+		
+		String filePath = file.getAbsolutePath();
+		for (Map.Entry<FileAccessLimitScope, File[]> limitScope : threadScopes.entrySet()) {
+			File[] scopeFiles = limitScope.getValue();
+			boolean withinScope = false;
+			
+			for (File scopeFile : scopeFiles) {
+				if (filePath.startsWith(scopeFile.getAbsolutePath())) {
+					withinScope = true;
+					break;
+				}
+			}
+			
+			if (!withinScope) {
+				throw new BRJSMemoizationFileAccessException(file, scopeFiles, limitScope.getKey().getScopeIdentifier());
+			}
 		}
 	}
 }
@@ -17,7 +17,6 @@ import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.api.model.exception.ModelOperationException;
 import org.bladerunnerjs.api.model.exception.RequirePathException;
 import org.bladerunnerjs.api.utility.RequirePathUtility;
-import org.bladerunnerjs.utility.UnicodeReader;
 
 /**
  * A linked asset file that refers to another AssetFile using a fully qualified name such as 'my.package.myClass'
@@ -55,7 +54,7 @@ public class LinkedFileAsset implements LinkedAsset {
 	
 	@Override
 	public Reader getReader() throws IOException {
-		return new UnicodeReader(assetFile, defaultFileCharacterEncoding);
+		return assetContainer.root().getSourceContentStore().getReader(assetFile, defaultFileCharacterEncoding);
 	}
 	
 	@Override
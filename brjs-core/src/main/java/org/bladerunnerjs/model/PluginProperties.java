@@ -1,15 +1,15 @@
 package org.bladerunnerjs.model;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.TreeMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.model.exception.PropertiesException;
@@ -25,7 +25,7 @@ public class PluginProperties implements NodeProperties
 	private final Node node;
 	private final String pluginName;
 
-	private Map<String, Object> transientProperties = new TreeMap<String, Object>();
+	private final Map<String, Object> transientProperties = new ConcurrentHashMap<String, Object>();
 	
 	public PluginProperties(Node node, String pluginName)
 	{
@@ -61,7 +61,12 @@ public class PluginProperties implements NodeProperties
 	@Override
 	public void setTransientProperty(String propertyName, Object propertyValue)
 	{
-		transientProperties.put(propertyName, propertyValue);
+		if (propertyValue == null) {
+			transientProperties.remove(propertyName);
+		}
+		else {
+			transientProperties.put(propertyName, propertyValue);
+		}
 	}
 
 	@Override
@@ -70,6 +75,23 @@ public class PluginProperties implements NodeProperties
 		return transientProperties.get(propertyName);
 	}
 	
+	@Override
+	public Object getOrCreateTransientProperty(String propertyName, Supplier<?> propertyValueSupplier)
+	{
+		Object propertyValue = transientProperties.get(propertyName);
+		if (propertyValue == null) {
+			// a lock is used rather than computeIfAbsent() since creating a property can set other properties on the same node
+			synchronized (transientProperties) {
+				propertyValue = transientProperties.get(propertyName);
+				if (propertyValue == null) {
+					propertyValue = propertyValueSupplier.get();
+					transientProperties.put(propertyName, propertyValue);
+				}
+			}
+		}
+		return propertyValue;
+	}
+	
 	
 
 	private MemoizedFile getPropertiesFile() throws IOException
@@ -90,7 +112,7 @@ public class PluginProperties implements NodeProperties
 		Properties properties = new Properties();
 		if (propertiesFile.exists())
 		{
-			try(InputStream propertiesInputStream = new FileInputStream(propertiesFile)) {
+			try(InputStream propertiesInputStream = node.root().io().openForReading(propertiesFile)) {
 				properties.load(propertiesInputStream);
 			}
 		}
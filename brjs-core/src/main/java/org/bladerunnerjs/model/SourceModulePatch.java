@@ -1,6 +1,5 @@
 package org.bladerunnerjs.model;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
@@ -9,7 +8,6 @@ import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.JsLib;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.model.exception.ConfigException;
-import org.bladerunnerjs.utility.UnicodeReader;
 
 public class SourceModulePatch
 {
@@ -56,7 +54,7 @@ public class SourceModulePatch
     			brjs.logger(SourceModulePatch.class).debug(PATCH_APPLIED_MESSAGE, requirePath, brjs.dir().getRelativePath(patchFile));
     			try
     			{
-    				reader = new BufferedReader(new UnicodeReader(patchFile, brjs.bladerunnerConf().getDefaultFileCharacterEncoding()));
+    				reader = brjs.getSourceContentStore().getReader(patchFile, brjs.bladerunnerConf().getDefaultFileCharacterEncoding());
     			}
     			catch (IOException | ConfigException e)
     			{
@@ -1,7 +1,6 @@
 package org.bladerunnerjs.model;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -24,7 +23,7 @@ public class StaticContentAccessor extends UrlContentAccessor
 	@Override
 	public void writeLocalUrlContentsToOutputStream(String urlPath, OutputStream output) throws IOException {		
 		File requestPathFile = app.file(urlPath);
-		try (InputStream fileInput = new FileInputStream(requestPathFile)) {
+		try (InputStream fileInput = app.root().io().openForReading(requestPathFile)) {
 			IOUtils.copy(fileInput, output);
 		}
 	}
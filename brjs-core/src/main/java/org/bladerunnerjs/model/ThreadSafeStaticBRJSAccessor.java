@@ -1,7 +1,6 @@
 package org.bladerunnerjs.model;
 
 import java.io.File;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.model.exception.InvalidSdkDirectoryException;
@@ -11,6 +10,9 @@ import org.bladerunnerjs.plugin.utility.BRJSPluginLocator;
 /**
  * A utility class so Servlets and Filters can share a single BRJS model instance.
  * 
+ * Requests that only read from the model should use {@link #acquireModel()}, which can be held by many threads at once. Requests that
+ * change the model (e.g. creating apps or blades) should use {@link #acquireModelForUpdate()} which waits for exclusive access.
+ * 
  * WARNING: Do not use this class. Any plugins that should have a reference to the BRJS instance will be provided it in the setBRJS() method. 
  *
  */
@@ -18,7 +20,6 @@ import org.bladerunnerjs.plugin.utility.BRJSPluginLocator;
 public class ThreadSafeStaticBRJSAccessor {
 	
 	private static BRJS model;
-	private static final ReentrantLock lock = new ReentrantLock();
 	
 	//TODO: remove this once we've removed all legacy code
 	public static BRJS root;
@@ -53,11 +54,22 @@ public class ThreadSafeStaticBRJSAccessor {
 	}
 	
 	public static BRJS acquireModel() {
-		lock.lock();
-		return model;
+		BRJS brjs = model;
+		brjs.getFileModificationRegistry().lockForReading();
+		return brjs;
 	}
 	
 	public static void releaseModel() {
-		lock.unlock();
+		model.getFileModificationRegistry().unlockForReading();
+	}
+	
+	public static BRJS acquireModelForUpdate() {
+		BRJS brjs = model;
+		brjs.getFileModificationRegistry().lockForWriting();
+		return brjs;
+	}
+	
+	public static void releaseModelForUpdate() {
+		model.getFileModificationRegistry().unlockForWriting();
 	}
 }
\ No newline at end of file
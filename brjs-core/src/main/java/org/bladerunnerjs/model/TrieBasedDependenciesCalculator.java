@@ -15,13 +15,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
-import org.bladerunnerjs.api.App;
 import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.BladerunnerConf;
 import org.bladerunnerjs.api.SourceModule;
 import org.bladerunnerjs.api.memoization.Getter;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.memoization.MemoizedValue;
+import org.bladerunnerjs.api.memoization.PersistentDependencyCache;
+import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.api.model.exception.ModelOperationException;
 import org.bladerunnerjs.utility.reader.AssetReaderFactory;
 import org.bladerunnerjs.utility.trie.Trie;
@@ -31,12 +32,14 @@ public class TrieBasedDependenciesCalculator
 {
 	private static final Pattern getServiceMatcherPattern = Pattern.compile("getService\\([ ]*[\"']([^)]+)[\"'][ ]*\\)");
 	
-	private App app;
 	private Asset asset;
 	private final AssetReaderFactory readerFactory;
 	private final TrieFactory trieFactory;
+	private final MemoizedFile[] readerFiles;
 	
 	private MemoizedValue<ComputedValue> computedValue;
+	private Trie<Asset> lastTrie;
+	private boolean lastServiceRegistryPresent;
 
 	private AssetContainer assetContainer;
 	
@@ -45,12 +48,13 @@ public class TrieBasedDependenciesCalculator
 		this.asset = asset;
 		this.readerFactory = readerFactory;
 		this.assetContainer = assetContainer;
-		app = assetContainer.app();
+		this.readerFiles = readerFiles;
 		trieFactory = TrieFactory.getFactoryForAssetContainer(assetContainer);
 		
+		// only the files that are read are watched, changes to the rest of the scope are picked up by checking whether the trie has changed
 		List<MemoizedFile> scopeFiles = new ArrayList<>();
 		scopeFiles.addAll(Arrays.asList(readerFiles));
-		scopeFiles.addAll(Arrays.asList(new MemoizedFile[] {assetContainer.root().file("js-patches"), BladerunnerConf.getConfigFilePath(assetContainer.root()), app.dir(), app.root().sdkJsLibsDir().dir()}));
+		scopeFiles.addAll(Arrays.asList(new MemoizedFile[] {assetContainer.root().file("js-patches"), BladerunnerConf.getConfigFilePath(assetContainer.root())}));
 		computedValue = new MemoizedValue<>(asset.getAssetPath()+" - TrieBasedDependenciesCalculator.computedValue", assetContainer.root(), scopeFiles.toArray(new File[scopeFiles.size()]));
 	}
 	
@@ -72,15 +76,25 @@ public class TrieBasedDependenciesCalculator
 		return requirePaths;
 	}
 	
-	private ComputedValue getComputedValue() throws ModelOperationException {
+	private synchronized ComputedValue getComputedValue() throws ModelOperationException {
+		Trie<Asset> trie = trieFactory.createTrie();
+		boolean serviceRegistryPresent = serviceRegistryPresent();
+		if (trie != lastTrie || serviceRegistryPresent != lastServiceRegistryPresent) {
+			computedValue.invalidate();
+			lastTrie = trie;
+			lastServiceRegistryPresent = serviceRegistryPresent;
+		}
+		
 		return computedValue.value(new Getter<ModelOperationException>() {
 			@Override
 			public Object get() throws ModelOperationException {
 				ComputedValue computedValue = new ComputedValue();
+				PersistentDependencyCache.Lookup cachedDependencies = lookupCachedDependencies(serviceRegistryPresent);
+				if (cachedDependencies != null && cachedDependencies.isHit() && addCachedRequirePaths(computedValue, cachedDependencies, trie)) {
+					return computedValue;
+				}
 				
 				try(Reader reader = readerFactory.createReader()) {
-					Trie<Asset> trie = trieFactory.createTrie();
-					
 					StringWriter readerContents = new StringWriter();
 					IOUtils.copy(reader, readerContents);
 					String contents = readerContents.toString();
@@ -92,7 +106,7 @@ public class TrieBasedDependenciesCalculator
 						}
 					}
 					
-					if (serviceRegistryPresent()) {
+					if (serviceRegistryPresent) {
     					Matcher m = getServiceMatcherPattern.matcher(contents);
     					while (m.find()) {
     						String serviceName = m.group(1);
@@ -105,11 +119,72 @@ public class TrieBasedDependenciesCalculator
 					throw new ModelOperationException(ex);
 				}
 				
+				if (cachedDependencies != null) {
+					storeCachedRequirePaths(computedValue, cachedDependencies);
+				}
+				
 				return computedValue;
 			}
 		});
  	}
 	
+	private PersistentDependencyCache.Lookup lookupCachedDependencies(boolean serviceRegistryPresent) throws ModelOperationException {
+		if (readerFiles.length == 0) {
+			return null;
+		}
+		
+		try {
+			String cacheKey = "trie:" + readerFactory.getClass().getName() + ":" + readerFiles[0].getAbsolutePath();
+			String cacheVersion = trieFactory.getTrieFingerprint() + ":" + serviceRegistryPresent + ":" + assetContainer.root().bladerunnerConf().getDefaultFileCharacterEncoding();
+			return assetContainer.root().getDependencyCache().lookup(cacheKey, cacheVersion, readerFiles);
+		}
+		catch (ConfigException ex) {
+			throw new ModelOperationException(ex);
+		}
+	}
+	
+	private boolean addCachedRequirePaths(ComputedValue computedValue, PersistentDependencyCache.Lookup cachedDependencies, Trie<Asset> trie) {
+		List<String> requirePaths = cachedDependencies.getValues("requirePaths");
+		List<String> assetClasses = cachedDependencies.getValues("assetClasses");
+		
+		for (int i = 0; i < requirePaths.size(); i++) {
+			String requirePath = requirePaths.get(i);
+			Class<? extends Asset> assetClass = assetClassForName(assetClasses.get(i), trie.get(requirePath));
+			if (assetClass == null) {
+				computedValue.requirePaths.clear();
+				return false;
+			}
+			computedValue.requirePaths.put(requirePath, assetClass);
+		}
+		return true;
+	}
+	
+	private void storeCachedRequirePaths(ComputedValue computedValue, PersistentDependencyCache.Lookup cachedDependencies) {
+		Map<String, List<String>> cachedValues = new LinkedHashMap<>();
+		cachedValues.put("requirePaths", new ArrayList<>(computedValue.requirePaths.keySet()));
+		List<String> assetClasses = new ArrayList<>();
+		for (Class<? extends Asset> assetClass : computedValue.requirePaths.values()) {
+			assetClasses.add(assetClass.getName());
+		}
+		cachedValues.put("assetClasses", assetClasses);
+		cachedDependencies.store(cachedValues);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Class<? extends Asset> assetClassForName(String className, Asset trieAsset) {
+		if (trieAsset != null && trieAsset.getClass().getName().equals(className)) {
+			return trieAsset.getClass();
+		}
+		
+		try {
+			Class<?> assetClass = Class.forName(className, false, asset.getClass().getClassLoader());
+			return (Asset.class.isAssignableFrom(assetClass)) ? (Class<? extends Asset>) assetClass : null;
+		}
+		catch (ClassNotFoundException ex) {
+			return null;
+		}
+	}
+	
 	private boolean serviceRegistryPresent() {
 		for (AssetContainer assetContainer : assetContainer.scopeAssetContainers()) {
 			if (assetContainer.asset("br/ServiceRegistry") != null) {
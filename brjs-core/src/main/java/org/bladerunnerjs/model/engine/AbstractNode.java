@@ -7,7 +7,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.naming.InvalidNameException;
 
@@ -38,8 +38,8 @@ public abstract class AbstractNode implements Node
 	}
 	
 	private ObserverList observers = new ObserverList();
-	private Map<String, NodeProperties> propertiesMap = new TreeMap<String,NodeProperties>();
-	private Map<String, MemoizedFile> filesMap = new TreeMap<>();
+	private final Map<String, NodeProperties> propertiesMap = new ConcurrentHashMap<>();
+	private final Map<String, MemoizedFile> filesMap = new ConcurrentHashMap<>();
 	
 	
 	
@@ -115,13 +115,7 @@ public abstract class AbstractNode implements Node
 	@Override
 	public MemoizedFile file(String filePath)
 	{
-		MemoizedFile cachedFile = filesMap.get(filePath);
-		if (cachedFile == null)
-		{
-			cachedFile = rootNode.getMemoizedFile(dir(), filePath);
-			filesMap.put(filePath, cachedFile);
-		}
-		return cachedFile;
+		return filesMap.computeIfAbsent(filePath, (path) -> rootNode.getMemoizedFile(dir(), path));
 	}
 	
 	@Override
@@ -223,13 +217,7 @@ public abstract class AbstractNode implements Node
 	@Override
 	public NodeProperties nodeProperties(String pluginName)
 	{
-		NodeProperties properties = propertiesMap.get(pluginName);
-		if (properties == null)
-		{
-			properties = new PluginProperties(this, pluginName);
-			propertiesMap.put(pluginName, properties);
-		}
-		return properties;
+		return propertiesMap.computeIfAbsent(pluginName, (name) -> new PluginProperties(this, name));
 	}
 	
 	@Override
@@ -2,10 +2,10 @@ package org.bladerunnerjs.model.engine;
 
 import java.io.File;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.bladerunnerjs.api.logging.Logger;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
@@ -21,7 +21,7 @@ public abstract class AbstractRootNode extends AbstractNode implements RootNode
 	// TODO: remove this flag once we delete all old BladerRunner code
 	public static boolean allowInvalidRootDirectories = true;
 	
-	private Map<String, List<Node>> nodeCache = new TreeMap<>();
+	private final Map<String, List<Node>> nodeCache = new ConcurrentHashMap<>();
 	protected LoggerFactory loggerFactory;
 
 	protected File rootDir;
@@ -69,30 +69,29 @@ public abstract class AbstractRootNode extends AbstractNode implements RootNode
 	{
 		List<Node> nodesForPath = getRegisteredNodes(node.dir());
 		
-		boolean nodeExistsForPath = findFirstNodeOfClass(nodesForPath, node.getClass()) != null;
-		
-		if (nodeExistsForPath) {
-			throw new NodeAlreadyRegisteredException("A node of type '" + node.getTypeName() + 
-					"' has already been registered for path '" + node.dir() + "'");
-		}
-
-		notifyObservers(new NodeDiscoveredEvent(), node);
-
-		if (node.dir().exists()) {
-			node.ready();
+		// nodes are discovered while requests have shared access to the model, so two threads mustn't both register a node for the same path
+		synchronized (nodesForPath) {
+			boolean nodeExistsForPath = findFirstNodeOfClass(nodesForPath, node.getClass()) != null;
+			
+			if (nodeExistsForPath) {
+				throw new NodeAlreadyRegisteredException("A node of type '" + node.getTypeName() + 
+						"' has already been registered for path '" + node.dir() + "'");
+			}
+	
+			notifyObservers(new NodeDiscoveredEvent(), node);
+	
+			if (node.dir().exists()) {
+				node.ready();
+			}
+			
+			nodesForPath.add(node);
 		}
-		
-		nodesForPath.add(node);
 	}
 	
 	@Override
 	public List<Node> getRegisteredNodes(MemoizedFile childPath)
 	{
-		String normalizedPath = childPath.getAbsolutePath();
-		if (!nodeCache.containsKey(normalizedPath)) {
-			nodeCache.put( normalizedPath, new LinkedList<>() );
-		}
-		return nodeCache.get(normalizedPath);
+		return nodeCache.computeIfAbsent(childPath.getAbsolutePath(), (normalizedPath) -> new CopyOnWriteArrayList<>());
 	}
 	
 	@Override
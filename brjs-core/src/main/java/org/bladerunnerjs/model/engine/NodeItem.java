@@ -14,7 +14,7 @@ public class NodeItem<N extends Node>
 	private final Node node;
 	private final Class<N> nodeClass;
 	private final List<NodeLocator> nodeItemLocators = new ArrayList<>();
-	public N item;
+	public volatile N item;
 	
 	public NodeItem(Node node, Class<N> nodeClass, String subDirPath)
 	{
@@ -38,7 +38,7 @@ public class NodeItem<N extends Node>
 		return item(true);
 	}
 	
-	public N item(boolean registerNode)
+	public synchronized N item(boolean registerNode)
 	{
 		if(item == null)
 		{
@@ -5,7 +5,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.TrueFileFilter;
@@ -16,7 +16,7 @@ import org.bladerunnerjs.api.model.exception.MultipleNodesForPathException;
 public class NodeList<N extends Node> {
 	private final Node node;
 	private final Class<N> nodeClass;
-	private final Map<String, N> namedNodes = new TreeMap<>();
+	private final Map<String, N> namedNodes = new ConcurrentHashMap<>();
 	private final List<NamedNodeLocator> namedNodeLocators = new ArrayList<>();
 	private MemoizedValue<List<N>> list;
 	private MemoizedFile nodeDir;
@@ -59,34 +59,37 @@ public class NodeList<N extends Node> {
 	
 	@SuppressWarnings("unchecked")
 	public N item(String logicalNodeName) {
-		if (!namedNodes.containsKey(logicalNodeName)) {
-			MemoizedFile childPath = getNodeDir(logicalNodeName);
-			N child;
-			try
-			{
-				child = (N) node.root().getRegisteredNode(childPath, nodeClass);
-			}
-			catch (MultipleNodesForPathException ex)
-			{
-				throw new RuntimeException(ex);
-			}
-			
+		N child = namedNodes.get(logicalNodeName);
+		if (child != null) {
+			return child;
+		}
+		
+		// nodes are created lazily while requests have shared access to the model, so creating one has to be atomic
+		synchronized (namedNodes) {
+			child = namedNodes.get(logicalNodeName);
 			if (child == null) {
-				child = (N) NodeCreator.createNode(node.root(), node, childPath, logicalNodeName, nodeClass);
+				MemoizedFile childPath = getNodeDir(logicalNodeName);
+				try
+				{
+					child = (N) node.root().getRegisteredNode(childPath, nodeClass);
+				}
+				catch (MultipleNodesForPathException ex)
+				{
+					throw new RuntimeException(ex);
+				}
+				
+				if (child == null) {
+					child = (N) NodeCreator.createNode(node.root(), node, childPath, logicalNodeName, nodeClass);
+				}
+				
+				namedNodes.put(logicalNodeName, child);
 			}
-			
-			namedNodes.put(logicalNodeName, child);
+			return child;
 		}
-		
-		return namedNodes.get(logicalNodeName);
 	}
 	
 	public List<N> list() {
-		if(list == null) {
-			list = new MemoizedValue<>("NodeList.list "+node.toString(), node.root(), getNodeDir());
-		}
-		
-		return list.value(() -> {
+		return getList().value(() -> {
 			List<N> childList = new ArrayList<>();
 			
 			for (String nodeName : getLogicalNodeNames()) {
@@ -97,6 +100,13 @@ public class NodeList<N extends Node> {
 		});
 	}
 	
+	private synchronized MemoizedValue<List<N>> getList() {
+		if(list == null) {
+			list = new MemoizedValue<>("NodeList.list "+node.toString(), node.root(), getNodeDir());
+		}
+		return list;
+	}
+	
 	private List<String> getLogicalNodeNames()
 	{
 		Set<String> combinedLogicalNodeNames = new LinkedHashSet<>();
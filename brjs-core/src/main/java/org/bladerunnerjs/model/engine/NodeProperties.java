@@ -1,5 +1,7 @@
 package org.bladerunnerjs.model.engine;
 
+import java.util.function.Supplier;
+
 import org.bladerunnerjs.api.model.exception.PropertiesException;
 
 
@@ -12,4 +14,10 @@ public interface NodeProperties
 	public void setTransientProperty(String propertyName, Object propertyValue);
 
 	public Object getTransientProperty(String propertyName);
+	
+	/**
+	 * Returns the named transient property, creating it with the given supplier if it isn't set. The property is only ever created once,
+	 * however many threads ask for it at the same time.
+	 */
+	public Object getOrCreateTransientProperty(String propertyName, Supplier<?> propertyValueSupplier);
 }
@@ -38,6 +38,13 @@ public class VirtualProxyContentPlugin extends VirtualProxyPlugin implements Con
 		return contentPlugin.getValidContentPaths(bundleSet, requestMode, locales);
 	}
 
+	@Override
+	public List<String> getValidProdModuleContentPaths(BundleSet bundleSet, Locale... locales) throws ContentProcessingException
+	{
+		initializePlugin();
+		return contentPlugin.getValidProdModuleContentPaths(bundleSet, locales);
+	}
+
 	@Override
 	public List<String> getUsedContentPaths(BundleSet bundleSet, RequestMode requestMode, Locale... locales) throws ContentProcessingException
 	{
@@ -21,6 +21,12 @@ public class VirtualProxyMinifierPlugin extends VirtualProxyPlugin implements Mi
 		return minifierPlugin.getSettingNames();
 	}
 	
+	@Override
+	public boolean minifiesInputSourcesIndependently(String settingName) {
+		initializePlugin();
+		return minifierPlugin.minifiesInputSourcesIndependently(settingName);
+	}
+	
 	@Override
 	public Reader minify(String settingName, List<InputSource> inputSources) throws ContentProcessingException, ResourceNotFoundException {
 		initializePlugin();
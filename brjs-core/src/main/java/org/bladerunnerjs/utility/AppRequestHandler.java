@@ -65,9 +65,8 @@ public class AppRequestHandler
 
 	public boolean canHandleLogicalRequest(String requestPath)
 	{
-		boolean canHandleRequest = getContentPathParser().canParseRequest(requestPath);
-		if (canHandleRequest) {
-			ParsedContentPath parsedRequest = parseRequest(requestPath);
+		ParsedContentPath parsedRequest = getContentPathParser().tryParse(requestPath);
+		if (parsedRequest != null) {
 			if (parsedRequest.formName.equals(UNVERSIONED_BUNDLE_REQUEST)) {
 				/* since unversioned requests (/myApp/somePlugin/file.txt) could also be a request to a custom servlet
 				 * if the request type is an unversioned bundle request we must first check that a content plugin can ultimately handle it
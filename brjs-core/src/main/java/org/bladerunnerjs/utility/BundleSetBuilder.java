@@ -171,7 +171,7 @@ public class BundleSetBuilder {
 		if(moduleDependencies.isEmpty()) {
 			logger.debug(Messages.FILE_HAS_NO_DEPENDENCIES_MSG, linkedAsset.getAssetPath());
 		}
-		else {
+		else if(logger.isDebugEnabled()) {
 			logger.debug(Messages.FILE_DEPENDENCIES_MSG, linkedAsset.getAssetPath(), assetFilePaths(moduleDependencies));
 		}
 		return moduleDependencies;
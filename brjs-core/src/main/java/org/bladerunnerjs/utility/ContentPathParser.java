@@ -1,6 +1,8 @@
 package org.bladerunnerjs.utility;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +22,9 @@ public class ContentPathParser
 	private final Map<String, Pattern> tokens;
 	private final Map<String, Pattern> requestFormPatterns;
 	private final Map<String, List<String>> requestFormTokens;
+	private final String[] requestFormNames;
+	private final Pattern[] requestFormMatchers;
+	private final RequestFormPrefixNode requestFormPrefixTree = new RequestFormPrefixNode();
 	
 	public ContentPathParser(Map<String, String> requestForms, Map<String, String> tokens)
 	{
@@ -27,6 +32,17 @@ public class ContentPathParser
 		this.tokens = generateTokenPatterns(tokens);
 		this.requestFormPatterns = generateRequestFormPatterns(requestForms, tokens);
 		this.requestFormTokens = generateRequestFormTokens(requestForms);
+		
+		requestFormNames = requestFormPatterns.keySet().toArray(new String[0]);
+		requestFormMatchers = requestFormPatterns.values().toArray(new Pattern[0]);
+		for (int fi = 0; fi < requestFormNames.length; fi++)
+		{
+			String requestForm = requestForms.get(requestFormNames[fi]);
+			// the leading text ends at the first token, or at any character convertRequestFormToPattern() leaves with a special meaning
+			int leadingTextEnd = StringUtils.indexOfAny(requestForm, "<{}|^$\\");
+			String leadingText = (leadingTextEnd == -1) ? requestForm : requestForm.substring(0, leadingTextEnd);
+			requestFormPrefixTree.addRequestForm(leadingText, fi);
+		}
 	}
 	
 	public List<String> getRequestForms()
@@ -58,54 +74,76 @@ public class ContentPathParser
 	}
 	
 	public boolean canParseRequest(String requestPath) {
-		try
-		{
-			parse(requestPath);
-			return true;
+		return tryParse(requestPath) != null;
+	}
+	
+	public ParsedContentPath parse(String request) throws MalformedRequestException
+	{
+		ParsedContentPath contentPath = tryParse(request);
+		if (contentPath != null) {
+			return contentPath;
 		}
-		catch (MalformedRequestException | IndexOutOfBoundsException e)
+		
+		MalformedRequestException ex = new MalformedRequestException(request, "Request did not match " + requestFormPatterns);
+		ex.setCharacterNumber(getErrorPos(request) + 1);
+		throw ex;
+	}
+	
+	/**
+	 * Parses the given request, returning <code>null</code> rather than throwing an exception if it doesn't match any of the request forms.
+	 * 
+	 * Only the request forms whose leading text (the text before their first token) the request starts with are matched against it, and these
+	 * are found by walking the request down a tree of all the forms' leading text, so the cost of routing a request doesn't grow with the number
+	 * of request forms that can't match it.
+	 */
+	public ParsedContentPath tryParse(String request)
+	{
+		BitSet candidateRequestForms = new BitSet(requestFormNames.length);
+		requestFormPrefixTree.addCandidateRequestForms(request, candidateRequestForms);
+		
+		for (int fi = candidateRequestForms.nextSetBit(0); fi >= 0; fi = candidateRequestForms.nextSetBit(fi + 1))
 		{
-			return false;
+			Matcher requestMatcher = requestFormMatchers[fi].matcher(request);
+			
+			if (requestMatcher.lookingAt() && requestMatcher.end() == request.length())
+			{
+				String requestFormName = requestFormNames[fi];
+				ParsedContentPath contentPath = new ParsedContentPath(requestFormName);
+				List<String> tokens = requestFormTokens.get(requestFormName);
+				
+				for (int gi = 0; gi < requestMatcher.groupCount() && gi < tokens.size(); ++gi)
+				{
+					String property = requestMatcher.group(gi + 1);
+					try {
+						String decodedProperty = URIUtil.decodePath(property);
+						contentPath.properties.put(tokens.get(gi), decodedProperty);
+					} catch (Exception ex) {
+						/* TODO: investigate whether we need this - if the URL fails to decode should we really catch the exception? */ 
+						contentPath.properties.put(tokens.get(gi), property);							
+					}
+				}
+				
+				return contentPath;
+			}
 		}
+		
+		return null;
 	}
 	
-	public ParsedContentPath parse(String request) throws MalformedRequestException
+	private int getErrorPos(String request)
 	{
 		int lastMatchPos = 0;
 		
-		for (String requestFormName : requestFormPatterns.keySet())
+		for (Pattern requestFormPattern : requestFormPatterns.values())
 		{
-			Pattern requestFormPattern = requestFormPatterns.get(requestFormName);
 			Matcher requestMatcher = requestFormPattern.matcher(request);
-
+			
 			if(requestMatcher.lookingAt())
 			{
-				if ((requestMatcher.start() == 0) && (requestMatcher.end() == request.length()))
-				{
-					ParsedContentPath contentPath = new ParsedContentPath(requestFormName);
-					List<String> tokens = requestFormTokens.get(requestFormName);
-
-					for (int gi = 0; gi < requestMatcher.groupCount() && gi < tokens.size(); ++gi)
-					{
-						String property = requestMatcher.group(gi + 1);
-						try {
-							String decodedProperty = URIUtil.decodePath(property);
-							contentPath.properties.put(tokens.get(gi), decodedProperty);
-						} catch (Exception ex) {
-							/* TODO: investigate whether we need this - if the URL fails to decode should we really catch the exception? */ 
-							contentPath.properties.put(tokens.get(gi), property);							
-						}
-					}
-
-					return contentPath;
-				}
-				else if ((requestMatcher.start() == 0) && (requestMatcher.end() > lastMatchPos))
+				if (requestMatcher.end() > lastMatchPos)
 				{
 					lastMatchPos = requestMatcher.end();
 				}
-				else
-				{
-				}
 			}
 			else
 			{
@@ -117,15 +155,16 @@ public class ContentPathParser
 				}
 			}
 		}
-
-		MalformedRequestException ex = new MalformedRequestException(request, "Request did not match " + requestFormPatterns);
-		ex.setCharacterNumber(lastMatchPos + 1);
-		throw ex;
+		
+		return lastMatchPos;
 	}
 	
 	private int getLastMatchPos(String request, Matcher requestMatcher)
 	{
 		int endRegion = request.length() - 1;
+		if (endRegion <= 0) {
+			return 0;
+		}
 		
 		do
 		{
@@ -211,4 +250,31 @@ public class ContentPathParser
 			throw new MalformedTokenException(tokenName, tokenValue, tokenPattern);
 		}
 	}
+	
+	private static class RequestFormPrefixNode
+	{
+		private final Map<Character, RequestFormPrefixNode> children = new HashMap<>();
+		private final BitSet requestForms = new BitSet();
+		
+		public void addRequestForm(String leadingText, int requestFormIndex)
+		{
+			RequestFormPrefixNode node = this;
+			for (int i = 0; i < leadingText.length(); i++)
+			{
+				node = node.children.computeIfAbsent(leadingText.charAt(i), (c) -> new RequestFormPrefixNode());
+			}
+			node.requestForms.set(requestFormIndex);
+		}
+		
+		public void addCandidateRequestForms(String request, BitSet candidateRequestForms)
+		{
+			RequestFormPrefixNode node = this;
+			int i = 0;
+			while (node != null)
+			{
+				candidateRequestForms.or(node.requestForms);
+				node = (i < request.length()) ? node.children.get(request.charAt(i++)) : null;
+			}
+		}
+	}
 }
@@ -2,7 +2,6 @@ package org.bladerunnerjs.utility;
 
 import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Reader;
 
@@ -29,7 +28,7 @@ public class EncodedFileUtil {
 	public String readFileToString(File file) throws IOException {
 		String fileContents = null;
 		
-		try(Reader reader = new UnicodeReader(new BufferedInputStream(new FileInputStream(file)), characterEncoding)) {
+		try(Reader reader = new UnicodeReader(new BufferedInputStream(brjs.io().openForReading(file)), characterEncoding)) {
 			fileContents = IOUtils.toString(reader);
 		}
 		
@@ -0,0 +1,228 @@
+package org.bladerunnerjs.utility;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.BundleSet;
+import org.bladerunnerjs.api.plugin.Locale;
+import org.bladerunnerjs.api.plugin.TagHandlerPlugin;
+import org.bladerunnerjs.model.RequestMode;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.xml.sax.SAXException;
+
+/**
+ * An index page that has been split into its literal chunks and its pre-parsed tags, so that it can be rendered without having to search for or
+ * parse the tags again. Rendered pages are cached for each locale, request mode and version until a different bundle set is used to render them.
+ */
+class IndexPageTemplate
+{
+	private static final String NEW_LINE = String.format("%n");
+	private static final String TAG_START = "<@";
+	private static final String TAG_END = "@[ ]*/[ ]*>";
+	private static final String XML_TAG_START = "<";
+	private static final String XML_TAG_END = "/>";
+	private static final Pattern tagPattern = Pattern.compile(TAG_START+"([A-Za-z][A-Za-z0-9._-]+)([ ]+[^\\s=]+=[^\\s=]+)*[ ]*"+TAG_END);
+	private static final int MAX_RENDERED_PAGES = 64;
+
+	private final String source;
+	private final List<String> literals = new ArrayList<>();
+	private final List<TagNode> tags = new ArrayList<>();
+	private volatile RenderedPages renderedPages = new RenderedPages(null);
+
+	private IndexPageTemplate(String source)
+	{
+		this.source = source;
+	}
+
+	public static IndexPageTemplate compile(String content, BRJS brjs) throws IOException
+	{
+		IndexPageTemplate template = new IndexPageTemplate(content);
+		DocumentBuilder domParser = null;
+		StringBuilder literal = new StringBuilder();
+		int literalStart = 0;
+
+		Matcher matcher = tagPattern.matcher(content);
+		while (matcher.find())
+		{
+			String tagContent = matcher.group(0);
+			literal.append(content, literalStart, matcher.start());
+			literalStart = matcher.end();
+
+			try
+			{
+				if (domParser == null) {
+					domParser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+					domParser.setErrorHandler(new TagPluginUtility.SilentDomParserErrorHandler(brjs));
+				}
+				template.literals.add(literal.toString());
+				template.tags.add(parseTag(domParser, tagContent));
+				literal.setLength(0);
+			}
+			catch (ParserConfigurationException | SAXException e)
+			{
+				literal.append(tagContent);
+			}
+		}
+		literal.append(content, literalStart, content.length());
+		template.literals.add(literal.toString());
+
+		return template;
+	}
+
+	public boolean isCompiledFrom(String content)
+	{
+		return source.equals(content);
+	}
+
+	public String render(BundleSet bundleSet, RequestMode requestMode, Locale locale, String version) throws IOException, NoTagHandlerFoundException
+	{
+		RenderedPages renderedPages = this.renderedPages;
+		if (renderedPages.bundleSet != bundleSet) {
+			renderedPages = new RenderedPages(bundleSet);
+			this.renderedPages = renderedPages;
+		}
+
+		RenderKey renderKey = new RenderKey(requestMode, locale, version);
+		String renderedPage = renderedPages.pages.get(renderKey);
+		if (renderedPage == null) {
+			renderedPage = renderPage(bundleSet, requestMode, locale, version);
+			if (renderedPages.pages.size() >= MAX_RENDERED_PAGES) {
+				renderedPages.pages.clear();
+			}
+			renderedPages.pages.put(renderKey, renderedPage);
+		}
+		return renderedPage;
+	}
+
+	public Map<String, Map<String, String>> getUsedTagsAndAttributes(BundleSet bundleSet) throws NoTagHandlerFoundException
+	{
+		List<TagHandlerPlugin> tagHandlerPlugins = bundleSet.bundlableNode().root().plugins().tagHandlerPlugins();
+		Map<String,Map<String,String>> tagsAndAttributes = new LinkedHashMap<>();
+
+		for (TagNode tag : tags)
+		{
+			getTagHandlerForTag(tagHandlerPlugins, tag.tagName); // check the tag is valid
+			if (!tagsAndAttributes.containsKey(tag.tagName)) {
+				tagsAndAttributes.put(tag.tagName, new LinkedHashMap<>());
+			}
+			tagsAndAttributes.get(tag.tagName).putAll(tag.attributes);
+		}
+
+		return tagsAndAttributes;
+	}
+
+	private String renderPage(BundleSet bundleSet, RequestMode requestMode, Locale locale, String version) throws IOException, NoTagHandlerFoundException
+	{
+		if (!tags.isEmpty() && requestMode != RequestMode.Dev && requestMode != RequestMode.Prod)
+		{
+			throw new RuntimeException("Unsupported request mode '" + requestMode.toString() + "'.");
+		}
+
+		List<TagHandlerPlugin> tagHandlerPlugins = bundleSet.bundlableNode().root().plugins().tagHandlerPlugins();
+		StringWriter writer = new StringWriter(source.length());
+
+		for (int i = 0; i < tags.size(); i++)
+		{
+			writer.write(literals.get(i));
+			TagNode tag = tags.get(i);
+			TagHandlerPlugin tagHandler = getTagHandlerForTag(tagHandlerPlugins, tag.tagName);
+			tagHandler.writeTagContent(tag.attributes, bundleSet, requestMode, locale, writer, version);
+		}
+		writer.write(literals.get(tags.size()));
+
+		String renderedPage = writer.toString();
+		if (renderedPage.endsWith(NEW_LINE)) // the original filtering appended an extra new line that wasn't in the original content, so we remove it
+		{
+			renderedPage = StringUtils.substringBeforeLast(renderedPage, NEW_LINE);
+		}
+		return renderedPage;
+	}
+
+	private static TagNode parseTag(DocumentBuilder domParser, String tagContent) throws SAXException, IOException
+	{
+		String xmlContent = StringUtils.replaceOnce(tagContent, TAG_START, XML_TAG_START);
+		xmlContent = xmlContent.replaceFirst(TAG_END, XML_TAG_END);
+
+		Element root = domParser.parse(new ByteArrayInputStream(xmlContent.getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+		Map<String, String> attributes = new LinkedHashMap<String,String>();
+		NamedNodeMap sourceAttributes = root.getAttributes();
+
+		for(int i = 0; i < sourceAttributes.getLength(); ++i) {
+			Attr attribute = (Attr) sourceAttributes.item(i);
+			attributes.put(attribute.getName(), attribute.getValue());
+		}
+
+		return new TagNode(root.getNodeName(), Collections.unmodifiableMap(attributes));
+	}
+
+	private static TagHandlerPlugin getTagHandlerForTag(List<TagHandlerPlugin> tagHandlerPlugins, String tagName) throws NoTagHandlerFoundException
+	{
+		for (TagHandlerPlugin tagHandler : tagHandlerPlugins)
+		{
+			if (tagHandler.getTagName().equals(tagName))
+			{
+				return tagHandler;
+			}
+		}
+		throw new NoTagHandlerFoundException(tagName);
+	}
+
+
+	private static class TagNode {
+		final String tagName;
+		final Map<String, String> attributes;
+		TagNode(String tagName, Map<String,String> attributes) {
+			this.tagName = tagName;
+			this.attributes = attributes;
+		}
+	}
+
+	private static class RenderedPages {
+		final BundleSet bundleSet;
+		final Map<RenderKey, String> pages = new ConcurrentHashMap<>();
+		RenderedPages(BundleSet bundleSet) {
+			this.bundleSet = bundleSet;
+		}
+	}
+
+	private static class RenderKey {
+		final RequestMode requestMode;
+		final Locale locale;
+		final String version;
+		RenderKey(RequestMode requestMode, Locale locale, String version) {
+			this.requestMode = requestMode;
+			this.locale = locale;
+			this.version = version;
+		}
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof RenderKey)) return false;
+			RenderKey renderKey = (RenderKey) obj;
+			return requestMode == renderKey.requestMode && Objects.equals(locale, renderKey.locale) && Objects.equals(version, renderKey.version);
+		}
+		@Override
+		public int hashCode() {
+			return Objects.hash(requestMode, locale, version);
+		}
+	}
+
+}
@@ -0,0 +1,227 @@
+package org.bladerunnerjs.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dependency graph whose require paths are mapped to dense integer ids and whose dependencies are held in primitive arrays, so that cycles and
+ * dependency order can be found in time linear to the size of the graph.
+ *
+ * The nodes of the graph are the keys of the map it's created from, followed by any dependencies that aren't themselves keys of the map. These
+ * external nodes have no dependencies of their own and are never included in the dependency order.
+ */
+public class IndexedDependencyGraph
+{
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> requirePaths = new ArrayList<>();
+	private final int size;
+	private final int[] dependencyOffsets;
+	private final int[] dependencies;
+
+	public IndexedDependencyGraph(Map<String, List<String>> dependencyGraph)
+	{
+		for (String requirePath : dependencyGraph.keySet()) {
+			addNode(requirePath);
+		}
+		size = requirePaths.size();
+
+		int dependencyCount = 0;
+		for (List<String> nodeDependencies : dependencyGraph.values()) {
+			dependencyCount += (nodeDependencies == null) ? 0 : nodeDependencies.size();
+		}
+
+		int[] nodeDependencyOffsets = new int[size + 1];
+		dependencies = new int[dependencyCount];
+		int node = 0, dependency = 0;
+		for (List<String> nodeDependencies : dependencyGraph.values()) {
+			nodeDependencyOffsets[node++] = dependency;
+			if (nodeDependencies != null) {
+				for (String dependencyRequirePath : nodeDependencies) {
+					Integer id = ids.get(dependencyRequirePath);
+					dependencies[dependency++] = (id != null) ? id : addNode(dependencyRequirePath);
+				}
+			}
+		}
+
+		dependencyOffsets = Arrays.copyOf(nodeDependencyOffsets, requirePaths.size() + 1);
+		Arrays.fill(dependencyOffsets, size, dependencyOffsets.length, dependencyCount);
+	}
+
+	/**
+	 * The number of nodes that were keys of the map the graph was created from, whose ids are 0 to size() - 1.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	public int id(String requirePath)
+	{
+		Integer id = ids.get(requirePath);
+		return (id == null) ? -1 : id;
+	}
+
+	public String requirePath(int id)
+	{
+		return requirePaths.get(id);
+	}
+
+	/**
+	 * Finds the strongly connected components of the graph using an iterative version of Tarjan's algorithm, returning the component of each node.
+	 * Two nodes can reach each other if and only if they are in the same component.
+	 */
+	public int[] stronglyConnectedComponents()
+	{
+		int nodeCount = requirePaths.size();
+		int[] components = new int[nodeCount];
+		int[] indexes = new int[nodeCount];
+		int[] lowLinks = new int[nodeCount];
+		int[] nextDependencies = new int[nodeCount];
+		int[] componentStack = new int[nodeCount];
+		int[] callStack = new int[nodeCount];
+		boolean[] onComponentStack = new boolean[nodeCount];
+		int nextIndex = 0, componentCount = 0, componentStackSize = 0;
+
+		Arrays.fill(indexes, -1);
+		for (int root = 0; root < nodeCount; root++) {
+			if (indexes[root] != -1) {
+				continue;
+			}
+
+			int depth = 0;
+			callStack[0] = root;
+			indexes[root] = lowLinks[root] = nextIndex++;
+			nextDependencies[root] = dependencyOffsets[root];
+			componentStack[componentStackSize++] = root;
+			onComponentStack[root] = true;
+
+			while (depth >= 0) {
+				int node = callStack[depth];
+
+				if (nextDependencies[node] < dependencyOffsets[node + 1]) {
+					int dependency = dependencies[nextDependencies[node]++];
+					if (indexes[dependency] == -1) {
+						indexes[dependency] = lowLinks[dependency] = nextIndex++;
+						nextDependencies[dependency] = dependencyOffsets[dependency];
+						componentStack[componentStackSize++] = dependency;
+						onComponentStack[dependency] = true;
+						callStack[++depth] = dependency;
+					}
+					else if (onComponentStack[dependency]) {
+						lowLinks[node] = Math.min(lowLinks[node], indexes[dependency]);
+					}
+				}
+				else {
+					if (lowLinks[node] == indexes[node]) {
+						int componentNode;
+						do {
+							componentNode = componentStack[--componentStackSize];
+							onComponentStack[componentNode] = false;
+							components[componentNode] = componentCount;
+						} while (componentNode != node);
+						componentCount++;
+					}
+
+					if (--depth >= 0) {
+						int parent = callStack[depth];
+						lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[node]);
+					}
+				}
+			}
+		}
+
+		return components;
+	}
+
+	/**
+	 * Orders the nodes so that each node comes after all of its dependencies, using Kahn's algorithm. The order is the same as repeatedly passing
+	 * over the unordered nodes in id order and adding each node whose dependencies are all met, so nodes are sorted by the pass they would be
+	 * added in and then by their id.
+	 *
+	 * Dependencies on nodes within metDependencies are considered to be met from the start. Nodes that depend on a cycle, or on an external node
+	 * that isn't within metDependencies, can never be ordered and are left out of the returned order.
+	 */
+	public int[] dependencyOrder(BitSet metDependencies)
+	{
+		int nodeCount = requirePaths.size();
+		int[] unmetDependencyCounts = new int[nodeCount];
+		int[] dependentOffsets = new int[nodeCount + 1];
+
+		for (int node = 0; node < size; node++) {
+			for (int i = dependencyOffsets[node]; i < dependencyOffsets[node + 1]; i++) {
+				int dependency = dependencies[i];
+				if (!metDependencies.get(dependency)) {
+					unmetDependencyCounts[node]++;
+					dependentOffsets[dependency + 1]++;
+				}
+			}
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			dependentOffsets[node + 1] += dependentOffsets[node];
+		}
+
+		int[] dependents = new int[dependentOffsets[nodeCount]];
+		int[] nextDependents = Arrays.copyOf(dependentOffsets, nodeCount);
+		for (int node = 0; node < size; node++) {
+			for (int i = dependencyOffsets[node]; i < dependencyOffsets[node + 1]; i++) {
+				int dependency = dependencies[i];
+				if (!metDependencies.get(dependency)) {
+					dependents[nextDependents[dependency]++] = node;
+				}
+			}
+		}
+
+		int[] passes = new int[size];
+		int[] queue = new int[size];
+		int queueStart = 0, queueEnd = 0, maxPass = 1;
+		for (int node = 0; node < size; node++) {
+			passes[node] = 1;
+			if (unmetDependencyCounts[node] == 0) {
+				queue[queueEnd++] = node;
+			}
+		}
+
+		while (queueStart < queueEnd) {
+			int node = queue[queueStart++];
+			maxPass = Math.max(maxPass, passes[node]);
+
+			for (int i = dependentOffsets[node]; i < dependentOffsets[node + 1]; i++) {
+				int dependent = dependents[i];
+				// a dependent that comes after the node in id order is added in the same pass, otherwise it has to wait for the next one
+				passes[dependent] = Math.max(passes[dependent], (dependent > node) ? passes[node] : passes[node] + 1);
+				if (--unmetDependencyCounts[dependent] == 0) {
+					queue[queueEnd++] = dependent;
+				}
+			}
+		}
+
+		int[] passOffsets = new int[maxPass + 2];
+		for (int i = 0; i < queueEnd; i++) {
+			passOffsets[passes[queue[i]] + 1]++;
+		}
+		for (int pass = 1; pass <= maxPass; pass++) {
+			passOffsets[pass + 1] += passOffsets[pass];
+		}
+
+		int[] order = new int[queueEnd];
+		for (int node = 0; node < size; node++) {
+			if (unmetDependencyCounts[node] == 0) {
+				order[passOffsets[passes[node]]++] = node;
+			}
+		}
+		return order;
+	}
+
+	private int addNode(String requirePath)
+	{
+		int id = requirePaths.size();
+		ids.put(requirePath, id);
+		requirePaths.add(requirePath);
+		return id;
+	}
+
+}
@@ -2,9 +2,12 @@ package org.bladerunnerjs.utility;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.memoization.MemoizedValue;
 
@@ -52,14 +55,16 @@ public class JsStyleAccessor {
 		}
 	}
 	
-	private static String readJsStyleFile(File dir) {
+	private String readJsStyleFile(File dir) {
 		String jsStyle = null;
 		
 		try {
 			File jsStyleFile = new File(dir, ".js-style");
 			
 			if(jsStyleFile.exists()) {
-				jsStyle = org.apache.commons.io.FileUtils.readFileToString(jsStyleFile, "UTF-8").trim();
+				try (InputStream jsStyleInput = brjs.io().openForReading(jsStyleFile)) {
+					jsStyle = IOUtils.toString(jsStyleInput, "UTF-8").trim();
+				}
 			}
 		}
 		catch (IOException e) {
@@ -1,8 +1,8 @@
 package org.bladerunnerjs.utility;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,14 +29,22 @@ public class NonCircularTransitivePreExportDependencyGraphCreator {
 
 	private static Map<String, List<String>> nonCircularPostExportDependencies(Map<String, List<String>> postExportDependencyGraph, Map<String, List<String>> combinedDefineTimeDependencyGraph) {
 		
+		// a post-export dependency is circular if the source module can be reached from the dependency, which is the case when they're in the same strongly connected component
+		IndexedDependencyGraph indexedDependencyGraph = new IndexedDependencyGraph(combinedDefineTimeDependencyGraph);
+		int[] components = indexedDependencyGraph.stronglyConnectedComponents();
 		Map<String, List<String>> nonCircularPostExportDependencyGraph = new LinkedHashMap<>();
 		
 		for (String sourceModuleRequirePath : postExportDependencyGraph.keySet()) {
 			List<String> dependentSourceModules = postExportDependencyGraph.get(sourceModuleRequirePath);
 			List<String> nonCircularDependentSourceModules = new ArrayList<>();
+			int sourceModuleId = indexedDependencyGraph.id(sourceModuleRequirePath);
 			
 			for (String dependentSourceModuleRequirePath : dependentSourceModules) {
-				if (!reachable(dependentSourceModuleRequirePath, sourceModuleRequirePath, combinedDefineTimeDependencyGraph, new LinkedHashSet<>())) {
+				int dependentSourceModuleId = indexedDependencyGraph.id(dependentSourceModuleRequirePath);
+				boolean circular = dependentSourceModuleRequirePath.equals(sourceModuleRequirePath) ||
+						(sourceModuleId != -1 && dependentSourceModuleId != -1 && components[sourceModuleId] == components[dependentSourceModuleId]);
+				
+				if (!circular) {
 					nonCircularDependentSourceModules.add(dependentSourceModuleRequirePath);
 				}
 			}
@@ -47,42 +55,18 @@ public class NonCircularTransitivePreExportDependencyGraphCreator {
 		return nonCircularPostExportDependencyGraph;
 	}
 
-	private static boolean reachable(String fromSourceModuleRequirePath, String toSourceModuleRequirePath, Map<String, List<String>> combinedDefineTimeDependencyGraph, Set<String> visitedSourceModules) {
-		
-		for(String dependentSourceModuleRequirePath : combinedDefineTimeDependencyGraph.get(fromSourceModuleRequirePath)) {
-			
-			if (dependentSourceModuleRequirePath.equals(toSourceModuleRequirePath)) {
-				return true;
-			}
-			
-			if(!visitedSourceModules.contains(dependentSourceModuleRequirePath)) {
-				visitedSourceModules.add(dependentSourceModuleRequirePath);
-				
-				if(reachable(dependentSourceModuleRequirePath, toSourceModuleRequirePath, combinedDefineTimeDependencyGraph, visitedSourceModules)) {
-					return true;
-				}
-			}
-		}
-		
-		return false;
-	}
-
 	private static Map<String, List<String>> growDependencyGraph(Map<String, List<String>> dependencyGraph, Map<String, List<String>> nonCircularPostExportDependencyGraph) {
 		
-		boolean progressMade;
-		
-		do {
-			progressMade = false;
+		for(String sourceModuleRequirePath : nonCircularPostExportDependencyGraph.keySet()) {
+			List<String> dependencies = dependencyGraph.get(sourceModuleRequirePath);
+			Set<String> existingDependencies = new HashSet<>(dependencies);
 			
-			for(String sourceModuleRequirePath : nonCircularPostExportDependencyGraph.keySet()) {
-				for(String dependentSourceModuleRequirePath : nonCircularPostExportDependencyGraph.get(sourceModuleRequirePath)) {
-					if(!dependencyGraph.get(sourceModuleRequirePath).contains(dependentSourceModuleRequirePath)) {
-						progressMade = true;
-						dependencyGraph.get(sourceModuleRequirePath).add(dependentSourceModuleRequirePath);
-					}
+			for(String dependentSourceModuleRequirePath : nonCircularPostExportDependencyGraph.get(sourceModuleRequirePath)) {
+				if(existingDependencies.add(dependentSourceModuleRequirePath)) {
+					dependencies.add(dependentSourceModuleRequirePath);
 				}
 			}
-		} while(progressMade);
+		}
 		
 		return dependencyGraph;
 	}
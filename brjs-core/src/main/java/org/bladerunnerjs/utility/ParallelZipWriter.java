@@ -0,0 +1,578 @@
+package org.bladerunnerjs.utility;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+
+/**
+ * Writes a zip file whose entries are compressed in parallel on a pool of threads, while still being written to the archive in the order they
+ * were added. Entries for file types that are already compressed (e.g. images, fonts and archives) are stored rather than deflated.
+ *
+ * The entries are written as they become available, with the number of bytes waiting to be written bounded, so archives of any size can be
+ * written without the whole of their content being held in memory. Entries are read as streams, and large entries are compressed, or staged if
+ * they're stored, to temporary files rather than into memory, with zip64 records being used for entries and archives that are too large for the
+ * original zip format. Each entry's source is only read once for the content that's written, so its CRC always matches that content.
+ */
+public class ParallelZipWriter implements Closeable
+{
+	private static final Set<String> PRECOMPRESSED_EXTENSIONS = new HashSet<>( Arrays.asList("png", "jpg", "jpeg", "gif", "webp", "ico",
+		"woff", "woff2", "eot", "zip", "jar", "war", "gz", "tgz", "bz2", "7z", "mp3", "mp4", "ogg", "webm", "swf") );
+	private static final long MAX_PENDING_BYTES = 64 * 1024 * 1024;
+	private static final long IN_MEMORY_ENTRY_LIMIT = 1024 * 1024;
+	private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+	private static final int ZIP64_ENTRY_LIMIT = 0xFFFF;
+
+	private final OutputStream outputStream;
+	private final ExecutorService compressionPool;
+	private final Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+	private final List<WrittenEntry> writtenEntries = new ArrayList<>();
+	private long pendingBytes = 0;
+	private long offset = 0;
+	private boolean closed = false;
+	private boolean failed = false;
+
+	public ParallelZipWriter(File zipFile) throws IOException
+	{
+		this(zipFile, Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelZipWriter(File zipFile, int compressionThreads) throws IOException
+	{
+		zipFile.getAbsoluteFile().getParentFile().mkdirs();
+		outputStream = new BufferedOutputStream(new FileOutputStream(zipFile), 64 * 1024);
+		compressionPool = Executors.newFixedThreadPool(Math.max(1, compressionThreads));
+	}
+
+	public synchronized void addDirectory(String path) throws IOException
+	{
+		String directoryPath = (path.endsWith("/")) ? path : path + "/";
+		addEntry(directoryPath, 0, System.currentTimeMillis(), new ByteArrayContentSource(new byte[0], 0));
+	}
+
+	public synchronized void addFile(String path, final File file) throws IOException
+	{
+		addEntry(path, file.length(), file.lastModified(), new ContentSource() {
+			@Override
+			public InputStream open() throws IOException {
+				return new FileInputStream(file);
+			}
+		});
+	}
+
+	public synchronized void addContent(String path, byte[] content) throws IOException
+	{
+		addEntry(path, content.length, System.currentTimeMillis(), new ByteArrayContentSource(content, content.length));
+	}
+
+	/**
+	 * Waits for every entry added so far to be compressed and written to the archive, after which the files they were read from can be changed or
+	 * deleted.
+	 */
+	public synchronized void flush() throws IOException
+	{
+		while (!pendingEntries.isEmpty()) {
+			writeNextEntry();
+		}
+		outputStream.flush();
+	}
+
+	/**
+	 * Waits for every entry to be compressed and written, and then writes the central directory and closes the archive.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		try {
+			if (!failed) {
+				flush();
+				writeCentralDirectory();
+			}
+		}
+		finally {
+			for (Runnable unstartedCompression : compressionPool.shutdownNow()) {
+				((Future<?>) unstartedCompression).cancel(false);
+			}
+			try {
+				discardPendingEntries();
+			}
+			finally {
+				outputStream.close();
+			}
+		}
+	}
+
+	private void addEntry(final String path, final long size, long lastModified, final ContentSource contentSource) throws IOException
+	{
+		if (closed) {
+			throw new IOException("The zip file has already been closed.");
+		}
+
+		while (!pendingEntries.isEmpty() && pendingBytes + size > MAX_PENDING_BYTES) {
+			writeNextEntry();
+		}
+
+		final boolean store = path.endsWith("/") || PRECOMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(path).toLowerCase());
+		Future<CompressedContent> compressedContent = compressionPool.submit(new Callable<CompressedContent>() {
+			@Override
+			public CompressedContent call() throws Exception {
+				return compress(contentSource, size, store);
+			}
+		});
+		// large entries are written to temporary files, so only the part of an entry that's held in memory counts towards the pending bytes
+		long pendingEntryBytes = Math.min(size, IN_MEMORY_ENTRY_LIMIT);
+		pendingEntries.add(new PendingEntry(path, pendingEntryBytes, lastModified, compressedContent));
+		pendingBytes += pendingEntryBytes;
+	}
+
+	private void writeNextEntry() throws IOException
+	{
+		try {
+			writeEntry(pendingEntries.remove());
+		}
+		catch (IOException | RuntimeException ex) {
+			failed = true;
+			throw ex;
+		}
+	}
+
+	private void writeEntry(PendingEntry pendingEntry) throws IOException
+	{
+		pendingBytes -= pendingEntry.size;
+
+		CompressedContent content;
+		try {
+			content = pendingEntry.compressedContent.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException(ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException("Unable to compress '" + pendingEntry.path + "'.", ex.getCause());
+		}
+
+		try {
+			WrittenEntry entry = new WrittenEntry(pendingEntry.path, dosTime(pendingEntry.lastModified), content, offset);
+			boolean zip64 = entry.uncompressedSize >= ZIP64_LIMIT || entry.compressedSize >= ZIP64_LIMIT;
+
+			ZipRecordWriter header = new ZipRecordWriter();
+			header.writeInt(0x04034b50);
+			header.writeShort((zip64) ? 45 : (entry.method == Deflater.DEFLATED) ? 20 : 10);
+			header.writeShort(0x0800); // the entry name is UTF-8 encoded
+			header.writeShort(entry.method);
+			header.writeInt(entry.dosTime);
+			header.writeInt(entry.crc);
+			header.writeInt((zip64) ? ZIP64_LIMIT : entry.compressedSize);
+			header.writeInt((zip64) ? ZIP64_LIMIT : entry.uncompressedSize);
+			header.writeShort(entry.pathBytes.length);
+			header.writeShort((zip64) ? 20 : 0);
+			header.write(entry.pathBytes);
+			if (zip64) {
+				header.writeShort(0x0001);
+				header.writeShort(16);
+				header.writeLong(entry.uncompressedSize);
+				header.writeLong(entry.compressedSize);
+			}
+
+			offset += header.writeRecordTo(outputStream);
+			try (InputStream compressedData = content.data.open()) {
+				if (IOUtils.copyLarge(compressedData, outputStream, 0, entry.compressedSize) != entry.compressedSize) {
+					throw new IOException("'" + entry.path + "' changed while it was being added to the archive.");
+				}
+			}
+			offset += entry.compressedSize;
+			writtenEntries.add(entry);
+		}
+		finally {
+			content.discard();
+		}
+	}
+
+	private void discardPendingEntries()
+	{
+		// entries are only left pending if the archive couldn't be written, in which case any temporary files they were compressed to are deleted
+		for (PendingEntry pendingEntry : pendingEntries) {
+			try {
+				pendingEntry.compressedContent.get().discard();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (ExecutionException | CancellationException ex) {
+				// the entry was never compressed
+			}
+		}
+		pendingEntries.clear();
+	}
+
+	private void writeCentralDirectory() throws IOException
+	{
+		long centralDirectoryOffset = offset;
+
+		for (WrittenEntry entry : writtenEntries) {
+			// the zip64 extra field only contains the values that are too large for the fields in the header, in this order
+			boolean zip64UncompressedSize = entry.uncompressedSize >= ZIP64_LIMIT;
+			boolean zip64CompressedSize = entry.compressedSize >= ZIP64_LIMIT;
+			boolean zip64Offset = entry.offset >= ZIP64_LIMIT;
+			int zip64ExtraSize = ((zip64UncompressedSize) ? 8 : 0) + ((zip64CompressedSize) ? 8 : 0) + ((zip64Offset) ? 8 : 0);
+
+			ZipRecordWriter header = new ZipRecordWriter();
+			header.writeInt(0x02014b50);
+			header.writeShort((zip64ExtraSize > 0) ? 45 : 20);
+			header.writeShort((zip64ExtraSize > 0) ? 45 : (entry.method == Deflater.DEFLATED) ? 20 : 10);
+			header.writeShort(0x0800);
+			header.writeShort(entry.method);
+			header.writeInt(entry.dosTime);
+			header.writeInt(entry.crc);
+			header.writeInt((zip64CompressedSize) ? ZIP64_LIMIT : entry.compressedSize);
+			header.writeInt((zip64UncompressedSize) ? ZIP64_LIMIT : entry.uncompressedSize);
+			header.writeShort(entry.pathBytes.length);
+			header.writeShort((zip64ExtraSize > 0) ? 4 + zip64ExtraSize : 0);
+			header.writeShort(0); // comment length
+			header.writeShort(0); // disk number
+			header.writeShort(0); // internal attributes
+			header.writeInt((entry.path.endsWith("/")) ? 0x10 : 0); // external attributes
+			header.writeInt((zip64Offset) ? ZIP64_LIMIT : entry.offset);
+			header.write(entry.pathBytes);
+			if (zip64ExtraSize > 0) {
+				header.writeShort(0x0001);
+				header.writeShort(zip64ExtraSize);
+				if (zip64UncompressedSize) {
+					header.writeLong(entry.uncompressedSize);
+				}
+				if (zip64CompressedSize) {
+					header.writeLong(entry.compressedSize);
+				}
+				if (zip64Offset) {
+					header.writeLong(entry.offset);
+				}
+			}
+			offset += header.writeRecordTo(outputStream);
+		}
+
+		long centralDirectorySize = offset - centralDirectoryOffset;
+		int entryCount = writtenEntries.size();
+		ZipRecordWriter endRecord = new ZipRecordWriter();
+
+		boolean zip64 = entryCount >= ZIP64_ENTRY_LIMIT || centralDirectoryOffset >= ZIP64_LIMIT || centralDirectorySize >= ZIP64_LIMIT;
+		if (zip64) {
+			long zip64EndRecordOffset = offset;
+			endRecord.writeInt(0x06064b50);
+			endRecord.writeLong(44);
+			endRecord.writeShort(45);
+			endRecord.writeShort(45);
+			endRecord.writeInt(0);
+			endRecord.writeInt(0);
+			endRecord.writeLong(entryCount);
+			endRecord.writeLong(entryCount);
+			endRecord.writeLong(centralDirectorySize);
+			endRecord.writeLong(centralDirectoryOffset);
+
+			endRecord.writeInt(0x07064b50);
+			endRecord.writeInt(0);
+			endRecord.writeLong(zip64EndRecordOffset);
+			endRecord.writeInt(1);
+		}
+
+		endRecord.writeInt(0x06054b50);
+		endRecord.writeShort(0);
+		endRecord.writeShort(0);
+		endRecord.writeShort((zip64) ? ZIP64_ENTRY_LIMIT : entryCount);
+		endRecord.writeShort((zip64) ? ZIP64_ENTRY_LIMIT : entryCount);
+		endRecord.writeInt((zip64) ? ZIP64_LIMIT : centralDirectorySize);
+		endRecord.writeInt((zip64) ? ZIP64_LIMIT : centralDirectoryOffset);
+		endRecord.writeShort(0);
+		offset += endRecord.writeRecordTo(outputStream);
+	}
+
+	private static CompressedContent compress(ContentSource contentSource, long size, boolean store) throws IOException
+	{
+		if (!store) {
+			CompressedContent deflatedContent = deflate(contentSource, size);
+			if (deflatedContent.compressedSize < deflatedContent.uncompressedSize) {
+				return deflatedContent;
+			}
+			deflatedContent.discard();
+		}
+
+		CRC32 crc = new CRC32();
+		if (size <= IN_MEMORY_ENTRY_LIMIT) {
+			ZipRecordWriter content = new ZipRecordWriter((int) size);
+			try (InputStream input = contentSource.open()) {
+				copy(input, content, crc);
+			}
+			return new CompressedContent(0, crc.getValue(), content.size(), content.size(), new ByteArrayContentSource(content.buffer(), content.size()), null);
+		}
+
+		// large entries are staged in a temporary file as their CRC is calculated, so the CRC is of exactly the content that's written even if the source changes
+		File temporaryFile = File.createTempFile("brjs-zip-entry", ".tmp");
+		try {
+			long uncompressedSize;
+			try (InputStream input = contentSource.open();
+				OutputStream output = new BufferedOutputStream(new FileOutputStream(temporaryFile), 64 * 1024)) {
+				uncompressedSize = copy(input, output, crc);
+			}
+			CompressedContent storedContent = new CompressedContent(0, crc.getValue(), uncompressedSize, uncompressedSize,
+				new TemporaryFileContentSource(temporaryFile), temporaryFile);
+			temporaryFile = null;
+			return storedContent;
+		}
+		finally {
+			if (temporaryFile != null) {
+				temporaryFile.delete();
+			}
+		}
+	}
+
+	private static CompressedContent deflate(ContentSource contentSource, long size) throws IOException
+	{
+		CRC32 crc = new CRC32();
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		ZipRecordWriter inMemoryContent = null;
+		File temporaryFile = null;
+		try {
+			OutputStream compressedOutput;
+			if (size <= IN_MEMORY_ENTRY_LIMIT) {
+				inMemoryContent = new ZipRecordWriter((int) (size / 2 + 64));
+				compressedOutput = inMemoryContent;
+			}
+			else {
+				temporaryFile = File.createTempFile("brjs-zip-entry", ".tmp");
+				compressedOutput = new BufferedOutputStream(new FileOutputStream(temporaryFile), 64 * 1024);
+			}
+
+			CountingOutputStream countingOutput = new CountingOutputStream(compressedOutput);
+			long uncompressedSize;
+			try (InputStream input = contentSource.open();
+				DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(countingOutput, deflater, 8192)) {
+				uncompressedSize = copy(input, deflaterOutputStream, crc);
+			}
+
+			ContentSource compressedData = (inMemoryContent != null) ? new ByteArrayContentSource(inMemoryContent.buffer(), inMemoryContent.size()) :
+				new TemporaryFileContentSource(temporaryFile);
+			CompressedContent deflatedContent = new CompressedContent(Deflater.DEFLATED, crc.getValue(), uncompressedSize, countingOutput.getByteCount(),
+				compressedData, temporaryFile);
+			temporaryFile = null;
+			return deflatedContent;
+		}
+		finally {
+			deflater.end();
+			if (temporaryFile != null) {
+				temporaryFile.delete();
+			}
+		}
+	}
+
+	private static long copy(InputStream input, OutputStream output, CRC32 crc) throws IOException
+	{
+		byte[] buffer = new byte[8192];
+		long count = 0;
+		int bytesRead;
+		while ((bytesRead = input.read(buffer)) != -1) {
+			crc.update(buffer, 0, bytesRead);
+			output.write(buffer, 0, bytesRead);
+			count += bytesRead;
+		}
+		return count;
+	}
+
+	private static long dosTime(long time)
+	{
+		LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		if (dateTime.getYear() < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return ((long) (dateTime.getYear() - 1980) << 25) | (dateTime.getMonthValue() << 21) | (dateTime.getDayOfMonth() << 16) |
+			(dateTime.getHour() << 11) | (dateTime.getMinute() << 5) | (dateTime.getSecond() >> 1);
+	}
+
+	private static class PendingEntry
+	{
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final Future<CompressedContent> compressedContent;
+
+		PendingEntry(String path, long size, long lastModified, Future<CompressedContent> compressedContent)
+		{
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.compressedContent = compressedContent;
+		}
+	}
+
+	/* where the content of an entry is read from, which may be read more than once */
+	private interface ContentSource
+	{
+		InputStream open() throws IOException;
+	}
+
+	private static class ByteArrayContentSource implements ContentSource
+	{
+		private final byte[] bytes;
+		private final int length;
+
+		ByteArrayContentSource(byte[] bytes, int length)
+		{
+			this.bytes = bytes;
+			this.length = length;
+		}
+
+		@Override
+		public InputStream open()
+		{
+			return new ByteArrayInputStream(bytes, 0, length);
+		}
+	}
+
+	private static class TemporaryFileContentSource implements ContentSource
+	{
+		private final File file;
+
+		TemporaryFileContentSource(File file)
+		{
+			this.file = file;
+		}
+
+		@Override
+		public InputStream open() throws IOException
+		{
+			return new FileInputStream(file);
+		}
+	}
+
+	private static class CompressedContent
+	{
+		private final int method;
+		private final long crc;
+		private final long uncompressedSize;
+		private final long compressedSize;
+		private final ContentSource data;
+		private final File temporaryFile;
+
+		CompressedContent(int method, long crc, long uncompressedSize, long compressedSize, ContentSource data, File temporaryFile)
+		{
+			this.method = method;
+			this.crc = crc;
+			this.uncompressedSize = uncompressedSize;
+			this.compressedSize = compressedSize;
+			this.data = data;
+			this.temporaryFile = temporaryFile;
+		}
+
+		void discard()
+		{
+			if (temporaryFile != null) {
+				temporaryFile.delete();
+			}
+		}
+	}
+
+	private static class WrittenEntry
+	{
+		private final String path;
+		private final byte[] pathBytes;
+		private final long dosTime;
+		private final int method;
+		private final long crc;
+		private final long compressedSize;
+		private final long uncompressedSize;
+		private final long offset;
+
+		WrittenEntry(String path, long dosTime, CompressedContent content, long offset)
+		{
+			this.path = path;
+			this.pathBytes = path.getBytes(StandardCharsets.UTF_8);
+			this.dosTime = dosTime;
+			this.method = content.method;
+			this.crc = content.crc;
+			this.compressedSize = content.compressedSize;
+			this.uncompressedSize = content.uncompressedSize;
+			this.offset = offset;
+		}
+	}
+
+	/* a byte array output stream for little-endian zip records that gives access to its buffer so in-memory content needn't be copied */
+	private static class ZipRecordWriter extends ByteArrayOutputStream
+	{
+		ZipRecordWriter()
+		{
+			super(64);
+		}
+
+		ZipRecordWriter(int size)
+		{
+			super(size);
+		}
+
+		void writeShort(int value)
+		{
+			write(value & 0xFF);
+			write((value >>> 8) & 0xFF);
+		}
+
+		void writeInt(long value)
+		{
+			writeShort((int) (value & 0xFFFF));
+			writeShort((int) ((value >>> 16) & 0xFFFF));
+		}
+
+		void writeLong(long value)
+		{
+			writeInt(value & 0xFFFFFFFFL);
+			writeInt(value >>> 32);
+		}
+
+		byte[] buffer()
+		{
+			return buf;
+		}
+
+		long writeRecordTo(OutputStream outputStream) throws IOException
+		{
+			outputStream.write(buf, 0, count);
+			return count;
+		}
+	}
+}
@@ -2,9 +2,14 @@ package org.bladerunnerjs.utility;
 
 import org.bladerunnerjs.appserver.util.TokenReplacementException;
 import org.bladerunnerjs.appserver.util.TokenFinder;
+import org.bladerunnerjs.api.memoization.MemoizedFile;
 
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.IOException;
 import java.util.*;
 
@@ -70,10 +75,19 @@ public class PropertyFileTokenFinder implements TokenFinder {
     	Properties props = new Properties();
         File environmentFile = getPropertiesFileForEnvironment(environmentFilesRoot, environment);
         if (environmentFile.isFile()) {
-            props.load( new FileReader(environmentFile) );
+            try (Reader environmentFileReader = new InputStreamReader(openForReading(environmentFilesRoot, environmentFile))) {
+                props.load(environmentFileReader);
+            }
         }
         return props;
     }
+
+    private InputStream openForReading(File environmentFilesRoot, File environmentFile) throws FileNotFoundException {
+        if (environmentFilesRoot instanceof MemoizedFile) {
+            return ((MemoizedFile) environmentFilesRoot).file(environmentFile.getName()).openForReading();
+        }
+        return new FileInputStream(environmentFile);
+    }
     
     private File getPropertiesFileForEnvironment(File environmentFilesRoot, String environment) {
         return new File(environmentFilesRoot, environment+".properties");
@@ -1,5 +1,6 @@
 package org.bladerunnerjs.utility;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -20,47 +21,39 @@ public class SourceModuleDependencyOrderCalculator {
 		Map<String, List<String>> sourceModuleDependencies = 
 				NonCircularTransitivePreExportDependencyGraphCreator.createGraph(preExportDefineTimeDependencyGraph, postExportDefineTimeDependencyGraph);
 		
-		AssetMap<SourceModule> orderedSourceModules = new AssetMap<>();
-		Set<String> metDependencies = new LinkedHashSet<>();		
+		IndexedDependencyGraph dependencyGraph = new IndexedDependencyGraph(sourceModuleDependencies);
+		BitSet metDependencies = new BitSet();
+		for (String bootstrappingSourceModuleRequirePath : bootstrappingSourceModules.keySet()) {
+			int id = dependencyGraph.id(bootstrappingSourceModuleRequirePath);
+			if (id != -1) {
+				metDependencies.set(id);
+			}
+		}
 		
+		AssetMap<SourceModule> orderedSourceModules = new AssetMap<>();
 		orderedSourceModules.putAll(bootstrappingSourceModules);
-		metDependencies.addAll(bootstrappingSourceModules.keySet());
 		
-		AssetMap<SourceModule> unorderedSourceModules = new AssetMap<>(allSourceModules);
+		int[] dependencyOrder = dependencyGraph.dependencyOrder(metDependencies);
+		for (int id : dependencyOrder) {
+			orderedSourceModules.put(allSourceModules.get(dependencyGraph.requirePath(id)));
+		}
 		
-		while (!unorderedSourceModules.isEmpty()) {
-			AssetMap<SourceModule> unprocessedSourceModules = new AssetMap<>();
-			boolean progressMade = false;
-			
-			for (String sourceModuleRequirePath : unorderedSourceModules.keySet()) {
-				SourceModule sourceModule = unorderedSourceModules.get(sourceModuleRequirePath);
-				if (dependenciesHaveBeenMet(sourceModuleDependencies.get(sourceModuleRequirePath), metDependencies)) {
-					progressMade = true;
-					orderedSourceModules.put(sourceModule);
-					metDependencies.add(sourceModuleRequirePath);
-				}
-				else {
-					unprocessedSourceModules.put(sourceModule);
-				}
+		if (dependencyOrder.length < dependencyGraph.size()) {
+			BitSet orderedSourceModuleIds = new BitSet();
+			for (int id : dependencyOrder) {
+				orderedSourceModuleIds.set(id);
 			}
 			
-			if (!progressMade) {
-				throw new CircularDependencyException(bundlableNode, new LinkedHashSet<>(unprocessedSourceModules.values()));
+			Set<SourceModule> unprocessedSourceModules = new LinkedHashSet<>();
+			for (int id = 0; id < dependencyGraph.size(); id++) {
+				if (!orderedSourceModuleIds.get(id)) {
+					unprocessedSourceModules.add(allSourceModules.get(dependencyGraph.requirePath(id)));
+				}
 			}
-			
-			unorderedSourceModules = unprocessedSourceModules;
+			throw new CircularDependencyException(bundlableNode, unprocessedSourceModules);
 		}
 		
 		return orderedSourceModules;
 	}
 	
-	private static boolean dependenciesHaveBeenMet(List<String> dependencies, Set<String> metDependencies) throws ModelOperationException {
-		for (String dependentSourceModuleRequirePath : dependencies) {
-			if(!metDependencies.contains(dependentSourceModuleRequirePath)) {
-				return false;
-			}
-		}
-		return true;
-	}
-	
 }
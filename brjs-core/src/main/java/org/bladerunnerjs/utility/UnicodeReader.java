@@ -4,6 +4,8 @@ package org.bladerunnerjs.utility;
 
 import java.io.*;
 
+import org.bladerunnerjs.api.memoization.MemoizedFile;
+
 /**
  * Reads away UNICODE Byte Order Mark on construction. See
  * http://www.unicode.org/unicode/faq/utf_bom.html
@@ -33,7 +35,11 @@ public class UnicodeReader extends Reader
 	}
 	
 	public UnicodeReader(File file, String defaultEnc) throws IOException {
-		this(new BufferedInputStream(new FileInputStream(file)), defaultEnc);
+		this(new BufferedInputStream(openForReading(file)), defaultEnc);
+	}
+	
+	private static InputStream openForReading(File file) throws FileNotFoundException {
+		return (file instanceof MemoizedFile) ? ((MemoizedFile) file).openForReading() : new FileInputStream(file);
 	}
 	
 	/**
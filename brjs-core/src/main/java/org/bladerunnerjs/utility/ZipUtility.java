@@ -1,14 +1,12 @@
 package org.bladerunnerjs.utility;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Enumeration;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
-import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.IOUtils;
 
@@ -18,76 +16,53 @@ public class ZipUtility
 
 	public static void zipFolder(File srcFolder, File destZipFile, boolean zipOnlySrcFolderContentsAndNotSrcFolder) throws IOException
 	{
-		destZipFile.getParentFile().mkdirs();
-		
-		FileOutputStream fileWriter = new FileOutputStream(destZipFile);
-		ZipOutputStream zip = new ZipOutputStream(fileWriter);
-		
-		if(zipOnlySrcFolderContentsAndNotSrcFolder)
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(destZipFile))
 		{
-			for (File file : srcFolder.listFiles())
+			if(zipOnlySrcFolderContentsAndNotSrcFolder)
 			{
-				addFileToZip("", file, zip, false);
+				addFolderContentsToZip(zipWriter, "", srcFolder);
+			}
+			else
+			{
+				addFolderToZip(zipWriter, "", srcFolder);
 			}
 		}
-		else
+	}
+	
+	/**
+	 * Adds the contents of the given folder to the zip, with the path of each entry being the given path prefix followed by the file's path
+	 * relative to the folder. Empty folders are added as directory entries.
+	 */
+	public static void addFolderContentsToZip(ParallelZipWriter zipWriter, String pathPrefix, File srcFolder) throws IOException
+	{
+		for (File file : srcFolder.listFiles())
 		{
-			addFolderToZip("", srcFolder, zip);
+			addFileToZip(zipWriter, pathPrefix, file);
 		}
-		
-		zip.flush();
-		zip.close();
 	}
 	
-	private static void addFileToZip(String path, File srcFile, ZipOutputStream zip, boolean flag) throws IOException
+	private static void addFileToZip(ParallelZipWriter zipWriter, String pathPrefix, File srcFile) throws IOException
 	{
-		if (flag == true)
+		if (srcFile.isDirectory())
 		{
-			zip.putNextEntry(new ZipEntry(path + "/" + srcFile.getName() + "/"));
+			addFolderToZip(zipWriter, pathPrefix, srcFile);
 		}
 		else
 		{
-			if (srcFile.isDirectory())
-			{
-				addFolderToZip(path, srcFile, zip);
-			}
-			else
-			{
-				int len;
-				byte[] buf = new byte[1024];
-				FileInputStream in = new FileInputStream(srcFile);
-				String pathPrefix = (!path.equals("")) ? path+"/" : "";
-				zip.putNextEntry(new ZipEntry(pathPrefix + srcFile.getName()));
-				
-				while ((len = in.read(buf)) > 0)
-				{
-					zip.write(buf, 0, len);
-				}
-				
-				in.close();
-			}
+			zipWriter.addFile(pathPrefix + srcFile.getName(), srcFile);
 		}
 	}
 
-	private static void addFolderToZip(String path, File srcFolder, ZipOutputStream zip) throws IOException
+	private static void addFolderToZip(ParallelZipWriter zipWriter, String pathPrefix, File srcFolder) throws IOException
 	{
+		String folderPath = pathPrefix + srcFolder.getName() + "/";
 		if (srcFolder.list().length == 0)
 		{
-			addFileToZip(path, srcFolder, zip, true);
+			zipWriter.addDirectory(folderPath);
 		} 
 		else 
 		{
-			for (File file : srcFolder.listFiles())
-			{
-				if (path.equals(""))
-				{
-					addFileToZip(srcFolder.getName(), file, zip, false);
-				}
-				else
-				{
-					addFileToZip(path + "/" + srcFolder.getName(), file, zip, false);
-				}
-			}
+			addFolderContentsToZip(zipWriter, folderPath, srcFolder);
 		}
 	}
 	
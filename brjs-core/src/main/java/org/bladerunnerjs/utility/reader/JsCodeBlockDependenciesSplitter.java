@@ -0,0 +1,118 @@
+package org.bladerunnerjs.utility.reader;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.utility.FixedLengthStringBuilder;
+
+/*
+ * Note: This class has a lot of code that is duplicated with JsCodeBlockStrippingDependenciesReader and JsModuleExportsStrippingReader.
+ * DO NOT try to refactor them to share a single superclass, it leads to performance overheads that have a massive impact when bundling
+ */
+
+/**
+ * Reads a CommonJS module once, stripping its comments, and splits the remaining content into the content outside of any code block that comes
+ * before the 'module.exports' definition, the content outside of any code block that comes after it, and the content within code blocks. This is
+ * the same content that stacking {@link JsCommentStrippingReader}, {@link JsCodeBlockStrippingDependenciesReader} and
+ * {@link JsModuleExportsStrippingReader} would produce, but without having to read and process the module once for each of them.
+ *
+ * NOTE: This should only be used when determining the dependencies of a class.
+ */
+public class JsCodeBlockDependenciesSplitter
+{
+	private final StringBuilder preExportDefineTimeContent = new StringBuilder();
+	private final StringBuilder postExportDefineTimeContent = new StringBuilder();
+	private final StringBuilder useTimeContent = new StringBuilder();
+
+	private final FixedLengthStringBuilder codeBlockTailBuffer = new FixedLengthStringBuilder(JsCodeBlockStrippingDependenciesReader.TAIL_BUFFER_LENGTH);
+	private final FixedLengthStringBuilder moduleExportsTailBuffer = new FixedLengthStringBuilder(JsModuleExportsStrippingReader.TAIL_BUFFER_LENGTH);
+	private int depthCount = 0;
+	private boolean moduleExportsLocated = false;
+
+	private JsCodeBlockDependenciesSplitter() {
+	}
+
+	public static JsCodeBlockDependenciesSplitter split(BRJS brjs, Reader sourceReader) throws IOException {
+		JsCodeBlockDependenciesSplitter splitter = new JsCodeBlockDependenciesSplitter();
+		char[] sourceBuffer = CharBufferPool.getBuffer(brjs);
+
+		try (Reader commentStrippingReader = new JsCommentStrippingReader(brjs, sourceReader, false)) {
+			int charsRead;
+			while ((charsRead = commentStrippingReader.read(sourceBuffer, 0, sourceBuffer.length - 1)) != -1) {
+				for (int i = 0; i < charsRead; i++) {
+					splitter.processChar(sourceBuffer[i]);
+				}
+			}
+		}
+		finally {
+			CharBufferPool.returnBuffer(brjs, sourceBuffer);
+		}
+
+		return splitter;
+	}
+
+	public CharSequence getPreExportDefineTimeContent() {
+		return preExportDefineTimeContent;
+	}
+
+	public CharSequence getPostExportDefineTimeContent() {
+		return postExportDefineTimeContent;
+	}
+
+	public CharSequence getUseTimeContent() {
+		return useTimeContent;
+	}
+
+	private void processChar(char nextChar) {
+		codeBlockTailBuffer.append(nextChar);
+
+		boolean writtenOutsideCodeBlock = (depthCount == 0);
+		if (writtenOutsideCodeBlock) {
+			writeOutsideCodeBlock(nextChar);
+		}
+		else {
+			useTimeContent.append(nextChar);
+		}
+
+		if (nextChar == '{') {
+			if ((depthCount > 0) || (!isImmediatelyInvokingFunction() && !isInlineMapDefiniton())) {
+				++depthCount;
+			}
+		}
+		else if (nextChar == '}') {
+			if (depthCount > 0) {
+				--depthCount;
+
+				if (depthCount == 0 && !writtenOutsideCodeBlock) {
+					writeOutsideCodeBlock(nextChar);
+				}
+			}
+		}
+	}
+
+	private void writeOutsideCodeBlock(char nextChar) {
+		moduleExportsTailBuffer.append(nextChar);
+
+		// the module exports match always ends with an '=', so there's no need to check for it after any other char
+		if (!moduleExportsLocated && nextChar == '=' && JsModuleExportsStrippingReader.matchesModuleExports(moduleExportsTailBuffer)) {
+			moduleExportsLocated = true;
+		}
+
+		if (moduleExportsLocated) {
+			postExportDefineTimeContent.append(nextChar);
+		}
+		else {
+			preExportDefineTimeContent.append(nextChar);
+		}
+	}
+
+	private boolean isImmediatelyInvokingFunction() {
+		return JsCodeBlockStrippingDependenciesReader.SELF_EXECUTING_FUNCTION_DEFINITION_REGEX_PATTERN.matcher(codeBlockTailBuffer.toString()).matches();
+	}
+
+	private boolean isInlineMapDefiniton() {
+		return JsCodeBlockStrippingDependenciesReader.INLINE_MAP_DEFINITION_REGEX_PATTERN.matcher(codeBlockTailBuffer.toString()).find();
+	}
+
+}
@@ -29,13 +29,15 @@ public class JsCodeBlockStrippingDependenciesReader extends Reader
 	public static final Pattern SELF_EXECUTING_FUNCTION_DEFINITION_REGEX_PATTERN = Pattern.compile(SELF_EXECUTING_FUNCTION_DEFINITION_REGEX, Pattern.DOTALL);
 	
 	private static final String INLINE_MAP_DEFINITION_REGEX = "[a-zA-Z][\\w]+[\\s]+=[\\s]+\\{";
-	private static final Pattern INLINE_MAP_DEFINITION_REGEX_PATTERN = Pattern.compile(INLINE_MAP_DEFINITION_REGEX);
+	static final Pattern INLINE_MAP_DEFINITION_REGEX_PATTERN = Pattern.compile(INLINE_MAP_DEFINITION_REGEX);
+	
+	// buffer the length of the function definition + 12 to allow for things like new(<IIFE>) etc.
+	static final int TAIL_BUFFER_LENGTH = SELF_EXECUTING_FUNCTION_DEFINITION_REGEX.length() + 12;
 	
 	private static final Predicate<String> DEFAULT_FOUND_MOBULE_EXPORTS_PREDICATE = Predicates.alwaysFalse();
 	
 	private final Reader sourceReader;
-	// buffer the length of the function definition + 12 to allow for things like new(<IIFE>) etc.
-	private final FixedLengthStringBuilder tailBuffer = new FixedLengthStringBuilder(SELF_EXECUTING_FUNCTION_DEFINITION_REGEX.length() + 12);
+	private final FixedLengthStringBuilder tailBuffer = new FixedLengthStringBuilder(TAIL_BUFFER_LENGTH);
 	private int nextCharPos = 0;
 	private int lastCharPos = 0;
 	private int depthCount = 0;
@@ -12,10 +12,12 @@ import org.bladerunnerjs.utility.FixedLengthStringBuilder;
  */
 
 public class JsModuleExportsStrippingReader extends Reader {
-	private String EXPORTS_MATCH = "exports=";
+	static final String EXPORTS_MATCH = "exports=";
+	static final int TAIL_BUFFER_LENGTH = EXPORTS_MATCH.length() + 10; // + 10 to allow for extra spaces in the definition
+	
 	private final Reader sourceReader;
 	
-	private final FixedLengthStringBuilder tailBuffer = new FixedLengthStringBuilder(EXPORTS_MATCH.length() + 10); // + 10 to allow for extra spaces in the definition
+	private final FixedLengthStringBuilder tailBuffer = new FixedLengthStringBuilder(TAIL_BUFFER_LENGTH);
 	
 	private boolean moduleExportsLocated = false;
 	
@@ -81,6 +83,10 @@ public class JsModuleExportsStrippingReader extends Reader {
 	}
 	
 	private boolean matchesModuleExports() {
+		return matchesModuleExports(tailBuffer);
+	}
+	
+	static boolean matchesModuleExports(FixedLengthStringBuilder tailBuffer) {
 		// do not try to replace with with a regex that matches various module.exports permutations - using .contains is far more performant (see https://github.com/BladeRunnerJS/brjs/pull/1420)
 		String condensedTailBufferContent = tailBuffer.toString().replaceAll("\\s+","");
 		return condensedTailBufferContent.contains(EXPORTS_MATCH);
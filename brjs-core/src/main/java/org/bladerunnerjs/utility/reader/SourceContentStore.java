@@ -0,0 +1,231 @@
+package org.bladerunnerjs.utility.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.bladerunnerjs.api.memoization.FileModificationRegistry;
+import org.bladerunnerjs.api.memoization.MemoizedFile;
+import org.bladerunnerjs.utility.UnicodeReader;
+
+/**
+ * Holds the decoded content of source files, so that each version of a file is read and decoded once however many times it's read for
+ * dependency analysis, bundling and minification.
+ *
+ * Content that only contains Latin-1 characters is held as a byte per character, and any other content is held as UTF-8. The least recently
+ * used content is evicted once the store grows beyond its memory budget, and files larger than a quarter of the budget are never stored.
+ * Stored content is only checked against the file's version, in the same way as a {@link org.bladerunnerjs.api.memoization.MemoizedValue}, so a
+ * hit never needs to touch the file system.
+ */
+public class SourceContentStore
+{
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final FileModificationRegistry fileModificationRegistry;
+	private final long maxSize;
+	private final Map<String, StoredContent> storedContent = new LinkedHashMap<>(16, 0.75f, true);
+	private long size = 0;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public SourceContentStore(FileModificationRegistry fileModificationRegistry, long maxSize)
+	{
+		this.fileModificationRegistry = fileModificationRegistry;
+		this.maxSize = maxSize;
+	}
+
+	public Reader getReader(File file, String defaultEncoding) throws IOException
+	{
+		if (file instanceof MemoizedFile) {
+			((MemoizedFile) file).recordRead();
+		}
+
+		String filePath = file.getAbsolutePath();
+		long fileVersion = fileModificationRegistry.getFileVersion(file);
+
+		StoredContent content;
+		synchronized (this) {
+			content = storedContent.get(filePath);
+		}
+
+		if (content != null && content.isFor(fileVersion, defaultEncoding)) {
+			hitCount.incrementAndGet();
+			return content.getReader();
+		}
+
+		missCount.incrementAndGet();
+		content = new StoredContent(decode(new File(filePath), defaultEncoding), fileVersion, defaultEncoding);
+		if (content.size() <= maxSize / 4) {
+			store(filePath, content);
+		}
+		return content.getReader();
+	}
+
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	public long getEvictionCount()
+	{
+		return evictionCount.get();
+	}
+
+	public synchronized long getSize()
+	{
+		return size;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("%d hits, %d misses, %d evictions, %d of %d bytes used", getHitCount(), getMissCount(), getEvictionCount(), getSize(), maxSize);
+	}
+
+	private synchronized void store(String filePath, StoredContent content)
+	{
+		StoredContent replacedContent = storedContent.put(filePath, content);
+		size += content.size();
+		if (replacedContent != null) {
+			size -= replacedContent.size();
+		}
+
+		Iterator<StoredContent> leastRecentlyUsedContent = storedContent.values().iterator();
+		while (size > maxSize && leastRecentlyUsedContent.hasNext()) {
+			size -= leastRecentlyUsedContent.next().size();
+			leastRecentlyUsedContent.remove();
+			evictionCount.incrementAndGet();
+		}
+	}
+
+	private static String decode(File file, String defaultEncoding) throws IOException
+	{
+		byte[] fileBytes = FileUtils.readFileToByteArray(file);
+		try (Reader reader = new UnicodeReader(new ByteArrayInputStream(fileBytes), defaultEncoding)) {
+			return IOUtils.toString(reader);
+		}
+	}
+
+
+	private static class StoredContent
+	{
+		private final byte[] bytes;
+		private final boolean latin1;
+		private final String unencodableContent;
+		private final long fileVersion;
+		private final String defaultEncoding;
+
+		StoredContent(String content, long fileVersion, String defaultEncoding)
+		{
+			latin1 = isLatin1(content);
+			if (latin1 || !hasUnpairedSurrogates(content)) {
+				bytes = content.getBytes(latin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+				unencodableContent = null;
+			}
+			else {
+				// unpaired surrogates can't survive a round trip through UTF-8, so the content is kept as it is
+				bytes = null;
+				unencodableContent = content;
+			}
+			this.fileVersion = fileVersion;
+			this.defaultEncoding = defaultEncoding;
+		}
+
+		boolean isFor(long fileVersion, String defaultEncoding)
+		{
+			return this.fileVersion == fileVersion && Objects.equals(this.defaultEncoding, defaultEncoding);
+		}
+
+		long size()
+		{
+			return ((bytes != null) ? bytes.length : unencodableContent.length() * 2) + ENTRY_OVERHEAD;
+		}
+
+		Reader getReader()
+		{
+			if (unencodableContent != null) {
+				return new StringReader(unencodableContent);
+			}
+			return (latin1) ? new Latin1Reader(bytes) : new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+		}
+
+		private static boolean isLatin1(String content)
+		{
+			for (int i = 0; i < content.length(); i++) {
+				if (content.charAt(i) > 0xFF) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean hasUnpairedSurrogates(String content)
+		{
+			for (int i = 0; i < content.length(); i++) {
+				char c = content.charAt(i);
+				if (Character.isHighSurrogate(c) && i + 1 < content.length() && Character.isLowSurrogate(content.charAt(i + 1))) {
+					i++;
+				}
+				else if (Character.isSurrogate(c)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class Latin1Reader extends Reader
+	{
+		private final byte[] bytes;
+		private int position = 0;
+
+		Latin1Reader(byte[] bytes)
+		{
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len)
+		{
+			if (position >= bytes.length) {
+				return -1;
+			}
+
+			int charsRead = Math.min(len, bytes.length - position);
+			for (int i = 0; i < charsRead; i++) {
+				cbuf[off + i] = (char) (bytes[position++] & 0xFF);
+			}
+			return charsRead;
+		}
+
+		@Override
+		public boolean ready()
+		{
+			return true;
+		}
+
+		@Override
+		public void close()
+		{
+		}
+	}
+
+}
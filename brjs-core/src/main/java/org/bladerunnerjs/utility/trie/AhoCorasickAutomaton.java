@@ -0,0 +1,257 @@
+package org.bladerunnerjs.utility.trie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+import org.bladerunnerjs.utility.trie.node.TrieNode;
+
+/**
+ * An immutable Aho-Corasick automaton compiled from the nodes of a {@link Trie}, allowing the content to be scanned in a single pass rather
+ * than re-walking the trie from every character.
+ *
+ * <p>A key is matched at a given start position if the longest trie path from that position ends on the key, either the last character of the
+ * key or the character following it is a delimiter, and the key's match pattern accepts the key with the characters either side of it. Once a
+ * key has been found at a position the scan resumes after the character that follows it, and each value is only returned once.</p>
+ */
+final class AhoCorasickAutomaton<T>
+{
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+	private static final boolean[] ASCII_DELIMITERS = asciiLookup(" \t\r\n.,;(){}<>[]+-*/'\"\\".toCharArray());
+
+	private final char primarySeparator;
+	private final char[] separators;
+	private final boolean[] asciiSeparators;
+
+	private final int[] childOffset;
+	private final int[] childCount;
+	private final char[] childChars;
+	private final int[] childStates;
+	private final int[] failure;
+	private final int[] outputLink;
+	private final int[] depth;
+	private final int[] valueIndex;
+	private final Pattern[] matchPatterns;
+	private final List<T> values = new ArrayList<>();
+
+	AhoCorasickAutomaton(TrieNode<T> root, char primarySeparator, char[] separators)
+	{
+		this.primarySeparator = primarySeparator;
+		this.separators = separators;
+		asciiSeparators = asciiLookup(separators);
+
+		List<TrieNode<T>> nodes = new ArrayList<>();
+		nodes.add(root);
+		for (int i = 0; i < nodes.size(); i++) {
+			nodes.addAll(Arrays.asList(nodes.get(i).getChildren()));
+		}
+
+		int stateCount = nodes.size();
+		childOffset = new int[stateCount];
+		childCount = new int[stateCount];
+		childChars = new char[stateCount - 1];
+		childStates = new int[stateCount - 1];
+		failure = new int[stateCount];
+		outputLink = new int[stateCount];
+		depth = new int[stateCount];
+		valueIndex = new int[stateCount];
+		matchPatterns = new Pattern[stateCount];
+
+		// nodes are numbered breadth first, so each node's children occupy a contiguous run of states which we sort by character
+		Map<T, Integer> valueIndexes = new HashMap<>();
+		int nextState = 1;
+		for (int state = 0; state < stateCount; state++) {
+			TrieNode<T> node = nodes.get(state);
+			TrieNode<T>[] children = node.getChildren();
+			childOffset[state] = nextState - 1;
+			childCount[state] = children.length;
+			for (int i = 0; i < children.length; i++) {
+				childChars[nextState - 1 + i] = children[i].getChar();
+				childStates[nextState - 1 + i] = nextState + i;
+				depth[nextState + i] = depth[state] + 1;
+			}
+			sortChildren(childOffset[state], children.length);
+			nextState += children.length;
+
+			T value = node.getValue();
+			valueIndex[state] = NONE;
+			if (state != ROOT && value != null) {
+				Integer index = valueIndexes.get(value);
+				if (index == null) {
+					index = values.size();
+					valueIndexes.put(value, index);
+					values.add(value);
+				}
+				valueIndex[state] = index;
+				matchPatterns[state] = node.getMatchPattern();
+			}
+		}
+
+		computeFailureLinks();
+	}
+
+	List<T> getMatches(char[] content, int length)
+	{
+		// the start state of the key (if any) that was found when the longest trie path from each position was followed
+		int[] matchAtPosition = new int[length + 1];
+		Arrays.fill(matchAtPosition, NONE);
+
+		int state = ROOT;
+		for (int position = 0; position <= length; position++) {
+			char nextChar = (position < length) ? content[position] : '\n';
+			char normalisedChar = normalise(nextChar);
+
+			if (position > 0 && (isDelimiter(content[position - 1]) || isDelimiter(nextChar))) {
+				int keyState = (valueIndex[state] != NONE) ? state : outputLink[state];
+				for (; keyState != NONE; keyState = outputLink[keyState]) {
+					if (child(keyState, normalisedChar) == NONE) {
+						matchAtPosition[position - depth[keyState]] = keyState;
+					}
+				}
+			}
+
+			state = transition(state, normalisedChar);
+		}
+
+		List<T> matches = new ArrayList<>();
+		BitSet matchedValues = new BitSet(values.size());
+		int position = 0;
+		while (position <= length) {
+			int keyState = matchAtPosition[position];
+			if (keyState == NONE) {
+				position++;
+				continue;
+			}
+
+			int keyEnd = position + depth[keyState];
+			int index = valueIndex[keyState];
+			if (!matchedValues.get(index) && patternMatches(keyState, content, length, position, keyEnd)) {
+				matchedValues.set(index);
+				matches.add(values.get(index));
+			}
+			position = keyEnd + 1;
+		}
+
+		return matches;
+	}
+
+	private boolean patternMatches(int keyState, char[] content, int length, int keyStart, int keyEnd)
+	{
+		StringBuilder matchString = new StringBuilder(keyEnd - keyStart + 2);
+		matchString.append( (keyStart > 0) ? content[keyStart - 1] : '\u0000' );
+		matchString.append(content, keyStart, keyEnd - keyStart);
+		matchString.append( (keyEnd < length) ? content[keyEnd] : '\n' );
+		return matchPatterns[keyState].matcher(matchString).matches();
+	}
+
+	private void computeFailureLinks()
+	{
+		failure[ROOT] = ROOT;
+		outputLink[ROOT] = NONE;
+
+		Queue<Integer> pendingStates = new ArrayDeque<>();
+		pendingStates.add(ROOT);
+		while (!pendingStates.isEmpty()) {
+			int state = pendingStates.remove();
+			for (int i = childOffset[state], end = i + childCount[state]; i < end; i++) {
+				int childState = childStates[i];
+				int failureState = (state == ROOT) ? ROOT : transition(failure[state], childChars[i]);
+				failure[childState] = failureState;
+				outputLink[childState] = (valueIndex[failureState] != NONE) ? failureState : outputLink[failureState];
+				pendingStates.add(childState);
+			}
+		}
+	}
+
+	private int transition(int state, char character)
+	{
+		while (true) {
+			int nextState = child(state, character);
+			if (nextState != NONE) {
+				return nextState;
+			}
+			if (state == ROOT) {
+				return ROOT;
+			}
+			state = failure[state];
+		}
+	}
+
+	private int child(int state, char character)
+	{
+		int low = childOffset[state];
+		int high = low + childCount[state] - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			char midChar = childChars[mid];
+			if (midChar < character) {
+				low = mid + 1;
+			}
+			else if (midChar > character) {
+				high = mid - 1;
+			}
+			else {
+				return childStates[mid];
+			}
+		}
+		return NONE;
+	}
+
+	private void sortChildren(int offset, int count)
+	{
+		// insertion sort since nodes rarely have more than a handful of children
+		for (int i = offset + 1; i < offset + count; i++) {
+			char character = childChars[i];
+			int state = childStates[i];
+			int j = i - 1;
+			while (j >= offset && childChars[j] > character) {
+				childChars[j + 1] = childChars[j];
+				childStates[j + 1] = childStates[j];
+				j--;
+			}
+			childChars[j + 1] = character;
+			childStates[j + 1] = state;
+		}
+	}
+
+	private char normalise(char character)
+	{
+		return isSeparator(character) ? primarySeparator : character;
+	}
+
+	private boolean isSeparator(char character)
+	{
+		if (character < 128) {
+			return asciiSeparators[character];
+		}
+		for (char separator : separators) {
+			if (separator == character) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isDelimiter(char character)
+	{
+		return character < 128 && ASCII_DELIMITERS[character];
+	}
+
+	private static boolean[] asciiLookup(char[] characters)
+	{
+		boolean[] lookup = new boolean[128];
+		for (char character : characters) {
+			if (character < 128) {
+				lookup[character] = true;
+			}
+		}
+		return lookup;
+	}
+}
@@ -1,15 +1,14 @@
 package org.bladerunnerjs.utility.trie;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bladerunnerjs.utility.trie.exception.EmptyTrieKeyException;
@@ -23,10 +22,8 @@ public class Trie<T>
 
 	private static final Pattern MATCH_ALL_PATTERN = Pattern.compile(".*", Pattern.DOTALL);
 	
-	private static final char[] DELIMETERS = " \t\r\n.,;(){}<>[]+-*/'\"\\\"\'\\'".toCharArray();
-	
 	private TrieNode<T> root;
-	private int readAheadLimit = 1;
+	private volatile AhoCorasickAutomaton<T> automaton;
 	private Map<String, TrieNode<T>> trieLookup = new LinkedHashMap<String, TrieNode<T>>();
 	private List<Character> seperators;
 
@@ -46,7 +43,7 @@ public class Trie<T>
 		add(key, value, MATCH_ALL_PATTERN);
 	}
 	
-	public void add(String key, T value, Pattern matchPattern) throws EmptyTrieKeyException, TrieKeyAlreadyExistsException { 
+	public synchronized void add(String key, T value, Pattern matchPattern) throws EmptyTrieKeyException, TrieKeyAlreadyExistsException { 
 		
 		if (primarySeperator != DEFAULT_PRIMARY_SEPERATOR && !seperators.isEmpty()) {
 			String findSeperatorsRegex = "[" + Pattern.quote(StringUtils.join(seperators, "")) + "]";
@@ -71,10 +68,10 @@ public class Trie<T>
 		
 		node.setValue(value, matchPattern);
 		trieLookup.put(key, node);
-		readAheadLimit = Math.max(readAheadLimit, key.length() + 1);
+		automaton = null;
 	}
 	
-	public boolean containsKey(String key) {
+	public synchronized boolean containsKey(String key) {
 		if (trieLookup.containsKey(key)) {
 			return true;
 		}
@@ -86,7 +83,7 @@ public class Trie<T>
 		return false;
 	}
 	
-	public T get(String key)
+	public synchronized T get(String key)
 	{
 		TrieNode<T> node = getNode(key);
 		
@@ -99,26 +96,18 @@ public class Trie<T>
 	
 	public List<T> getMatches(Reader reader) throws IOException
 	{
-		if (!reader.markSupported()) {
-			reader = new BufferedReader(reader);
-		}
-	
-		char charAtPointOfFirstMatch = '\u0000';
-		StringBuilder matchString = new StringBuilder();
-		List<T> matches = new LinkedList<T>();
-		TrieMatcher matcher = new TrieMatcher();
-		int nextChar, prevChar = 0;
-		
-		while ((nextChar = reader.read()) != -1)
-		{
-			charAtPointOfFirstMatch = processChar(matches, charAtPointOfFirstMatch, (char) nextChar, (char) prevChar, matcher, reader, matchString);
-			prevChar = nextChar;
-		}
-		charAtPointOfFirstMatch = processChar(matches, charAtPointOfFirstMatch, '\n', (char) prevChar, matcher, reader, matchString);
-		
-		return matches;	
+		char[] content = IOUtils.toCharArray(reader);
+		return automaton().getMatches(content, content.length);
 	}
 	
+	/**
+	 * Compiles the trie into the automaton used by {@link #getMatches(Reader)}. This happens automatically the first time the trie is matched against
+	 * after a key has been added, but can be called up front so that the cost isn't paid by the first reader.
+	 */
+	public void compile()
+	{
+		automaton();
+	}
 	
 	private TrieNode<T> getNode(String key) {
 		TrieNode<T> node = root;
@@ -136,68 +125,21 @@ public class Trie<T>
 		return node;
 	}
 	
-	private char processChar(List<T> matches, char charAtPointOfFirstMatch, char nextChar, char prevChar, TrieMatcher matcher, Reader reader, StringBuilder matchString) throws IOException
+	// the automaton is immutable, so once it's been published readers can use it without locking while keys are only added, and the automaton
+	// only built, while holding the trie's lock
+	private AhoCorasickAutomaton<T> automaton()
 	{
-		if (matcher.atRootOfTrie)
-		{
-			reader.mark(readAheadLimit);
-			charAtPointOfFirstMatch = prevChar;
-		}
-		
-		TrieNode<T> nextNode = matcher.next(nextChar);
-		
-		if (nextNode == null)
-		{
-			T previousValue = matcher.previousNode.getValue();
-			if (previousValue != null && (isDelimiter(prevChar) || isDelimiter(nextChar)))
-			{
-				//TODO best data structure to make this efficient?
-				if(!matches.contains(previousValue)){
-					Pattern matchPattern = matcher.previousNode.getMatchPattern();
-					if (matchPattern.matcher(charAtPointOfFirstMatch+matchString.toString()+nextChar).matches()) {
-						matches.add( previousValue );
-					}
+		AhoCorasickAutomaton<T> currentAutomaton = automaton;
+		if (currentAutomaton == null) {
+			synchronized (this) {
+				currentAutomaton = automaton;
+				if (currentAutomaton == null) {
+					char[] automatonSeperators = (primarySeperator != DEFAULT_PRIMARY_SEPERATOR) ? ArrayUtils.toPrimitive(seperators.toArray(new Character[0])) : new char[0];
+					currentAutomaton = new AhoCorasickAutomaton<>(root, primarySeperator, automatonSeperators);
+					automaton = currentAutomaton;
 				}
-				reader.mark(readAheadLimit);
 			}
-			matcher.reset();
-			reader.reset();
-			matchString.setLength(0);
-		} else {
-			matchString.append(nextChar);
-		}
-		
-		return charAtPointOfFirstMatch;
-	}
-
-	private boolean isDelimiter(char nextChar)
-	{
-		return ArrayUtils.contains(DELIMETERS, nextChar);
-	}
-	
-	private class TrieMatcher {
-		TrieNode<T> currentNode;
-		TrieNode<T> previousNode;
-		boolean atRootOfTrie;
-		
-		TrieMatcher()
-		{
-			reset();
-		}
-		
-		TrieNode<T> next(char nextChar)
-		{
-			previousNode = currentNode;
-			currentNode = currentNode.getNextNode(nextChar);
-			atRootOfTrie = false;
-			return currentNode;
-		}
-		
-		void reset()
-		{
-			currentNode = root;
-			previousNode = null;
-			atRootOfTrie = true;
 		}
+		return currentAutomaton;
 	}
 }
@@ -1,5 +1,6 @@
 package org.bladerunnerjs.utility.trie;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -7,6 +8,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.memoization.Getter;
 import org.bladerunnerjs.api.memoization.MemoizedValue;
+import org.bladerunnerjs.api.memoization.PersistentDependencyCache;
 import org.bladerunnerjs.api.model.exception.ModelOperationException;
 import org.bladerunnerjs.model.AssetContainer;
 import org.bladerunnerjs.model.engine.NodeProperties;
@@ -16,6 +18,10 @@ import org.bladerunnerjs.utility.trie.exception.TrieKeyAlreadyExistsException;
 public class TrieFactory {
 	private final MemoizedValue<Trie<Asset>> trie;
 	private final AssetContainer assetContainer;
+	private List<String> lastRequirePathIndex;
+	private List<Asset> lastRequirableAssets;
+	private Trie<Asset> lastTrie;
+	private String lastTrieFingerprint;
 	
 	private static final Pattern ALIAS_MATCHER_PATTERN = Pattern.compile("[\"'][\\S ]+[\"']|<\\S+[\\s/>]");
 	private static final Pattern QUOTED_SOURCE_MODULE_MATCHER_PATTERN = Pattern.compile("[\"']\\S+[\"']");
@@ -24,11 +30,7 @@ public class TrieFactory {
 	public static TrieFactory getFactoryForAssetContainer(AssetContainer assetContainer) {
 		NodeProperties nodeProperties = assetContainer.nodeProperties("TrieFactory");
 		
-		if(nodeProperties.getTransientProperty("trieFactoryInstance") == null) {
-			nodeProperties.setTransientProperty("trieFactoryInstance", new TrieFactory(assetContainer));
-		}
-		
-		return (TrieFactory) nodeProperties.getTransientProperty("trieFactoryInstance");
+		return (TrieFactory) nodeProperties.getOrCreateTransientProperty("trieFactoryInstance", () -> new TrieFactory(assetContainer));
 	}
 	
 	private TrieFactory(AssetContainer assetContainer) {
@@ -36,46 +38,89 @@ public class TrieFactory {
 		trie = new MemoizedValue<>(assetContainer.dir()+" - TrieFactory.trie", assetContainer);
 	}
 	
+	/**
+	 * Returns the trie for the asset container's scope. The same {@link Trie} instance is returned until the require path index of the scope
+	 * changes (i.e. an asset is added, removed or renamed) or any of its assets are re-created, so that callers can use the instance to tell
+	 * whether they need to re-scan their content, and so that the trie never hands out assets that are no longer part of the model.
+	 */
 	public Trie<Asset> createTrie() throws ModelOperationException {
 		return trie.value(new Getter<ModelOperationException>() {
 			@Override
 			public Object get() throws RuntimeException, ModelOperationException {
-				Trie<Asset> trie = new Trie<>( '/', new Character[]{'.', '/'} );
-				
+				List<Asset> requirableAssets = new ArrayList<>();
+				List<String> requirePathIndex = new ArrayList<>();
 				for (AssetContainer scopeAssetContainer : assetContainer.scopeAssetContainers()) {
-					try {						
-						for(Asset asset : scopeAssetContainer.assets()) {
-							if (!asset.isRequirable()) {
-								continue;
-							}
-							
-							List<String> requirePaths = asset.getRequirePaths();
-							
-							for(String requirePath : requirePaths) {								
-								if (requirePath.contains("/")) {
-									addToTrie(trie, requirePath, asset, SOURCE_MODULE_MATCHER_PATTERN);
-								} else {
-									// the asset is one that can only be referred to via a string
-									addToTrie(trie, requirePath, asset, QUOTED_SOURCE_MODULE_MATCHER_PATTERN);
-								}
-								
-								String requirePathAfterAlias = StringUtils.substringAfter(requirePath, "alias!");
-								if ( requirePath.startsWith("alias!") ) {
-									addToTrie(trie, requirePathAfterAlias, asset, ALIAS_MATCHER_PATTERN);										
-								}
-							}
+					for(Asset asset : scopeAssetContainer.assets()) {
+						if (asset.isRequirable()) {
+							requirableAssets.add(asset);
+							requirePathIndex.add(asset.getClass().getName() + ":" + asset.getAssetPath() + ":" + asset.getRequirePaths());
 						}
 					}
-					catch (EmptyTrieKeyException ex) {
-						throw new ModelOperationException(ex);
-					}
 				}
 				
-				return trie;
+				if (lastTrie == null || !requirePathIndex.equals(lastRequirePathIndex) || !sameAssets(requirableAssets, lastRequirableAssets)) {
+					lastTrie = buildTrie(requirableAssets);
+					lastRequirePathIndex = requirePathIndex;
+					lastRequirableAssets = requirableAssets;
+					lastTrieFingerprint = PersistentDependencyCache.hash(StringUtils.join(requirePathIndex, "\n"));
+				}
+				
+				return lastTrie;
 			}
 		});
 	}
 	
+	/**
+	 * Returns a fingerprint of the require path index the current trie was built from, so that the results of matching the trie against a file can
+	 * be cached beyond the lifetime of the model.
+	 */
+	public String getTrieFingerprint() throws ModelOperationException {
+		createTrie();
+		return lastTrieFingerprint;
+	}
+	
+	private static boolean sameAssets(List<Asset> assets, List<Asset> lastAssets) {
+		if (assets.size() != lastAssets.size()) {
+			return false;
+		}
+		for (int i = 0; i < assets.size(); i++) {
+			if (assets.get(i) != lastAssets.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private Trie<Asset> buildTrie(List<Asset> requirableAssets) throws ModelOperationException {
+		Trie<Asset> trie = new Trie<>( '/', new Character[]{'.', '/'} );
+		
+		try {
+			for(Asset asset : requirableAssets) {
+				List<String> requirePaths = asset.getRequirePaths();
+				
+				for(String requirePath : requirePaths) {
+					if (requirePath.contains("/")) {
+						addToTrie(trie, requirePath, asset, SOURCE_MODULE_MATCHER_PATTERN);
+					} else {
+						// the asset is one that can only be referred to via a string
+						addToTrie(trie, requirePath, asset, QUOTED_SOURCE_MODULE_MATCHER_PATTERN);
+					}
+					
+					String requirePathAfterAlias = StringUtils.substringAfter(requirePath, "alias!");
+					if ( requirePath.startsWith("alias!") ) {
+						addToTrie(trie, requirePathAfterAlias, asset, ALIAS_MATCHER_PATTERN);
+					}
+				}
+			}
+		}
+		catch (EmptyTrieKeyException ex) {
+			throw new ModelOperationException(ex);
+		}
+		
+		trie.compile();
+		return trie;
+	}
+	
 	private void addToTrie(Trie<Asset> trie, String key, Asset value, Pattern matchPattern) throws EmptyTrieKeyException {
 		if (!trie.containsKey(key)) {
 			try
@@ -45,9 +45,41 @@ public class YamlBladerunnerConf extends AbstractYamlConfFile {
 	// this can be null - our asking mechanism relies on it
 	public Boolean allowAnonymousStats;
 	
+	// this can be null, in which case a thread per available processor is used
+	@Min(value=1)
+	public Integer minifierThreads;
+	
 	@NotNull
 	public String fileObserver;
 	
+	// the memory budget in megabytes for decoded source file content, which can be null in which case a default budget is used
+	@Min(value=0)
+	public Integer sourceContentStoreSize;
+	
+	// the jetty settings can all be null, in which case jetty's own defaults are used
+	@Min(value=1)
+	public Integer jettyAcceptors;
+	
+	@Min(value=1)
+	public Integer jettySelectors;
+	
+	@Min(value=1)
+	public Integer jettyMinThreads;
+	
+	@Min(value=1)
+	public Integer jettyMaxThreads;
+	
+	@Min(value=1)
+	public Integer jettyMaxQueuedRequests;
+	
+	@Min(value=1)
+	public Integer jettyIdleTimeout;
+	
+	@Min(value=1)
+	public Integer jettyOutputBufferSize;
+	
+	public Boolean jettyHttp2Cleartext;
+	
 	@NotNull // LinkedHashMap so the ordering is preserved and our tests can assert on the contents of written conf files reliably
 	public LinkedHashMap<String,List<String>> orderedPlugins;
 	
@@ -4,6 +4,9 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.memoization.Getter;
@@ -65,6 +68,17 @@ public class MemoizedValueTest {
 		assertEquals(1, (int) memoizedValue.value(incrementingGetter));
 	}
 	
+	@Test
+	public void valueIsRecalculatedIfItHasBeenInvalidated() {
+		MemoizedValue<Integer> memoizedValue = new MemoizedValue<>("id", brjs, watchFile);
+		Getter<RuntimeException> incrementingGetter = new IncrementingGetter();
+		
+		assertEquals(0, (int) memoizedValue.value(incrementingGetter));
+		memoizedValue.invalidate();
+		assertEquals(1, (int) memoizedValue.value(incrementingGetter));
+		assertEquals(1, (int) memoizedValue.value(incrementingGetter));
+	}
+	
 	@Test
 	public void valueIsRecalculatedTheSecondTimeIfAnExceptionOcurredTheFirstTime() {
 		MemoizedValue<Integer> memoizedValue = new MemoizedValue<>("id", brjs, watchFile);
@@ -104,6 +118,57 @@ public class MemoizedValueTest {
 		loggerMessageStore.verifyDebugLogMessage(MemoizedValue.USING_MEMOIZED_VALUE_MSG, "THE_ID");
 	}
 	
+	@Test
+	public void aValueRequestedFromWithinItsOwnComputationIsComputedAgainRatherThanWaitingForItself() {
+		MemoizedValue<Integer> memoizedValue = new MemoizedValue<>("id", brjs, watchFile);
+		
+		int value = memoizedValue.value(() -> {
+			return memoizedValue.value(() -> 1) + 1;
+		});
+		assertEquals(2, value);
+		assertEquals(2, (int) memoizedValue.value(() -> 3));
+	}
+	
+	@Test
+	public void threadsComputingValuesThatDependOnEachOtherDontDeadlock() throws Exception {
+		MemoizedValue<String> memoizedValue1 = new MemoizedValue<>("id1", brjs, watchFile);
+		MemoizedValue<String> memoizedValue2 = new MemoizedValue<>("id2", brjs, watchFile);
+		CountDownLatch computationsStarted = new CountDownLatch(2);
+		AtomicReference<Throwable> threadException = new AtomicReference<>();
+		
+		Thread thread1 = new Thread(() -> {
+			memoizedValue1.value(() -> {
+				awaitOtherComputation(computationsStarted);
+				return "value1," + memoizedValue2.value(() -> "value2");
+			});
+		});
+		Thread thread2 = new Thread(() -> {
+			memoizedValue2.value(() -> {
+				awaitOtherComputation(computationsStarted);
+				return "value2," + memoizedValue1.value(() -> "value1");
+			});
+		});
+		thread1.setUncaughtExceptionHandler((thread, ex) -> threadException.set(ex));
+		thread2.setUncaughtExceptionHandler((thread, ex) -> threadException.set(ex));
+		thread1.start();
+		thread2.start();
+		thread1.join(TimeUnit.SECONDS.toMillis(10));
+		thread2.join(TimeUnit.SECONDS.toMillis(10));
+		
+		assertFalse("the threads deadlocked", thread1.isAlive() || thread2.isAlive());
+		assertNull(threadException.get());
+	}
+	
+	
+	private void awaitOtherComputation(CountDownLatch computationsStarted) {
+		computationsStarted.countDown();
+		try {
+			computationsStarted.await();
+		}
+		catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
 	
 	private class IncrementingGetter implements Getter<RuntimeException> {
 		int count = 0;
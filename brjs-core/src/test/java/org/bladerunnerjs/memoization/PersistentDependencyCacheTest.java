@@ -0,0 +1,149 @@
+package org.bladerunnerjs.memoization;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bladerunnerjs.api.memoization.PersistentDependencyCache;
+import org.bladerunnerjs.utility.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersistentDependencyCacheTest {
+	private File tempDir;
+	private File cacheFile;
+	private File sourceFile;
+	private File patchFile;
+	private PersistentDependencyCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		tempDir = FileUtils.createTemporaryDirectory( this.getClass() );
+		cacheFile = new File(tempDir, "generated/dependencies.cache");
+		sourceFile = new File(tempDir, "src/Class1.js");
+		patchFile = new File(tempDir, "js-patches/Class1.js");
+		org.apache.commons.io.FileUtils.write(sourceFile, "require('./Class2');");
+		cache = new PersistentDependencyCache(cacheFile);
+		cache.load();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		org.apache.commons.io.FileUtils.deleteQuietly(tempDir);
+	}
+
+	@Test
+	public void entriesAreNotAvailableUntilTheyHaveBeenStored() {
+		assertFalse(cache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	@Test
+	public void storedEntriesAreAvailableWhileTheInputFilesAreUnchanged() {
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+
+		PersistentDependencyCache.Lookup lookup = cache.lookup("key", "v1", sourceFile);
+		assertTrue(lookup.isHit());
+		assertEquals(Arrays.asList("./Class2"), lookup.getValues("requirePaths"));
+	}
+
+	@Test
+	public void storedEntriesAreAvailableAfterTheCacheHasBeenSavedAndReloaded() throws Exception {
+		cache.lookup("key", "v1", sourceFile, patchFile).store(values("./Class2"));
+		cache.save();
+
+		PersistentDependencyCache reloadedCache = new PersistentDependencyCache(cacheFile);
+		reloadedCache.load();
+		PersistentDependencyCache.Lookup lookup = reloadedCache.lookup("key", "v1", sourceFile, patchFile);
+		assertTrue(lookup.isHit());
+		assertEquals(Arrays.asList("./Class2"), lookup.getValues("requirePaths"));
+	}
+
+	@Test
+	public void entriesAreNotAvailableIfTheContentOfAnInputFileChanges() throws Exception {
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+		org.apache.commons.io.FileUtils.write(sourceFile, "require('./Class3');");
+
+		assertFalse(cache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	@Test
+	public void entriesAreNotAvailableIfAnInputFileIsCreated() throws Exception {
+		cache.lookup("key", "v1", sourceFile, patchFile).store(values("./Class2"));
+		org.apache.commons.io.FileUtils.write(patchFile, "require('./Class3');");
+
+		assertFalse(cache.lookup("key", "v1", sourceFile, patchFile).isHit());
+	}
+
+	@Test
+	public void entriesAreNotAvailableIfTheVersionChanges() {
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+
+		assertFalse(cache.lookup("key", "v2", sourceFile).isHit());
+	}
+
+	@Test
+	public void entriesAreStillAvailableIfAnInputFileIsTouchedWithoutItsContentChanging() throws Exception {
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+		cache.save();
+		sourceFile.setLastModified(sourceFile.lastModified() - 10000);
+
+		PersistentDependencyCache reloadedCache = new PersistentDependencyCache(cacheFile);
+		reloadedCache.load();
+		assertTrue(reloadedCache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	@Test
+	public void entriesAreNotAvailableIfAnInputFileChangesWithinTheSameModificationTimeTick() throws Exception {
+		long lastModified = sourceFile.lastModified();
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+		cache.save();
+		org.apache.commons.io.FileUtils.write(sourceFile, "require('./Class3');");
+		sourceFile.setLastModified(lastModified);
+
+		PersistentDependencyCache reloadedCache = new PersistentDependencyCache(cacheFile);
+		reloadedCache.load();
+		assertFalse(reloadedCache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	@Test
+	public void entriesAreSavedWhenTheyAreStoredOnceTheSaveIntervalHasElapsed() throws Exception {
+		cache = new PersistentDependencyCache(cacheFile, 0);
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+
+		PersistentDependencyCache reloadedCache = new PersistentDependencyCache(cacheFile);
+		reloadedCache.load();
+		assertTrue(reloadedCache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	@Test
+	public void aCorruptCacheFileIsIgnored() throws Exception {
+		org.apache.commons.io.FileUtils.write(cacheFile, "not a cache file");
+
+		PersistentDependencyCache reloadedCache = new PersistentDependencyCache(cacheFile);
+		reloadedCache.load();
+		assertFalse(reloadedCache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	@Test
+	public void entriesForDeletedFilesAreNotSaved() throws Exception {
+		cache.lookup("key", "v1", sourceFile).store(values("./Class2"));
+		sourceFile.delete();
+		cache.save();
+		org.apache.commons.io.FileUtils.write(sourceFile, "require('./Class2');");
+
+		PersistentDependencyCache reloadedCache = new PersistentDependencyCache(cacheFile);
+		reloadedCache.load();
+		assertFalse(reloadedCache.lookup("key", "v1", sourceFile).isHit());
+	}
+
+	private Map<String, List<String>> values(String... requirePaths) {
+		Map<String, List<String>> values = new LinkedHashMap<>();
+		values.put("requirePaths", Arrays.asList(requirePaths));
+		return values;
+	}
+}
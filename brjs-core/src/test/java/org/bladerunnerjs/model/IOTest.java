@@ -3,7 +3,9 @@ package org.bladerunnerjs.model;
 import static org.junit.Assert.assertEquals;
 
 import java.io.File;
+import java.io.InputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.filefilter.FalseFileFilter;
 import org.apache.commons.io.filefilter.NameFileFilter;
 import org.bladerunnerjs.utility.FileUtils;
@@ -42,13 +44,13 @@ public class IOTest {
 	@Test
 	public void weCanReadAFileIfWeveInstalledTheAccessCheckerButHaveNotYetLimitedAccess() throws Exception {
 		io.installFileAccessChecker();
-		assertEquals("Hello World!", org.apache.commons.io.FileUtils.readFileToString(tempHelloWorldFile));
+		assertEquals("Hello World!", readFile(tempHelloWorldFile));
 	}
 	
 	@Test
 	public void weCanReadAFileIfWeveLimitedAccessButHaveNotYetInstalledTheAccessChecker() throws Exception {
 		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1})) {
-			assertEquals("Hello World!", org.apache.commons.io.FileUtils.readFileToString(tempHelloWorldFile));
+			assertEquals("Hello World!", readFile(tempHelloWorldFile));
 		}
 	}
 	
@@ -57,7 +59,7 @@ public class IOTest {
 		io.installFileAccessChecker();
 		
 		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1})) {
-			org.apache.commons.io.FileUtils.readFileToString(tempHelloWorldFile);
+			readFile(tempHelloWorldFile);
 		}
 	}
 	
@@ -66,7 +68,7 @@ public class IOTest {
 		io.installFileAccessChecker();
 		
 		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {tempDir})) {
-			org.apache.commons.io.FileUtils.readFileToString(tempHelloWorldFile);
+			readFile(tempHelloWorldFile);
 		}
 	}
 	
@@ -75,7 +77,7 @@ public class IOTest {
 		io.installFileAccessChecker();
 		
 		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {tempDir})) {
-			org.apache.commons.io.FileUtils.readFileToString(subDir1HelloWorldFile);
+			readFile(subDir1HelloWorldFile);
 		}
 	}
 	
@@ -84,7 +86,7 @@ public class IOTest {
 		io.installFileAccessChecker();
 		
 		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1, subDir2})) {
-			org.apache.commons.io.FileUtils.readFileToString(subDir1HelloWorldFile);
+			readFile(subDir1HelloWorldFile);
 		}
 	}
 	
@@ -95,7 +97,7 @@ public class IOTest {
 		try(FileAccessLimitScope innerScope = io.limitAccessToWithin("id", new File[] {subDir1, subDir2})) {
 			
 			try(FileAccessLimitScope outerScope = io.limitAccessToWithin("id", new File[] {subDir2})) {
-				org.apache.commons.io.FileUtils.readFileToString(subDir1HelloWorldFile);
+				readFile(subDir1HelloWorldFile);
 			}
 		}
 	}
@@ -107,7 +109,7 @@ public class IOTest {
 		try(FileAccessLimitScope innerScope = io.limitAccessToWithin("id", new File[] {subDir1, subDir2})) {
 			
 			try(FileAccessLimitScope outerScope = io.limitAccessToWithin("id", new File[] {subDir1})) {
-				org.apache.commons.io.FileUtils.readFileToString(subDir1HelloWorldFile);
+				readFile(subDir1HelloWorldFile);
 			}
 		}
 	}
@@ -121,7 +123,7 @@ public class IOTest {
 			try(FileAccessLimitScope innerScope = io.limitAccessToWithin("id", new File[] {subDir1, subDir2})) {
 				
 				try(FileAccessLimitScope outerScope = io.limitAccessToWithin("id", new File[] {subDir1})) {
-					org.apache.commons.io.FileUtils.readFileToString(subDir1HelloWorldFile);
+					readFile(subDir1HelloWorldFile);
 				}
 			}
 		}
@@ -135,8 +137,42 @@ public class IOTest {
 		
 		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1})) {
 			scope.getClass(); // reference scope to prevent compiler warnings
-			org.apache.commons.io.FileUtils.readFileToString(tempHelloWorldFile);
+			readFile(tempHelloWorldFile);
 		}
 	}
 	
+	@Test(expected = BRJSMemoizationFileAccessException.class)
+	public void filesOpenedForReadingAreCheckedAgainstTheLimitedAccess() throws Exception {
+		io.installFileAccessChecker();
+		
+		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1})) {
+			io.openForReading(tempHelloWorldFile).close();
+		}
+	}
+	
+	@Test
+	public void filesWithinTheLimitedAccessCanBeOpenedForReading() throws Exception {
+		io.installFileAccessChecker();
+		
+		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1});
+			InputStream input = io.openForReading(subDir1HelloWorldFile)) {
+			assertEquals("Hello Other World!", IOUtils.toString(input));
+		}
+	}
+	
+	@Test
+	public void weCanReadAFileAgainOnceTheScopeHasBeenClosed() throws Exception {
+		io.installFileAccessChecker();
+		
+		try(FileAccessLimitScope scope = io.limitAccessToWithin("id", new File[] {subDir1})) {
+			readFile(subDir1HelloWorldFile);
+		}
+		assertEquals("Hello World!", readFile(tempHelloWorldFile));
+	}
+	
+	private String readFile(File file) throws Exception {
+		io.recordRead(file);
+		return org.apache.commons.io.FileUtils.readFileToString(file);
+	}
+	
 }
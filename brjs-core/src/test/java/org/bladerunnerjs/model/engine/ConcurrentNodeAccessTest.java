@@ -0,0 +1,108 @@
+package org.bladerunnerjs.model.engine;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bladerunnerjs.utility.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Requests only have shared access to the model, so nodes and node properties that are created lazily while handling them have to be created
+ * exactly once, however many threads ask for them at the same time.
+ */
+public class ConcurrentNodeAccessTest
+{
+	private static final int THREAD_COUNT = 8;
+	private static final int CHILD_COUNT = 200;
+
+	private File tempDir;
+	private TestRootNode rootNode;
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		tempDir = FileUtils.createTemporaryDirectory(ConcurrentNodeAccessTest.class);
+		File rootDir = new File(tempDir, "brjs-root-node");
+		rootDir.mkdir();
+		rootNode = new TestRootNode(rootDir);
+		executor = Executors.newFixedThreadPool(THREAD_COUNT);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		executor.shutdownNow();
+		org.apache.commons.io.FileUtils.deleteQuietly(tempDir);
+	}
+
+	@Test
+	public void childNodesRequestedConcurrentlyAreOnlyCreatedAndRegisteredOnce() throws Exception
+	{
+		List<List<TestChildNode>> childNodesPerThread = runConcurrently(() -> {
+			List<TestChildNode> childNodes = new ArrayList<>();
+			for (int i = 0; i < CHILD_COUNT; i++) {
+				childNodes.add(rootNode.childNode("child-" + i));
+			}
+			return childNodes;
+		});
+
+		List<TestChildNode> childNodes = childNodesPerThread.get(0);
+		for (List<TestChildNode> threadChildNodes : childNodesPerThread) {
+			for (int i = 0; i < CHILD_COUNT; i++) {
+				assertSame(childNodes.get(i), threadChildNodes.get(i));
+			}
+		}
+		for (TestChildNode childNode : childNodes) {
+			assertEquals(1, rootNode.getRegisteredNodes(childNode.dir()).size());
+		}
+	}
+
+	@Test
+	public void transientPropertiesRequestedConcurrentlyAreOnlyCreatedOnce() throws Exception
+	{
+		AtomicInteger creationCount = new AtomicInteger();
+
+		List<Object> properties = runConcurrently(() -> {
+			return rootNode.nodeProperties("plugin").getOrCreateTransientProperty("property", () -> {
+				creationCount.incrementAndGet();
+				return new Object();
+			});
+		});
+
+		assertEquals(1, creationCount.get());
+		for (Object property : properties) {
+			assertSame(properties.get(0), property);
+		}
+	}
+
+	private <T> List<T> runConcurrently(Callable<T> task) throws Exception
+	{
+		CountDownLatch startLatch = new CountDownLatch(1);
+		List<Future<T>> futures = new ArrayList<>();
+		for (int t = 0; t < THREAD_COUNT; t++) {
+			futures.add(executor.submit(() -> {
+				startLatch.await();
+				return task.call();
+			}));
+		}
+		startLatch.countDown();
+
+		List<T> results = new ArrayList<>();
+		for (Future<T> future : futures) {
+			results.add(future.get());
+		}
+		return results;
+	}
+}
@@ -1,6 +1,7 @@
 package org.bladerunnerjs.utility;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 import org.junit.Before;
@@ -314,4 +315,31 @@ public class ContentPathParserTest
 		assertEquals("some path", parsedContent.properties.get("name"));
 	}
 	
+	@Test
+	public void tryParseReturnsNullRatherThanThrowingAnExceptionIfTheRequestDoesntMatch() throws Exception
+	{
+		builder.accepts("request/<token>").as("content-form").where("token").hasForm("[a-z]+");
+		parser = builder.build();
+		
+		assertNull(parser.tryParse("request/123"));
+		assertNull(parser.tryParse(""));
+		assertEquals("abc", parser.tryParse("request/abc").properties.get("token"));
+	}
+	
+	@Test
+	public void theFirstMatchingFormIsUsedRegardlessOfWhetherItStartsWithATokenOrText() throws Exception
+	{
+		builder
+			.accepts("<token>/bundle.js").as("token-form")
+				.and("js/bundle.js").as("text-form")
+				.and("js/<name>").as("text-and-token-form")
+			.where("token").hasForm("[a-z]+")
+				.and("name").hasForm(ContentPathParserBuilder.NAME_TOKEN);
+		parser = builder.build();
+		
+		assertEquals("token-form", parser.parse("js/bundle.js").formName);
+		assertEquals("text-and-token-form", parser.parse("js/other-bundle.js").formName);
+		assertEquals("token-form", parser.parse("css/bundle.js").formName);
+	}
+	
 }
@@ -0,0 +1,157 @@
+package org.bladerunnerjs.utility;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Checks that ordering randomly generated graphs of source modules using the {@link IndexedDependencyGraph} gives the same order as the repeated
+ * passes and per-dependency reachability checks it replaced.
+ */
+public class DependencyOrderingEquivalenceTest
+{
+	private static final int MODULE_COUNT = 200;
+	private static final int PRE_EXPORT_DEPENDENCIES_PER_MODULE = 3;
+	private static final int POST_EXPORT_DEPENDENCIES_PER_MODULE = 3;
+	private static final int GRAPH_COUNT = 10;
+
+	private Map<String, List<String>> preExportDependencyGraph;
+	private Map<String, List<String>> postExportDependencyGraph;
+
+	private void createGraph(long seed) {
+		Random random = new Random(seed);
+		preExportDependencyGraph = new LinkedHashMap<>();
+		postExportDependencyGraph = new LinkedHashMap<>();
+		List<String> requirePaths = new ArrayList<>();
+		for (int i = 0; i < MODULE_COUNT; i++) {
+			requirePaths.add("appns/package" + (i % 10) + "/Class" + i);
+		}
+
+		// modules only have pre-export dependencies on modules earlier in the list, but are added to the graph in a random order
+		List<String> shuffledRequirePaths = new ArrayList<>(requirePaths);
+		Collections.shuffle(shuffledRequirePaths, random);
+		for (String requirePath : shuffledRequirePaths) {
+			int index = requirePaths.indexOf(requirePath);
+			List<String> preExportDependencies = new ArrayList<>();
+			List<String> postExportDependencies = new ArrayList<>();
+			for (int i = 0; i < PRE_EXPORT_DEPENDENCIES_PER_MODULE && index > 0; i++) {
+				preExportDependencies.add(requirePaths.get(random.nextInt(index)));
+			}
+			for (int i = 0; i < POST_EXPORT_DEPENDENCIES_PER_MODULE; i++) {
+				postExportDependencies.add(requirePaths.get(random.nextInt(MODULE_COUNT)));
+			}
+			preExportDependencyGraph.put(requirePath, preExportDependencies);
+			postExportDependencyGraph.put(requirePath, postExportDependencies);
+		}
+	}
+
+	@Test
+	public void indexedDependencyGraphOrdersModulesTheSameWayAsRepeatedPasses() throws Exception {
+		for (long seed = 1; seed <= GRAPH_COUNT; seed++) {
+			createGraph(seed);
+			assertEquals("graph " + seed, passOrderedRequirePaths(), indexedRequirePaths());
+		}
+	}
+
+	private List<String> indexedRequirePaths() throws Exception {
+		Map<String, List<String>> dependencyGraph = NonCircularTransitivePreExportDependencyGraphCreator.createGraph(copy(preExportDependencyGraph), postExportDependencyGraph);
+		IndexedDependencyGraph indexedDependencyGraph = new IndexedDependencyGraph(dependencyGraph);
+
+		List<String> orderedRequirePaths = new ArrayList<>();
+		for (int id : indexedDependencyGraph.dependencyOrder(new BitSet())) {
+			orderedRequirePaths.add(indexedDependencyGraph.requirePath(id));
+		}
+		return orderedRequirePaths;
+	}
+
+	private List<String> passOrderedRequirePaths() {
+		Map<String, List<String>> dependencyGraph = PassOrderedDependencyGraph.createGraph(copy(preExportDependencyGraph), postExportDependencyGraph);
+		return PassOrderedDependencyGraph.order(dependencyGraph);
+	}
+
+	private static Map<String, List<String>> copy(Map<String, List<String>> dependencyGraph) {
+		Map<String, List<String>> copy = new LinkedHashMap<>();
+		for (String requirePath : dependencyGraph.keySet()) {
+			copy.put(requirePath, new ArrayList<>(dependencyGraph.get(requirePath)));
+		}
+		return copy;
+	}
+
+
+	/* the graph creation and ordering that SourceModuleDependencyOrderCalculator used prior to IndexedDependencyGraph, kept here so the two can be compared */
+	private static class PassOrderedDependencyGraph
+	{
+		static Map<String, List<String>> createGraph(Map<String, List<String>> preExportDependencyGraph, Map<String, List<String>> postExportDependencyGraph) {
+			Map<String, List<String>> combinedDefineTimeDependencyGraph = new LinkedHashMap<>();
+			for (String sourceModuleRequirePath : preExportDependencyGraph.keySet()) {
+				List<String> combinedDefineTimeDependencies = new ArrayList<>(preExportDependencyGraph.get(sourceModuleRequirePath));
+				combinedDefineTimeDependencies.addAll(postExportDependencyGraph.get(sourceModuleRequirePath));
+				combinedDefineTimeDependencyGraph.put(sourceModuleRequirePath, combinedDefineTimeDependencies);
+			}
+
+			boolean progressMade;
+			do {
+				progressMade = false;
+				for (String sourceModuleRequirePath : postExportDependencyGraph.keySet()) {
+					for (String dependentSourceModuleRequirePath : postExportDependencyGraph.get(sourceModuleRequirePath)) {
+						List<String> dependencies = preExportDependencyGraph.get(sourceModuleRequirePath);
+						if (!reachable(dependentSourceModuleRequirePath, sourceModuleRequirePath, combinedDefineTimeDependencyGraph, new LinkedHashSet<>()) &&
+								!dependencies.contains(dependentSourceModuleRequirePath)) {
+							progressMade = true;
+							dependencies.add(dependentSourceModuleRequirePath);
+						}
+					}
+				}
+			} while (progressMade);
+
+			return preExportDependencyGraph;
+		}
+
+		static List<String> order(Map<String, List<String>> dependencyGraph) {
+			List<String> orderedRequirePaths = new ArrayList<>();
+			Set<String> metDependencies = new LinkedHashSet<>();
+			List<String> unorderedRequirePaths = new ArrayList<>(dependencyGraph.keySet());
+
+			while (!unorderedRequirePaths.isEmpty()) {
+				List<String> unprocessedRequirePaths = new ArrayList<>();
+				for (String requirePath : unorderedRequirePaths) {
+					if (metDependencies.containsAll(dependencyGraph.get(requirePath))) {
+						orderedRequirePaths.add(requirePath);
+						metDependencies.add(requirePath);
+					}
+					else {
+						unprocessedRequirePaths.add(requirePath);
+					}
+				}
+				if (unprocessedRequirePaths.size() == unorderedRequirePaths.size()) {
+					throw new IllegalStateException("circular dependency");
+				}
+				unorderedRequirePaths = unprocessedRequirePaths;
+			}
+
+			return orderedRequirePaths;
+		}
+
+		private static boolean reachable(String from, String to, Map<String, List<String>> dependencyGraph, Set<String> visited) {
+			for (String dependency : dependencyGraph.get(from)) {
+				if (dependency.equals(to)) {
+					return true;
+				}
+				if (visited.add(dependency) && reachable(dependency, to, dependencyGraph, visited)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package org.bladerunnerjs.utility;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class IndexedDependencyGraphTest {
+	private Map<String, List<String>> dependencyGraph = new LinkedHashMap<>();
+
+	private void dependsOn(String requirePath, String... dependencies) {
+		dependencyGraph.put(requirePath, new ArrayList<>(Arrays.asList(dependencies)));
+	}
+
+	private List<String> dependencyOrder(IndexedDependencyGraph graph, String... metDependencies) {
+		BitSet metDependencyIds = new BitSet();
+		for (String metDependency : metDependencies) {
+			metDependencyIds.set(graph.id(metDependency));
+		}
+
+		List<String> order = new ArrayList<>();
+		for (int id : graph.dependencyOrder(metDependencyIds)) {
+			order.add(graph.requirePath(id));
+		}
+		return order;
+	}
+
+	@Test
+	public void nodesAreOrderedByThePassTheirDependenciesAreMetInAndThenByTheirOriginalOrder() throws Exception {
+		dependsOn("a", "c");
+		dependsOn("b");
+		dependsOn("c", "b");
+		dependsOn("d", "a");
+
+		IndexedDependencyGraph graph = new IndexedDependencyGraph(dependencyGraph);
+
+		assertEquals(Arrays.asList("b", "c", "a", "d"), dependencyOrder(graph));
+	}
+
+	@Test
+	public void metDependenciesDontNeedToBeOrderedFirst() throws Exception {
+		dependsOn("a", "b", "bootstrap");
+		dependsOn("b");
+
+		IndexedDependencyGraph graph = new IndexedDependencyGraph(dependencyGraph);
+
+		assertEquals(Arrays.asList("b"), dependencyOrder(graph));
+		assertEquals(Arrays.asList("b", "a"), dependencyOrder(graph, "bootstrap"));
+	}
+
+	@Test
+	public void nodesThatDependOnACycleAreNotOrdered() throws Exception {
+		dependsOn("a", "b");
+		dependsOn("b", "c");
+		dependsOn("c", "b");
+		dependsOn("d");
+		dependsOn("e", "e");
+
+		IndexedDependencyGraph graph = new IndexedDependencyGraph(dependencyGraph);
+
+		assertEquals(Arrays.asList("d"), dependencyOrder(graph));
+	}
+
+	@Test
+	public void nodesThatCanReachEachOtherAreInTheSameComponent() throws Exception {
+		dependsOn("a", "b");
+		dependsOn("b", "c");
+		dependsOn("c", "b", "d");
+		dependsOn("d");
+
+		IndexedDependencyGraph graph = new IndexedDependencyGraph(dependencyGraph);
+		int[] components = graph.stronglyConnectedComponents();
+
+		assertEquals(components[graph.id("b")], components[graph.id("c")]);
+		assertNotEquals(components[graph.id("a")], components[graph.id("b")]);
+		assertNotEquals(components[graph.id("d")], components[graph.id("c")]);
+	}
+}
@@ -0,0 +1,165 @@
+package org.bladerunnerjs.utility;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ParallelZipWriterTest
+{
+	private File tempDir;
+	private File zipFile;
+
+	@Before
+	public void setup() throws Exception
+	{
+		tempDir = FileUtils.createTemporaryDirectory(ParallelZipWriterTest.class);
+		zipFile = new File(tempDir, "test.zip");
+	}
+
+	@Test
+	public void entriesAreWrittenInTheOrderTheyWereAdded() throws Exception
+	{
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile, 4)) {
+			for (int i = 0; i < 100; i++) {
+				zipWriter.addContent("dir/file" + i + ".js", ("var file = " + i + ";").getBytes(StandardCharsets.UTF_8));
+			}
+			zipWriter.addDirectory("empty-dir");
+		}
+
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			List<String> entryNames = new ArrayList<>();
+			for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements();) {
+				entryNames.add(entries.nextElement().getName());
+			}
+
+			assertEquals(101, entryNames.size());
+			assertEquals("dir/file0.js", entryNames.get(0));
+			assertEquals("dir/file99.js", entryNames.get(99));
+			assertEquals("empty-dir/", entryNames.get(100));
+			assertEquals("var file = 42;", IOUtils.toString(zip.getInputStream(zip.getEntry("dir/file42.js")), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void compressibleEntriesAreDeflatedAndAlreadyCompressedEntriesAreStored() throws Exception
+	{
+		byte[] compressibleContent = new byte[10000];
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile)) {
+			zipWriter.addContent("file.txt", compressibleContent);
+			zipWriter.addContent("image.png", compressibleContent);
+		}
+
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			assertEquals(ZipEntry.DEFLATED, zip.getEntry("file.txt").getMethod());
+			assertEquals(ZipEntry.STORED, zip.getEntry("image.png").getMethod());
+			assertArrayEquals(compressibleContent, IOUtils.toByteArray(zip.getInputStream(zip.getEntry("file.txt"))));
+			assertArrayEquals(compressibleContent, IOUtils.toByteArray(zip.getInputStream(zip.getEntry("image.png"))));
+		}
+	}
+
+	@Test
+	public void filesLargerThanCanBeCompressedInMemoryAreStreamedIntoTheArchive() throws Exception
+	{
+		byte[] compressibleContent = new byte[3 * 1024 * 1024];
+		Arrays.fill(compressibleContent, (byte) 'a');
+		byte[] incompressibleContent = new byte[3 * 1024 * 1024];
+		new Random(1).nextBytes(incompressibleContent);
+		File compressibleFile = new File(tempDir, "file.txt");
+		File incompressibleFile = new File(tempDir, "file.bin");
+		org.apache.commons.io.FileUtils.writeByteArrayToFile(compressibleFile, compressibleContent);
+		org.apache.commons.io.FileUtils.writeByteArrayToFile(incompressibleFile, incompressibleContent);
+
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile)) {
+			zipWriter.addFile("file.txt", compressibleFile);
+			zipWriter.addFile("file.bin", incompressibleFile);
+		}
+
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			assertEquals(ZipEntry.DEFLATED, zip.getEntry("file.txt").getMethod());
+			assertEquals(ZipEntry.STORED, zip.getEntry("file.bin").getMethod());
+			assertArrayEquals(compressibleContent, IOUtils.toByteArray(zip.getInputStream(zip.getEntry("file.txt"))));
+			assertArrayEquals(incompressibleContent, IOUtils.toByteArray(zip.getInputStream(zip.getEntry("file.bin"))));
+		}
+	}
+
+	@Test
+	public void largeStoredEntriesHaveACrcThatMatchesTheirContentEvenIfTheirFileChangesWhileTheyAreBeingAdded() throws Exception
+	{
+		byte[] originalContent = new byte[3 * 1024 * 1024];
+		new Random(1).nextBytes(originalContent);
+		byte[] changedContent = new byte[3 * 1024 * 1024];
+		new Random(2).nextBytes(changedContent);
+		File incompressibleFile = new File(tempDir, "file.bin");
+		org.apache.commons.io.FileUtils.writeByteArrayToFile(incompressibleFile, originalContent);
+		File changedFile = new File(tempDir, "changed.bin");
+		org.apache.commons.io.FileUtils.writeByteArrayToFile(changedFile, changedContent);
+
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile, 1)) {
+			zipWriter.addFile("file.bin", incompressibleFile);
+			// give the entry time to have its CRC calculated before the file is replaced, but don't rely on it having happened
+			Thread.sleep(500);
+			Files.move(changedFile.toPath(), incompressibleFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		// ZipInputStream verifies the CRC of each entry as it's read
+		try (ZipInputStream zip = new ZipInputStream(new FileInputStream(zipFile))) {
+			assertEquals("file.bin", zip.getNextEntry().getName());
+			byte[] archivedContent = IOUtils.toByteArray(zip);
+			assertTrue("the archived content is one version of the file", Arrays.equals(originalContent, archivedContent) || Arrays.equals(changedContent, archivedContent));
+		}
+	}
+
+	@Test
+	public void archivesWithMoreThan65535EntriesHaveAZip64EndOfCentralDirectory() throws Exception
+	{
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile)) {
+			for (int i = 0; i < 70000; i++) {
+				zipWriter.addContent("file" + i + ".txt", ("file " + i).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		assertTrue("the archive has a zip64 end of central directory record", hasZip64EndOfCentralDirectory(zipFile));
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			assertEquals(70000, zip.size());
+			assertEquals("file 69999", IOUtils.toString(zip.getInputStream(zip.getEntry("file69999.txt")), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void smallArchivesDontHaveAZip64EndOfCentralDirectory() throws Exception
+	{
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(zipFile)) {
+			zipWriter.addContent("file.txt", "file".getBytes(StandardCharsets.UTF_8));
+		}
+
+		assertFalse(hasZip64EndOfCentralDirectory(zipFile));
+	}
+
+	static boolean hasZip64EndOfCentralDirectory(File zipFile) throws Exception
+	{
+		// the zip64 end of central directory locator is 20 bytes long and immediately precedes the 22 byte end of central directory record
+		try (RandomAccessFile zip = new RandomAccessFile(zipFile, "r")) {
+			zip.seek(zip.length() - 22 - 20);
+			return Integer.reverseBytes(zip.readInt()) == 0x07064b50;
+		}
+	}
+
+}
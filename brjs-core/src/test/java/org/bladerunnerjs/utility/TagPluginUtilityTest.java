@@ -31,6 +31,7 @@ public class TagPluginUtilityTest
 	BRJS brjs;
 	App app;
 	Aspect aspect;
+	MockTagHandler changingTagHandler;
 
 
 	private File testSdkDirectory;
@@ -47,6 +48,9 @@ public class TagPluginUtilityTest
 		mockPluginLocator.tagHandlers.add( new VirtualProxyTagHandlerPlugin( new MockTagHandler("a_tag", "replaced tag!", "") ) );
 		mockPluginLocator.tagHandlers.add( new VirtualProxyTagHandlerPlugin( new MockTagHandler("a-tag", "replaced tag!", "") ) );
 		
+		changingTagHandler = new MockTagHandler("changingTag", "original content", "");
+		mockPluginLocator.tagHandlers.add( new VirtualProxyTagHandlerPlugin( changingTagHandler ) );
+		
 		/* invalid valid tags */
 		mockPluginLocator.tagHandlers.add( new VirtualProxyTagHandlerPlugin( new MockTagHandler("1tag", "replaced tag!", "") ) );
 		mockPluginLocator.tagHandlers.add( new VirtualProxyTagHandlerPlugin( new MockTagHandler("-tag", "replaced tag!", "") ) );
@@ -172,6 +176,16 @@ public class TagPluginUtilityTest
 		filterAndAssert( "<@tag ~=* @/>", "<@tag ~=* @/>", aspect.getBundleSet(), RequestMode.Dev, "");
 	}
 	
+	@Test
+	public void renderedPagesAreReusedForTheSameBundleSetRequestModeLocaleAndVersion() throws Exception
+	{
+		filterAndAssert( "this is <@changingTag@/>", "this is original content", aspect.getBundleSet(), RequestMode.Dev, "en");
+		changingTagHandler.devContent = "new content";
+		filterAndAssert( "this is <@changingTag@/>", "this is original content", aspect.getBundleSet(), RequestMode.Dev, "en");
+		filterAndAssert( "this is <@changingTag@/>", "this is new content", aspect.getBundleSet(), RequestMode.Dev, "de");
+		filterAndAssert( "this is also <@changingTag@/>", "this is also new content", aspect.getBundleSet(), RequestMode.Dev, "en");
+	}
+	
 	@Test
 	public void exceptionIsThrownIfTagHandlerCantBeFound() throws Exception
 	{		
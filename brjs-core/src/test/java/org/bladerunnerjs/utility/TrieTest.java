@@ -263,7 +263,63 @@ public class TrieTest
 		assertTrue(trie.containsKey("test.object/1"));
 		assertEquals(test_object_1, trie.get("test.object.1"));
 	}
-	
+
+	@Test
+	public void keysOverlappingAPartialMatchAreStillFound() throws Exception
+	{
+		trie.add("test.object.1", test_object_1);
+		trie.add("object.2", test_object_2);
+
+		StringReader reader = new StringReader("test.object.2 and test.object.1");
+
+		List<TestObject> foundObjects = trie.getMatches(reader);
+		assertEquals(2, foundObjects.size());
+		assertEquals(test_object_2, foundObjects.get(0));
+		assertEquals(test_object_1, foundObjects.get(1));
+	}
+
+	@Test
+	public void keysOverlappingAPartialMatchAtTheEndOfTheContentAreStillFound() throws Exception
+	{
+		trie.add("test.object.1", test_object_1);
+		trie.add("object", test_object_2);
+
+		StringReader reader = new StringReader("test.object");
+
+		List<TestObject> foundObjects = trie.getMatches(reader);
+		assertEquals(1, foundObjects.size());
+		assertEquals(test_object_2, foundObjects.get(0));
+	}
+
+	@Test
+	public void matchPatternsAreCheckedAgainstTheCharacterThatPrecedesTheMatchRatherThanTheEndOfAPartialMatch() throws Exception
+	{
+		trie.add("test.object.1", test_object_1);
+		trie.add("est.object", test_object_2, Pattern.compile("[\"']\\S+[\"']"));
+
+		StringReader reader = new StringReader("test.object' won't match");
+		assertEquals(0, trie.getMatches(reader).size());
+
+		reader = new StringReader("test.object' won't match but 'est.object' will");
+
+		List<TestObject> foundObjects = trie.getMatches(reader);
+		assertEquals(1, foundObjects.size());
+		assertEquals(test_object_2, foundObjects.get(0));
+	}
+
+	@Test
+	public void keysAddedAfterTheTrieHasBeenMatchedAgainstAreFound() throws Exception
+	{
+		trie.add("test.object.1", test_object_1);
+		assertEquals(0, trie.getMatches(new StringReader("test.object.2")).size());
+
+		trie.add("test.object.2", test_object_2);
+
+		List<TestObject> foundObjects = trie.getMatches(new StringReader("test.object.2"));
+		assertEquals(1, foundObjects.size());
+		assertEquals(test_object_2, foundObjects.get(0));
+	}
+
 	
 	/* TestObject so the Trie is using Objects to ensure the same object instance is returned, but with a toString() that returns a name to help debugging */
 	class TestObject {
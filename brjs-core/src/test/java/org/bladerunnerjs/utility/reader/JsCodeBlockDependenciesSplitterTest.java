@@ -0,0 +1,145 @@
+package org.bladerunnerjs.utility.reader;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.model.engine.NodeProperties;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsCodeBlockDependenciesSplitterTest
+{
+	private BRJS brjs;
+	
+	@Before
+	public void setup()
+	{
+		NodeProperties mockNodeProperties = mock(NodeProperties.class);
+		brjs = mock(BRJS.class);
+		when(brjs.nodeProperties(anyString())).thenReturn(mockNodeProperties);
+		when(mockNodeProperties.getTransientProperty(anyString())).thenReturn(new CharBufferPool());
+	}
+	
+	@Test
+	public void contentIsSplitAroundCodeBlocksAndTheModuleExportsDefinition() throws IOException
+	{
+		splitAndAssertEquals(
+			lines(
+				"var Class = require('pkg/Class'); // a comment",
+				"function f() {",
+				"  require('pkg/UseTimeClass');",
+				"}",
+				"module.exports = require('pkg/PostExportClass');"),
+			lines(
+				"var Class = require('pkg/Class'); ",
+				"function f() {}",
+				"module.exports "),
+			lines(
+				"= require('pkg/PostExportClass');"),
+			lines(
+				"",
+				"  require('pkg/UseTimeClass');",
+				"}")
+		);
+	}
+	
+	@Test
+	public void moduleExportsWithinCodeBlocksAreIgnored() throws IOException
+	{
+		splitAndAssertEquals(
+			lines(
+				"function f() { module.exports = {}; }",
+				"require('pkg/Class');"),
+			lines(
+				"function f() {}",
+				"require('pkg/Class');"),
+			lines(
+				""),
+			lines(
+				" module.exports = {}; }")
+		);
+	}
+	
+	@Test
+	public void selfExecutingFunctionsAndInlineMapsArentTreatedAsCodeBlocks() throws IOException
+	{
+		splitAndAssertEquals(
+			lines(
+				"(function() {",
+				"var someMap = {",
+				" key: require('pkg/Class')",
+				"}",
+				"})()"),
+			lines(
+				"(function() {",
+				"var someMap = {",
+				" key: require('pkg/Class')",
+				"}",
+				"})()"),
+			lines(
+				""),
+			lines(
+				"")
+		);
+	}
+	
+	@Test
+	public void theSameContentIsProducedAsTheStrippingReadersForLargeSources() throws IOException
+	{
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			input.append("var Class" + i + " = require('pkg/Class" + i + "'); /* comment { */\n");
+			input.append("function f" + i + "() { require('pkg/UseTimeClass" + i + "'); }\n");
+			if (i == 250) {
+				input.append("module.exports = Class" + i + ";\n");
+			}
+		}
+		String source = input.toString();
+		
+		JsCodeBlockDependenciesSplitter splitter = JsCodeBlockDependenciesSplitter.split(brjs, new StringReader(source));
+		assertEquals( read(new JsModuleExportsStrippingReader(brjs, new JsCodeBlockStrippingDependenciesReader(brjs, commentStrippingReader(source)), true)), 
+			splitter.getPreExportDefineTimeContent().toString() );
+		assertEquals( read(new JsModuleExportsStrippingReader(brjs, new JsCodeBlockStrippingDependenciesReader(brjs, commentStrippingReader(source)), false)), 
+			splitter.getPostExportDefineTimeContent().toString() );
+		assertEquals( read(new JsCodeBlockStrippingDependenciesReader(brjs, commentStrippingReader(source), new JsCodeBlockStrippingDependenciesReader.MoreThanPredicate(0))), 
+			splitter.getUseTimeContent().toString() );
+	}
+	
+	
+	
+	private String lines(String... input)
+	{
+		return StringUtils.join(input, "\n");
+	}
+	
+	private Reader commentStrippingReader(String input)
+	{
+		return new JsCommentStrippingReader(brjs, new StringReader(input), false);
+	}
+	
+	private String read(Reader reader) throws IOException
+	{
+		StringWriter stringWriter = new StringWriter();
+		IOUtils.copy(reader, stringWriter);
+		return stringWriter.toString();
+	}
+	
+	private void splitAndAssertEquals(String input, String expectedPreExportDefineTimeContent, String expectedPostExportDefineTimeContent, String expectedUseTimeContent) throws IOException
+	{
+		JsCodeBlockDependenciesSplitter splitter = JsCodeBlockDependenciesSplitter.split(brjs, new StringReader(input));
+		assertEquals( "Got an incorrect value for the pre-export define time content", expectedPreExportDefineTimeContent, splitter.getPreExportDefineTimeContent().toString() );
+		assertEquals( "Got an incorrect value for the post-export define time content", expectedPostExportDefineTimeContent, splitter.getPostExportDefineTimeContent().toString() );
+		assertEquals( "Got an incorrect value for the use time content", expectedUseTimeContent, splitter.getUseTimeContent().toString() );
+	}
+	
+}
@@ -0,0 +1,90 @@
+package org.bladerunnerjs.utility.reader;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.filefilter.FalseFileFilter;
+import org.bladerunnerjs.api.memoization.FileModificationRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SourceContentStoreTest
+{
+	private FileModificationRegistry fileModificationRegistry;
+	private File testDir;
+
+	@Before
+	public void setup() throws Exception
+	{
+		fileModificationRegistry = new FileModificationRegistry(FalseFileFilter.INSTANCE, FalseFileFilter.INSTANCE);
+		testDir = org.bladerunnerjs.utility.FileUtils.createTemporaryDirectory(SourceContentStoreTest.class);
+	}
+
+	@Test
+	public void eachVersionOfAFileIsOnlyReadOnce() throws Exception
+	{
+		SourceContentStore sourceContentStore = new SourceContentStore(fileModificationRegistry, 1024 * 1024);
+		File file = new File(testDir, "file.js");
+		FileUtils.write(file, "var a = 1;", StandardCharsets.UTF_8);
+
+		assertEquals("var a = 1;", read(sourceContentStore, file));
+		assertEquals("var a = 1;", read(sourceContentStore, file));
+		assertEquals(1, sourceContentStore.getHitCount());
+		assertEquals(1, sourceContentStore.getMissCount());
+
+		FileUtils.write(file, "var a = 2;", StandardCharsets.UTF_8);
+		fileModificationRegistry.incrementFileVersion(file);
+
+		assertEquals("var a = 2;", read(sourceContentStore, file));
+		assertEquals(2, sourceContentStore.getMissCount());
+	}
+
+	@Test
+	public void byteOrderMarksAreRemovedAndNonLatin1ContentIsPreserved() throws Exception
+	{
+		SourceContentStore sourceContentStore = new SourceContentStore(fileModificationRegistry, 1024 * 1024);
+		File file = new File(testDir, "file.js");
+		FileUtils.write(file, "\uFEFFvar greeting = '\u4F60\u597D \uD83D\uDE00 caf\u00E9';", StandardCharsets.UTF_8);
+
+		assertEquals("var greeting = '\u4F60\u597D \uD83D\uDE00 caf\u00E9';", read(sourceContentStore, file));
+		assertEquals("var greeting = '\u4F60\u597D \uD83D\uDE00 caf\u00E9';", read(sourceContentStore, file));
+		assertEquals(1, sourceContentStore.getHitCount());
+	}
+
+	@Test
+	public void leastRecentlyUsedContentIsEvictedOnceTheBudgetIsExceeded() throws Exception
+	{
+		SourceContentStore sourceContentStore = new SourceContentStore(fileModificationRegistry, 2200);
+		File[] files = new File[5];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = new File(testDir, "file" + i + ".js");
+			FileUtils.write(files[i], new String(new char[400]).replace('\0', 'x'), StandardCharsets.UTF_8);
+		}
+
+		read(sourceContentStore, files[0]);
+		read(sourceContentStore, files[1]);
+		read(sourceContentStore, files[2]);
+		read(sourceContentStore, files[3]);
+		read(sourceContentStore, files[0]);
+		read(sourceContentStore, files[4]);
+
+		assertEquals(1, sourceContentStore.getEvictionCount());
+		assertTrue(sourceContentStore.getSize() <= 2200);
+
+		read(sourceContentStore, files[0]);
+		read(sourceContentStore, files[1]);
+		assertEquals(2, sourceContentStore.getHitCount());
+	}
+
+	private String read(SourceContentStore sourceContentStore, File file) throws Exception
+	{
+		try (Reader reader = sourceContentStore.getReader(file, "UTF-8")) {
+			return IOUtils.toString(reader);
+		}
+	}
+}
@@ -51,6 +51,8 @@ public class TestCommand extends JSAPArgsParsingCommandPlugin implements LegacyC
 		argsParser.registerParameter(new FlaggedOption("browsers").setShortFlag('b').setList(true).setListSeparator(',').setHelp("you can use ALL to specify that the tests should be run on all browsers"));
 		argsParser.registerParameter(new Switch("report").setLongFlag("report").setDefault("false").setHelp("if supplied, generate the HTML reports after running tests"));
 		argsParser.registerParameter(new FlaggedOption("js-minifier").setLongFlag("js-minifier").setDefault("combined").setHelp("set the minifier used for JS bundles"));
+		argsParser.registerParameter(new FlaggedOption("threads").setLongFlag("threads").setStringParser(JSAP.INTEGER_PARSER).setDefault("1").setHelp("the number of test packs to bundle and run at the same time"));
+		argsParser.registerParameter(new Switch("changed-only").setLongFlag("changed-only").setDefault("false").setHelp("if supplied, only run the test packs whose inputs have changed since they last passed"));
 	}
 
 	@Override
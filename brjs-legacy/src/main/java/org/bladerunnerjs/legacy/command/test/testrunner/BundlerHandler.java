@@ -1,5 +1,6 @@
 package org.bladerunnerjs.legacy.command.test.testrunner;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -51,6 +52,15 @@ public class BundlerHandler
 
 	
 	public void createBundleFile(BRJS brjs, File bundleFile, String bundlePath, String version) throws IOException, MalformedRequestException, ResourceNotFoundException, ContentProcessingException, ModelOperationException
+	{
+		writeBundleFile(brjs, bundleFile, createBundle(bundlePath, version));
+	}
+	
+	/**
+	 * Generates the content of a bundle in memory, so that it can be generated while the model is locked and then written to disk using
+	 * {@link #writeBundleFile(BRJS, File, byte[])} once the lock has been released.
+	 */
+	public byte[] createBundle(String bundlePath, String version) throws IOException, MalformedRequestException, ResourceNotFoundException, ContentProcessingException, ModelOperationException
 	{
 		if (bundlePath.contains("\\"))
 		{
@@ -59,20 +69,27 @@ public class BundlerHandler
 		
 		String modelRequestPath = getModelRequestPath(bundlePath);
 		
-		createBundleFile(brjs, bundleFile);
-		
-		try (OutputStream bundleFileOutputStream = new FileOutputStream(bundleFile, false);
+		try (ByteArrayOutputStream bundleOutputStream = new ByteArrayOutputStream();
 			ResponseContent content = bundlableNode.handleLogicalRequest(modelRequestPath, new JsTestDriverBundlableNode(bundlableNode).getBundleSet(), new StaticContentAccessor(app), version); )
 		{
-			content.write( bundleFileOutputStream );
-			bundleFileOutputStream.flush();
+			content.write( bundleOutputStream );
+			return bundleOutputStream.toByteArray();
 		}
+	}
+	
+	public static void writeBundleFile(BRJS brjs, File bundleFile, byte[] bundle) throws IOException
+	{
+		createBundleFile(brjs, bundleFile);
 		
+		try (OutputStream bundleFileOutputStream = new FileOutputStream(bundleFile, false))
+		{
+			bundleFileOutputStream.write(bundle);
+		}
 	}
 	
 	// this is a workaround for the scenario where Windows indexing service or virus scanners etc can lock the file when we try to create it
 	// see http://stackoverflow.com/a/10516563/2634854 for more info
-	private void createBundleFile(BRJS brjs, File bundleFile) throws IOException
+	private static void createBundleFile(BRJS brjs, File bundleFile) throws IOException
 	{
 		if (bundleFile.exists()) {
 			throw new IOException( String.format("The bundle file '%s' already exists and should not. It should have previously been deleted so new content can be written to it", bundleFile.getAbsolutePath()) );
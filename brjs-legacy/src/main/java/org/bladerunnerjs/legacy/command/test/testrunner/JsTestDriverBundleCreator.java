@@ -7,13 +7,18 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 
 import org.apache.commons.io.LineIterator;
 import org.apache.commons.lang3.StringUtils;
+import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.BundleSet;
 import org.bladerunnerjs.api.TestPack;
 import org.bladerunnerjs.api.logging.Logger;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
@@ -43,23 +48,46 @@ public class JsTestDriverBundleCreator
 	
 	public static void createRequiredBundles(BRJS brjs, MemoizedFile jsTestDriverConf, String jsMinifierSetting)
 			throws FileNotFoundException, YamlException, IOException, MalformedRequestException, ResourceNotFoundException, ContentProcessingException, ModelOperationException, ConfigException
+	{
+		recreateBundlesDir(jsTestDriverConf);
+		brjs.getFileModificationRegistry().incrementAllFileVersions();
+		createBundles(brjs, jsTestDriverConf, jsMinifierSetting);
+	}
+	
+	/**
+	 * Recreates the bundles directory of each of the given test packs, invalidating the model once for all of them rather than once per test pack,
+	 * after which the bundles for each test pack can be created concurrently using {@link #createBundles(BRJS, MemoizedFile, String)}.
+	 */
+	public static void recreateBundlesDirs(BRJS brjs, List<MemoizedFile> jsTestDriverConfs) throws IOException
+	{
+		for (MemoizedFile jsTestDriverConf : jsTestDriverConfs)
+		{
+			recreateBundlesDir(jsTestDriverConf);
+		}
+		brjs.getFileModificationRegistry().incrementAllFileVersions();
+	}
+	
+	public static void createBundles(BRJS brjs, MemoizedFile jsTestDriverConf, String jsMinifierSetting)
+			throws FileNotFoundException, YamlException, IOException, MalformedRequestException, ResourceNotFoundException, ContentProcessingException, ModelOperationException, ConfigException
+	{
+		writeBundles(brjs, createBundleContents(brjs, jsTestDriverConf, jsMinifierSetting));
+	}
+	
+	/**
+	 * Generates the bundles for a test pack in memory, keyed by the bundle file they belong in, so that they can be generated while the model is
+	 * locked for reading and then written using {@link #writeBundles(BRJS, Map)} once the lock has been released.
+	 */
+	public static Map<File, byte[]> createBundleContents(BRJS brjs, MemoizedFile jsTestDriverConf, String jsMinifierSetting)
+			throws FileNotFoundException, YamlException, IOException, MalformedRequestException, ResourceNotFoundException, ContentProcessingException, ModelOperationException, ConfigException
 	{
 		logger = brjs.logger(JsTestDriverBundleCreator.class);
-		File bundlesDir = new File(jsTestDriverConf.getParentFile(), BUNDLES_DIR_NAME);
-		recreateBundlesDir(brjs, bundlesDir);
-		
 		Map<String, Object> configMap = getMapFromYamlConfig(jsTestDriverConf);
 		
 		File baseDirectory = getBaseDirectory(jsTestDriverConf, configMap);
 		
-		brjs.getFileModificationRegistry().incrementAllFileVersions();
-		TestPack testPack = brjs.locateAncestorNodeOfClass(jsTestDriverConf, TestPack.class);
-		if(testPack == null){
-			throw new RuntimeException("Unable to find test pack which represents the path " + jsTestDriverConf.getParentFile());
-		}
-		
-		BundlerHandler bundlerHandler = new BundlerHandler(testPack, jsMinifierSetting);
+		BundlerHandler bundlerHandler = new BundlerHandler(getTestPack(brjs, jsTestDriverConf), jsMinifierSetting);
 		
+		Map<File, byte[]> bundles = new LinkedHashMap<>();
 		for (String resourceToLoad : getListOfResourcesToLoad(configMap))
 		{
 			File requestedFile = new File(baseDirectory, resourceToLoad);
@@ -68,15 +96,56 @@ public class JsTestDriverBundleCreator
 			{
 				String bundlePath = StringUtils.substringAfterLast( requestedFile.getAbsolutePath(), BUNDLES_DIR_NAME+File.separator);
 				bundlePath = StringUtils.replace(bundlePath, "\\", "/");
-				bundlerHandler.createBundleFile(brjs, requestedFile, bundlePath, brjs.getAppVersionGenerator().getVersion());
+				bundles.put(requestedFile, bundlerHandler.createBundle(bundlePath, brjs.getAppVersionGenerator().getVersion()));
 			}
 		}
 		MemoizedFile testsDir = jsTestDriverConf.getParentFile().file("tests");
 		checkTestsForIife(brjs, testsDir, testsDir);
+		
+		return bundles;
+	}
+	
+	public static void writeBundles(BRJS brjs, Map<File, byte[]> bundles) throws IOException
+	{
+		for (Map.Entry<File, byte[]> bundle : bundles.entrySet())
+		{
+			BundlerHandler.writeBundleFile(brjs, bundle.getKey(), bundle.getValue());
+		}
+	}
+	
+	/**
+	 * The source files the bundles of a test pack are generated from, which along with the test pack itself determine whether its tests need to
+	 * be run again, and which can be found without having to generate the bundles.
+	 */
+	public static Set<File> bundleSetInputFiles(BRJS brjs, MemoizedFile jsTestDriverConf) throws ModelOperationException
+	{
+		BundleSet bundleSet = new JsTestDriverBundlableNode(getTestPack(brjs, jsTestDriverConf)).getBundleSet();
+		
+		Set<File> inputFiles = new TreeSet<>();
+		for (Asset asset : bundleSet.seedAssets())
+		{
+			inputFiles.add(asset.file());
+		}
+		for (Asset asset : bundleSet.assets())
+		{
+			inputFiles.add(asset.file());
+		}
+		inputFiles.add(brjs.file("js-patches"));
+		return inputFiles;
+	}
+	
+	private static TestPack getTestPack(BRJS brjs, MemoizedFile jsTestDriverConf)
+	{
+		TestPack testPack = brjs.locateAncestorNodeOfClass(jsTestDriverConf, TestPack.class);
+		if(testPack == null){
+			throw new RuntimeException("Unable to find test pack which represents the path " + jsTestDriverConf.getParentFile());
+		}
+		return testPack;
 	}
 
-	private static void recreateBundlesDir(BRJS brjs, File bundlesDir) throws IOException
+	private static void recreateBundlesDir(MemoizedFile jsTestDriverConf) throws IOException
 	{
+		File bundlesDir = new File(jsTestDriverConf.getParentFile(), BUNDLES_DIR_NAME);
 		FileUtils.deleteDirectoryFromBottomUp(bundlesDir);
 		if (bundlesDir.exists()) {
 			throw new IOException( String.format("Unable to delete the temporary '%s' directory at %s", bundlesDir.getName(), bundlesDir.getParentFile().getAbsolutePath()) );
@@ -86,7 +155,6 @@ public class JsTestDriverBundleCreator
 		if (!bundlesDir.isDirectory()) {
 			throw new IOException( String.format("The '%s' directory does not exist at %s as BRJS was unable to create it", bundlesDir.getName(), bundlesDir.getParentFile().getAbsolutePath()) );
 		}
-		brjs.getFileModificationRegistry().incrementAllFileVersions();
 	}
 
 	private static void checkTestsForIife(BRJS brjs, MemoizedFile rootTestDir, MemoizedFile testsDir) throws IOException, ConfigException
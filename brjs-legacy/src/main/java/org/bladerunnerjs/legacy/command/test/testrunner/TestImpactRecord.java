@@ -0,0 +1,119 @@
+package org.bladerunnerjs.legacy.command.test.testrunner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.AbstractFileFilter;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+
+/**
+ * Records a fingerprint of the inputs of every test pack that passed, so that a later run can skip the test packs whose inputs haven't changed.
+ *
+ * A test pack's fingerprint covers every file within the directory containing its jsTestDriver.conf other than its generated bundles, along
+ * with the source files in its bundle set, so a change to any source file the tests depend on changes the fingerprint. Since the bundles
+ * aren't part of the fingerprint it can be checked before they are generated, and test packs that are skipped don't pay for bundling.
+ */
+public class TestImpactRecord
+{
+	private final File recordFile;
+	private final Properties fingerprints = new Properties();
+
+	public TestImpactRecord(File recordFile) throws IOException
+	{
+		this.recordFile = recordFile;
+
+		if (recordFile.isFile()) {
+			try (InputStream inputStream = new FileInputStream(recordFile)) {
+				fingerprints.load(inputStream);
+			}
+		}
+	}
+
+	public synchronized boolean isUnchanged(String testPath, String fingerprint)
+	{
+		return fingerprint.equals(fingerprints.getProperty(testPath));
+	}
+
+	public synchronized void recordResult(String testPath, String fingerprint, boolean success)
+	{
+		if (success) {
+			fingerprints.setProperty(testPath, fingerprint);
+		}
+		else {
+			fingerprints.remove(testPath);
+		}
+	}
+
+	public synchronized void write() throws IOException
+	{
+		recordFile.getParentFile().mkdirs();
+		try (OutputStream outputStream = new FileOutputStream(recordFile, false)) {
+			fingerprints.store(outputStream, "fingerprints of the test packs that passed when they were last run");
+		}
+	}
+
+	public static String fingerprint(File jsTestDriverConf, Collection<? extends File> bundleSetInputFiles, String jsMinifierSetting) throws IOException
+	{
+		File testPackDir = jsTestDriverConf.getParentFile();
+		final File bundlesDir = new File(testPackDir, JsTestDriverBundleCreator.BUNDLES_DIR_NAME);
+		Set<File> inputFiles = new TreeSet<>(FileUtils.listFiles(testPackDir, TrueFileFilter.INSTANCE, new AbstractFileFilter() {
+			@Override
+			public boolean accept(File dir) {
+				return !dir.equals(bundlesDir);
+			}
+		}));
+		for (File bundleSetInputFile : bundleSetInputFiles) {
+			if (bundleSetInputFile.isDirectory()) {
+				inputFiles.addAll(FileUtils.listFiles(bundleSetInputFile, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE));
+			}
+			else if (bundleSetInputFile.isFile()) {
+				inputFiles.add(bundleSetInputFile);
+			}
+		}
+
+		MessageDigest digest = createDigest();
+		digest.update((jsMinifierSetting + "\0").getBytes(StandardCharsets.UTF_8));
+		byte[] buffer = new byte[8192];
+		for (File inputFile : inputFiles) {
+			digest.update((inputFile.getAbsolutePath() + "\0" + inputFile.length() + "\0").getBytes(StandardCharsets.UTF_8));
+			try (InputStream inputStream = new FileInputStream(inputFile)) {
+				int bytesRead;
+				while ((bytesRead = inputStream.read(buffer)) != -1) {
+					digest.update(buffer, 0, bytesRead);
+				}
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest createDigest()
+	{
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static String toHex(byte[] bytes)
+	{
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
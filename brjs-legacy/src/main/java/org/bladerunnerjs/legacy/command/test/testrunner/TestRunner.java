@@ -10,7 +10,14 @@ import java.net.HttpURLConnection;
 import java.net.ServerSocket;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,6 +33,7 @@ import org.apache.tools.ant.types.FileSet;
 import org.bladerunnerjs.model.ThreadSafeStaticBRJSAccessor;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.logging.Logger;
+import org.bladerunnerjs.api.memoization.FileModificationRegistry;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.spec.exception.BrowserStartupException;
 import org.bladerunnerjs.api.spec.exception.NoBrowsersDefinedException;
@@ -61,11 +69,12 @@ public class TestRunner {
 	
 	private static final String XML_TEST_RESULTS_PATH = "test-results/xml";
 	private static final String HTML_TEST_RESULTS_PATH = "test-results/html";
+	private static final String TEST_IMPACT_RECORD_PATH = "test-results/test-impact.properties";
 	
 	private final MemoizedFile XML_TEST_RESULTS_DIR;
 	private final MemoizedFile HTML_TEST_RESULTS_DIR;
 	
-	private List<Process> childProcesses = new ArrayList<Process>();
+	private List<Process> childProcesses = Collections.synchronizedList(new ArrayList<Process>());
 	private List<ProcessLogger> childLoggers = new ArrayList<ProcessLogger>();
 	private File jsTestDriverJar;
 	private int portNumber;
@@ -78,6 +87,9 @@ public class TestRunner {
 	private long execEndTime;
 	private TestRunnerConfiguration config;
 	private List<TestRunResult> testResultList = new ArrayList<TestRunResult>();
+	private int testThreads = 1;
+	private boolean runChangedTestsOnly = false;
+	private TestImpactRecord testImpactRecord;
 	
 	static boolean disableLogging = false;
 	
@@ -126,6 +138,21 @@ public class TestRunner {
 		return config.getBrowsers();
 	}
 	
+	/**
+	 * Sets how many test packs may be run at the same time. When more than one, the bundles for the test packs are created concurrently and each
+	 * test pack is run by its own js-test-driver client against the shared server, without resetting the captured browsers between test packs.
+	 */
+	public void setTestThreads(int testThreads) {
+		this.testThreads = Math.max(1, testThreads);
+	}
+	
+	/**
+	 * If set, test packs whose inputs haven't changed since they last passed are skipped rather than being run again.
+	 */
+	public void setRunChangedTestsOnly(boolean runChangedTestsOnly) {
+		this.runChangedTestsOnly = runChangedTestsOnly;
+	}
+	
 	public void runServer() throws Exception {
 		boolean serverStarted = startServer();
 		
@@ -341,23 +368,85 @@ public class TestRunner {
 			logger.warn(failureMessage);
 			throw new IOException(failureMessage);
 		}
+		
+		List<MemoizedFile> testDirs = new ArrayList<>();
+		findTestDirectories(directory, testType, testDirs);
+		
+		if (runChangedTestsOnly) {
+			testImpactRecord = new TestImpactRecord(brjs.file(TEST_IMPACT_RECORD_PATH));
+		}
+		
+		try {
+			if (testThreads > 1 && testDirs.size() > 1) {
+				runTestsConcurrently(baseDirectory, testDirs, jsMinifierSetting);
+			}
+			else {
+				for (MemoizedFile testDir : testDirs) {
+					TestRunResult testRun = new TestRunResult(baseDirectory, testDir, getDirType(testDir));
+					runTestAndRecordDuration(baseDirectory, testRun, testDir, resetServer, jsMinifierSetting, false);
+					testResultList.add(testRun);
+				}
+			}
+		}
+		finally {
+			if (testImpactRecord != null) {
+				testImpactRecord.write();
+			}
+		}
+	}
+	
+	private void findTestDirectories(MemoizedFile directory, TestType testType, List<MemoizedFile> testDirs) throws Exception {
 		MemoizedFile[] dirContents = directory.listFiles();
 		reverseDirectoryContentsIfContainsTestDir(dirContents);
 		for(MemoizedFile file : dirContents) {
 			if(file.isDirectory() && !file.isHidden()) {		
 				if(isValidTestDir(file, testType)) {
 					logger.debug("Found valid test directory : '" +file +"'");
-					
-					TestRunResult testRun = new TestRunResult(baseDirectory, file, getDirType(file));
-					runTestAndRecordDuration(baseDirectory, testRun, file, resetServer, jsMinifierSetting);
-					testResultList.add(testRun);
+					testDirs.add(file);
 				}
 				else {
 					logger.debug("Skipping '" +directory +"', no tests found");
-					runAllTestsInDirectory(baseDirectory, file, testType, resetServer, jsMinifierSetting);
+					findTestDirectories(file, testType, testDirs);
+				}
+			}
+		}
+	}
+	
+	private void runTestsConcurrently(final MemoizedFile baseDirectory, List<MemoizedFile> testDirs, final String jsMinifierSetting) throws Exception {
+		List<MemoizedFile> jsTestDriverConfs = new ArrayList<>();
+		for (MemoizedFile testDir : testDirs) {
+			jsTestDriverConfs.add(getJsTestDriverConf(testDir));
+		}
+		JsTestDriverBundleCreator.recreateBundlesDirs(brjs, jsTestDriverConfs);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(testThreads, testDirs.size()));
+		try {
+			List<Future<Void>> testRuns = new ArrayList<>();
+			for (final MemoizedFile testDir : testDirs) {
+				final TestRunResult testRun = new TestRunResult(baseDirectory, testDir, getDirType(testDir));
+				testResultList.add(testRun);
+				testRuns.add( executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						runTestAndRecordDuration(baseDirectory, testRun, testDir, false, jsMinifierSetting, true);
+						return null;
+					}
+				}) );
+			}
+			
+			for (Future<Void> testRun : testRuns) {
+				try {
+					testRun.get();
+				}
+				catch (ExecutionException ex) {
+					Throwable cause = ex.getCause();
+					throw (cause instanceof Exception) ? (Exception) cause : ex;
 				}
 			}
 		}
+		finally {
+			executor.shutdownNow();
+		}
 	}
 	
 	private void reverseDirectoryContentsIfContainsTestDir(MemoizedFile[] dirContents) throws Exception
@@ -376,22 +465,47 @@ public class TestRunner {
 		}
 	}
 
-	private void runTestAndRecordDuration(MemoizedFile baseDirectory, TestRunResult testRun, MemoizedFile testDir, boolean resetServer, String jsMinifierSetting) throws Exception {
+	private void runTestAndRecordDuration(MemoizedFile baseDirectory, TestRunResult testRun, MemoizedFile testDir, boolean resetServer, String jsMinifierSetting, boolean runningConcurrently) throws Exception {
 		testRun.setStartTime(System.currentTimeMillis());
-		testRun.setSuccess(runTest(baseDirectory, getJsTestDriverConf(testDir), resetServer, jsMinifierSetting));
+		testRun.setSuccess(runTest(baseDirectory, getJsTestDriverConf(testDir), resetServer, jsMinifierSetting, runningConcurrently));
 		testRun.setEndTime(System.currentTimeMillis());
 	}
 	
-	private boolean runTest(MemoizedFile baseDirectory, MemoizedFile configFile, boolean resetServer, String jsMinifierSetting) throws Exception  {
+	private boolean runTest(MemoizedFile baseDirectory, MemoizedFile configFile, boolean resetServer, String jsMinifierSetting, boolean runningConcurrently) throws Exception  {
+		String testPath = getTestPath(configFile);
 		logger.warn("\n");
-		logger.warn("Testing " + getTestPath(configFile) + " " + getTestTypeFromDirectoryName(configFile.getParentFile()) + ":");
+		logger.warn("Testing " + testPath + " " + getTestTypeFromDirectoryName(configFile.getParentFile()) + ":");
 		
 		try {
 			if (!XML_TEST_RESULTS_DIR.exists())
 			{
 				XML_TEST_RESULTS_DIR.mkdirs();
 			}
-			JsTestDriverBundleCreator.createRequiredBundles(brjs, configFile, jsMinifierSetting);
+			if (!runningConcurrently) {
+				JsTestDriverBundleCreator.recreateBundlesDirs(brjs, Collections.singletonList(configFile));
+			}
+			
+			// the bundles are generated while the model is locked, so that other test packs can be bundled at the same time, but are only
+			// written once it has been released, and aren't generated at all if the test pack's inputs haven't changed since it last passed
+			String fingerprint = null;
+			Map<File, byte[]> bundles;
+			FileModificationRegistry fileModificationRegistry = brjs.getFileModificationRegistry();
+			fileModificationRegistry.lockForReading();
+			try {
+				if (testImpactRecord != null) {
+					fingerprint = TestImpactRecord.fingerprint(configFile, JsTestDriverBundleCreator.bundleSetInputFiles(brjs, configFile), jsMinifierSetting);
+					if (testImpactRecord.isUnchanged(testPath, fingerprint)) {
+						logger.warn("Skipping " + testPath + ", nothing has changed since the tests last passed.");
+						return true;
+					}
+				}
+				bundles = JsTestDriverBundleCreator.createBundleContents(brjs, configFile, jsMinifierSetting);
+			}
+			finally {
+				fileModificationRegistry.unlockForReading();
+			}
+			JsTestDriverBundleCreator.writeBundles(brjs, bundles);
+			
 			String javaOpts = getJavaOpts();
 			javaOpts += (!javaOpts.equals("")) ? "$$" : "";
 
@@ -416,7 +530,7 @@ public class TestRunner {
 			Process process =  builder.start();
 			childProcesses.add(process);
 			
-			ProcessLogger processLogger = new ProcessLogger(brjs, process, LogLevel.CONSOLE, LogLevel.ERROR, null);
+			ProcessLogger processLogger = new ProcessLogger(brjs, process, LogLevel.CONSOLE, LogLevel.ERROR, (runningConcurrently) ? testPath + ": " : null);
 			int exitCode = process.waitFor();
 			processLogger.waitFor();
 			
@@ -424,11 +538,14 @@ public class TestRunner {
 				logger.error("Failed to remove runTest process from child processes list");
 			}
 			logger.debug("Exit code is " + exitCode);
+			if (testImpactRecord != null) {
+				testImpactRecord.recordResult(testPath, fingerprint, exitCode == 0);
+			}
 			if(exitCode != 0) {
-				logger.warn("Tests Failed.");
+				logger.warn(((runningConcurrently) ? testPath + ": " : "") + "Tests Failed.");
 				return false;
 			}
-			logger.warn("Tests Passed.");
+			logger.warn(((runningConcurrently) ? testPath + ": " : "") + "Tests Passed.");
 		}
 		catch(Exception e) {
 			logger.error("Unexpected Exception:\n%s", ExceptionUtils.getStackTrace(e));
@@ -503,6 +620,11 @@ public class TestRunner {
 	}
 	
 	private void stopChildProcesses () throws Exception {
+		List<Process> childProcesses;
+		synchronized (this.childProcesses) {
+			childProcesses = new ArrayList<>(this.childProcesses);
+		}
+		
 		for(Process childProcess : childProcesses) {
 			logger.debug("Stopping child process...");
 			childProcess.destroy();
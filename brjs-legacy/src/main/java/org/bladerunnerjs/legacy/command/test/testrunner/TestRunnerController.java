@@ -26,6 +26,8 @@ public class TestRunnerController
 {
 	public static final String REPORT_SWITCH = "report";
 	public static final String NO_BROWSER_SWITCH = "no-browser";
+	public static final String THREADS_OPTION = "threads";
+	public static final String CHANGED_ONLY_SWITCH = "changed-only";
 
 	public enum RunMode {
 		RUN_TESTS, RUN_SERVER
@@ -98,6 +100,8 @@ public class TestRunnerController
 					} else {
 						testDir = brjs.getMemoizedFile(dirArg);
 					}
+					testRunner.setTestThreads(config.getInt(THREADS_OPTION));
+					testRunner.setRunChangedTestsOnly(config.getBoolean(CHANGED_ONLY_SWITCH));
 					success = testRunner.runTests( testDir, getTestTypeEnum(config.getString("testType")), config.getString("js-minifier") );
 				}
 				catch (Exception ex)
@@ -0,0 +1,77 @@
+package org.bladerunnerjs.legacy.command.test.testrunner;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestImpactRecordTest {
+
+	private File testPackDir;
+	private File jsTestDriverConf;
+	private File sourceFile;
+	private File recordFile;
+
+	@Before
+	public void beforeTest() throws Exception {
+		File testDir = new File(".build/test-impact-record");
+		FileUtils.deleteQuietly(testDir);
+		testPackDir = new File(testDir, "test-unit");
+		jsTestDriverConf = new File(testPackDir, "jsTestDriver.conf");
+		sourceFile = new File(testDir, "src/MyClass.js");
+		recordFile = new File(testDir, "test-impact.properties");
+
+		FileUtils.write(jsTestDriverConf, "basepath: .");
+		FileUtils.write(new File(testPackDir, "tests/MyTest.js"), "test content");
+		FileUtils.write(new File(testPackDir, "bundles/bundle.js"), "bundle content");
+		FileUtils.write(sourceFile, "source content");
+	}
+
+	@Test
+	public void testPacksThatPassedAreUnchangedUntilOneOfTheirFilesChanges() throws Exception {
+		TestImpactRecord testImpactRecord = new TestImpactRecord(recordFile);
+		testImpactRecord.recordResult("test-unit", fingerprint(), true);
+		testImpactRecord.write();
+
+		TestImpactRecord nextTestImpactRecord = new TestImpactRecord(recordFile);
+		assertTrue(nextTestImpactRecord.isUnchanged("test-unit", fingerprint()));
+
+		FileUtils.write(new File(testPackDir, "tests/MyTest.js"), "new test content");
+		assertFalse(nextTestImpactRecord.isUnchanged("test-unit", fingerprint()));
+	}
+
+	@Test
+	public void testPacksAreChangedWhenASourceFileInTheirBundleSetChanges() throws Exception {
+		String fingerprint = fingerprint();
+
+		FileUtils.write(sourceFile, "new source content");
+		assertNotEquals(fingerprint, fingerprint());
+	}
+
+	@Test
+	public void theGeneratedBundlesAreNotPartOfTheFingerprint() throws Exception {
+		String fingerprint = fingerprint();
+
+		FileUtils.write(new File(testPackDir, "bundles/bundle.js"), "new bundle content");
+		assertEquals(fingerprint, fingerprint());
+	}
+
+	@Test
+	public void testPacksThatFailedAreAlwaysRunAgain() throws Exception {
+		String fingerprint = fingerprint();
+		TestImpactRecord testImpactRecord = new TestImpactRecord(recordFile);
+		testImpactRecord.recordResult("test-unit", fingerprint, true);
+		testImpactRecord.recordResult("test-unit", fingerprint, false);
+
+		assertFalse(testImpactRecord.isUnchanged("test-unit", fingerprint));
+	}
+
+	private String fingerprint() throws Exception {
+		return TestImpactRecord.fingerprint(jsTestDriverConf, Arrays.asList(sourceFile), "combined");
+	}
+
+}
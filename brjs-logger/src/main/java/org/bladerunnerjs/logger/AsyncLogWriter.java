@@ -0,0 +1,201 @@
+package org.bladerunnerjs.logger;
+
+import java.io.PrintStream;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes log messages to their output streams on a background thread, so that the threads doing the logging only need to copy each message into a
+ * fixed size ring buffer rather than waiting for it to be written and flushed. Threads only block if the buffer is full, which means no messages
+ * are ever dropped, and messages are always written in the order they were logged.
+ */
+public class AsyncLogWriter
+{
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final LogEntry[] ringBuffer;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private final Condition drained = lock.newCondition();
+	private final Thread writerThread;
+	private final Thread shutdownHook;
+	private int head = 0;
+	private int count = 0;
+	private boolean writing = false;
+	private boolean closed = false;
+
+	public AsyncLogWriter() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+
+	public AsyncLogWriter(int bufferSize) {
+		ringBuffer = new LogEntry[bufferSize];
+		for (int i = 0; i < bufferSize; i++) {
+			ringBuffer[i] = new LogEntry();
+		}
+
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeEntries();
+			}
+		}, AsyncLogWriter.class.getSimpleName());
+		writerThread.setDaemon(true);
+		writerThread.start();
+
+		shutdownHook = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				flush();
+			}
+		});
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	public void write(PrintStream outputStream, String message, PrintStream errorStream, Throwable throwable) {
+		lock.lock();
+		try {
+			while (count == ringBuffer.length && !closed) {
+				notFull.awaitUninterruptibly();
+			}
+			if (closed) {
+				writeEntry(outputStream, message, errorStream, throwable);
+				return;
+			}
+
+			ringBuffer[(head + count) % ringBuffer.length].set(outputStream, message, errorStream, throwable);
+			count++;
+			notEmpty.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Blocks until every message that has already been logged has been written to its output stream.
+	 */
+	public void flush() {
+		lock.lock();
+		try {
+			while ((count > 0 || writing) && writerThread.isAlive()) {
+				drained.awaitUninterruptibly();
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes any messages that are still buffered and stops the background thread, after which messages are written on the thread that logs them.
+	 */
+	public void close() {
+		flush();
+
+		lock.lock();
+		try {
+			closed = true;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		}
+		finally {
+			lock.unlock();
+		}
+
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		}
+		catch (IllegalStateException ex) {
+			// we're already shutting down
+		}
+	}
+
+	private void writeEntries() {
+		LogEntry entry = new LogEntry();
+		PrintStream unflushedOutputStream = null;
+
+		while (true) {
+			boolean flushRequired = false;
+
+			lock.lock();
+			try {
+				if (count == 0 && unflushedOutputStream != null) {
+					// only flush once there's nothing left to write so that a burst of messages doesn't need a flush per message
+					flushRequired = true;
+				}
+				else {
+					if (count == 0) {
+						writing = false;
+						drained.signalAll();
+
+						while (count == 0 && !closed) {
+							notEmpty.awaitUninterruptibly();
+						}
+						if (count == 0) {
+							return;
+						}
+					}
+
+					LogEntry bufferedEntry = ringBuffer[head];
+					entry.set(bufferedEntry.outputStream, bufferedEntry.message, bufferedEntry.errorStream, bufferedEntry.throwable);
+					bufferedEntry.clear();
+					head = (head + 1) % ringBuffer.length;
+					count--;
+					writing = true;
+					notFull.signal();
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+
+			if (flushRequired) {
+				unflushedOutputStream.flush();
+				unflushedOutputStream = null;
+				continue;
+			}
+
+			try {
+				if (unflushedOutputStream != null && unflushedOutputStream != entry.outputStream) {
+					unflushedOutputStream.flush();
+				}
+				writeEntry(entry.outputStream, entry.message, entry.errorStream, entry.throwable);
+				unflushedOutputStream = entry.outputStream;
+			}
+			catch (RuntimeException ex) {
+				ex.printStackTrace(entry.errorStream);
+			}
+			finally {
+				entry.clear();
+			}
+		}
+	}
+
+	private static void writeEntry(PrintStream outputStream, String message, PrintStream errorStream, Throwable throwable) {
+		outputStream.println(message);
+		if (throwable != null) {
+			outputStream.flush();
+			throwable.printStackTrace(errorStream);
+		}
+	}
+
+	private static class LogEntry {
+		private PrintStream outputStream;
+		private String message;
+		private PrintStream errorStream;
+		private Throwable throwable;
+
+		private void set(PrintStream outputStream, String message, PrintStream errorStream, Throwable throwable) {
+			this.outputStream = outputStream;
+			this.message = message;
+			this.errorStream = errorStream;
+			this.throwable = throwable;
+		}
+
+		private void clear() {
+			set(null, null, null, null);
+		}
+	}
+}
@@ -37,14 +37,16 @@ public class ConsoleLogger extends MarkerIgnoringBase
 	private void doLog(LogLevel logLevel, String message, Throwable throwable) {
 		if (  (enabled && (logLevel.ordinal() >= loggerStore.getLogLevel().ordinal())) || logLevel == LogLevel.WARN  || logLevel == LogLevel.ERROR  ) {
 			PrintStream outputStream = loggerStore.getOutputStream();
+			String logMessage = (loggerStore.getLogClassNames()) ? className + ": " + message : message;
 			
-			if(loggerStore.getLogClassNames()) {
-				outputStream.println(className + ": " + message);
-			}
-			else {
-				outputStream.println(message);
+			AsyncLogWriter asyncLogWriter = loggerStore.getAsyncLogWriter();
+			if (asyncLogWriter != null) {
+				asyncLogWriter.write(outputStream, logMessage, loggerStore.getErrorStream(), throwable);
+				return;
 			}
 			
+			outputStream.println(logMessage);
+			
 			if (throwable != null) {
 				throwable.printStackTrace(loggerStore.getErrorStream());
 			}
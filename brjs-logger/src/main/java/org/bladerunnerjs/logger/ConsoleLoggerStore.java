@@ -17,6 +17,7 @@ public class ConsoleLoggerStore implements ILoggerFactory
 	private boolean logClassNames = false;
 	private PrintStream stdout = System.out;
 	private PrintStream stderr = System.err;
+	private volatile AsyncLogWriter asyncLogWriter;
 	
 	{
 		allWhitelistedPackages.add("org.bladerunnerjs");
@@ -71,4 +72,19 @@ public class ConsoleLoggerStore implements ILoggerFactory
 	public PrintStream getErrorStream() {
 		return stderr;
 	}
+	
+	public synchronized void setAsynchronous(boolean asynchronous) {
+		if (asynchronous && asyncLogWriter == null) {
+			asyncLogWriter = new AsyncLogWriter();
+		}
+		else if (!asynchronous && asyncLogWriter != null) {
+			AsyncLogWriter previousAsyncLogWriter = asyncLogWriter;
+			asyncLogWriter = null;
+			previousAsyncLogWriter.close();
+		}
+	}
+	
+	public AsyncLogWriter getAsyncLogWriter() {
+		return asyncLogWriter;
+	}
 }
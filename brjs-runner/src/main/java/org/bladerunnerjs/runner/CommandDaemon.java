@@ -0,0 +1,285 @@
+package org.bladerunnerjs.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.model.exception.command.CommandArgumentsException;
+import org.bladerunnerjs.logger.ConsoleLoggerStore;
+import org.bladerunnerjs.logger.LogLevel;
+import org.bladerunnerjs.model.ThreadSafeStaticBRJSAccessor;
+import org.bladerunnerjs.model.engine.AbstractRootNode;
+import org.slf4j.impl.StaticLoggerBinder;
+
+/**
+ * A long-lived process that keeps a warm {@link BRJS} model, with its file watcher and memoized caches, and runs the commands it's sent by
+ * {@link CommandDaemonClient} so that repeated commands don't pay the cost of starting a new JVM and building a new model each time.
+ *
+ * The daemon only listens on the loopback interface, and only runs commands from clients that present the random token it advertises in its
+ * {@link CommandDaemonFile}. Commands are run one at a time, with their console output and logging sent back to the client, and the daemon
+ * shuts itself down once it has been idle for longer than its idle timeout. Commands that run until they're stopped, such as 'serve', are
+ * refused, since they would stop any other command from being run.
+ */
+public class CommandDaemon {
+	public static final String IDLE_TIMEOUT_PROPERTY = "brjs.daemon.idleTimeout";
+	public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+
+	private static final int ACCEPT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+	private static final int HANDSHAKE_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+	private static final List<String> LONG_RUNNING_COMMANDS = Arrays.asList("serve", "test-server");
+	private static final String LONG_RUNNING_COMMAND_MESSAGE = "The '%s' command runs until it's stopped, so it can't be run by the daemon. Run it without --daemon instead.";
+
+	private final File brjsDir;
+	private final File workingDir;
+	private final CommandDaemonFile daemonFile;
+	private final long idleTimeout;
+	private final String token;
+	private final ReentrantLock commandLock = new ReentrantLock();
+	private final AtomicInteger activeConnections = new AtomicInteger();
+	private volatile long lastActivity = System.currentTimeMillis();
+	private volatile ServerSocket serverSocket;
+	private BRJS brjs;
+	private LogLevel defaultLogLevel;
+
+	public static void main(String[] args) {
+		int exitCode = 0;
+		try {
+			File brjsDir = new File(args[0]).getAbsoluteFile();
+			File workingDir = new File(args[1]).getAbsoluteFile();
+			long idleTimeoutMinutes = (args.length > 2) ? Long.parseLong(args[2]) : DEFAULT_IDLE_TIMEOUT_MINUTES;
+
+			CommandDaemon commandDaemon = new CommandDaemon(CommandDaemonFile.defaultDaemonsDir(), brjsDir, workingDir, TimeUnit.MINUTES.toMillis(idleTimeoutMinutes));
+			commandDaemon.start();
+			commandDaemon.serve();
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			exitCode = 1;
+		}
+		finally {
+			System.exit(exitCode);
+		}
+	}
+
+	CommandDaemon(File daemonsDir, File brjsDir, File workingDir, long idleTimeout) {
+		this.brjsDir = brjsDir;
+		this.workingDir = workingDir;
+		this.idleTimeout = idleTimeout;
+		daemonFile = new CommandDaemonFile(daemonsDir, brjsDir, workingDir);
+
+		byte[] tokenBytes = new byte[24];
+		new SecureRandom().nextBytes(tokenBytes);
+		StringBuilder tokenBuilder = new StringBuilder();
+		for (byte tokenByte : tokenBytes) {
+			tokenBuilder.append(String.format("%02x", tokenByte));
+		}
+		token = tokenBuilder.toString();
+	}
+
+	/**
+	 * Builds the model, starts watching it for changes and advertises the daemon so that clients can connect to it.
+	 */
+	void start() throws Exception {
+		AbstractRootNode.allowInvalidRootDirectories = false;
+		System.setIn(new ByteArrayInputStream(new byte[0]));
+
+		defaultLogLevel = getLoggerStore().getLogLevel();
+		brjs = ThreadSafeStaticBRJSAccessor.initializeModel(brjsDir, workingDir);
+		brjs.fileObserver().start();
+
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		serverSocket.setSoTimeout(ACCEPT_TIMEOUT);
+		daemonFile.write(serverSocket.getLocalPort(), token);
+	}
+
+	/**
+	 * Accepts connections until the daemon is stopped or has been idle for longer than its idle timeout.
+	 */
+	void serve() throws Exception {
+		try {
+			while (!serverSocket.isClosed()) {
+				try {
+					final Socket socket = serverSocket.accept();
+					activeConnections.incrementAndGet();
+					lastActivity = System.currentTimeMillis();
+
+					Thread connectionThread = new Thread("brjs-daemon-connection") {
+						@Override
+						public void run() {
+							try {
+								handleConnection(socket);
+							}
+							finally {
+								lastActivity = System.currentTimeMillis();
+								activeConnections.decrementAndGet();
+							}
+						}
+					};
+					connectionThread.setDaemon(true);
+					connectionThread.start();
+				}
+				catch (SocketTimeoutException e) {
+					if (activeConnections.get() == 0 && System.currentTimeMillis() - lastActivity > idleTimeout) {
+						stop();
+					}
+				}
+				catch (SocketException e) {
+					if (!serverSocket.isClosed()) {
+						throw e;
+					}
+				}
+			}
+		}
+		finally {
+			stop();
+			brjs.fileObserver().stop();
+			ThreadSafeStaticBRJSAccessor.destroy();
+		}
+	}
+
+	void stop() {
+		daemonFile.deleteIfOwnedBy(token);
+		try {
+			serverSocket.close();
+		}
+		catch (IOException e) {
+			// the socket is being closed anyway
+		}
+	}
+
+	private void handleConnection(Socket socket) {
+		try (Socket connection = socket) {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+
+			// clients must send their request promptly, so that a connection that never does can't keep the daemon from going idle
+			connection.setSoTimeout(HANDSHAKE_TIMEOUT);
+			if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), input.readUTF().getBytes(StandardCharsets.UTF_8))) {
+				return;
+			}
+
+			String request = input.readUTF();
+			if (request.equals(CommandDaemonFile.REQUEST_STOP)) {
+				stop();
+				writeExitFrame(output, 0);
+			}
+			else if (request.equals(CommandDaemonFile.REQUEST_RUN)) {
+				String[] args = new String[input.readInt()];
+				for (int i = 0; i < args.length; i++) {
+					args[i] = input.readUTF();
+				}
+				connection.setSoTimeout(0);
+				writeExitFrame(output, runCommand(args, output));
+			}
+		}
+		catch (IOException e) {
+			// the client has gone away, so there's no one left to report the problem to
+		}
+	}
+
+	private int runCommand(String[] args, DataOutputStream output) {
+		PrintStream out = new PrintStream(new FrameOutputStream(output, CommandDaemonFile.FRAME_STDOUT), true);
+		PrintStream err = new PrintStream(new FrameOutputStream(output, CommandDaemonFile.FRAME_STDERR), true);
+
+		if (args.length > 0 && LONG_RUNNING_COMMANDS.contains(args[0])) {
+			err.println(String.format(LONG_RUNNING_COMMAND_MESSAGE, args[0]));
+			return -1;
+		}
+
+		if (!commandLock.tryLock()) {
+			err.println("Waiting for the command the daemon is already running to complete...");
+			commandLock.lock();
+		}
+
+		ConsoleLoggerStore loggerStore = getLoggerStore();
+		PrintStream systemOut = System.out;
+		PrintStream systemErr = System.err;
+		PrintStream loggerOut = loggerStore.getOutputStream();
+		PrintStream loggerErr = loggerStore.getErrorStream();
+		try {
+			System.setOut(out);
+			System.setErr(err);
+			loggerStore.setOutputStreams(out, err);
+
+			return new CommandRunner(false).run(brjsDir, workingDir, args);
+		}
+		catch (CommandArgumentsException e) {
+			err.println(e.getMessage());
+			return -1;
+		}
+		catch (Exception e) {
+			err.println(CommandRunner.formatException(e));
+			return -1;
+		}
+		finally {
+			// the global flags each command sets are put back so that they don't leak into the next command
+			loggerStore.setAsynchronous(false);
+			loggerStore.setLogLevel(defaultLogLevel);
+			loggerStore.setLogClassNames(false);
+			loggerStore.setWhitelistedPackages(new ArrayList<String>());
+			loggerStore.setOutputStreams(loggerOut, loggerErr);
+			System.setOut(systemOut);
+			System.setErr(systemErr);
+			commandLock.unlock();
+		}
+	}
+
+	private void writeExitFrame(DataOutputStream output, int exitCode) throws IOException {
+		synchronized (output) {
+			output.writeByte(CommandDaemonFile.FRAME_EXIT);
+			output.writeInt(exitCode);
+			output.flush();
+		}
+	}
+
+	private ConsoleLoggerStore getLoggerStore() {
+		return StaticLoggerBinder.getSingleton().getLoggerFactory();
+	}
+
+
+	private static class FrameOutputStream extends OutputStream {
+		private final DataOutputStream output;
+		private final int frameType;
+
+		FrameOutputStream(DataOutputStream output, int frameType) {
+			this.output = output;
+			this.frameType = frameType;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			synchronized (output) {
+				output.writeByte(frameType);
+				output.writeInt(length);
+				output.write(bytes, offset, length);
+				output.flush();
+			}
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package org.bladerunnerjs.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The thin client used when a command is run with the '--daemon' flag. It sends the command to the {@link CommandDaemon} for the SDK and
+ * working directory, starting one first if there isn't one running, and relays the command's output and exit code.
+ *
+ * A daemon is considered to be stale, and is replaced, if it can no longer be connected to or if it was started with a different classpath
+ * than the client's, for instance because BRJS has been upgraded or a plugin jar has been added or changed.
+ */
+class CommandDaemonClient {
+	private static final int CONNECT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(2);
+	private static final long STARTUP_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+	private static final long STARTUP_POLL_INTERVAL = 50;
+
+	private final File brjsDir;
+	private final File workingDir;
+	private final CommandDaemonFile daemonFile;
+	private final PrintStream out;
+	private final PrintStream err;
+
+	CommandDaemonClient(File brjsDir, File workingDir) {
+		this(CommandDaemonFile.defaultDaemonsDir(), brjsDir, workingDir, System.out, System.err);
+	}
+
+	CommandDaemonClient(File daemonsDir, File brjsDir, File workingDir, PrintStream out, PrintStream err) {
+		this.brjsDir = brjsDir;
+		this.workingDir = workingDir;
+		this.out = out;
+		this.err = err;
+		daemonFile = new CommandDaemonFile(daemonsDir, brjsDir, workingDir);
+	}
+
+	int run(String[] args) throws IOException, InterruptedException {
+		Properties daemonProperties = findDaemon(true);
+		if (daemonProperties == null) {
+			err.println("The BRJS daemon could not be started, see '" + daemonFile.getLogFile().getPath() + "' for details.");
+			return -1;
+		}
+
+		try (Socket socket = connect(daemonProperties)) {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			output.writeUTF(CommandDaemonFile.getToken(daemonProperties));
+			output.writeUTF(CommandDaemonFile.REQUEST_RUN);
+			output.writeInt(args.length);
+			for (String arg : args) {
+				output.writeUTF(arg);
+			}
+			output.flush();
+
+			return relayOutput(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+		}
+	}
+
+	int stop() throws IOException, InterruptedException {
+		Properties daemonProperties = findDaemon(false);
+		if (daemonProperties != null) {
+			stop(daemonProperties);
+			out.println("The BRJS daemon has been stopped.");
+		}
+		else {
+			out.println("There is no BRJS daemon running.");
+		}
+		return 0;
+	}
+
+	private Properties findDaemon(boolean startIfNotRunning) throws IOException, InterruptedException {
+		File lockFile = daemonFile.getLockFile();
+		lockFile.getParentFile().mkdirs();
+
+		// the lock prevents two clients that run at the same time from each starting a daemon
+		try (RandomAccessFile lockAccessFile = new RandomAccessFile(lockFile, "rw");
+			FileChannel lockChannel = lockAccessFile.getChannel();
+			FileLock lock = lockChannel.lock()) {
+			Properties daemonProperties = runningDaemon();
+			if (daemonProperties == null && startIfNotRunning) {
+				daemonProperties = startDaemon();
+			}
+			return daemonProperties;
+		}
+	}
+
+	private Properties runningDaemon() {
+		if (!daemonFile.exists()) {
+			return null;
+		}
+
+		Properties daemonProperties = daemonFile.read();
+		if (daemonProperties == null) {
+			daemonFile.delete();
+			return null;
+		}
+
+		if (!CommandDaemonFile.classpathFingerprint().equals(CommandDaemonFile.getFingerprint(daemonProperties))) {
+			stop(daemonProperties);
+			daemonFile.delete();
+			return null;
+		}
+
+		try (Socket socket = connect(daemonProperties)) {
+			return daemonProperties;
+		}
+		catch (IOException e) {
+			// the daemon died without cleaning up after itself
+			daemonFile.delete();
+			return null;
+		}
+	}
+
+	private Properties startDaemon() throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+		for (String jvmArgument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			// a debugger can only be attached to one process at a time, so the daemon doesn't inherit the client's debug options
+			if (!jvmArgument.startsWith("-agentlib:jdwp") && !jvmArgument.startsWith("-Xrunjdwp")) {
+				command.add(jvmArgument);
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(CommandDaemon.class.getName());
+		command.add(brjsDir.getAbsolutePath());
+		command.add(workingDir.getAbsolutePath());
+		command.add(System.getProperty(CommandDaemon.IDLE_TIMEOUT_PROPERTY, Long.toString(CommandDaemon.DEFAULT_IDLE_TIMEOUT_MINUTES)));
+
+		ProcessBuilder processBuilder = new ProcessBuilder(command);
+		processBuilder.redirectErrorStream(true);
+		processBuilder.redirectOutput(ProcessBuilder.Redirect.to(daemonFile.getLogFile()));
+		Process process = processBuilder.start();
+		process.getOutputStream().close();
+
+		long startTime = System.currentTimeMillis();
+		while (System.currentTimeMillis() - startTime < STARTUP_TIMEOUT) {
+			Properties daemonProperties = runningDaemon();
+			if (daemonProperties != null) {
+				return daemonProperties;
+			}
+			if (!process.isAlive()) {
+				return null;
+			}
+			Thread.sleep(STARTUP_POLL_INTERVAL);
+		}
+
+		process.destroy();
+		return null;
+	}
+
+	private void stop(Properties daemonProperties) {
+		try (Socket socket = connect(daemonProperties)) {
+			DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+			output.writeUTF(CommandDaemonFile.getToken(daemonProperties));
+			output.writeUTF(CommandDaemonFile.REQUEST_STOP);
+			output.flush();
+			new DataInputStream(socket.getInputStream()).readByte();
+		}
+		catch (IOException e) {
+			// the daemon has already gone
+		}
+	}
+
+	private int relayOutput(DataInputStream input) throws IOException {
+		try {
+			while (true) {
+				int frameType = input.readByte();
+				if (frameType == CommandDaemonFile.FRAME_EXIT) {
+					return input.readInt();
+				}
+
+				byte[] bytes = new byte[input.readInt()];
+				input.readFully(bytes);
+				PrintStream stream = (frameType == CommandDaemonFile.FRAME_STDERR) ? err : out;
+				stream.write(bytes);
+				stream.flush();
+			}
+		}
+		catch (EOFException e) {
+			err.println("The connection to the BRJS daemon was lost before the command completed.");
+			return -1;
+		}
+	}
+
+	private Socket connect(Properties daemonProperties) throws IOException {
+		Socket socket = new Socket();
+		try {
+			socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), CommandDaemonFile.getPort(daemonProperties)), CONNECT_TIMEOUT);
+		}
+		catch (IOException e) {
+			socket.close();
+			throw e;
+		}
+		return socket;
+	}
+}
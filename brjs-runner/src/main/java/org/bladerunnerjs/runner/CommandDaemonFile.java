@@ -0,0 +1,143 @@
+package org.bladerunnerjs.runner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * The file a running {@link CommandDaemon} advertises itself in, so that {@link CommandDaemonClient} can find it. There is one file for each
+ * SDK and working directory pair, held within the user's home directory so that it's only readable by that user.
+ *
+ * Alongside the daemon's port and access token the file holds a fingerprint of the classpath the daemon was started with, which lets clients
+ * recognise a stale daemon that's still running an older copy of BRJS or its plugins.
+ */
+class CommandDaemonFile {
+	static final String REQUEST_RUN = "run";
+	static final String REQUEST_STOP = "stop";
+
+	static final int FRAME_STDOUT = 1;
+	static final int FRAME_STDERR = 2;
+	static final int FRAME_EXIT = 3;
+
+	private static final String PORT = "port";
+	private static final String TOKEN = "token";
+	private static final String FINGERPRINT = "fingerprint";
+
+	private final File daemonFile;
+	private final File lockFile;
+	private final File logFile;
+
+	CommandDaemonFile(File daemonsDir, File brjsDir, File workingDir) {
+		String daemonName = hash(brjsDir.getAbsolutePath() + File.pathSeparator + workingDir.getAbsolutePath());
+		daemonFile = new File(daemonsDir, daemonName + ".properties");
+		lockFile = new File(daemonsDir, daemonName + ".lock");
+		logFile = new File(daemonsDir, daemonName + ".log");
+	}
+
+	static File defaultDaemonsDir() {
+		return new File(System.getProperty("user.home"), ".brjs/daemons");
+	}
+
+	static String classpathFingerprint() {
+		StringBuilder classpath = new StringBuilder(System.getProperty("java.home"));
+		for (String classpathEntry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			File classpathFile = new File(classpathEntry);
+			classpath.append(File.pathSeparator).append(classpathFile.getAbsolutePath())
+				.append(':').append(classpathFile.lastModified()).append(':').append(classpathFile.length());
+		}
+		return hash(classpath.toString());
+	}
+
+	File getLockFile() {
+		return lockFile;
+	}
+
+	File getLogFile() {
+		return logFile;
+	}
+
+	boolean exists() {
+		return daemonFile.isFile();
+	}
+
+	Properties read() {
+		Properties properties = new Properties();
+		try (InputStream input = new FileInputStream(daemonFile)) {
+			properties.load(input);
+		}
+		catch (IOException e) {
+			return null;
+		}
+		return (properties.getProperty(PORT) != null && properties.getProperty(TOKEN) != null) ? properties : null;
+	}
+
+	static int getPort(Properties properties) {
+		return Integer.parseInt(properties.getProperty(PORT));
+	}
+
+	static String getToken(Properties properties) {
+		return properties.getProperty(TOKEN);
+	}
+
+	static String getFingerprint(Properties properties) {
+		return properties.getProperty(FINGERPRINT);
+	}
+
+	void write(int port, String token) throws IOException {
+		File daemonsDir = daemonFile.getParentFile();
+		daemonsDir.mkdirs();
+
+		Properties properties = new Properties();
+		properties.setProperty(PORT, Integer.toString(port));
+		properties.setProperty(TOKEN, token);
+		properties.setProperty(FINGERPRINT, classpathFingerprint());
+
+		// the file is written in full before being moved into place so that clients never see a partially written file
+		File tempFile = File.createTempFile("daemon", ".tmp", daemonsDir);
+		restrictToOwner(tempFile);
+		try (OutputStream output = new FileOutputStream(tempFile)) {
+			properties.store(output, "BRJS command daemon");
+		}
+		Files.move(tempFile.toPath(), daemonFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	void delete() {
+		daemonFile.delete();
+	}
+
+	void deleteIfOwnedBy(String token) {
+		Properties properties = read();
+		if (properties != null && token.equals(getToken(properties))) {
+			delete();
+		}
+	}
+
+	private static void restrictToOwner(File file) {
+		file.setReadable(false, false);
+		file.setReadable(true, true);
+		file.setWritable(false, false);
+		file.setWritable(true, true);
+	}
+
+	private static String hash(String value) {
+		try {
+			StringBuilder hash = new StringBuilder();
+			for (byte hashByte : MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8))) {
+				hash.append(String.format("%02x", hashByte));
+			}
+			return hash.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -20,6 +20,7 @@ import org.bladerunnerjs.api.model.exception.command.CommandArgumentsException;
 import org.bladerunnerjs.api.model.exception.command.CommandOperationException;
 import org.bladerunnerjs.api.model.exception.modelupdate.ModelUpdateException;
 import org.bladerunnerjs.api.model.exception.template.TemplateInstallationException;
+import org.bladerunnerjs.api.plugin.CommandPlugin;
 import org.bladerunnerjs.legacy.command.test.TestCommand;
 import org.bladerunnerjs.legacy.command.test.TestServerCommand;
 import org.bladerunnerjs.legacy.command.testIntegration.TestIntegrationCommand;
@@ -44,6 +45,10 @@ public class CommandRunner {
 	
 	private static final JSAP argsParser = new JSAP();
 	
+	private static final String DAEMON_FLAG = "--daemon";
+	private static final String STOP_DAEMON_FLAG = "--stop-daemon";
+	
+	private final boolean interactive;
 	private boolean stats = false;
 	private boolean noStats = false;
 	
@@ -55,6 +60,7 @@ public class CommandRunner {
 			argsParser.registerParameter(new FlaggedOption("pkg").setLongFlag("pkg").setHelp("the comma delimited list of packages to show messages from, or '"+
 					ConsoleLogger.LOG_ALL_PACKAGES_PACKAGE_NAME+"' to show everything"));
 			argsParser.registerParameter(new Switch("show-pkg").setLongFlag("show-pkg").setDefault("false").setHelp("show which class each log line comes from"));
+			argsParser.registerParameter(new Switch("async-log").setLongFlag("async-log").setDefault("false").setHelp("write log messages on a background thread so that verbose logging doesn't slow down the server"));
 			argsParser.registerParameter(new Switch("no-stats").setLongFlag("no-stats").setHelp("immediately configure BRJS to disable anonymous stats. takes precedence if --track is also set"));
 			argsParser.registerParameter(new Switch("stats").setLongFlag("stats").setHelp("immediately configure BRJS to enable anonymous stats"));
 		}
@@ -63,6 +69,17 @@ public class CommandRunner {
 		}
 	}
 	
+	public CommandRunner() {
+		this(true);
+	}
+	
+	/**
+	 * @param interactive whether the user can be prompted for input, which isn't possible when commands are run by a {@link CommandDaemon}
+	 */
+	CommandRunner(boolean interactive) {
+		this.interactive = interactive;
+	}
+	
 	public static void main(String[] args) {
 		int exitCode = -1;
 		try 
@@ -83,7 +100,7 @@ public class CommandRunner {
 		}
 	}
 	
-	private static String formatException(Exception e) {
+	static String formatException(Exception e) {
 		ByteArrayOutputStream byteStreamOutputStream = new ByteArrayOutputStream();
 		PrintStream printStream = new PrintStream(byteStreamOutputStream);
 		e.printStackTrace(printStream);
@@ -101,6 +118,13 @@ public class CommandRunner {
 		File workingDir = new File(args[0]).getAbsoluteFile();  // still arg[0] since we removed the previous first element above
 		args = ArrayUtils.subarray(args, 1, args.length);
 		
+		if (ArrayUtils.contains(args, STOP_DAEMON_FLAG)) {
+			return runWithDaemonClient(brjsDir, workingDir, null);
+		}
+		if (ArrayUtils.contains(args, DAEMON_FLAG)) {
+			return runWithDaemonClient(brjsDir, workingDir, ArrayUtils.removeElement(args, DAEMON_FLAG));
+		}
+		
 		return run(brjsDir.getAbsoluteFile(), workingDir, args);
 	}
 	
@@ -126,6 +150,19 @@ public class CommandRunner {
 		return brjs.runUserCommand(new CommandConsoleLogLevelAccessor(getLoggerStore()), args);
 	}
 	
+	private int runWithDaemonClient(File brjsDir, File workingDir, String[] args) throws CommandOperationException, IOException {
+		if (!brjsDir.exists() || !brjsDir.isDirectory()) throw new InvalidDirectoryException("'" + brjsDir.getPath() + "' is not a directory");
+		if (!workingDir.exists() || !workingDir.isDirectory()) throw new InvalidDirectoryException("'" + workingDir.getPath() + "' is not a directory");
+		
+		CommandDaemonClient daemonClient = new CommandDaemonClient(brjsDir, workingDir);
+		try {
+			return (args == null) ? daemonClient.stop() : daemonClient.run(args);
+		}
+		catch (InterruptedException e) {
+			throw new CommandOperationException(e);
+		}
+	}
+	
 	private void setBrjsAllowStats(BRJS brjs) throws ConfigException
 	{
 		if (noStats) {
@@ -136,7 +173,7 @@ public class CommandRunner {
 		} else {
 		
         	Scanner scanner = new Scanner(System.in);
-        	if (brjs.bladerunnerConf().getAllowAnonymousStats() == null) {
+        	if (brjs.bladerunnerConf().getAllowAnonymousStats() == null && interactive) {
         		System.out.println();
         		System.out.println("To help us improve BladeRunnerJS we would like to collect data on the commands run and the size of applications used with the toolkit.");
         		System.out.println("This data is completely anonymous, does not identify you as an individual or your company and does not include any source code.");
@@ -185,6 +222,7 @@ public class CommandRunner {
 		boolean isDebug = parsedArgs.getBoolean("debug");
 		List<String> whitelistedPackages = (parsedArgs.getString("pkg") != null) ? Arrays.asList(parsedArgs.getString("pkg").split("\\s*,\\s*")) : new ArrayList<String>();
 		boolean logClassNames = parsedArgs.getBoolean("show-pkg");
+		boolean asyncLog = parsedArgs.getBoolean("async-log");
 		
 		if(isQuiet) {
 			getLoggerStore().setLogLevel(LogLevel.ERROR);
@@ -200,6 +238,10 @@ public class CommandRunner {
 			getLoggerStore().setLogClassNames(true);
 		}
 		
+		if(asyncLog) {
+			getLoggerStore().setAsynchronous(true);
+		}
+		
 		noStats = parsedArgs.getBoolean("no-stats");
 		stats = parsedArgs.getBoolean("stats");
 		
@@ -207,6 +249,13 @@ public class CommandRunner {
 	}
 
 	private void injectLegacyCommands(BRJS brjs) {
+		// a daemon runs many commands against the same model, and the commands only need adding to it once
+		for (CommandPlugin commandPlugin : brjs.plugins().commandPlugins()) {
+			if (commandPlugin instanceof TestCommand) {
+				return;
+			}
+		}
+		
 		brjs.plugins().addCommandPlugin(brjs, new TestCommand());
 		brjs.plugins().addCommandPlugin(brjs, new TestServerCommand());
 		brjs.plugins().addCommandPlugin(brjs, new TestIntegrationCommand());
@@ -0,0 +1,114 @@
+package org.bladerunnerjs.runner;
+
+import static org.bladerunnerjs.api.spec.utility.BRJSAssertions.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.logger.ConsoleLoggerStore;
+import org.bladerunnerjs.logger.LogLevel;
+import org.bladerunnerjs.model.ThreadSafeStaticBRJSAccessor;
+import org.bladerunnerjs.utility.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.impl.StaticLoggerBinder;
+
+public class CommandDaemonTest {
+	private ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	private ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
+	private File tempDir;
+	private File daemonsDir;
+	private File sdkDir;
+	private CommandDaemon commandDaemon;
+	private Thread daemonThread;
+
+	@Before
+	public void setUp() throws Exception {
+		ConsoleLoggerStore loggerFactory = StaticLoggerBinder.getSingleton().getLoggerFactory();
+		loggerFactory.setLogLevel(LogLevel.WARN);
+		ThreadSafeStaticBRJSAccessor.destroy();
+
+		tempDir = FileUtils.createTemporaryDirectory( getClass() );
+		daemonsDir = new File(tempDir, "daemons");
+		sdkDir = new File(tempDir, "valid-sdk-directory");
+		new File(sdkDir, "conf/templates/default/brjs").mkdirs();
+		new File(sdkDir, "sdk").mkdirs();
+
+		commandDaemon = new CommandDaemon(daemonsDir, sdkDir, sdkDir, TimeUnit.MINUTES.toMillis(1));
+		commandDaemon.start();
+		daemonThread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					commandDaemon.serve();
+				}
+				catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		daemonThread.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		commandDaemon.stop();
+		daemonThread.join();
+	}
+
+	@Test
+	public void commandsAreRunAgainstTheSameWarmModel() throws Exception {
+		BRJS brjs = ThreadSafeStaticBRJSAccessor.root;
+
+		assertEquals(0, client().run(new String[] {"log-test"}));
+		assertEquals(0, client().run(new String[] {"arg-test", "arg1", "arg2"}));
+
+		assertSame(brjs, ThreadSafeStaticBRJSAccessor.root);
+		String output = outputStream.toString("UTF-8");
+		assertContains("warn-level", output);
+		assertContains("arg1, arg2", output);
+	}
+
+	@Test
+	public void globalFlagsOnlyApplyToTheCommandTheyArePassedWith() throws Exception {
+		client().run(new String[] {"log-test", "--debug"});
+		assertContains("debug-level", outputStream.toString("UTF-8"));
+
+		outputStream.reset();
+		client().run(new String[] {"log-test"});
+		assertContains("warn-level", outputStream.toString("UTF-8"));
+		assertDoesNotContain("debug-level", outputStream.toString("UTF-8"));
+	}
+
+	@Test
+	public void commandsThatRunUntilTheyAreStoppedAreRefused() throws Exception {
+		assertEquals(-1, client().run(new String[] {"serve"}));
+		assertContains("The 'serve' command runs until it's stopped, so it can't be run by the daemon.", errorStream.toString("UTF-8"));
+
+		assertEquals(0, client().run(new String[] {"arg-test", "arg1"}));
+		assertContains("arg1", outputStream.toString("UTF-8"));
+	}
+
+	@Test
+	public void aDaemonThatCanNoLongerBeConnectedToIsConsideredStale() throws Exception {
+		CommandDaemonFile daemonFile = new CommandDaemonFile(daemonsDir, sdkDir, sdkDir);
+		assertTrue(daemonFile.exists());
+
+		commandDaemon.stop();
+		daemonThread.join();
+		daemonFile.write(1, "stale-token");
+
+		assertEquals(0, client().stop());
+		assertContains("There is no BRJS daemon running.", outputStream.toString("UTF-8"));
+		assertFalse(daemonFile.exists());
+	}
+
+	private CommandDaemonClient client() {
+		return new CommandDaemonClient(daemonsDir, sdkDir, sdkDir, new PrintStream(outputStream), new PrintStream(errorStream));
+	}
+}
@@ -220,6 +220,18 @@ public class CommandRunnerTest {
 		assertContains("org.bladerunnerjs.runner.LogTestCommand: warn-level", output);
 	}
 
+	@Test
+	public void logMessagesCanBeWrittenAsynchronously() throws Exception {
+		dirFile("valid-sdk-directory/conf/templates/default/brjs").mkdirs();
+		dirFile("valid-sdk-directory/sdk").mkdirs();
+		run("valid-sdk-directory", new String[] {"log-test", "--debug", "--async-log"});
+		StaticLoggerBinder.getSingleton().getLoggerFactory().setAsynchronous(false);
+
+		String output = outputStream.toString("UTF-8");
+		assertContains("warn-level", output);
+		assertContains("debug-level", output);
+	}
+
 	@Test
 	public void nonLogArgumentsAreReceivedCorrectly() throws Exception {
 		dirFile("valid-sdk-directory/conf/templates/default/brjs").mkdirs();
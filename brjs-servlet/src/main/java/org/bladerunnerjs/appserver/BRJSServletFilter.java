@@ -13,6 +13,7 @@ import javax.servlet.ServletResponse;
 
 import org.bladerunnerjs.appserver.filter.BRJSHeaderFilter;
 import org.bladerunnerjs.appserver.filter.FileExtensionFilter;
+import org.bladerunnerjs.appserver.filter.PrecompressedContentFilter;
 import org.bladerunnerjs.appserver.filter.TokenisingServletFilter;
 import org.bladerunnerjs.appserver.util.VirtualFilterChain;
 
@@ -21,8 +22,10 @@ public class BRJSServletFilter implements Filter {
 	
 	public BRJSServletFilter() throws ServletException {
 		filters.add(new FileExtensionFilter());
-		filters.add(new TokenisingServletFilter());
 		filters.add(new BRJSHeaderFilter());
+		// pre-compressed variants are only generated for content that contains no tokens, so they're served without being tokenised
+		filters.add(new PrecompressedContentFilter());
+		filters.add(new TokenisingServletFilter());
 	}
 	
 	@Override
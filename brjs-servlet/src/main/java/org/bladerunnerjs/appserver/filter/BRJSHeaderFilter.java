@@ -23,7 +23,7 @@ public class BRJSHeaderFilter implements Filter {
 	
 	public static final String OUTPUT_ENCODING = "UTF-8";
 
-	private static final Pattern VERSION_REGEX = Pattern.compile("/v/[0-9]+/");
+	static final Pattern VERSION_REGEX = Pattern.compile("/v/[0-9]+/");
 	
 	private static final String EXPIRES = "Expires";
 	private static final String CACHE_CONTROL = "Cache-Control";
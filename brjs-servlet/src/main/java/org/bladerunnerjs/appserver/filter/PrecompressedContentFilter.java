@@ -0,0 +1,156 @@
+package org.bladerunnerjs.appserver.filter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the pre-compressed variant of a static file (e.g. 'bundle.js.gz' for 'bundle.js') when one exists alongside it and the client accepts that
+ * encoding, so that built apps don't need to compress, or re-encode, their largest files on every request.
+ */
+public class PrecompressedContentFilter implements Filter {
+
+	public static final String BROTLI_ENCODING = "br";
+	public static final String BROTLI_SUFFIX = ".br";
+	public static final String GZIP_ENCODING = "gzip";
+	public static final String GZIP_SUFFIX = ".gz";
+
+	private static final String[] ENCODINGS = new String[] { BROTLI_ENCODING, GZIP_ENCODING };
+	private static final String[] SUFFIXES = new String[] { BROTLI_SUFFIX, GZIP_SUFFIX };
+
+	private ServletContext servletContext;
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+		servletContext = filterConfig.getServletContext();
+	}
+
+	@Override
+	public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain) throws IOException, ServletException {
+		HttpServletRequest request = (HttpServletRequest) servletRequest;
+		HttpServletResponse response = (HttpServletResponse) servletResponse;
+		String method = request.getMethod();
+
+		if ((!method.equals("GET") && !method.equals("HEAD")) || request.getHeader("Range") != null) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		String requestPath = path(request.getServletPath()) + path(request.getPathInfo());
+		String realPath = servletContext.getRealPath(requestPath);
+		File resourceFile = (realPath == null) ? null : new File(realPath);
+
+		if (resourceFile == null || !resourceFile.isFile()) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		boolean hasVariants = false;
+		for (int i = 0; i < ENCODINGS.length; i++) {
+			File variantFile = new File(resourceFile.getPath() + SUFFIXES[i]);
+			if (variantFile.isFile()) {
+				hasVariants = true;
+				if (acceptsEncoding(acceptEncoding, ENCODINGS[i])) {
+					response.setHeader("Vary", "Accept-Encoding");
+					serveVariant(request, response, requestPath, variantFile, ENCODINGS[i]);
+					return;
+				}
+			}
+		}
+
+		if (hasVariants) {
+			response.setHeader("Vary", "Accept-Encoding");
+		}
+		chain.doFilter(request, response);
+	}
+
+	@Override
+	public void destroy() {
+		// do nothing
+	}
+
+
+	private void serveVariant(HttpServletRequest request, HttpServletResponse response, String requestPath, File variantFile, String encoding) throws IOException {
+		long lastModified = variantFile.lastModified();
+		long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+		if (ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		String mimeType = servletContext.getMimeType(requestPath);
+		if (mimeType != null) {
+			response.setContentType(mimeType);
+		}
+		response.setHeader("Content-Encoding", encoding);
+		response.setHeader("Content-Length", Long.toString(variantFile.length()));
+		response.setDateHeader("Last-Modified", lastModified);
+
+		if (request.getMethod().equals("HEAD")) {
+			return;
+		}
+
+		try (InputStream input = new FileInputStream(variantFile)) {
+			OutputStream output = response.getOutputStream();
+			byte[] buffer = new byte[16 * 1024];
+			int bytesRead;
+			while ((bytesRead = input.read(buffer)) != -1) {
+				output.write(buffer, 0, bytesRead);
+			}
+		}
+		response.flushBuffer();
+	}
+
+	static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+
+		boolean wildcardAccepted = false;
+		for (String acceptedEncoding : acceptEncoding.split(",")) {
+			String[] encodingParts = acceptedEncoding.trim().split(";");
+			String encodingName = encodingParts[0].trim();
+			boolean accepted = qualityValue(encodingParts) > 0;
+
+			if (encodingName.equalsIgnoreCase(encoding)) {
+				return accepted;
+			}
+			else if (encodingName.equals("*")) {
+				wildcardAccepted = accepted;
+			}
+		}
+		return wildcardAccepted;
+	}
+
+	private static double qualityValue(String[] encodingParts) {
+		for (int i = 1; i < encodingParts.length; i++) {
+			String parameter = encodingParts[i].trim();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2));
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private String path(String str) {
+		return (str == null) ? "" : str;
+	}
+}
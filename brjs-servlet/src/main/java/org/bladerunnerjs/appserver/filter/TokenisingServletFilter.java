@@ -4,6 +4,17 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.lang.StringBuilder;
 import java.io.Reader;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.naming.NamingException;
@@ -19,7 +30,11 @@ import javax.servlet.http.HttpServletResponse;
 import org.bladerunnerjs.appserver.util.CommitedResponseCharResponseWrapper;
 import org.bladerunnerjs.appserver.util.ExceptionThrowingMissingTokenHandler;
 import org.bladerunnerjs.appserver.util.JndiTokenFinder;
+import org.bladerunnerjs.appserver.util.TokenFinder;
 import org.bladerunnerjs.appserver.util.TokenReplacingReader;
+import org.bladerunnerjs.appserver.util.TokenisedResponseCache;
+import org.bladerunnerjs.appserver.util.TokenisedResponseCache.CachedResponse;
+import org.bladerunnerjs.appserver.util.TokenisedResponseCache.RecordingTokenFinder;
 
 public class TokenisingServletFilter implements Filter
 {
@@ -29,9 +44,16 @@ public class TokenisingServletFilter implements Filter
 	
 	private static final String LOCALE_REGEX = "/|/[a-z]{2}|/[a-z]{2}_[A-Z]{2}";
 	private static final String DEFAULT_FILE_EXTENSION_REGEX = "js|xml|json|html|htm|jsp";
+	private static final long DEFAULT_RESPONSE_CACHE_SIZE = 32 * 1024 * 1024;
+	private static final Pattern BYTE_RANGE_PATTERN = Pattern.compile("bytes=(\\d*)-(\\d*)");
+	private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+	/* headers that are specific to a single response, or that are set separately when a cached response is written */
+	private static final List<String> UNCACHED_HEADERS = Arrays.asList("content-type", "content-length", "transfer-encoding", "connection", "date", "set-cookie");
 	
 	private String appName;
 	private Pattern processUrlPattern;
+	private long tokenRefreshInterval = JndiTokenFinder.DEFAULT_REFRESH_INTERVAL;
+	private TokenisedResponseCache responseCache;
 	
 	public TokenisingServletFilter() throws ServletException
 	{
@@ -52,6 +74,15 @@ public class TokenisingServletFilter implements Filter
 		String regexParam = filterConfig.getInitParameter("extensionRegex");
 		String fileExtensionRegex = (regexParam != null) ? regexParam : DEFAULT_FILE_EXTENSION_REGEX;
 		processUrlPattern = Pattern.compile("^.*("+LOCALE_REGEX+"|\\.("+fileExtensionRegex+"))$");
+		
+		String refreshIntervalParam = filterConfig.getInitParameter("tokenRefreshInterval");
+		if (refreshIntervalParam != null) {
+			tokenRefreshInterval = TimeUnit.SECONDS.toMillis(Long.parseLong(refreshIntervalParam));
+		}
+		
+		String cacheSizeParam = filterConfig.getInitParameter("responseCacheSize");
+		long responseCacheSize = (cacheSizeParam != null) ? Long.parseLong(cacheSizeParam) : DEFAULT_RESPONSE_CACHE_SIZE;
+		responseCache = (responseCacheSize > 0) ? new TokenisedResponseCache(responseCacheSize) : null;
 	}
 	
 	@Override
@@ -65,6 +96,16 @@ public class TokenisingServletFilter implements Filter
 		if (shouldProcessResponse(request))
 		{
 			request.setAttribute(IGNORE_REQUEST_ATTRIBUTE, true); // set this so we don't handle requests twice
+			
+			String cacheKey = getCacheKey((HttpServletRequest) request);
+			if (cacheKey != null) {
+				CachedResponse cachedResponse = responseCache.get(cacheKey, getTokenFinder());
+				if (cachedResponse != null) {
+					writeCachedResponse((HttpServletRequest) request, (HttpServletResponse) response, cachedResponse);
+					return;
+				}
+			}
+			
 			CommitedResponseCharResponseWrapper responseWrapper = new CommitedResponseCharResponseWrapper((HttpServletResponse) response);
 			chain.doFilter(request, responseWrapper);
 			
@@ -72,7 +113,8 @@ public class TokenisingServletFilter implements Filter
 				Reader streamTokeniserReader = null;
 				try
 				{
-					streamTokeniserReader = getStreamTokeniser(responseWrapper.getReader());
+					RecordingTokenFinder recordingTokenFinder = new RecordingTokenFinder(getTokenFinder());
+					streamTokeniserReader = getStreamTokeniser(responseWrapper.getReader(), recordingTokenFinder);
 				    StringBuilder filteredDataStringBuilder = new StringBuilder();
 				    
 				    char[] charArray = new char[8 * 1024];
@@ -82,10 +124,12 @@ public class TokenisingServletFilter implements Filter
 				    }
 				    
 				    byte[] filteredData = filteredDataStringBuilder.toString().getBytes("UTF-8");
+				    
+				    if (cacheKey != null && ((HttpServletResponse) response).getStatus() == HttpServletResponse.SC_OK) {
+				    	responseCache.put(cacheKey, new CachedResponse(filteredData, response.getContentType(), getHeaders((HttpServletResponse) response), recordingTokenFinder.getTokenValues()));
+				    }
 					
-					response.setContentLength(filteredData.length);
-					response.getOutputStream().write(filteredData);
-					response.flushBuffer();
+					writeResponse(response, filteredData, null);
 				}
     			catch(EOFException e) {
     				// the browser has closed it's connection early -- re-throw
@@ -109,6 +153,190 @@ public class TokenisingServletFilter implements Filter
 			chain.doFilter(request, response);
 		}
 	}
+	
+	/* the servlet that generated a cached response never sees the requests it's replayed for, so conditional and range requests are evaluated here */
+	private void writeCachedResponse(HttpServletRequest request, HttpServletResponse response, CachedResponse cachedResponse) throws IOException
+	{
+		writeHeaders(response, cachedResponse.getHeaders());
+		
+		if (isNotModified(request, cachedResponse)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			response.flushBuffer();
+			return;
+		}
+		
+		byte[] content = cachedResponse.getContent();
+		String rangeHeader = request.getHeader("Range");
+		if (rangeHeader == null || !isIfRangeSatisfied(request, cachedResponse)) {
+			writeResponse(response, content, cachedResponse.getContentType());
+			return;
+		}
+		
+		int[] range = parseRange(rangeHeader, content.length);
+		if (range == null) { // multiple or malformed ranges can be ignored, in which case the full response is sent
+			writeResponse(response, content, cachedResponse.getContentType());
+		}
+		else if (range.length == 0) {
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			response.setHeader("Content-Range", "bytes */" + content.length);
+			writeResponse(response, new byte[0], null);
+		}
+		else {
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + content.length);
+			writeResponse(response, Arrays.copyOfRange(content, range[0], range[1] + 1), cachedResponse.getContentType());
+		}
+	}
+	
+	private boolean isNotModified(HttpServletRequest request, CachedResponse cachedResponse)
+	{
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			String eTag = cachedResponse.getHeader("ETag");
+			if (eTag == null) {
+				return false;
+			}
+			for (String requestedETag : ifNoneMatch.split(",")) {
+				requestedETag = requestedETag.trim();
+				if (requestedETag.equals("*") || stripWeakETagPrefix(requestedETag).equals(stripWeakETagPrefix(eTag))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+		long lastModified = parseHttpDate(cachedResponse.getHeader("Last-Modified"));
+		return ifModifiedSince != -1 && lastModified != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+	}
+	
+	private boolean isIfRangeSatisfied(HttpServletRequest request, CachedResponse cachedResponse)
+	{
+		String ifRange = request.getHeader("If-Range");
+		if (ifRange == null) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"")) {
+			return ifRange.equals(cachedResponse.getHeader("ETag"));
+		}
+		long lastModified = parseHttpDate(cachedResponse.getHeader("Last-Modified"));
+		return lastModified != -1 && lastModified == parseHttpDate(ifRange);
+	}
+	
+	/* returns the first and last byte positions of a single byte range, an empty array if the range can't be satisfied, or null if the range should be ignored */
+	private int[] parseRange(String rangeHeader, int contentLength)
+	{
+		Matcher rangeMatcher = BYTE_RANGE_PATTERN.matcher(rangeHeader.trim());
+		if (!rangeMatcher.matches() || (rangeMatcher.group(1).isEmpty() && rangeMatcher.group(2).isEmpty())) {
+			return null;
+		}
+		
+		try {
+			long firstByte;
+			long lastByte;
+			if (rangeMatcher.group(1).isEmpty()) {
+				long suffixLength = Long.parseLong(rangeMatcher.group(2));
+				if (suffixLength == 0) {
+					return new int[0];
+				}
+				firstByte = Math.max(0, contentLength - suffixLength);
+				lastByte = contentLength - 1;
+			}
+			else {
+				firstByte = Long.parseLong(rangeMatcher.group(1));
+				lastByte = contentLength - 1;
+				if (!rangeMatcher.group(2).isEmpty()) {
+					long requestedLastByte = Long.parseLong(rangeMatcher.group(2));
+					if (requestedLastByte < firstByte) {
+						return null;
+					}
+					lastByte = Math.min(requestedLastByte, lastByte);
+				}
+			}
+			return (firstByte >= contentLength) ? new int[0] : new int[] { (int) firstByte, (int) lastByte };
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+	
+	private String stripWeakETagPrefix(String eTag)
+	{
+		return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+	}
+	
+	private long getDateHeader(HttpServletRequest request, String headerName)
+	{
+		try {
+			return request.getDateHeader(headerName);
+		}
+		catch (IllegalArgumentException ex) {
+			return -1;
+		}
+	}
+	
+	private long parseHttpDate(String date)
+	{
+		if (date == null) {
+			return -1;
+		}
+		SimpleDateFormat httpDateFormat = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+		httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+		try {
+			return httpDateFormat.parse(date.trim()).getTime();
+		}
+		catch (ParseException ex) {
+			return -1;
+		}
+	}
+	
+	private void writeResponse(ServletResponse response, byte[] content, String contentType) throws IOException
+	{
+		if (contentType != null) {
+			response.setContentType(contentType);
+		}
+		response.setContentLength(content.length);
+		response.getOutputStream().write(content);
+		response.flushBuffer();
+	}
+	
+	private Map<String, List<String>> getHeaders(HttpServletResponse response)
+	{
+		Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+		for (String headerName : response.getHeaderNames()) {
+			if (!UNCACHED_HEADERS.contains(headerName.toLowerCase(Locale.ROOT)) && !headers.containsKey(headerName)) {
+				headers.put(headerName, new ArrayList<String>(response.getHeaders(headerName)));
+			}
+		}
+		return headers;
+	}
+	
+	private void writeHeaders(HttpServletResponse response, Map<String, List<String>> headers)
+	{
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			boolean firstValue = true;
+			for (String headerValue : header.getValue()) {
+				if (firstValue) {
+					response.setHeader(header.getKey(), headerValue);
+					firstValue = false;
+				}
+				else {
+					response.addHeader(header.getKey(), headerValue);
+				}
+			}
+		}
+	}
+	
+	/* only versioned requests are cached since their content can't change without the version changing */
+	private String getCacheKey(HttpServletRequest request)
+	{
+		String requestUri = request.getRequestURI();
+		if (responseCache == null || !BRJSHeaderFilter.VERSION_REGEX.matcher(requestUri).find()) {
+			return null;
+		}
+		return (request.getQueryString() == null) ? requestUri : requestUri + "?" + request.getQueryString();
+	}
 
 	private boolean shouldProcessResponse(ServletRequest request)
 	{
@@ -118,14 +346,18 @@ public class TokenisingServletFilter implements Filter
 		return processUrlPattern.matcher(requestUrl).matches() && request.getAttribute(IGNORE_REQUEST_ATTRIBUTE) == null;
 	}
 	
-	private Reader getStreamTokeniser(Reader reader) throws ServletException {
+	private synchronized TokenFinder getTokenFinder() throws ServletException {
 		if (tokenFinder == null) {
 			try {
-				tokenFinder = new JndiTokenFinder();
+				tokenFinder = new JndiTokenFinder(tokenRefreshInterval);
 			} catch(NamingException ex) {
 				throw new ServletException("Error getting context for JNDI lookups. (" + ex + ")", ex);
 			}
 		}
+		return tokenFinder;
+	}
+	
+	private Reader getStreamTokeniser(Reader reader, TokenFinder tokenFinder) {
 		return new TokenReplacingReader(appName, tokenFinder, reader, new ExceptionThrowingMissingTokenHandler());
 	}
 	
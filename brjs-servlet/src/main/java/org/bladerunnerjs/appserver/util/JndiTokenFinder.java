@@ -1,21 +1,46 @@
 package org.bladerunnerjs.appserver.util;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
+/**
+ * Finds token values using JNDI. Values are cached in a token table which is discarded once it's older than the refresh interval, so that changes
+ * to the JNDI configuration are picked up without every token in every response needing its own lookup.
+ */
 public class JndiTokenFinder implements TokenFinder
 {
+	public static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.SECONDS.toMillis(60);
+	
 	private final Context appServerContext;
+	private final long refreshInterval;
+	private volatile TokenTable tokenTable = new TokenTable();
 
 	public JndiTokenFinder() throws NamingException
 	{
-		this.appServerContext = (Context) new InitialContext();
+		this(DEFAULT_REFRESH_INTERVAL);
+	}
+	
+	/**
+	 * @param refreshInterval the number of milliseconds that looked up values are cached for, where 0 disables caching
+	 */
+	public JndiTokenFinder(long refreshInterval) throws NamingException
+	{
+		this((Context) new InitialContext(), refreshInterval);
 	}
 
-	/* this constructor is only used for testing */
+	/* these constructors are only used for testing */
 	public JndiTokenFinder(Context appServerContext) {
+		this(appServerContext, DEFAULT_REFRESH_INTERVAL);
+	}
+	
+	public JndiTokenFinder(Context appServerContext, long refreshInterval) {
 		this.appServerContext = appServerContext;
+		this.refreshInterval = refreshInterval;
 	}
 
 	public String findTokenValue(String tokenName) throws TokenReplacementException {
@@ -23,7 +48,22 @@ public class JndiTokenFinder implements TokenFinder
 		{
 			return null;
 		}
-
+		
+		TokenTable currentTokenTable = tokenTable;
+		if (System.currentTimeMillis() - currentTokenTable.creationTime >= refreshInterval) {
+			currentTokenTable = new TokenTable();
+			tokenTable = currentTokenTable;
+		}
+		
+		String tokenValue = currentTokenTable.values.get(tokenName);
+		if (tokenValue == null) {
+			tokenValue = lookupTokenValue(tokenName);
+			currentTokenTable.values.put(tokenName, tokenValue);
+		}
+		return tokenValue;
+	}
+	
+	private String lookupTokenValue(String tokenName) throws TokenReplacementException {
 		try
 		{
 			Object tokenValue = appServerContext.lookup("java:comp/env/" + tokenName);
@@ -38,4 +78,10 @@ public class JndiTokenFinder implements TokenFinder
 			throw new TokenReplacementException(tokenName, this.getClass(), ex);
 		}
 	}
+	
+	private static class TokenTable
+	{
+		private final long creationTime = System.currentTimeMillis();
+		private final ConcurrentMap<String, String> values = new ConcurrentHashMap<String, String>();
+	}
 }
@@ -0,0 +1,51 @@
+package org.bladerunnerjs.appserver.util;
+
+import java.io.Writer;
+
+
+/**
+ * Detects whether the content written to it contains any tokens that a {@link TokenReplacingReader} would replace, without holding on to the
+ * content. The detection is conservative, so content for which no token is detected is guaranteed to be left unaltered by the reader.
+ */
+public class TokenDetectingWriter extends Writer
+{
+	private boolean tokenStarted = false;
+	private int tokenLength = 0;
+	private boolean tokenDetected = false;
+	
+	@Override
+	public void write(char[] chars, int offset, int length)
+	{
+		for (int i = offset; i < offset + length && !tokenDetected; i++) {
+			char c = chars[i];
+			if (c == TokenReplacingReader.TOKEN_END && tokenStarted && tokenLength > 0) {
+				tokenDetected = true;
+			}
+			else if (c == TokenReplacingReader.TOKEN_START) {
+				tokenStarted = true;
+				tokenLength = 0;
+			}
+			else if (tokenStarted && TokenReplacingReader.isTokenChar(c)) {
+				tokenLength++;
+			}
+			else {
+				tokenStarted = false;
+			}
+		}
+	}
+	
+	@Override
+	public void flush()
+	{
+	}
+	
+	@Override
+	public void close()
+	{
+	}
+	
+	public boolean tokenDetected()
+	{
+		return tokenDetected;
+	}
+}
@@ -4,7 +4,12 @@ import java.io.IOException;
 import java.io.Reader;
 
 
-// this class only reads a single char at a time from the SourceReader as it massively simplifies the code and we're not reading from large files as we might with the JS 'stripping' readers
+/**
+ * Replaces '@TOKEN.NAME@' tokens within the content of the source reader. The source is read in blocks, and runs of content that don't contain a
+ * token are copied straight into the caller's buffer, so that the cost of tokenising large bundles is little more than the cost of copying them.
+ * Tokens, and the replacements that don't fit within the caller's buffer, are carried over between reads using buffers that are re-used rather than
+ * re-allocated.
+ */
 public class TokenReplacingReader extends Reader
 {
 	
@@ -13,20 +18,25 @@ public class TokenReplacingReader extends Reader
 	public static final String BRJS_KEY_PREFIX = "BRJS.";
 	public static final String NO_BRJS_TOKEN_CONFIGURED_MESSAGE = "No token finder has been configured for "+BRJS_KEY_PREFIX+"* tokens. Only user tokens can be used at this location";
 	public static final String NO_BRJS_TOKEN_FOUND_MESSAGE = "The token '%s' is an invalid BRJS system token.";
+	
+	private static final int SOURCE_BUFFER_SIZE = 8192;
 
 	private final TokenFinder brjsTokenFinder;
     private final TokenFinder userTokenFinder;
 	private final Reader sourceReader;
     private final MissingTokenHandler replacementHandler;
 
+	private final char[] sourceBuffer = new char[SOURCE_BUFFER_SIZE];
+	private int sourcePosition = 0;
+	private int sourceLimit = 0;
+	private boolean sourceExhausted = false;
+	
     private boolean withinToken = false;
-	private StringBuffer currentTokenString = new StringBuffer();;
+	private final StringBuilder currentToken = new StringBuilder();
 	
-	private StringBuffer readTokensBuffer = new StringBuffer();
+	private final StringBuilder pendingOutput = new StringBuilder();
+	private int pendingOutputPosition = 0;
 	
-	private int currentOffset;
-	private int maxCharactersToWrite;
-	private int totalNumberOfCharsWritten;
 	private String appName;
 
 	public TokenReplacingReader(String appName, TokenFinder userTokenFinder, Reader sourceReader) {
@@ -48,106 +58,135 @@ public class TokenReplacingReader extends Reader
     @Override
 	public int read(char[] destBuffer, int offset, int maxCharacters) throws IOException
 	{
-		currentOffset = offset;
-		totalNumberOfCharsWritten = 0;
-		maxCharactersToWrite = maxCharacters;
-		
-		int nextCharVal = -1;
-		char nextChar = '\0';
-		
-		if (readTokensBuffer.length() > 0) {
-			addToCharBuffer(destBuffer, readTokensBuffer);
+		if (maxCharacters == 0) {
+			return 0;
 		}
 		
-		while (canWriteMoreChars()) {
-			nextCharVal = sourceReader.read();
-			
-			if (nextCharVal == -1) {
-				break;
+		int charsWritten = 0;
+		while (charsWritten < maxCharacters) {
+			if (pendingOutputPosition < pendingOutput.length()) {
+				charsWritten += writePendingOutput(destBuffer, offset + charsWritten, maxCharacters - charsWritten);
 			}
-			nextChar = (char) nextCharVal;
-			
-			if (withinToken)
-			{
-				if (isValidTokenChar(nextChar))
-				{
-					currentTokenString.append(nextChar);
-				}
-				else if (nextChar == TOKEN_END)
-				{
-					withinToken = false;
-					currentTokenString.append(nextChar);
-					if (currentTokenString.length() <= 2)
-					{
-						addToCharBuffer(destBuffer, currentTokenString);
-					}
-					else
-					{
-						addToCharBuffer(destBuffer, findTokenReplacement(currentTokenString.toString()).toCharArray());
-						currentTokenString.setLength(0);
-					}
-				}
-				else
-				{
+			else if (sourcePosition == sourceLimit && !fillSourceBuffer()) {
+				if (withinToken) {
 					withinToken = false;
-					addToCharBuffer(destBuffer, currentTokenString);
-					addToCharBuffer(destBuffer, nextChar);
+					setPendingOutput(currentToken);
+					continue;
 				}
+				break;
 			}
-			else
-			{
-				if (nextChar == TOKEN_START)
-				{
-					withinToken = true;
-					currentTokenString.setLength(0);
-					currentTokenString.append(nextChar);
-				}
-				else
-				{
-					addToCharBuffer(destBuffer, nextChar);
-				}
+			else if (withinToken) {
+				readToken();
+			}
+			else {
+				charsWritten += copyUntilNextToken(destBuffer, offset + charsWritten, maxCharacters - charsWritten);
 			}
-				
-		}
-		
-		if (currentTokenString.length() > 0) {
-			addToCharBuffer(destBuffer, currentTokenString.toString().toCharArray());
-			currentTokenString.setLength(0);
 		}
 		
-		int charsProvided = (currentOffset - offset);
-		return (charsProvided == 0) ? -1 : charsProvided;
+		return (charsWritten == 0) ? -1 : charsWritten;
 	}
 
+	/**
+	 * Returns whether the given content might contain tokens that this reader would replace. The check is conservative, so content for which this
+	 * returns false is guaranteed to be unaltered by the reader.
+	 */
+	public static boolean containsTokens(CharSequence content)
+	{
+		char[] contentChars = content.toString().toCharArray();
+		TokenDetectingWriter tokenDetector = new TokenDetectingWriter();
+		tokenDetector.write(contentChars, 0, contentChars.length);
+		return tokenDetector.tokenDetected();
+	}
+	
+	/**
+	 * Returns whether the given char can appear between the '@' chars that delimit a token.
+	 */
+	public static boolean isTokenChar(char c)
+	{
+		return Character.isUpperCase(c) || c == '.';
+	}
+	
 	@Override
 	public void close() throws IOException
 	{
 		sourceReader.close();		
 	}
 	
-	private boolean canWriteMoreChars() {
-		return totalNumberOfCharsWritten < maxCharactersToWrite;
+	private boolean fillSourceBuffer() throws IOException {
+		while (!sourceExhausted) {
+			int charsRead = sourceReader.read(sourceBuffer, 0, sourceBuffer.length);
+			if (charsRead == -1) {
+				sourceExhausted = true;
+			}
+			else if (charsRead > 0) {
+				sourcePosition = 0;
+				sourceLimit = charsRead;
+				return true;
+			}
+		}
+		return false;
 	}
 	
-	private void addToCharBuffer(char[] destBuffer, char... chars) {
-		for (char c : chars) {
-			if (canWriteMoreChars()) {
-				destBuffer[currentOffset++] = c;
-				totalNumberOfCharsWritten ++;
-			} else {
-				readTokensBuffer.append(c);
+	private int copyUntilNextToken(char[] destBuffer, int offset, int maxCharacters) {
+		int copyLimit = sourcePosition + Math.min(sourceLimit - sourcePosition, maxCharacters);
+		int tokenStart = sourcePosition;
+		while (tokenStart < copyLimit && sourceBuffer[tokenStart] != TOKEN_START) {
+			tokenStart++;
+		}
+		
+		int charsCopied = tokenStart - sourcePosition;
+		System.arraycopy(sourceBuffer, sourcePosition, destBuffer, offset, charsCopied);
+		sourcePosition = tokenStart;
+		
+		if (sourcePosition < sourceLimit && sourceBuffer[sourcePosition] == TOKEN_START) {
+			sourcePosition++;
+			withinToken = true;
+			currentToken.setLength(0);
+			currentToken.append(TOKEN_START);
+		}
+		return charsCopied;
+	}
+	
+	private void readToken() {
+		int tokenCharsStart = sourcePosition;
+		while (sourcePosition < sourceLimit && isTokenChar(sourceBuffer[sourcePosition])) {
+			sourcePosition++;
+		}
+		currentToken.append(sourceBuffer, tokenCharsStart, sourcePosition - tokenCharsStart);
+		
+		if (sourcePosition == sourceLimit) {
+			// the token continues into the next block of the source
+			return;
+		}
+		
+		withinToken = false;
+		if (sourceBuffer[sourcePosition] == TOKEN_END) {
+			sourcePosition++;
+			currentToken.append(TOKEN_END);
+			if (currentToken.length() <= 2) {
+				setPendingOutput(currentToken);
 			}
+			else {
+				setPendingOutput(findTokenReplacement(currentToken.toString()));
+			}
+		}
+		else {
+			// the char that ended the token can't start another one, so it's copied along with the content that follows it
+			setPendingOutput(currentToken);
 		}
 	}
 	
-	private void addToCharBuffer(char[] destBuffer, StringBuffer buffer) {
-		addToCharBuffer(destBuffer, buffer.toString().toCharArray());
-		buffer.setLength(0);
+	private void setPendingOutput(CharSequence output) {
+		pendingOutput.setLength(0);
+		pendingOutput.append(output);
+		pendingOutputPosition = 0;
 	}
 	
-	private boolean isValidTokenChar(char c)
-	{
-		return Character.isUpperCase(c) || c == '.';
+	private int writePendingOutput(char[] destBuffer, int offset, int maxCharacters) {
+		int charsWritten = Math.min(pendingOutput.length() - pendingOutputPosition, maxCharacters);
+		pendingOutput.getChars(pendingOutputPosition, pendingOutputPosition + charsWritten, destBuffer, offset);
+		pendingOutputPosition += charsWritten;
+		return charsWritten;
 	}
 
 	private String findTokenReplacement(String tokenName)
@@ -0,0 +1,155 @@
+package org.bladerunnerjs.appserver.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A least recently used cache of tokenised responses, bounded by the total number of bytes cached. Each response is stored along with its headers
+ * and the token values that were used to generate it, so that it's only re-used while those tokens still have the same values.
+ */
+public class TokenisedResponseCache
+{
+	private final Map<String, CachedResponse> cachedResponses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true);
+	private final long maxCachedBytes;
+	private long cachedBytes = 0;
+
+	public TokenisedResponseCache(long maxCachedBytes)
+	{
+		this.maxCachedBytes = maxCachedBytes;
+	}
+
+	/**
+	 * Returns the cached response for the given request, or null if there isn't one or a token it used now has a different value.
+	 */
+	public CachedResponse get(String requestUri, TokenFinder tokenFinder)
+	{
+		CachedResponse cachedResponse;
+		synchronized (this) {
+			cachedResponse = cachedResponses.get(requestUri);
+		}
+
+		if (cachedResponse != null && !cachedResponse.tokenValuesUnchanged(tokenFinder)) {
+			remove(requestUri, cachedResponse);
+			cachedResponse = null;
+		}
+		return cachedResponse;
+	}
+
+	public void put(String requestUri, CachedResponse cachedResponse)
+	{
+		if (cachedResponse.content.length > maxCachedBytes) {
+			return;
+		}
+
+		synchronized (this) {
+			CachedResponse previousResponse = cachedResponses.put(requestUri, cachedResponse);
+			cachedBytes += cachedResponse.content.length - ((previousResponse == null) ? 0 : previousResponse.content.length);
+
+			Iterator<CachedResponse> eldestResponses = cachedResponses.values().iterator();
+			while (cachedBytes > maxCachedBytes && eldestResponses.hasNext()) {
+				cachedBytes -= eldestResponses.next().content.length;
+				eldestResponses.remove();
+			}
+		}
+	}
+
+	private synchronized void remove(String requestUri, CachedResponse cachedResponse)
+	{
+		if (cachedResponses.get(requestUri) == cachedResponse) {
+			cachedResponses.remove(requestUri);
+			cachedBytes -= cachedResponse.content.length;
+		}
+	}
+
+
+	public static class CachedResponse
+	{
+		private final byte[] content;
+		private final String contentType;
+		private final Map<String, List<String>> headers;
+		private final Map<String, String> tokenValues;
+
+		public CachedResponse(byte[] content, String contentType, Map<String, List<String>> headers, Map<String, String> tokenValues)
+		{
+			this.content = content;
+			this.contentType = contentType;
+			this.headers = headers;
+			this.tokenValues = tokenValues;
+		}
+
+		public byte[] getContent()
+		{
+			return content;
+		}
+
+		public String getContentType()
+		{
+			return contentType;
+		}
+
+		public Map<String, List<String>> getHeaders()
+		{
+			return headers;
+		}
+
+		/**
+		 * Returns the first value of the given header, matching its name case insensitively, or null if the response doesn't have it.
+		 */
+		public String getHeader(String headerName)
+		{
+			for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+				if (header.getKey().equalsIgnoreCase(headerName) && !header.getValue().isEmpty()) {
+					return header.getValue().get(0);
+				}
+			}
+			return null;
+		}
+
+		private boolean tokenValuesUnchanged(TokenFinder tokenFinder)
+		{
+			try {
+				for (Map.Entry<String, String> tokenValue : tokenValues.entrySet()) {
+					String currentValue = tokenFinder.findTokenValue(tokenValue.getKey());
+					if (!tokenValue.getValue().equals((currentValue == null) ? "" : currentValue)) {
+						return false;
+					}
+				}
+				return true;
+			}
+			catch (TokenReplacementException ex) {
+				return false;
+			}
+		}
+	}
+
+
+	/**
+	 * A {@link TokenFinder} that records the values it finds, so that they can be stored along with the response they were used in.
+	 */
+	public static class RecordingTokenFinder implements TokenFinder
+	{
+		private final TokenFinder tokenFinder;
+		private final Map<String, String> tokenValues = new LinkedHashMap<String, String>();
+
+		public RecordingTokenFinder(TokenFinder tokenFinder)
+		{
+			this.tokenFinder = tokenFinder;
+		}
+
+		@Override
+		public String findTokenValue(String tokenName) throws TokenReplacementException
+		{
+			String tokenValue = tokenFinder.findTokenValue(tokenName);
+			// a null value is written out as an empty string, so it's recorded as one to match the value that was used
+			tokenValues.put(tokenName, (tokenValue == null) ? "" : tokenValue);
+			return tokenValue;
+		}
+
+		public Map<String, String> getTokenValues()
+		{
+			return tokenValues;
+		}
+	}
+}
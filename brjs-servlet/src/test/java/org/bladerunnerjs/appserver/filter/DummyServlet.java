@@ -4,6 +4,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -18,6 +20,7 @@ public class DummyServlet extends HttpServlet
 	private String responseText;
 	private int responseCode;
 	private String contentType;
+	private Map<String, String> headers = new LinkedHashMap<String, String>();
 
 	public DummyServlet()
 	{
@@ -39,11 +42,17 @@ public class DummyServlet extends HttpServlet
 		this.contentType = contentType;
 	}
 
+	public void setHeader(String headerName, String headerValue)
+	{
+		headers.put(headerName, headerValue);
+	}
+
 	public void resetResponse()
 	{
 		responseText = "OK - This content was generated by "+this.getClass().getSimpleName();
 		responseCode = 200;
 		contentType = "text/plain";
+		headers.clear();
 	}
 
 	@Override
@@ -53,6 +62,9 @@ public class DummyServlet extends HttpServlet
 		try
 		{
 			response.setStatus(responseCode);
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				response.setHeader(header.getKey(), header.getValue());
+			}
 			if (request.getRequestURI().endsWith("br-logo.png")) {
 				IOUtils.copy(new FileInputStream(new File("src/test/resources/br-logo.png")), response.getOutputStream());
 				response.getOutputStream().flush();
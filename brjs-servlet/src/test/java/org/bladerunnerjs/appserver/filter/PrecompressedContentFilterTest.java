@@ -0,0 +1,169 @@
+package org.bladerunnerjs.appserver.filter;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.Servlet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.DefaultServlet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrecompressedContentFilterTest extends ServletFilterTest
+{
+	private static final String BUNDLE_CONTENT = "var someContent = 'some content';\n";
+
+	private Server appServer;
+	private HttpResponse response;
+	private byte[] responseBody;
+
+	@Before
+	public void setup() throws Exception
+	{
+		Servlet servlet = new DefaultServlet();
+		PrecompressedContentFilter filter = new PrecompressedContentFilter();
+		appServer = createAndStartAppServer(servlet, filter);
+
+		FileUtils.write(new File(contextDir, "bundle.js"), BUNDLE_CONTENT, "UTF-8");
+		FileUtils.writeByteArrayToFile(new File(contextDir, "bundle.js.gz"), gzip(BUNDLE_CONTENT));
+		FileUtils.write(new File(contextDir, "other-bundle.js"), BUNDLE_CONTENT, "UTF-8");
+		FileUtils.writeByteArrayToFile(new File(contextDir, "other-bundle.js.gz"), gzip(BUNDLE_CONTENT));
+		FileUtils.write(new File(contextDir, "other-bundle.js.br"), "brotli content", "UTF-8");
+		FileUtils.write(new File(contextDir, "uncompressed.js"), BUNDLE_CONTENT, "UTF-8");
+	}
+
+	@After
+	public void teardown() throws Exception
+	{
+		appServer.stop();
+	}
+
+	@Test
+	public void theGzipVariantIsServedIfTheClientAcceptsGzip() throws Exception
+	{
+		makeRequest("/bundle.js", "gzip, deflate");
+
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertEquals("gzip", header("Content-Encoding"));
+		assertEquals("Accept-Encoding", header("Vary"));
+		assertEquals(Integer.toString(responseBody.length), header("Content-Length"));
+		assertTrue(header("Content-Type").startsWith("application/javascript"));
+		assertEquals(BUNDLE_CONTENT, gunzip(responseBody));
+	}
+
+	@Test
+	public void theOriginalFileIsServedIfTheClientDoesntAcceptGzip() throws Exception
+	{
+		makeRequest("/bundle.js", null);
+
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertNull(header("Content-Encoding"));
+		assertEquals("Accept-Encoding", header("Vary"));
+		assertEquals(BUNDLE_CONTENT, new String(responseBody, "UTF-8"));
+	}
+
+	@Test
+	public void encodingsWithAZeroQualityValueAreNotUsed() throws Exception
+	{
+		makeRequest("/bundle.js", "gzip;q=0, identity");
+
+		assertNull(header("Content-Encoding"));
+		assertEquals(BUNDLE_CONTENT, new String(responseBody, "UTF-8"));
+	}
+
+	@Test
+	public void encodingsAcceptedViaAWildcardAreUsed() throws Exception
+	{
+		makeRequest("/bundle.js", "*");
+
+		assertEquals("gzip", header("Content-Encoding"));
+		assertEquals(BUNDLE_CONTENT, gunzip(responseBody));
+	}
+
+	@Test
+	public void theBrotliVariantIsPreferredIfTheClientAcceptsBoth() throws Exception
+	{
+		makeRequest("/other-bundle.js", "gzip, deflate, br");
+
+		assertEquals("br", header("Content-Encoding"));
+		assertEquals("brotli content", new String(responseBody, "UTF-8"));
+	}
+
+	@Test
+	public void theGzipVariantIsUsedIfTheClientDoesntAcceptBrotli() throws Exception
+	{
+		makeRequest("/other-bundle.js", "gzip");
+
+		assertEquals("gzip", header("Content-Encoding"));
+		assertEquals(BUNDLE_CONTENT, gunzip(responseBody));
+	}
+
+	@Test
+	public void filesWithoutAVariantAreServedAsNormal() throws Exception
+	{
+		makeRequest("/uncompressed.js", "gzip");
+
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertNull(header("Content-Encoding"));
+		assertNull(header("Vary"));
+		assertEquals(BUNDLE_CONTENT, new String(responseBody, "UTF-8"));
+	}
+
+	@Test
+	public void acceptEncodingHeadersAreParsedCorrectly() throws Exception
+	{
+		assertTrue(PrecompressedContentFilter.acceptsEncoding("gzip", "gzip"));
+		assertTrue(PrecompressedContentFilter.acceptsEncoding("deflate, GZIP;q=0.5", "gzip"));
+		assertTrue(PrecompressedContentFilter.acceptsEncoding("br;q=0, *", "gzip"));
+		assertFalse(PrecompressedContentFilter.acceptsEncoding("*, gzip;q=0", "gzip"));
+		assertFalse(PrecompressedContentFilter.acceptsEncoding("*;q=0", "gzip"));
+		assertFalse(PrecompressedContentFilter.acceptsEncoding("deflate", "gzip"));
+		assertFalse(PrecompressedContentFilter.acceptsEncoding(null, "gzip"));
+	}
+
+
+	private void makeRequest(String path, String acceptEncoding) throws Exception
+	{
+		HttpGet httpget = new HttpGet("http://localhost:"+serverPort+path);
+		if (acceptEncoding != null) {
+			httpget.setHeader("Accept-Encoding", acceptEncoding);
+		}
+		response = httpclient.execute(httpget);
+		responseBody = EntityUtils.toByteArray(response.getEntity());
+	}
+
+	private String header(String name)
+	{
+		Header header = response.getFirstHeader(name);
+		return (header == null) ? null : header.getValue();
+	}
+
+	private byte[] gzip(String content) throws Exception
+	{
+		ByteArrayOutputStream compressedContent = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedContent)) {
+			gzipOutputStream.write(content.getBytes("UTF-8"));
+		}
+		return compressedContent.toByteArray();
+	}
+
+	private String gunzip(byte[] content) throws Exception
+	{
+		try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			return IOUtils.toString(gzipInputStream, "UTF-8");
+		}
+	}
+}
@@ -14,6 +14,7 @@ import javax.servlet.Filter;
 import javax.servlet.Servlet;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
@@ -48,12 +49,21 @@ public class ServletFilterTest {
 	}
 	
 	protected Map<String, String> makeRequest(String url) throws ClientProtocolException, IOException
+	{
+		Map<String, String> requestHeaders = Collections.emptyMap();
+		return makeRequest(url, requestHeaders);
+	}
+	
+	protected Map<String, String> makeRequest(String url, Map<String, String> requestHeaders) throws ClientProtocolException, IOException
 	{
 		Map<String, String> responseMap = new HashMap<String, String>();
 		HttpGet httpget = new HttpGet(url);
+		for (Map.Entry<String, String> requestHeader : requestHeaders.entrySet()) {
+			httpget.setHeader(requestHeader.getKey(), requestHeader.getValue());
+		}
 		HttpResponse response = httpclient.execute(httpget);
 		populateResponseDetails(response, responseMap);
-		responseMap.put("responseText", EntityUtils.toString(response.getEntity()));
+		responseMap.put("responseText", (response.getEntity() == null) ? "" : EntityUtils.toString(response.getEntity()));
 		return responseMap;
 	}
 	
@@ -72,6 +82,9 @@ public class ServletFilterTest {
 		responseMap.put("responseCode", Integer.toString(response.getStatusLine().getStatusCode()));
 		String contentType = (ContentType.get(response.getEntity()) != null) ? ContentType.get(response.getEntity()).getMimeType().toString() : "";
 		responseMap.put("responseContentType", contentType);
+		for (Header header : response.getAllHeaders()) {
+			responseMap.put(header.getName(), header.getValue());
+		}
 	}
 	
 	protected Server createAndStartAppServer(Servlet servlet, Filter filter) throws Exception {
@@ -238,4 +238,152 @@ public class TokenisingServletFilterTest extends ServletFilterTest
 		assertEquals("token replacement", response.get("responseText"));
 	}
 	
+	@Test
+	public void versionedResponsesAreServedFromTheCacheWhileTheirTokenValuesAreUnchanged() throws Exception
+	{
+		dummyServlet.setResponseText("@A.TOKEN@");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		dummyServlet.setResponseText("new content @A.TOKEN@");
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("200", response.get("responseCode"));
+		assertEquals("token replacement", response.get("responseText"));
+		assertEquals("text/plain", response.get("responseContentType"));
+	}
+	
+	@Test
+	public void cachedResponsesAreServedWithTheHeadersTheyWereGeneratedWith() throws Exception
+	{
+		dummyServlet.setResponseText("@A.TOKEN@");
+		dummyServlet.setContentType("application/javascript");
+		dummyServlet.setHeader("Cache-Control", "max-age=31536000");
+		dummyServlet.setHeader("ETag", "\"some-etag\"");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		dummyServlet.resetResponse();
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("token replacement", response.get("responseText"));
+		assertEquals("application/javascript", response.get("responseContentType"));
+		assertEquals("max-age=31536000", response.get("Cache-Control"));
+		assertEquals("\"some-etag\"", response.get("ETag"));
+	}
+	
+	@Test
+	public void conditionalRequestsForCachedResponsesAreEvaluatedAgainstTheCachedETag() throws Exception
+	{
+		dummyServlet.setResponseText("@A.TOKEN@");
+		dummyServlet.setHeader("ETag", "\"some-etag\"");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		dummyServlet.resetResponse();
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put("If-None-Match", "\"some-etag\"");
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js", requestHeaders);
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("304", response.get("responseCode"));
+		assertEquals("", response.get("responseText"));
+		assertEquals("\"some-etag\"", response.get("ETag"));
+		
+		requestHeaders.put("If-None-Match", "\"another-etag\"");
+		response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js", requestHeaders);
+		assertEquals("200", response.get("responseCode"));
+		assertEquals("token replacement", response.get("responseText"));
+	}
+	
+	@Test
+	public void conditionalRequestsForCachedResponsesAreEvaluatedAgainstTheCachedLastModifiedDate() throws Exception
+	{
+		dummyServlet.setResponseText("@A.TOKEN@");
+		dummyServlet.setHeader("Last-Modified", "Tue, 15 Nov 1994 12:45:26 GMT");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		dummyServlet.resetResponse();
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put("If-Modified-Since", "Tue, 15 Nov 1994 12:45:26 GMT");
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js", requestHeaders);
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("304", response.get("responseCode"));
+		
+		requestHeaders.put("If-Modified-Since", "Mon, 14 Nov 1994 12:45:26 GMT");
+		response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js", requestHeaders);
+		assertEquals("200", response.get("responseCode"));
+		assertEquals("token replacement", response.get("responseText"));
+	}
+	
+	@Test
+	public void rangeRequestsForCachedResponsesAreServedFromTheCachedContent() throws Exception
+	{
+		dummyServlet.setResponseText("@A.TOKEN@");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		dummyServlet.resetResponse();
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put("Range", "bytes=6-");
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js", requestHeaders);
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("206", response.get("responseCode"));
+		assertEquals("replacement", response.get("responseText"));
+		assertEquals("bytes 6-16/17", response.get("Content-Range"));
+		
+		requestHeaders.put("Range", "bytes=17-");
+		response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js", requestHeaders);
+		assertEquals("416", response.get("responseCode"));
+		assertEquals("bytes */17", response.get("Content-Range"));
+	}
+	
+	@Test
+	public void unversionedResponsesAreNotCached() throws Exception
+	{
+		dummyServlet.setResponseText("@A.TOKEN@");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/file.js");
+		
+		dummyServlet.setResponseText("new content @A.TOKEN@");
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/file.js");
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("new content token replacement", response.get("responseText"));
+	}
+	
+	@Test
+	public void cachedResponsesAreRegeneratedIfATokenValueChanges() throws Exception
+	{
+		appServer.stop();
+		appServer = createAndStartAppServer(dummyServlet, new TokenisingServletFilter(new JndiTokenFinder(mockJndiContext, 0)));
+		
+		dummyServlet.setResponseText("@A.TOKEN@");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement", "new token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		verify(mockJndiContext, times(3)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("new token replacement", response.get("responseText"));
+	}
+	
+	@Test
+	public void responseCachingCanBeDisabled() throws Exception
+	{
+		appServer.stop();
+		
+		Map<String,String> filterInitParams = new HashMap<String,String>();
+		filterInitParams.put("responseCacheSize", "0");
+		
+		appServer = createAndStartAppServer(dummyServlet, new TokenisingServletFilter(new JndiTokenFinder(mockJndiContext)), filterInitParams);
+		
+		dummyServlet.setResponseText("@A.TOKEN@");
+		when(mockJndiContext.lookup("java:comp/env/A.TOKEN")).thenReturn("token replacement");
+		makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		
+		dummyServlet.setResponseText("new content @A.TOKEN@");
+		Map<String, String> response = makeRequest("http://localhost:"+serverPort+"/v/123/file.js");
+		verify(mockJndiContext, times(1)).lookup("java:comp/env/A.TOKEN");
+		assertEquals("new content token replacement", response.get("responseText"));
+	}
+	
 }
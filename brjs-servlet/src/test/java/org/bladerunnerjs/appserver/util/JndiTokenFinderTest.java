@@ -83,4 +83,25 @@ public class JndiTokenFinderTest
 		verify(mockContext, times(1)).lookup("java:comp/env/EMPTY.TOKEN");
 	}
 
+	@Test
+	public void testTokenValuesAreCachedBetweenLookups() throws Exception
+	{
+		when(mockContext.lookup("java:comp/env/TEST.TOKEN")).thenReturn("token value");
+
+		assertEquals("token value", tokenFinder.findTokenValue("TEST.TOKEN"));
+		assertEquals("token value", tokenFinder.findTokenValue("TEST.TOKEN"));
+		verify(mockContext, times(1)).lookup("java:comp/env/TEST.TOKEN");
+	}
+
+	@Test
+	public void testTokenValuesAreLookedUpAgainOnceTheRefreshIntervalHasPassed() throws Exception
+	{
+		tokenFinder = new JndiTokenFinder(mockContext, 0);
+		when(mockContext.lookup("java:comp/env/TEST.TOKEN")).thenReturn("token value", "new token value");
+
+		assertEquals("token value", tokenFinder.findTokenValue("TEST.TOKEN"));
+		assertEquals("new token value", tokenFinder.findTokenValue("TEST.TOKEN"));
+		verify(mockContext, times(2)).lookup("java:comp/env/TEST.TOKEN");
+	}
+
 }
@@ -210,6 +210,33 @@ public class TokenReplacingReaderTest
 		, replacedContent);
 	}
 	
+	@Test
+	public void tokenStringsCanSpanTheBlocksTheSourceIsReadIn() throws Exception
+	{
+		for (int padLength : Arrays.asList(8188, 8189, 8190, 8191, 8192)) {
+			Reader tokenisingReader = new TokenReplacingReader( APP_NAME, mockTokenFinder, new StringReader(
+					StringUtils.leftPad("", padLength, "0")+"@A.TOKEN@@A.INVALID.token@")
+			);
+			String replacedContent = IOUtils.toString( tokenisingReader );
+			assertEquals( 
+					StringUtils.leftPad("", padLength, "0")+"token replacement@A.INVALID.token@"
+			, replacedContent);
+		}
+	}
+	
+	@Test
+	public void contentCanBeReadIntoBuffersSmallerThanATokenReplacement() throws Exception
+	{
+		Reader tokenisingReader = new TokenReplacingReader( APP_NAME, mockTokenFinder, new StringReader("some @A.TOKEN@ and @LONG.TOKEN.REPLACEMENT@ content") );
+		StringBuilder replacedContent = new StringBuilder();
+		char[] buffer = new char[3];
+		int charsRead;
+		while ((charsRead = tokenisingReader.read(buffer, 0, buffer.length)) != -1) {
+			replacedContent.append(buffer, 0, charsRead);
+		}
+		assertEquals("some token replacement and "+StringUtils.leftPad("", 5000, "0")+" content", replacedContent.toString());
+	}
+	
 	@Test
 	public void tokensAreReplacedInsideOfLargeContent() throws Exception
 	{
@@ -342,4 +369,21 @@ public class TokenReplacingReaderTest
 		verify(mockTokenFinder, times(1)).findTokenValue("A.TOKEN");
 	}
     
+    @Test
+	public void contentIsOnlyDetectedAsContainingTokensIfItContainsSomethingThatWouldBeReplaced() throws Exception
+	{
+		assertTrue( TokenReplacingReader.containsTokens("some content @A.TOKEN@ some more content") );
+		assertFalse( TokenReplacingReader.containsTokens("some content @a.token@ name@domain.com @@ some more content") );
+	}
+    
+    @Test
+	public void tokensWithNonAsciiUpperCaseCharactersAreDetectedAsWellAsReplaced() throws Exception
+	{
+		when(mockTokenFinder.findTokenValue("ÉTAT.TOKEN")).thenReturn("token replacement");
+		String content = "@ÉTAT.TOKEN@";
+		
+		assertTrue( TokenReplacingReader.containsTokens(content) );
+		assertEquals( "token replacement", IOUtils.toString(new TokenReplacingReader(APP_NAME, mockTokenFinder, new StringReader(content))) );
+	}
+    
 }
@@ -18,7 +18,6 @@ import org.bladerunnerjs.api.model.exception.RequirePathException;
 import org.bladerunnerjs.api.model.exception.request.ContentFileProcessingException;
 import org.bladerunnerjs.api.utility.RequirePathUtility;
 import org.bladerunnerjs.model.AssetContainer;
-import org.bladerunnerjs.utility.UnicodeReader;
 import org.bladerunnerjs.utility.XmlStreamReaderFactory;
 import org.bladerunnerjs.utility.stax.XmlStreamCursor;
 import org.codehaus.stax2.XMLStreamReader2;
@@ -54,9 +53,9 @@ public class AliasDefinitionsReader {
 		data.groupAliases = new LinkedHashMap<>();
 		
 		if(aliasDefinitionsFile.exists()) {
-			try(Reader fileReader = new UnicodeReader(aliasDefinitionsFile, defaultFileCharacterEncoding)) {
+			try(Reader fileReader = brjs.getSourceContentStore().getReader(aliasDefinitionsFile, defaultFileCharacterEncoding)) {
 				XMLValidationSchema schema;
-				if (usesLegacySchema(aliasDefinitionsFile, defaultFileCharacterEncoding)) {
+				if (usesLegacySchema(brjs, aliasDefinitionsFile, defaultFileCharacterEncoding)) {
 					schema = legacyAliasDefinitionsSchema;
 					if (!xmlnsWarningLogged(brjs, aliasDefinitionsFile)) {
 						 brjs.logger(AliasDefinitionsReader.class).warn(LEGACY_XMLNS_WARN_MSG, brjs.dir().getRelativePath(aliasDefinitionsFile));
@@ -0,0 +1,207 @@
+package org.bladerunnerjs.plugin.bundlers.aliasing;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bladerunnerjs.api.model.exception.request.ContentFileProcessingException;
+
+/**
+ * An immutable index of the aliases a bundlable node can use, mapping each alias name directly to its resolved {@link AliasDefinition}, with the
+ * scenario and group overrides of the active aliases file already applied. Any alias that can't be resolved because it is ambiguous has the
+ * exception that would have been thrown for it recorded instead.
+ */
+class AliasIndex
+{
+	private final AliasesFile bundlableNodeAliasesFile;
+	private final Map<String, AliasDefinition> aliasDefinitions = new HashMap<>();
+	private final Map<String, Exception> aliasFailures = new HashMap<>();
+
+	private AliasIndex(AliasesFile bundlableNodeAliasesFile) {
+		this.bundlableNodeAliasesFile = bundlableNodeAliasesFile;
+	}
+
+	public AliasDefinition resolveAlias(String aliasName) throws AliasException, ContentFileProcessingException {
+		AliasDefinition aliasDefinition = aliasDefinitions.get(aliasName);
+		if (aliasDefinition != null) {
+			return aliasDefinition;
+		}
+
+		Exception aliasFailure = aliasFailures.get(aliasName);
+		if (aliasFailure instanceof ContentFileProcessingException) {
+			throw (ContentFileProcessingException) aliasFailure;
+		}
+		if (aliasFailure instanceof AliasException) {
+			throw (AliasException) aliasFailure;
+		}
+		throw new UnresolvableAliasException(bundlableNodeAliasesFile, aliasName);
+	}
+
+	public static AliasIndex build(AliasesFile bundlableNodeAliasesFile, AliasesFile appAliasesFile, List<AliasDefinitionsFile> scopeAliasDefinitionFiles) throws ContentFileProcessingException {
+		AliasesFile activeAliasFile = (bundlableNodeAliasesFile.getUnderlyingFile().exists()) ? bundlableNodeAliasesFile : appAliasesFile;
+		String scenarioName = activeAliasFile.scenarioName();
+		List<String> groupNames = activeAliasFile.groupNames();
+
+		Map<String, AliasDefinition> definitions = new HashMap<>();
+		Map<String, Exception> definitionFailures = new HashMap<>();
+		Map<String, AliasOverride> groupOverrides = new HashMap<>();
+		Map<String, Exception> groupOverrideFailures = new HashMap<>();
+
+		for (AliasDefinitionsFile aliasDefinitionsFile : scopeAliasDefinitionFiles) {
+			addAliasDefinitions(aliasDefinitionsFile, activeAliasFile, scenarioName, definitions, definitionFailures);
+			addGroupOverrides(aliasDefinitionsFile, activeAliasFile, groupNames, groupOverrides, groupOverrideFailures);
+		}
+
+		Map<String, AliasOverride> bundlableNodeAliasOverrides = aliasOverrides(bundlableNodeAliasesFile);
+		Map<String, AliasOverride> appAliasOverrides = aliasOverrides(appAliasesFile);
+
+		Set<String> aliasNames = new LinkedHashSet<>();
+		aliasNames.addAll(definitions.keySet());
+		aliasNames.addAll(definitionFailures.keySet());
+		aliasNames.addAll(groupOverrides.keySet());
+		aliasNames.addAll(groupOverrideFailures.keySet());
+		aliasNames.addAll(bundlableNodeAliasOverrides.keySet());
+		aliasNames.addAll(appAliasOverrides.keySet());
+
+		AliasIndex aliasIndex = new AliasIndex(bundlableNodeAliasesFile);
+		for (String aliasName : aliasNames) {
+			// an ambiguous alias definition is reported in preference to an ambiguous group override, since it's the one that is looked for first
+			if (definitionFailures.containsKey(aliasName)) {
+				aliasIndex.aliasFailures.put(aliasName, definitionFailures.get(aliasName));
+				continue;
+			}
+			if (groupOverrideFailures.containsKey(aliasName)) {
+				aliasIndex.aliasFailures.put(aliasName, groupOverrideFailures.get(aliasName));
+				continue;
+			}
+
+			AliasDefinition aliasDefinition = definitions.get(aliasName);
+			AliasOverride activeAliasOverride = activeAliasOverride(aliasName, bundlableNodeAliasOverrides, groupOverrides, appAliasOverrides);
+
+			if (aliasDefinition == null && activeAliasOverride == null) {
+				continue;
+			}
+
+			if (aliasDefinition == null) {
+				aliasDefinition = new AliasDefinition(activeAliasOverride.getName(), activeAliasOverride.getClassName(), null);
+			}
+			else if (activeAliasOverride != null) {
+				aliasDefinition = new AliasDefinition(activeAliasOverride.getName(), activeAliasOverride.getClassName(), aliasDefinition.getInterfaceName());
+			}
+
+			if (aliasDefinition.getClassName() == null) {
+				aliasDefinition = new AliasDefinition(aliasDefinition.getName(), AliasingUtility.BR_UNKNOWN_CLASS_NAME, aliasDefinition.getInterfaceName());
+			}
+
+			aliasIndex.aliasDefinitions.put(aliasName, aliasDefinition);
+		}
+
+		return aliasIndex;
+	}
+
+
+	private static void addAliasDefinitions(AliasDefinitionsFile aliasDefinitionsFile, AliasesFile activeAliasFile, String scenarioName,
+		Map<String, AliasDefinition> definitions, Map<String, Exception> definitionFailures) throws ContentFileProcessingException
+	{
+		Map<String, AliasDefinition> fileDefinitions = new HashMap<>();
+
+		for (AliasDefinition aliasDefinition : aliasDefinitionsFile.aliases()) {
+			String aliasName = aliasDefinition.getName();
+			if (definitionFailures.containsKey(aliasName)) {
+				continue;
+			}
+
+			if (fileDefinitions.containsKey(aliasName)) {
+				definitionFailures.put(aliasName, new ContentFileProcessingException(aliasDefinitionsFile.getUnderlyingFile(),
+					new AmbiguousAliasException(aliasDefinitionsFile.getUnderlyingFile(), aliasName, scenarioName)));
+				continue;
+			}
+
+			if (scenarioName != null) {
+				AliasOverride scenarioAlias = aliasDefinitionsFile.scenarioAliases(aliasDefinition).get(scenarioName);
+				if (scenarioAlias != null) {
+					aliasDefinition = new AliasDefinition(aliasName, scenarioAlias.getClassName(), aliasDefinition.getInterfaceName());
+				}
+			}
+			fileDefinitions.put(aliasName, aliasDefinition);
+		}
+
+		for (AliasDefinition aliasDefinition : fileDefinitions.values()) {
+			String aliasName = aliasDefinition.getName();
+			if (definitionFailures.containsKey(aliasName)) {
+				continue;
+			}
+
+			if (definitions.containsKey(aliasName)) {
+				definitions.remove(aliasName);
+				definitionFailures.put(aliasName, new AmbiguousAliasException(activeAliasFile.getUnderlyingFile(), aliasName, scenarioName));
+			}
+			else {
+				definitions.put(aliasName, aliasDefinition);
+			}
+		}
+	}
+
+	private static void addGroupOverrides(AliasDefinitionsFile aliasDefinitionsFile, AliasesFile activeAliasFile, List<String> groupNames,
+		Map<String, AliasOverride> groupOverrides, Map<String, Exception> groupOverrideFailures) throws ContentFileProcessingException
+	{
+		Map<String, AliasOverride> fileGroupOverrides = new HashMap<>();
+
+		for (String groupName : groupNames) {
+			for (AliasOverride groupAlias : aliasDefinitionsFile.groupAliases(groupName)) {
+				String aliasName = groupAlias.getName();
+				if (groupOverrideFailures.containsKey(aliasName)) {
+					continue;
+				}
+
+				if (fileGroupOverrides.containsKey(aliasName)) {
+					groupOverrideFailures.put(aliasName, new AmbiguousAliasException(aliasDefinitionsFile.getUnderlyingFile(), aliasName, groupNames));
+				}
+				else {
+					fileGroupOverrides.put(aliasName, groupAlias);
+				}
+			}
+		}
+
+		for (AliasOverride groupAlias : fileGroupOverrides.values()) {
+			String aliasName = groupAlias.getName();
+			if (groupOverrideFailures.containsKey(aliasName)) {
+				continue;
+			}
+
+			if (groupOverrides.containsKey(aliasName)) {
+				groupOverrides.remove(aliasName);
+				groupOverrideFailures.put(aliasName, new AmbiguousAliasException(activeAliasFile.getUnderlyingFile(), aliasName, groupNames));
+			}
+			else {
+				groupOverrides.put(aliasName, groupAlias);
+			}
+		}
+	}
+
+	private static Map<String, AliasOverride> aliasOverrides(AliasesFile aliasesFile) throws ContentFileProcessingException {
+		Map<String, AliasOverride> aliasOverrides = new HashMap<>();
+		for (AliasOverride aliasOverride : aliasesFile.aliasOverrides()) {
+			// the first override for a name is the one that's used
+			if (!aliasOverrides.containsKey(aliasOverride.getName())) {
+				aliasOverrides.put(aliasOverride.getName(), aliasOverride);
+			}
+		}
+		return aliasOverrides;
+	}
+
+	private static AliasOverride activeAliasOverride(String aliasName, Map<String, AliasOverride> bundlableNodeAliasOverrides,
+		Map<String, AliasOverride> groupOverrides, Map<String, AliasOverride> appAliasOverrides)
+	{
+		if (bundlableNodeAliasOverrides.containsKey(aliasName)) {
+			return bundlableNodeAliasOverrides.get(aliasName);
+		}
+		if (groupOverrides.containsKey(aliasName)) {
+			return groupOverrides.get(aliasName);
+		}
+		return appAliasOverrides.get(aliasName);
+	}
+
+}
@@ -14,7 +14,6 @@ import javax.xml.stream.XMLStreamReader;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.model.exception.request.ContentFileProcessingException;
-import org.bladerunnerjs.utility.UnicodeReader;
 import org.bladerunnerjs.utility.XmlStreamReaderFactory;
 import org.codehaus.stax2.XMLStreamReader2;
 import org.codehaus.stax2.validation.XMLValidationSchema;
@@ -50,9 +49,9 @@ public class AliasesReader {
 		aliasesData.groupNames = new ArrayList<>();
 		
 		if(aliasesFile.exists()) {
-			try(Reader fileReader = new UnicodeReader(aliasesFile, defaultFileCharacterEncoding)) {
+			try(Reader fileReader = brjs.getSourceContentStore().getReader(aliasesFile, defaultFileCharacterEncoding)) {
 				XMLValidationSchema schema;
-				 if (usesLegacySchema(aliasesFile, defaultFileCharacterEncoding)) {
+				 if (usesLegacySchema(brjs, aliasesFile, defaultFileCharacterEncoding)) {
 					 schema = legacyAliasesSchema;
 					 if (!xmlnsWarningLogged(brjs, aliasesFile)) {
 						 brjs.logger(AliasesReader.class).warn(LEGACY_XMLNS_WARN_MSG, brjs.dir().getRelativePath(aliasesFile));
@@ -1,10 +1,14 @@
 package org.bladerunnerjs.plugin.bundlers.aliasing;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.LineIterator;
@@ -15,8 +19,8 @@ import org.bladerunnerjs.api.model.exception.request.ContentFileProcessingExcept
 import org.bladerunnerjs.model.AssetContainer;
 import org.bladerunnerjs.model.engine.Node;
 import org.bladerunnerjs.model.engine.NodeProperties;
-import org.bladerunnerjs.utility.UnicodeReader;
 import org.bladerunnerjs.api.App;
+import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.BundlableNode;
 
 public class AliasingUtility
@@ -24,11 +28,13 @@ public class AliasingUtility
 	
 	public static final String BR_UNKNOWN_CLASS_NAME = "br.UnknownClass";
 	
-	public static boolean usesLegacySchema(MemoizedFile aliaseFile, String defaultCharEncoding) throws IOException {
-		LineIterator it = IOUtils.lineIterator( new UnicodeReader(aliaseFile, defaultCharEncoding) );
-		for (int lineNumber = 0; it.hasNext() && lineNumber < 3; lineNumber++) {
-			if (it.nextLine().contains("schema.caplin.com")) {
-				return true;
+	public static boolean usesLegacySchema(BRJS brjs, MemoizedFile aliaseFile, String defaultCharEncoding) throws IOException {
+		try (Reader reader = brjs.getSourceContentStore().getReader(aliaseFile, defaultCharEncoding)) {
+			LineIterator it = IOUtils.lineIterator(reader);
+			for (int lineNumber = 0; it.hasNext() && lineNumber < 3; lineNumber++) {
+				if (it.nextLine().contains("schema.caplin.com")) {
+					return true;
+				}
 			}
 		}
 		return false;
@@ -54,17 +60,19 @@ public class AliasingUtility
 	@SuppressWarnings("unchecked")
 	static <OT extends Object> OT getNodeProperty(Node node, String propertyKey, Class<? extends OT> valueType, Getter<Exception> valueGetter) {
 		NodeProperties nodeProperties = node.nodeProperties(AliasingUtility.class.getSimpleName());
-		Object nodeProperty = nodeProperties.getTransientProperty(propertyKey);
-		if (nodeProperty != null && nodeProperty.getClass().isAssignableFrom(valueType)) {
-			return (OT) nodeProperty;
-		} else {
-			try {
-				nodeProperty = valueGetter.get();
-			} catch (Exception ex) {
-				throw new RuntimeException(ex);
-			}
+		Object nodeProperty = nodeProperties.getOrCreateTransientProperty(propertyKey, () -> createNodeProperty(valueGetter));
+		if (!nodeProperty.getClass().isAssignableFrom(valueType)) {
+			nodeProperty = createNodeProperty(valueGetter);
 			nodeProperties.setTransientProperty(propertyKey, nodeProperty);
-			return (OT) nodeProperty;
+		}
+		return (OT) nodeProperty;
+	}
+	
+	private static Object createNodeProperty(Getter<Exception> valueGetter) {
+		try {
+			return valueGetter.get();
+		} catch (Exception ex) {
+			throw new RuntimeException(ex);
 		}
 	}
 	
@@ -75,17 +83,13 @@ public class AliasingUtility
 		List<AliasDefinition> aliasDefinitionsOnlyFromBundlableNode = aliases(bundlableNode, aliasesFile(bundlableNode));
 		aliasDefinitions.addAll(aliasDefinitionsOnlyFromBundlableNode);
 		
-		List<AliasDefinition> aliasesFromAppAliases = aliases(bundlableNode, aliasesFile(bundlableNode.app()));
+		Set<String> bundlableNodeAliasNames = new HashSet<>();
+		for (AliasDefinition aliasFromBundlableNode : aliasDefinitionsOnlyFromBundlableNode) {
+			bundlableNodeAliasNames.add(aliasFromBundlableNode.getName());
+		}
 		
-		for (AliasDefinition alias : aliasesFromAppAliases) {
-			if (aliasDefinitionsOnlyFromBundlableNode.isEmpty()) {
-				aliasDefinitions.add(alias);
-				continue;
-			}
-			for (AliasDefinition aliasFromBundlableNode : aliasDefinitionsOnlyFromBundlableNode) {
-				if (aliasFromBundlableNode.getName().equals(alias.getName())) {
-					continue;
-				}
+		for (AliasDefinition alias : aliases(bundlableNode, aliasesFile(bundlableNode.app()))) {
+			if (!bundlableNodeAliasNames.contains(alias.getName())) {
 				aliasDefinitions.add(alias);
 			}
 		}
@@ -109,54 +113,28 @@ public class AliasingUtility
 	}
 	
 	public static AliasDefinition resolveAlias(String aliasName, BundlableNode bundlableNode) throws AliasException, ContentFileProcessingException {
-		AliasesFile bundlableNodeAliasesFile = aliasesFile(bundlableNode);
-		AliasesFile appAliasesFile = aliasesFile(bundlableNode.app());
-		
-		AliasDefinition aliasDefinition = aliasDefinitionsFileAlias(aliasName, bundlableNode, bundlableNodeAliasesFile, appAliasesFile);
-		AliasOverride activeAliasOverride = activeAliasOverride(aliasName, bundlableNode, bundlableNodeAliasesFile, appAliasesFile);
-		
-		if (aliasDefinition == null && activeAliasOverride == null) {
-			throw new UnresolvableAliasException(bundlableNodeAliasesFile, aliasName);
-		}
-		
-		if (aliasDefinition == null) {
-			aliasDefinition = new AliasDefinition(activeAliasOverride.getName(), activeAliasOverride.getClassName(), null);
-		}
-		else if (activeAliasOverride != null) {
-			aliasDefinition = new AliasDefinition(activeAliasOverride.getName(), activeAliasOverride.getClassName(), aliasDefinition.getInterfaceName());
-		}
-		
-		if (aliasDefinition.getClassName() == null) {
-			aliasDefinition = new AliasDefinition(aliasDefinition.getName(), BR_UNKNOWN_CLASS_NAME, aliasDefinition.getInterfaceName());
-		}
-		
-		return aliasDefinition;
+		return aliasIndex(bundlableNode).resolveAlias(aliasName);
 	}
 	
 	
 	/* Private Methods */
 	
-	private static AliasOverride activeAliasOverride(String aliasName, BundlableNode bundlableNode, AliasesFile bundlableNodeAliasesFile, AliasesFile appAliasesFile) throws ContentFileProcessingException, AmbiguousAliasException
-	{
-		AliasOverride bundlableNodeAliasOverride = aliasFileAliasOverride(aliasName, bundlableNodeAliasesFile);
-		AliasOverride bundlableNodeGroupAliasOverride = aliasFileGroupOverride(aliasName, bundlableNode, bundlableNodeAliasesFile, appAliasesFile);
-		
-		AliasOverride appAliasOverride = aliasFileAliasOverride(aliasName, appAliasesFile);
-		AliasOverride appGroupAliasOverride = aliasFileGroupOverride(aliasName, bundlableNode, bundlableNodeAliasesFile, appAliasesFile);
+	private static AliasIndex aliasIndex(BundlableNode bundlableNode) throws ContentFileProcessingException {
+		AliasesFile bundlableNodeAliasesFile = aliasesFile(bundlableNode);
+		AliasesFile appAliasesFile = aliasesFile(bundlableNode.app());
+		List<AliasDefinitionsFile> scopeAliasDefinitionFiles = scopeAliasDefinitionFiles(bundlableNode);
 		
-		if (bundlableNodeAliasOverride != null) {
-			return bundlableNodeAliasOverride;
-		}
-		if (bundlableNodeGroupAliasOverride != null) {
-			return bundlableNodeGroupAliasOverride; 
-		}
-		if (appAliasOverride != null) {
-			return appAliasOverride;
+		// the index only watches the alias files themselves, so it's replaced whenever an aliasDefinitions.xml is added to or removed from the scope
+		NodeProperties nodeProperties = bundlableNode.nodeProperties(AliasingUtility.class.getSimpleName());
+		MemoizedAliasIndex memoizedAliasIndex = (MemoizedAliasIndex) nodeProperties.getTransientProperty(MemoizedAliasIndex.class.getSimpleName());
+		if (memoizedAliasIndex == null || !memoizedAliasIndex.scopeAliasDefinitionFiles.equals(scopeAliasDefinitionFiles)) {
+			memoizedAliasIndex = new MemoizedAliasIndex(bundlableNode, bundlableNodeAliasesFile, appAliasesFile, scopeAliasDefinitionFiles);
+			nodeProperties.setTransientProperty(MemoizedAliasIndex.class.getSimpleName(), memoizedAliasIndex);
 		}
-		if (appGroupAliasOverride != null) {
-			return appGroupAliasOverride; 
-		}
-		return null;
+		
+		return memoizedAliasIndex.aliasIndex.value(() -> {
+			return AliasIndex.build(bundlableNodeAliasesFile, appAliasesFile, scopeAliasDefinitionFiles);
+		});
 	}
 
 	@SuppressWarnings("unchecked")
@@ -202,58 +180,6 @@ public class AliasingUtility
 		return aliasDefinitions;
 	}
 	
-	private static AliasOverride aliasFileAliasOverride(String aliasName, AliasesFile aliasesFile) throws ContentFileProcessingException {
-		AliasOverride aliasOverride = null;
-		
-		for(AliasOverride nextAliasOverride : aliasesFile.aliasOverrides()) {
-			if(nextAliasOverride.getName().equals(aliasName)) {
-				aliasOverride = nextAliasOverride;
-				break;
-			}
-		}
-		
-		return aliasOverride;
-	}
-	
-	private static AliasOverride aliasFileGroupOverride(String aliasName, BundlableNode bundlableNode, AliasesFile bundlableNodeAliasesFile, AliasesFile appAliasesFile) throws ContentFileProcessingException, AmbiguousAliasException {
-		AliasesFile activeAliasFile = activeAliasesFile(bundlableNodeAliasesFile, appAliasesFile);
-		List<String> groupNames = activeAliasFile.groupNames();
-		
-		AliasOverride aliasOverride = null;
-		for(AliasDefinitionsFile aliasDefinitionsFile : AliasingUtility.scopeAliasDefinitionFiles(bundlableNode)) {
-			AliasOverride nextAliasOverride = aliasDefinitionsFile.getGroupOverride(aliasName, groupNames);
-			if(aliasOverride != null && nextAliasOverride != null) {
-				throw new AmbiguousAliasException(activeAliasFile.getUnderlyingFile(), aliasName, groupNames);
-			}
-			
-			if (nextAliasOverride != null) {
-				aliasOverride = nextAliasOverride;
-			}
-		}
-		
-		return aliasOverride;
-	}
-	
-	private static AliasDefinition aliasDefinitionsFileAlias(String aliasName, BundlableNode bundlableNode, AliasesFile bundlableNodeAliasesFile, AliasesFile appAliasesFile) throws ContentFileProcessingException, AliasException {
-		AliasesFile activeAliasFile = activeAliasesFile(bundlableNodeAliasesFile, appAliasesFile);
-		String scenarioName = activeAliasFile.scenarioName();
-		List<String> groupNames = activeAliasFile.groupNames();
-		
-		AliasDefinition aliasDefinition = null;
-		for(AliasDefinitionsFile aliasDefinitionsFile : scopeAliasDefinitionFiles(bundlableNode)) {
-			AliasDefinition nextAliasDefinition = aliasDefinitionsFile.getAliasDefinition(aliasName, scenarioName, groupNames);
-			
-			if (nextAliasDefinition != null) {    			
-    			if (aliasDefinition != null && nextAliasDefinition != null) {
-    				throw new AmbiguousAliasException(activeAliasFile.getUnderlyingFile(), aliasName, scenarioName);
-    			}
-				aliasDefinition = nextAliasDefinition;
-			}
-		}
-		
-		return aliasDefinition;
-	}
-	
 	private static List<AliasDefinitionsFile> scopeAliasDefinitionFiles(BundlableNode bundlableNode) {
 		List<AliasDefinitionsFile> scopeAliasDefinitions = new ArrayList<>();
 		for (AssetContainer scopeAssetContainer : bundlableNode.scopeAssetContainers()) {
@@ -262,8 +188,21 @@ public class AliasingUtility
 		return scopeAliasDefinitions;
 	}
 	
-	private static AliasesFile activeAliasesFile(AliasesFile bundlableNodeAliasesFile, AliasesFile appAliasesFile) throws ContentFileProcessingException {
-		return (bundlableNodeAliasesFile.getUnderlyingFile().exists()) ? bundlableNodeAliasesFile : appAliasesFile;
+	private static class MemoizedAliasIndex {
+		private final List<AliasDefinitionsFile> scopeAliasDefinitionFiles;
+		private final MemoizedValue<AliasIndex> aliasIndex;
+		
+		public MemoizedAliasIndex(BundlableNode bundlableNode, AliasesFile bundlableNodeAliasesFile, AliasesFile appAliasesFile, List<AliasDefinitionsFile> scopeAliasDefinitionFiles) {
+			this.scopeAliasDefinitionFiles = scopeAliasDefinitionFiles;
+			
+			List<File> aliasFiles = new ArrayList<>();
+			aliasFiles.add(bundlableNodeAliasesFile.getUnderlyingFile());
+			aliasFiles.add(appAliasesFile.getUnderlyingFile());
+			for (AliasDefinitionsFile aliasDefinitionsFile : scopeAliasDefinitionFiles) {
+				aliasFiles.add(aliasDefinitionsFile.getUnderlyingFile());
+			}
+			aliasIndex = new MemoizedValue<>(bundlableNode.requirePrefix()+".aliasIndex", bundlableNode.root(), aliasFiles);
+		}
 	}
 	
 }
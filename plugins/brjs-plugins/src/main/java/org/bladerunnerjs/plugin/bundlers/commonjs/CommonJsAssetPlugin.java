@@ -9,11 +9,12 @@ import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.SourceModule;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.plugin.AssetRegistry;
+import org.bladerunnerjs.api.plugin.DirectoryAssetPlugin;
 import org.bladerunnerjs.api.plugin.base.AbstractAssetPlugin;
 import org.bladerunnerjs.model.AssetContainer;
 
 
-public class CommonJsAssetPlugin extends AbstractAssetPlugin
+public class CommonJsAssetPlugin extends AbstractAssetPlugin implements DirectoryAssetPlugin
 {
 	private FileFilter jsFileFilter = new SuffixFileFilter(".js"); 
 	
@@ -103,6 +103,13 @@ public class CommonJsContentPlugin extends AbstractContentPlugin implements Comp
 		return requestPaths;
 	}
 	
+	@Override
+	public List<String> getValidProdModuleContentPaths(BundleSet bundleSet, Locale... locales) throws ContentProcessingException
+	{
+		// the bundle is just each of the modules in turn
+		return getValidContentPaths(bundleSet, RequestMode.Dev, locales);
+	}
+	
 	@Override
 	public ResponseContent handleRequest(String contentPath, BundleSet bundleSet, UrlContentAccessor output, String version) throws MalformedRequestException, ContentProcessingException
 	{
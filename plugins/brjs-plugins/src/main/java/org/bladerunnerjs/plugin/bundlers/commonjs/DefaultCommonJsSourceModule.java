@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.bladerunnerjs.api.Asset;
@@ -13,6 +15,7 @@ import org.bladerunnerjs.api.BundlableNode;
 import org.bladerunnerjs.api.memoization.Getter;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.memoization.MemoizedValue;
+import org.bladerunnerjs.api.memoization.PersistentDependencyCache;
 import org.bladerunnerjs.api.model.exception.AmbiguousRequirePathException;
 import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.api.model.exception.ModelOperationException;
@@ -21,7 +24,7 @@ import org.bladerunnerjs.api.model.exception.UnresolvableRequirePathException;
 import org.bladerunnerjs.api.utility.RequirePathUtility;
 import org.bladerunnerjs.model.AssetContainer;
 import org.bladerunnerjs.model.SourceModulePatch;
-import org.bladerunnerjs.utility.UnicodeReader;
+import org.bladerunnerjs.utility.reader.JsCodeBlockDependenciesSplitter;
 
 import com.Ostermiller.util.ConcatReader;
 
@@ -77,7 +80,7 @@ public class DefaultCommonJsSourceModule implements CommonJsSourceModule {
 		try
 		{
 			String defaultFileCharacterEncoding = assetContainer.root().bladerunnerConf().getDefaultFileCharacterEncoding();
-			Reader assetReader = new UnicodeReader(assetFile, defaultFileCharacterEncoding);
+			Reader assetReader = assetContainer.root().getSourceContentStore().getReader(assetFile, defaultFileCharacterEncoding);
 			if (patch.patchAvailable()){
 				return new ConcatReader( new Reader[] { assetReader, patch.getReader() });
 			} else {
@@ -145,37 +148,51 @@ public class DefaultCommonJsSourceModule implements CommonJsSourceModule {
 	}
 
 	private ComputedValue getComputedValue() throws ModelOperationException {
-		DefaultCommonJsSourceModule sourceModule = this;
 		return computedValue.value(new Getter<ModelOperationException>() {
 			@Override
 			public Object get() throws ModelOperationException {
 				ComputedValue computedValue = new ComputedValue();
+				PersistentDependencyCache.Lookup cachedDependencies = lookupCachedDependencies();
+				if (cachedDependencies.isHit()) {
+					computedValue.preExportDefineTimeRequirePaths.addAll( cachedDependencies.getValues("preExportDefineTimeRequirePaths") );
+					computedValue.postExportDefineTimeRequirePaths.addAll( cachedDependencies.getValues("postExportDefineTimeRequirePaths") );
+					computedValue.useTimeRequirePaths.addAll( cachedDependencies.getValues("useTimeRequirePaths") );
+					computedValue.aliases.addAll( cachedDependencies.getValues("aliases") );
+					return computedValue;
+				}
 
 				try {
-					try(Reader reader = new CommonJsPreExportDefineTimeDependenciesReader(sourceModule))
-					{
-						RequirePathUtility.addRequirePathsFromReader(reader, computedValue.preExportDefineTimeRequirePaths, computedValue.aliases);
-					}
-
-					try(Reader reader = new CommonJsPostExportDefineTimeDependenciesReader(sourceModule))
-					{
-						RequirePathUtility.addRequirePathsFromReader(reader, computedValue.postExportDefineTimeRequirePaths, computedValue.aliases);
-					}
-
-					try(Reader reader = new CommonJsUseTimeDependenciesReader(sourceModule))
-					{
-						RequirePathUtility.addRequirePathsFromReader(reader, computedValue.useTimeRequirePaths, computedValue.aliases);
-					}
+					JsCodeBlockDependenciesSplitter dependenciesSplitter = JsCodeBlockDependenciesSplitter.split(assetContainer.root(), getUnalteredContentReader());
+					RequirePathUtility.addRequirePaths(dependenciesSplitter.getPreExportDefineTimeContent(), computedValue.preExportDefineTimeRequirePaths, computedValue.aliases);
+					RequirePathUtility.addRequirePaths(dependenciesSplitter.getPostExportDefineTimeContent(), computedValue.postExportDefineTimeRequirePaths, computedValue.aliases);
+					RequirePathUtility.addRequirePaths(dependenciesSplitter.getUseTimeContent(), computedValue.useTimeRequirePaths, computedValue.aliases);
 				}
 				catch(IOException e) {
 					throw new ModelOperationException(e);
 				}
 
+				Map<String, List<String>> cachedValues = new LinkedHashMap<>();
+				cachedValues.put("preExportDefineTimeRequirePaths", new ArrayList<>(computedValue.preExportDefineTimeRequirePaths));
+				cachedValues.put("postExportDefineTimeRequirePaths", new ArrayList<>(computedValue.postExportDefineTimeRequirePaths));
+				cachedValues.put("useTimeRequirePaths", new ArrayList<>(computedValue.useTimeRequirePaths));
+				cachedValues.put("aliases", computedValue.aliases);
+				cachedDependencies.store(cachedValues);
+
 				return computedValue;
 			}
 		});
 	}
 
+	private PersistentDependencyCache.Lookup lookupCachedDependencies() throws ModelOperationException {
+		try {
+			String cacheVersion = assetContainer.root().bladerunnerConf().getDefaultFileCharacterEncoding() + ":" + patch.patchAvailable();
+			return assetContainer.root().getDependencyCache().lookup("commonjs:" + assetFile.getAbsolutePath(), cacheVersion, assetFile, patch.getPatchFile());
+		}
+		catch (ConfigException ex) {
+			throw new ModelOperationException(ex);
+		}
+	}
+
 	private List<Asset> getSourceModulesForRequirePaths(BundlableNode bundlableNode, Set<String> requirePaths) throws ModelOperationException {
 		try {
 			return bundlableNode.assets( this, new ArrayList<>(requirePaths) );
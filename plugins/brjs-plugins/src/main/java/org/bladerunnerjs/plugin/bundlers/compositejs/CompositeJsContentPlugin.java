@@ -86,8 +86,9 @@ public class CompositeJsContentPlugin extends AbstractContentPlugin implements R
 			MinifierPlugin minifierPlugin = brjs.plugins().minifierPlugin(minifierSetting);
 			
 			RequestMode requestMode = (parsedContentPath.formName.equals(PROD_BUNDLE_REQUEST)) ? RequestMode.Prod : RequestMode.Dev;
+			boolean perModuleInputSources = minifierPlugin.minifiesInputSourcesIndependently(minifierSetting);
 			
-			List<InputSource> inputSources = getInputSourcesFromOtherBundlers(requestMode, parsedContentPath, bundleSet, contentAccessor, version);
+			List<InputSource> inputSources = getInputSourcesFromOtherBundlers(requestMode, perModuleInputSources, parsedContentPath, bundleSet, contentAccessor, version);
 			ResponseContent content = new CharResponseContent( bundleSet.bundlableNode().root(), minifierPlugin.minify(minifierSetting, inputSources) );
 			
 			return content;
@@ -103,11 +104,12 @@ public class CompositeJsContentPlugin extends AbstractContentPlugin implements R
 		return false;
 	}
 	
-	private List<InputSource> getInputSourcesFromOtherBundlers(RequestMode requestMode, ParsedContentPath contentPath, BundleSet bundleSet, UrlContentAccessor contentAccessor, String version) throws ContentProcessingException {
+	private List<InputSource> getInputSourcesFromOtherBundlers(RequestMode requestMode, boolean perModuleInputSources, ParsedContentPath contentPath, BundleSet bundleSet, UrlContentAccessor contentAccessor, String version) throws ContentProcessingException {
 		List<InputSource> inputSources = new ArrayList<>();
 		
 		for(ContentPlugin contentPlugin : brjs.plugins().contentPlugins("text/javascript")) {
-			List<String> requestPaths = contentPlugin.getValidContentPaths(bundleSet, requestMode);
+			// the dev content paths are already at source module granularity, but the prod ones need splitting up for minifiers that minify each module independently
+			List<String> requestPaths = (perModuleInputSources && requestMode == RequestMode.Prod) ? contentPlugin.getValidProdModuleContentPaths(bundleSet) : contentPlugin.getValidContentPaths(bundleSet, requestMode);
 			
 			for(String requestPath : requestPaths) {
 				inputSources.add( new InputSource(requestPath, contentPlugin, bundleSet, contentAccessor, version) );
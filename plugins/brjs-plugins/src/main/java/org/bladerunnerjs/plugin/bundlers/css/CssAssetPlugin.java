@@ -8,11 +8,12 @@ import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.plugin.AssetRegistry;
+import org.bladerunnerjs.api.plugin.DirectoryAssetPlugin;
 import org.bladerunnerjs.api.plugin.base.AbstractAssetPlugin;
 import org.bladerunnerjs.model.AssetContainer;
 import org.bladerunnerjs.model.FileAsset;
 
-public class CssAssetPlugin extends AbstractAssetPlugin {
+public class CssAssetPlugin extends AbstractAssetPlugin implements DirectoryAssetPlugin {
 	
 	private FileFilter cssFileFilter = new SuffixFileFilter(".css");
 	
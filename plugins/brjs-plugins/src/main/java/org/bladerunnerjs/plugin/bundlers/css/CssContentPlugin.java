@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bladerunnerjs.api.Asset;
@@ -107,17 +108,18 @@ public class CssContentPlugin extends AbstractContentPlugin implements RoutableC
 		String countryCode = parsedContentPath.properties.get("countryCode");
 		Locale locale = new Locale(languageCode, countryCode);
 
+		Pattern localeFilePattern = Pattern.compile(locale.getLocaleFilePattern(".*_", ".css"));
 		List<Reader> readerList = new ArrayList<Reader>();
 		
+		// each stylesheet's segment is only rewritten when it or the images it refers to change, so the bundle is assembled from cached strings
 		for(Asset cssAsset : getCssAssets(bundleSet)) {
 			String assetThemeName = getThemeName(cssAsset);
 			
-			if(assetThemeName.equals(theme) && cssAsset.getAssetName().matches(locale.getLocaleFilePattern(".*_", ".css"))) {
+			if(assetThemeName.equals(theme) && localeFilePattern.matcher(cssAsset.getAssetName()).matches()) {
 				CssRewriter processor = new CssRewriter(brjs, cssAsset);
 				
 				try {
-					String css = processor.getRewrittenFileContents();
-					readerList.add(new StringReader("\n\n\n/*** " + cssAsset.getAssetPath() + " ***/\n\n" + css));
+					readerList.add(new StringReader(processor.getBundleSegment()));
 				} catch (IOException e) {
 					throw new ContentProcessingException(e);
 				}
@@ -2,46 +2,78 @@ package org.bladerunnerjs.plugin.bundlers.css;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.IOUtils;
 import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.BRJS;
+import org.bladerunnerjs.api.memoization.FileModificationRegistry;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.model.exception.request.ContentProcessingException;
+import org.bladerunnerjs.model.engine.NodeProperties;
 import org.eclipse.jetty.util.URIUtil;
 
+/**
+ * Rewrites the relative image URLs within a CSS asset so that they point at the 'cssresource' bundle requests for those images.
+ *
+ * The rewritten content of each asset is kept until either the asset or one of the images it refers to changes version, or the asset is no
+ * longer part of its container, so CSS bundles only need to re-read and re-scan the stylesheets that have changed.
+ */
 public class CssRewriter {
-	
 
-	private static final String URL_PATTERN_START = "(url[\\s]*\\([\\s]*['\"]?|src=')"; // start of the pattern - matches an optional ( followed by an optional ' or ",
-	private static final String URL_PATTERN_END = "(['\"]?[\\s]*\\)|['\"])"; // end of the pattern - matches an optional ' or " followed by a ), or just an optional ' or "
-	private static final String PRE_PATTERN_NEGATIVE_LOOKAHEADS = 
-			"(?!['\"])" + // prevent matching a ' or " at the start of the URL (needed because the " and ' in the above regex are optional
-			"(?![a-zA-Z]+://)" +	// prevent matching URLs with protocols		
-			"(?!/)" +	// prevent matching urls starting with a /
-			"(?!data:[-+\\w]+/[-+\\w]+;)"; 	// prevent matching URLs in the format of a data URI
-	private static final Pattern URL_PATTERN = Pattern.compile(URL_PATTERN_START+PRE_PATTERN_NEGATIVE_LOOKAHEADS+"(.*?)"+URL_PATTERN_END, Pattern.CASE_INSENSITIVE);
 	private static final char[] postPathSymbols = new char[] { '?', '#' };
-	
+
+	private final BRJS brjs;
 	private final Asset cssAsset;
-	private final TargetPathCreator targetPathCreator;
-	
+	private TargetPathCreator targetPathCreator;
+
 	public CssRewriter(BRJS brjs, Asset cssAsset) {
+		this.brjs = brjs;
 		this.cssAsset = cssAsset;
-		targetPathCreator = new TargetPathCreator(brjs);
 	}
-	
+
 	public String getRewrittenFileContents() throws IOException, ContentProcessingException {
+		return getRewrittenCss().getContents();
+	}
+
+	/**
+	 * The rewritten content of the asset preceded by the comment that introduces it within a CSS bundle.
+	 */
+	String getBundleSegment() throws IOException, ContentProcessingException {
+		return getRewrittenCss().getBundleSegment();
+	}
+
+	public String rewriteCss(MemoizedFile cssBasePath, final CharSequence input) throws ContentProcessingException {
+		return rewriteCss(cssBasePath, input, new ArrayList<MemoizedFile>());
+	}
+
+	private RewrittenCss getRewrittenCss() throws IOException, ContentProcessingException {
+		FileModificationRegistry fileModificationRegistry = brjs.getFileModificationRegistry();
+		Map<Asset, RewrittenCss> rewrittenCssCache = rewrittenCssCache();
+		RewrittenCss rewrittenCss = rewrittenCssCache.get(cssAsset);
+		if (rewrittenCss != null && rewrittenCss.isUpToDate(fileModificationRegistry)) {
+			return rewrittenCss;
+		}
+
 		try {
+			// the versions are read before the files are so that any change made while the CSS is being rewritten causes it to be rewritten again
+			long cssFileVersion = fileModificationRegistry.getFileVersion(cssAsset.file());
 			String unprocessedCss = "";
-			
+
 			try (Reader fileReader = cssAsset.getReader()) {
 				unprocessedCss = IOUtils.toString(fileReader);
 			}
-			
-			return rewriteCss(cssAsset.file().getParentFile(), unprocessedCss);
+
+			List<MemoizedFile> imageFiles = new ArrayList<>();
+			String css = rewriteCss(cssAsset.file().getParentFile(), unprocessedCss, imageFiles);
+			rewrittenCss = new RewrittenCss(cssAsset, cssFileVersion, imageFiles, css, fileModificationRegistry);
+			rewrittenCssCache.put(cssAsset, rewrittenCss);
+			// assets are re-created whenever asset discovery re-runs, so drop the entries for any the container no longer has
+			rewrittenCssCache.keySet().retainAll(cssAsset.assetContainer().assets());
+			return rewrittenCss;
 		}
 		catch (CssImageReferenceException cssImageReferenceException) {
 			cssImageReferenceException.setCssFileContainingImageReference(cssAsset.getAssetPath());
@@ -50,32 +82,27 @@ public class CssRewriter {
 		catch (Exception e) {
 			throw new ContentProcessingException(e, "Error while bundling asset '" + cssAsset.getAssetPath() + "'.");
 		}
-	}	
-	
-	public String rewriteCss(MemoizedFile cssBasePath, final CharSequence input) throws ContentProcessingException {
-		Matcher urlMatcher = URL_PATTERN.matcher(input);
-		StringBuffer css = new StringBuffer();
-		
-		while (urlMatcher.find()) {
-			String urlPrefix = urlMatcher.group(1);
-			String relativePath = urlMatcher.group(2);
-			String urlSuffix = urlMatcher.group(3);
-		
-			
-			String parsedUrl = parseUrl(cssBasePath, relativePath);
-			String replacement = urlPrefix + parsedUrl + urlSuffix;
-			
-			replacement = replacement.replaceAll("\\$","\\\\\\$");
-			urlMatcher.appendReplacement(css, replacement);
-		}
-		urlMatcher.appendTail(css);
-		
-		return css.toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Asset, RewrittenCss> rewrittenCssCache() {
+		NodeProperties nodeProperties = cssAsset.assetContainer().nodeProperties(CssRewriter.class.getSimpleName());
+		return (Map<Asset, RewrittenCss>) nodeProperties.getOrCreateTransientProperty(RewrittenCss.class.getSimpleName(), () -> new ConcurrentHashMap<>());
+	}
+
+	/*
+	 * Finds each 'url(...)' and "src='...'" reference in a single pass over the CSS, matching exactly what the following regular expression
+	 * used to match, but without the backtracking its optional quotes and lazy path group needed:
+	 *
+	 *   (url\s*\(\s*['"]?|src=')(?!['"])(?![a-zA-Z]+://)(?!/)(?!data:[-+\w]+/[-+\w]+;)(.*?)(['"]?\s*\)|['"])
+	 */
+	private String rewriteCss(MemoizedFile cssBasePath, CharSequence input, List<MemoizedFile> imageFiles) throws ContentProcessingException {
+		return new UrlScanner(cssBasePath, input, imageFiles).rewrite();
 	}
 	
-	private String parseUrl(MemoizedFile cssBasePath, String relativePath) throws ContentProcessingException {
+	private String parseUrl(MemoizedFile cssBasePath, String relativePath, List<MemoizedFile> imageFiles) throws ContentProcessingException {
 		String ending = "";
-		
+
 		for (char postPathSymbol : postPathSymbols) {
 			if (relativePath.contains(Character.toString(postPathSymbol))) {
 				int index = relativePath.indexOf(postPathSymbol);
@@ -84,11 +111,245 @@ public class CssRewriter {
 				break;
 			}
 		}
-		
+
 		MemoizedFile imageFile = cssBasePath.file(relativePath);
+		imageFiles.add(imageFile);
+		if (targetPathCreator == null) {
+			targetPathCreator = new TargetPathCreator(brjs);
+		}
 		String targetPath = targetPathCreator.getRelativeBundleRequestForImage(imageFile);
 		targetPath = URIUtil.encodePath(targetPath);
 		return targetPath + ending;
 	}
-	
+
+	private static boolean isRelativePath(CharSequence input, int pathStart) {
+		if (pathStart < input.length()) {
+			char c = input.charAt(pathStart);
+			if (isQuote(c) || c == '/') {
+				return false;
+			}
+		}
+		return !hasProtocol(input, pathStart) && !isDataUri(input, pathStart);
+	}
+
+	private static boolean hasProtocol(CharSequence input, int position) {
+		int protocolEnd = position;
+		while (protocolEnd < input.length() && isAsciiLetter(input.charAt(protocolEnd))) {
+			protocolEnd++;
+		}
+		return protocolEnd > position && regionMatchesIgnoreCase(input, protocolEnd, "://");
+	}
+
+	private static boolean isDataUri(CharSequence input, int position) {
+		if (!regionMatchesIgnoreCase(input, position, "data:")) {
+			return false;
+		}
+
+		int typeEnd = skipMimeTypeCharacters(input, position + 5);
+		if (typeEnd == position + 5 || typeEnd == input.length() || input.charAt(typeEnd) != '/') {
+			return false;
+		}
+		int subtypeEnd = skipMimeTypeCharacters(input, typeEnd + 1);
+		return subtypeEnd > typeEnd + 1 && subtypeEnd < input.length() && input.charAt(subtypeEnd) == ';';
+	}
+
+	private static int skipMimeTypeCharacters(CharSequence input, int position) {
+		while (position < input.length()) {
+			char c = input.charAt(position);
+			if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '_' && c != '-' && c != '+') {
+				break;
+			}
+			position++;
+		}
+		return position;
+	}
+
+	private static int skipWhitespace(CharSequence input, int position) {
+		while (position < input.length() && isWhitespace(input.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	private static boolean regionMatchesIgnoreCase(CharSequence input, int position, String region) {
+		if (position + region.length() > input.length()) {
+			return false;
+		}
+		for (int i = 0; i < region.length(); i++) {
+			char c = input.charAt(position + i);
+			if (((c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c) != region.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isQuote(char c) {
+		return c == '\'' || c == '"';
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	private static boolean isAsciiLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+
+	private class UrlScanner {
+		private final MemoizedFile cssBasePath;
+		private final CharSequence input;
+		private final List<MemoizedFile> imageFiles;
+		private final StringBuilder css;
+		private int copiedTo = 0;
+		// a path that starts within this range can't be terminated before the end of its line, as a previous path starting earlier wasn't
+		private int unterminatedPathsFrom = -1;
+		private int unterminatedPathsTo = -1;
+
+		UrlScanner(MemoizedFile cssBasePath, CharSequence input, List<MemoizedFile> imageFiles) {
+			this.cssBasePath = cssBasePath;
+			this.input = input;
+			this.imageFiles = imageFiles;
+			css = new StringBuilder(input.length() + 256);
+		}
+
+		String rewrite() throws ContentProcessingException {
+			int length = input.length();
+			int position = 0;
+
+			while (position < length) {
+				char c = input.charAt(position);
+				int urlEnd = -1;
+
+				if ((c == 'u' || c == 'U') && regionMatchesIgnoreCase(input, position, "url")) {
+					urlEnd = rewriteUrlFunction(position);
+				}
+				else if ((c == 's' || c == 'S') && regionMatchesIgnoreCase(input, position, "src='")) {
+					urlEnd = rewriteUrl(position + 5);
+				}
+
+				if (urlEnd == -1) {
+					position++;
+				}
+				else {
+					position = urlEnd;
+				}
+			}
+			css.append(input, copiedTo, length);
+
+			return css.toString();
+		}
+
+		private int rewriteUrlFunction(int position) throws ContentProcessingException {
+			int openingBracket = skipWhitespace(input, position + 3);
+			if (openingBracket == input.length() || input.charAt(openingBracket) != '(') {
+				return -1;
+			}
+
+			int whitespaceStart = openingBracket + 1;
+			int whitespaceEnd = skipWhitespace(input, whitespaceStart);
+			if (whitespaceEnd < input.length() && isQuote(input.charAt(whitespaceEnd))) {
+				int urlEnd = rewriteUrl(whitespaceEnd + 1);
+				if (urlEnd != -1) {
+					return urlEnd;
+				}
+			}
+
+			// where the regular expression would have backtracked, the path is instead allowed to start with the whitespace before it
+			for (int pathStart = whitespaceEnd; pathStart >= whitespaceStart; pathStart--) {
+				int urlEnd = rewriteUrl(pathStart);
+				if (urlEnd != -1) {
+					return urlEnd;
+				}
+			}
+			return -1;
+		}
+
+		private int rewriteUrl(int pathStart) throws ContentProcessingException {
+			if (!isRelativePath(input, pathStart) || (pathStart >= unterminatedPathsFrom && pathStart <= unterminatedPathsTo)) {
+				return -1;
+			}
+
+			int length = input.length();
+			int pathEnd = pathStart;
+			for (; pathEnd < length; pathEnd++) {
+				char c = input.charAt(pathEnd);
+				int suffixEnd = -1;
+
+				if (isQuote(c)) {
+					int closingBracket = skipWhitespace(input, pathEnd + 1);
+					suffixEnd = (closingBracket < length && input.charAt(closingBracket) == ')') ? closingBracket + 1 : pathEnd + 1;
+				}
+				else if (c == ')' || isWhitespace(c)) {
+					int closingBracket = skipWhitespace(input, pathEnd);
+					if (closingBracket < length && input.charAt(closingBracket) == ')') {
+						suffixEnd = closingBracket + 1;
+					}
+				}
+
+				if (suffixEnd != -1) {
+					css.append(input, copiedTo, pathStart);
+					css.append(parseUrl(cssBasePath, input.subSequence(pathStart, pathEnd).toString(), imageFiles));
+					css.append(input, pathEnd, suffixEnd);
+					copiedTo = suffixEnd;
+					return suffixEnd;
+				}
+				if (isLineTerminator(c)) {
+					break;
+				}
+			}
+
+			unterminatedPathsFrom = pathStart;
+			unterminatedPathsTo = pathEnd;
+			return -1;
+		}
+	}
+
+	private static class RewrittenCss {
+		private final long cssFileVersion;
+		private final MemoizedFile cssFile;
+		private final MemoizedFile[] imageFiles;
+		private final long[] imageFileVersions;
+		private final String contents;
+		private final String bundleSegment;
+
+		RewrittenCss(Asset cssAsset, long cssFileVersion, List<MemoizedFile> imageFiles, String contents, FileModificationRegistry fileModificationRegistry) {
+			this.cssFile = cssAsset.file();
+			this.cssFileVersion = cssFileVersion;
+			this.imageFiles = imageFiles.toArray(new MemoizedFile[imageFiles.size()]);
+			this.contents = contents;
+			bundleSegment = "\n\n\n/*** " + cssAsset.getAssetPath() + " ***/\n\n" + contents;
+
+			imageFileVersions = new long[this.imageFiles.length];
+			for (int i = 0; i < this.imageFiles.length; i++) {
+				imageFileVersions[i] = fileModificationRegistry.getFileVersion(this.imageFiles[i]);
+			}
+		}
+
+		boolean isUpToDate(FileModificationRegistry fileModificationRegistry) {
+			if (fileModificationRegistry.getFileVersion(cssFile) != cssFileVersion) {
+				return false;
+			}
+			for (int i = 0; i < imageFiles.length; i++) {
+				if (fileModificationRegistry.getFileVersion(imageFiles[i]) != imageFileVersions[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		String getContents() {
+			return contents;
+		}
+
+		String getBundleSegment() {
+			return bundleSegment;
+		}
+	}
+
 }
@@ -1,6 +1,5 @@
 package org.bladerunnerjs.plugin.bundlers.cssresource;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -250,7 +249,7 @@ public class CssResourceContentPlugin extends AbstractContentPlugin implements R
 				String relativePath = brjs.dir().getRelativePath(resourceFile);
 				throw new FileNotFoundException("The file at '"+relativePath+"' is ignored by the BRJS configuration so cannot be served");
 			}
-			return new BinaryResponseContent( new FileInputStream(resourceFile) );	
+			return new BinaryResponseContent( brjs.io().openForReading(resourceFile) );	
 		}
 		catch (FileNotFoundException | ConfigException ex)
 		{
@@ -8,12 +8,13 @@ import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.plugin.AssetRegistry;
+import org.bladerunnerjs.api.plugin.DirectoryAssetPlugin;
 import org.bladerunnerjs.api.plugin.Locale;
 import org.bladerunnerjs.api.plugin.base.AbstractAssetPlugin;
 import org.bladerunnerjs.model.AssetContainer;
 
 
-public class I18nAssetPlugin extends AbstractAssetPlugin
+public class I18nAssetPlugin extends AbstractAssetPlugin implements DirectoryAssetPlugin
 {
 	
 	FileFilter i18nFileFilter = new RegexFileFilter(Locale.LANGUAGE_AND_COUNTRY_CODE_FORMAT+"\\.properties");
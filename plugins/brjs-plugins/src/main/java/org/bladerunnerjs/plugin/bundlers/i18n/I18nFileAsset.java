@@ -18,7 +18,6 @@ import org.bladerunnerjs.api.model.exception.RequirePathException;
 import org.bladerunnerjs.api.plugin.Locale;
 import org.bladerunnerjs.api.utility.RequirePathUtility;
 import org.bladerunnerjs.model.AssetContainer;
-import org.bladerunnerjs.utility.UnicodeReader;
 
 public class I18nFileAsset implements Asset
 {
@@ -56,7 +55,7 @@ public class I18nFileAsset implements Asset
 	@Override
 	public Reader getReader() throws IOException
 	{
-		return new UnicodeReader(assetFile, defaultFileCharacterEncoding);
+		return assetContainer.root().getSourceContentStore().getReader(assetFile, defaultFileCharacterEncoding);
 	}
 	
 	@Override
@@ -97,7 +96,7 @@ public class I18nFileAsset implements Asset
         			Map<String, String> propertiesMap = new LinkedHashMap<String,String>();
         			Properties i18nProperties = new Properties();
         			
-        			try(Reader propertiesReader = new UnicodeReader(assetFile, defaultFileCharacterEncoding)) {
+        			try(Reader propertiesReader = getReader()) {
         				i18nProperties.load( propertiesReader );
         				
         				for (String property : i18nProperties.stringPropertyNames())
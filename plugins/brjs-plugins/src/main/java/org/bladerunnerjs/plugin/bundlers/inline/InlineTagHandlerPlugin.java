@@ -2,10 +2,12 @@ package org.bladerunnerjs.plugin.bundlers.inline;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.Map;
 
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.BundleSet;
 import org.bladerunnerjs.api.plugin.Locale;
@@ -37,7 +39,9 @@ public class InlineTagHandlerPlugin extends AbstractTagHandlerPlugin {
 		BundlableNode bundlableNode = bundleSet.bundlableNode();
 		try {
 			File file = bundlableNode.file(filePath);
-			writer.write( FileUtils.readFileToString(file) );
+			try (InputStream fileInput = bundlableNode.root().io().openForReading(file)) {
+				writer.write( IOUtils.toString(fileInput, Charset.defaultCharset()) );
+			}
 		}
 		catch(IOException e) {
 			throw new IOException( String.format(Messages.FILE_NOT_FOUND, filePath, filePath, bundlableNode.dir()));
@@ -9,10 +9,11 @@ import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.SourceModule;
 import org.bladerunnerjs.api.memoization.MemoizedFile;
 import org.bladerunnerjs.api.plugin.AssetRegistry;
+import org.bladerunnerjs.api.plugin.DirectoryAssetPlugin;
 import org.bladerunnerjs.api.plugin.base.AbstractAssetPlugin;
 import org.bladerunnerjs.model.AssetContainer;
 
-public class NamespacedJsAssetPlugin extends AbstractAssetPlugin {
+public class NamespacedJsAssetPlugin extends AbstractAssetPlugin implements DirectoryAssetPlugin {
 	
 	FileFilter jsFileFilter = new SuffixFileFilter(".js");
 	
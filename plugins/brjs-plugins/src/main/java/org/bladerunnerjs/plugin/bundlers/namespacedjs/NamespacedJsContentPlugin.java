@@ -121,6 +121,32 @@ public class NamespacedJsContentPlugin extends AbstractContentPlugin implements
 
 		return requestPaths;
 	}
+	
+	@Override
+	public List<String> getValidProdModuleContentPaths(BundleSet bundleSet, Locale... locales) throws ContentProcessingException
+	{
+		List<String> requestPaths = new ArrayList<>();
+		List<NamespacedJsSourceModule> namespacedJsSourceModules = bundleSet.sourceModules(NamespacedJsSourceModule.class);
+		
+		if (!namespacedJsSourceModules.isEmpty()) {
+			try
+			{
+				// the bundle has the modules first, followed by the package definitions and the globalized classes
+				for (SourceModule sourceModule : namespacedJsSourceModules)
+				{
+					requestPaths.add(contentPathParser.createRequest(SINGLE_MODULE_REQUEST, sourceModule.getPrimaryRequirePath()));
+				}
+				requestPaths.add(contentPathParser.createRequest(PACKAGE_DEFINITIONS_REQUEST));
+				requestPaths.add(contentPathParser.createRequest(GLOBALIZE_EXTRA_CLASSES_REQUEST));
+			}
+			catch (MalformedTokenException e)
+			{
+				throw new ContentProcessingException(e);
+			}
+		}
+		
+		return requestPaths;
+	}
 
 	@Override
 	public ResponseContent handleRequest(String contentPath, BundleSet bundleSet, UrlContentAccessor output, String version) throws MalformedRequestException, ContentProcessingException
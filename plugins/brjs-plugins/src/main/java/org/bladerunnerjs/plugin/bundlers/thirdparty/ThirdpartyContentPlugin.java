@@ -131,6 +131,13 @@ public class ThirdpartyContentPlugin extends AbstractContentPlugin implements Co
 		
 		return requestPaths;
 	}
+	
+	@Override
+	public List<String> getValidProdModuleContentPaths(BundleSet bundleSet, Locale... locales) throws ContentProcessingException
+	{
+		// the bundle is just each of the modules in turn
+		return getValidContentPaths(bundleSet, RequestMode.Dev, locales);
+	}
 
 	private boolean hasUnencapsulatedSourceModule(BundleSet bundleSet)
 	{
@@ -24,7 +24,6 @@ import org.bladerunnerjs.model.AssetContainer;
 import org.bladerunnerjs.api.BundlableNode;
 import org.bladerunnerjs.model.SourceModulePatch;
 import org.bladerunnerjs.plugin.bundlers.commonjs.CommonJsSourceModule;
-import org.bladerunnerjs.utility.UnicodeReader;
 
 import com.Ostermiller.util.ConcatReader;
 
@@ -68,7 +67,7 @@ public class ThirdpartySourceModule implements SourceModule
 
 		try {			
 			for(File file : manifest.getJsFiles()) {
-				jsFileReaders.add(new UnicodeReader(file, defaultFileCharacterEncoding));
+				jsFileReaders.add(assetContainer.root().getSourceContentStore().getReader(file, defaultFileCharacterEncoding));
 				jsFileReaders.add(new StringReader("\n\n"));
 			}
 			
@@ -1,7 +1,6 @@
 package org.bladerunnerjs.plugin.bundlers.xml;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.LinkedHashMap;
@@ -56,9 +55,8 @@ public class XmlBundlerConfig {
 			@Override
 			public Object get() throws ContentProcessingException {
         		Map<String, XmlResourceConfig> result = new LinkedHashMap<String, XmlResourceConfig>();
-        		try 
+        		try (InputStream is = brjs.io().openForReading(configFile))
         		{
-        			InputStream is = new FileInputStream(configFile);
         			result = processBundlerConfig(is);
         		} catch (ParserConfigurationException | SAXException | IOException e) {
         			throw new ContentProcessingException(e);
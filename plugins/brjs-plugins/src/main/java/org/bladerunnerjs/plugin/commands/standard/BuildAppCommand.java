@@ -16,6 +16,7 @@ import org.bladerunnerjs.api.model.exception.command.DirectoryDoesNotExistComman
 import org.bladerunnerjs.api.model.exception.command.DirectoryNotEmptyCommandException;
 import org.bladerunnerjs.api.model.exception.command.NodeDoesNotExistException;
 import org.bladerunnerjs.api.plugin.JSAPArgsParsingCommandPlugin;
+import org.bladerunnerjs.api.spec.model.app.building.AppBuilderUtilis;
 import org.bladerunnerjs.appserver.util.ExceptionThrowingMissingTokenHandler;
 import org.bladerunnerjs.logger.LogLevel;
 import org.bladerunnerjs.utility.AppRequestHandler;
@@ -53,6 +54,8 @@ public class BuildAppCommand extends JSAPArgsParsingCommandPlugin {
 		argsParser.registerParameter(new FlaggedOption("environment").setShortFlag('e').setLongFlag("environment").setRequired(false)
 				.setDefault("prod").setHelp("the environment to use when locating app properties"));
 		argsParser.registerParameter(new Switch("war").setShortFlag('w').setLongFlag("war").setDefault("false").setHelp("whether the exported files should be placed into a war archive"));
+		argsParser.registerParameter(new Switch("incremental").setShortFlag('i').setLongFlag("incremental").setDefault("false").setHelp("whether to only rebuild the files "+
+				"whose inputs have changed since the app was last built to the same directory, in which case any version given is used without a timestamp"));
 	}
 	
 	@Override
@@ -76,10 +79,14 @@ public class BuildAppCommand extends JSAPArgsParsingCommandPlugin {
 		
 		String appName = parsedArgs.getString(Parameters.APP_NAME);
 		String targetDirPath = parsedArgs.getString(Parameters.TARGET_DIR);
+		boolean warExport = parsedArgs.getBoolean("war");
+		boolean incremental = parsedArgs.getBoolean("incremental") && !warExport;
 		if (parsedArgs.getString("version") != null) {
 			brjs.getAppVersionGenerator().setVersion(parsedArgs.getString("version"));
+			if (incremental) {
+				brjs.getAppVersionGenerator().appendTimetamp(false);
+			}
 		}
-		boolean warExport = parsedArgs.getBoolean("war");
 		boolean hasExplicitExportDirArg = (targetDirPath != null);
 		String environment = parsedArgs.getString("environment");	
 		String archiveName = (parsedArgs.userSpecified("environment")) ? appName + "_"+environment : appName;
@@ -111,7 +118,7 @@ public class BuildAppCommand extends JSAPArgsParsingCommandPlugin {
 					warExportFile = targetDir.file(archiveName+"_"+getBuiltAppTimestamp()+".war");
 					brjs.logger(this.getClass()).warn( Messages.UNABLE_TO_DELETE_BULIT_APP_EXCEPTION, app.dir().getRelativePath(oldWarExportFile), app.dir().getRelativePath(warExportFile)); 
 				}
-			} else if (!warExport && appExportDir.exists()){
+			} else if (!warExport && !incremental && appExportDir.exists()){
 				boolean deleted = FileUtils.deleteQuietly(appExportDir);			
 				if (!deleted) {
 					MemoizedFile oldAppExportDir = appExportDir;
@@ -141,11 +148,12 @@ public class BuildAppCommand extends JSAPArgsParsingCommandPlugin {
 				logger.println(Messages.APP_BUILT_CONSOLE_MSG, appName, warExportFile.getAbsolutePath());
 			} else {
 				if (hasExplicitExportDirArg) {
-					if (appExportDir.listFiles().length > 0) throw new DirectoryNotEmptyCommandException(appExportDir.getPath(), this);								
+					boolean previouslyBuiltIncrementally = incremental && AppBuilderUtilis.containsBuildManifest(appExportDir);
+					if (appExportDir.listFiles().length > 0 && !previouslyBuiltIncrementally) throw new DirectoryNotEmptyCommandException(appExportDir.getPath(), this);								
 				} else {
 					appExportDir.mkdir();			
 				}
-				app.build(appExportDir);
+				app.build(appExportDir, incremental);
 				brjs.getFileModificationRegistry().incrementFileVersion(appExportDir);
 				logger.println(Messages.APP_BUILT_CONSOLE_MSG, appName, appExportDir.getAbsolutePath());
 			}
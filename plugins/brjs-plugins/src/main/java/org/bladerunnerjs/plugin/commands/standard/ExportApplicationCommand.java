@@ -3,10 +3,10 @@ package org.bladerunnerjs.plugin.commands.standard;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.filefilter.AndFileFilter;
 import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.filefilter.NotFileFilter;
@@ -21,8 +21,7 @@ import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.api.model.exception.command.CommandArgumentsException;
 import org.bladerunnerjs.api.model.exception.command.CommandOperationException;
 import org.bladerunnerjs.api.plugin.JSAPArgsParsingCommandPlugin;
-import org.bladerunnerjs.utility.FileUtils;
-import org.bladerunnerjs.utility.ZipUtility;
+import org.bladerunnerjs.utility.ParallelZipWriter;
 import org.bladerunnerjs.utility.filefilter.ExcludeDirFileFilter;
 
 import com.martiansoftware.jsap.FlaggedOption;
@@ -92,28 +91,25 @@ public class ExportApplicationCommand extends JSAPArgsParsingCommandPlugin
 		}
 		File destinationZipLocation = new File(targetDir, appName + ".zip");
 
-		try 
+		try (ParallelZipWriter zipWriter = new ParallelZipWriter(destinationZipLocation))
 		{
-			MemoizedFile temporaryExportDir = brjs.getMemoizedFile( FileUtils.createTemporaryDirectory( this.getClass(), appName ) );
-			
 			IOFileFilter excludeUserLibraryTestsFilter = createExcludeUserLibsTestsFilter(appName);
 			NotFileFilter brjsJarFilter = new NotFileFilter(new AndFileFilter(new PrefixFileFilter("brjs-"), new SuffixFileFilter(".jar")));
 			IOFileFilter combinedFilter = new AndFileFilter(new ExcludeDirFileFilter("bundles"), brjsJarFilter);
 			
 			combinedFilter = new AndFileFilter(combinedFilter, excludeUserLibraryTestsFilter);
 			
-			createResourcesFromSdkTemplate(app.dir(), temporaryExportDir, combinedFilter);
-			if (banner != null) {
-				String jsBanner = "/*\n" + banner + "\n*/\n\n";
-				includeBannerInDirectoryClasses(brjs, new File(temporaryExportDir, "libs"), jsBanner, bannerExtensions);
-			}
-			ZipUtility.zipFolder(temporaryExportDir, destinationZipLocation, false);
-			brjs.getFileModificationRegistry().incrementFileVersion(destinationZipLocation);
+			String jsBanner = (banner == null) ? null : "/*\n" + banner + "\n*/\n\n";
+			ExportContext exportContext = new ExportContext(zipWriter, Arrays.asList(brjs.bladerunnerConf().getIgnoredPaths()), combinedFilter, 
+				appName + "/libs/", jsBanner, Arrays.asList(bannerExtensions));
+			addToZip(exportContext, app.dir(), appName + "/");
 		}
 		catch (Exception e)
 		{
+			org.apache.commons.io.FileUtils.deleteQuietly(destinationZipLocation);
 			throw new CommandOperationException("Could not create application zip for application '" + appName + "'", e);  
 		}
+		brjs.getFileModificationRegistry().incrementFileVersion(destinationZipLocation);
 
 		logger.println("Successfully exported application '" + appName + "'");
 		logger.println(" " + destinationZipLocation.getAbsolutePath());
@@ -122,68 +118,37 @@ public class ExportApplicationCommand extends JSAPArgsParsingCommandPlugin
 	}
 
 	
-	private void createResourcesFromSdkTemplate(MemoizedFile templateDir, MemoizedFile targetDir, FileFilter fileFilter) throws IOException, ConfigException
-	{
-		ArrayList<MemoizedFile> addList = new ArrayList<>();
-		recurseIntoSubfoldersAndAddAllFilesMatchingFilter( Arrays.asList(brjs.bladerunnerConf().getIgnoredPaths()) , addList, templateDir, fileFilter );
-		
-		if (!targetDir.exists())
-		{
-			targetDir.mkdirs();
-		}
-		
-		for (MemoizedFile f : addList)
-		{			
-			String relativePathFromTemplateDir = f.getAbsolutePath().replace(templateDir.getAbsolutePath(), "");
-			MemoizedFile newResourceToAdd = targetDir.file(relativePathFromTemplateDir);
-
-			if (f.isDirectory() == true)
-			{
-				newResourceToAdd.mkdirs();
-			}
-			else 
-			{
-				createFile(f, newResourceToAdd);
-			}
-		}
-	}
-	
-	private void createFile(MemoizedFile source, MemoizedFile newFileLocation) throws IOException
+	/* the app's files are streamed straight into the zip, with the banner added to library classes as they're added */
+	private void addToZip(ExportContext exportContext, MemoizedFile file, String zipPath) throws IOException, ConfigException
 	{
-		if (source.exists() == true)
+		if (file.isDirectory())
 		{
-			if (newFileLocation.exists() == false)
+			boolean containsEntries = false;
+			for (MemoizedFile childFile : file.listFiles(exportContext.fileFilter))
 			{
-				if (newFileLocation.getParentFile().exists() == false)
+				if (!exportContext.ignoredFiles.contains(childFile.getName()))
 				{
-					newFileLocation.getParentFile().mkdirs();
+					addToZip(exportContext, childFile, zipPath + childFile.getName() + ((childFile.isDirectory()) ? "/" : ""));
+					containsEntries = true;
 				}
-				
-				FileUtils.copyFile(source, newFileLocation);
 			}
-		}
-	}
-
-	private ArrayList<MemoizedFile> recurseIntoSubfoldersAndAddAllFilesMatchingFilter(List<String> ignoredFiles, ArrayList<MemoizedFile> addList, MemoizedFile file, FileFilter filter)
-	{
-		if (ignoredFiles.contains(file.getName())) {
-			return addList;
-		}
-		
-		if (file.isDirectory())
-		{
-			for (MemoizedFile r : file.listFiles(filter))
+			
+			if (!containsEntries)
 			{
-				recurseIntoSubfoldersAndAddAllFilesMatchingFilter(ignoredFiles, addList, r, filter);
+				exportContext.zipWriter.addDirectory(zipPath);
 			}
 		}
-		
-		if (filter.accept(file))
+		else if (exportContext.banner != null && zipPath.startsWith(exportContext.bannerPath) && 
+			exportContext.bannerExtensions.contains(FilenameUtils.getExtension(zipPath)))
 		{
-			addList.add(file);
+			String defaultFileCharacterEncoding = brjs.bladerunnerConf().getDefaultFileCharacterEncoding();
+			String fileContent = org.apache.commons.io.FileUtils.readFileToString(file, defaultFileCharacterEncoding);
+			exportContext.zipWriter.addContent(zipPath, (exportContext.banner + fileContent).getBytes(defaultFileCharacterEncoding));
+		}
+		else
+		{
+			exportContext.zipWriter.addFile(zipPath, file);
 		}
-		
-		return addList;
 	}
 	
 	private IOFileFilter createExcludeUserLibsTestsFilter(String appName) 
@@ -201,21 +166,23 @@ public class ExportApplicationCommand extends JSAPArgsParsingCommandPlugin
 		return excludeDirFilter;
 	}
 	
-	private void includeBannerInDirectoryClasses(BRJS brjs, File dir, String banner, String[] extensions) throws IOException, ConfigException 
+	private static class ExportContext
 	{
-		if (dir.exists())
+		private final ParallelZipWriter zipWriter;
+		private final List<String> ignoredFiles;
+		private final FileFilter fileFilter;
+		private final String bannerPath;
+		private final String banner;
+		private final List<String> bannerExtensions;
+		
+		ExportContext(ParallelZipWriter zipWriter, List<String> ignoredFiles, FileFilter fileFilter, String bannerPath, String banner, List<String> bannerExtensions)
 		{
-			for (File file : FileUtils.listFiles(dir, extensions, true))
-			{
-				includeBanner(brjs, file, banner);
-			}
+			this.zipWriter = zipWriter;
+			this.ignoredFiles = ignoredFiles;
+			this.fileFilter = fileFilter;
+			this.bannerPath = bannerPath;
+			this.banner = banner;
+			this.bannerExtensions = bannerExtensions;
 		}
 	}
-
-	private void includeBanner(BRJS brjs, File file, String disclaimer) throws ConfigException, IOException 
-	{
-		String fileContent = org.apache.commons.io.FileUtils.readFileToString(file, brjs.bladerunnerConf().getDefaultFileCharacterEncoding());
-	
-		FileUtils.write(brjs, file, disclaimer + fileContent, brjs.bladerunnerConf().getDefaultFileCharacterEncoding());
-	}
 }
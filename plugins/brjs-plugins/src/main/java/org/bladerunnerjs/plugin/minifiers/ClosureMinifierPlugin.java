@@ -1,30 +1,31 @@
 package org.bladerunnerjs.plugin.minifiers;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.io.Reader;
-import java.io.SequenceInputStream;
 import java.io.StringReader;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.input.ReaderInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.bladerunnerjs.api.BRJS;
 import org.bladerunnerjs.api.logging.Logger;
+import org.bladerunnerjs.api.model.exception.ConfigException;
 import org.bladerunnerjs.api.model.exception.request.ContentProcessingException;
 import org.bladerunnerjs.api.model.exception.request.ResourceNotFoundException;
 import org.bladerunnerjs.api.plugin.InputSource;
 import org.bladerunnerjs.api.plugin.MinifierPlugin;
 import org.bladerunnerjs.api.plugin.base.AbstractMinifierPlugin;
 
-import com.Ostermiller.util.ConcatReader;
 import com.google.javascript.jscomp.AnonymousFunctionNamingPolicy;
 import com.google.javascript.jscomp.CompilationLevel;
 import com.google.javascript.jscomp.Compiler;
@@ -51,7 +52,12 @@ public class ClosureMinifierPlugin extends AbstractMinifierPlugin implements Min
 	public static final String CLOSURE_ADVANCED = "closure-advanced";
 	public static final String CLOSURE_ADVANCED_DEBUG = "closure-advanced-debug";
 	
+	private static final long MAX_CACHED_MINIFIED_CHARS = 32 * 1024 * 1024;
+	
+	private BRJS brjs;
 	private Logger logger;
+	private ExecutorService minifierExecutor;
+	private final MinifiedContentCache minifiedContentCache = new MinifiedContentCache(MAX_CACHED_MINIFIED_CHARS);
 	
 	private List<String> settingNames = new ArrayList<>();
 	
@@ -68,6 +74,7 @@ public class ClosureMinifierPlugin extends AbstractMinifierPlugin implements Min
 	@Override
 	public void setBRJS(BRJS brjs) 
 	{
+		this.brjs = brjs;
 		logger = brjs.logger(this.getClass());
 	}
 	
@@ -76,11 +83,120 @@ public class ClosureMinifierPlugin extends AbstractMinifierPlugin implements Min
 		return settingNames;
 	}
 	
-	/* using ClosureCompiler API in Java taken from http://blog.bolinfest.com/2009/11/calling-closure-compiler-from-java.html 
-	 * 	and https://code.google.com/p/closure-compiler/wiki/FAQ#How_do_I_call_Closure_Compiler_from_the_Java_API? */
-	@SuppressWarnings("deprecation")
+	/* the whitespace and simple levels only optimize within a single source, so they are given one input per source module, each of which is
+	 * minified separately so that the cached output for any unchanged modules is re-used, whereas the medium and advanced levels rename
+	 * properties across the whole bundle so are minified as a whole */
+	@Override
+	public boolean minifiesInputSourcesIndependently(String settingName) {
+		return !isWholeBundleSetting(settingName);
+	}
+	
 	@Override
 	public Reader minify(String settingName, List<InputSource> inputSources) throws ContentProcessingException, ResourceNotFoundException {
+		List<String> inputs = readInputSources(inputSources);
+		
+		if (isWholeBundleSetting(settingName)) {
+			return new StringReader( minifyCached(settingName, "input.js", StringUtils.join(inputs, "")) );
+		}
+		
+		List<String> minifiedInputs = minifyInParallel(settingName, inputs);
+		StringBuilder minifiedContent = new StringBuilder();
+		for (String minifiedInput : minifiedInputs) {
+			if (minifiedInput.length() > 0) {
+				minifiedContent.append(minifiedInput).append(";\n");
+			}
+		}
+		return new StringReader( minifiedContent.toString() );
+	}
+	
+	@Override
+	public Reader generateSourceMap(String minifierLevel, List<InputSource> inputSources) throws ContentProcessingException {
+		// TODO: implement this method
+		return new StringReader("");
+	}
+	
+	@Override
+	public synchronized void close() {
+		if (minifierExecutor != null) {
+			minifierExecutor.shutdownNow();
+			minifierExecutor = null;
+		}
+	}
+	
+	private boolean isWholeBundleSetting(String settingName) {
+		return settingName.startsWith(CLOSURE_MEDIUM) || settingName.startsWith(CLOSURE_ADVANCED);
+	}
+	
+	
+	private List<String> readInputSources(List<InputSource> inputSources) throws ContentProcessingException, ResourceNotFoundException
+	{
+		List<String> inputs = new ArrayList<>();
+		for (InputSource inputSource : inputSources)
+		{
+			try (Reader reader = inputSource.getContentPluginReader())
+			{
+				inputs.add( IOUtils.toString(reader) );
+			}
+			catch (IOException ex)
+			{
+				throw new ContentProcessingException(ex);
+			}
+		}
+		return inputs;
+	}
+	
+	private List<String> minifyInParallel(String settingName, List<String> inputs) throws ContentProcessingException
+	{
+		List<Future<String>> minifiedInputs = new ArrayList<>();
+		for (int i = 0; i < inputs.size(); i++) {
+			final String inputName = "input" + i + ".js";
+			final String input = inputs.get(i);
+			minifiedInputs.add( getMinifierExecutor().submit(new Callable<String>() {
+				@Override
+				public String call() throws ContentProcessingException {
+					return minifyCached(settingName, inputName, input);
+				}
+			}) );
+		}
+		
+		List<String> minifiedContent = new ArrayList<>();
+		for (Future<String> minifiedInput : minifiedInputs) {
+			try {
+				minifiedContent.add( minifiedInput.get() );
+			}
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof ContentProcessingException) {
+					throw (ContentProcessingException) ex.getCause();
+				}
+				throw new ContentProcessingException(ex);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ContentProcessingException(ex);
+			}
+		}
+		return minifiedContent;
+	}
+	
+	private String minifyCached(String settingName, String inputName, String input) throws ContentProcessingException
+	{
+		if (input.trim().isEmpty()) {
+			return "";
+		}
+		
+		String cacheKey = MinifiedContentCache.key(settingName, input);
+		String minifiedInput = minifiedContentCache.get(cacheKey);
+		if (minifiedInput == null) {
+			minifiedInput = compile(settingName, inputName, input);
+			minifiedContentCache.put(cacheKey, minifiedInput);
+		}
+		return minifiedInput;
+	}
+	
+	/* using ClosureCompiler API in Java taken from http://blog.bolinfest.com/2009/11/calling-closure-compiler-from-java.html 
+	 * 	and https://code.google.com/p/closure-compiler/wiki/FAQ#How_do_I_call_Closure_Compiler_from_the_Java_API? */
+	private String compile(String settingName, String inputName, String input) throws ContentProcessingException
+	{
 		ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
 		
 		Compiler compiler = new Compiler( new PrintStream(errorStream) );
@@ -88,55 +204,39 @@ public class ClosureMinifierPlugin extends AbstractMinifierPlugin implements Min
 		
 		/* we have to use an extern, so create a dummy one */
 		SourceFile extern = SourceFile.fromCode("externs.js", "function alert(x) {}");
-		SourceFile input;
-		try
-		{
-			input = SourceFile.fromInputStream( "input.js", getSingleInputStreamForInputSources(inputSources) );
-		}
-		catch (IOException ex)
-		{
-			throw new ContentProcessingException(ex);
-		}
-		
-		List<Reader> readers = new LinkedList<>();
 		
-		Result result = compiler.compile(extern, input, options);
+		Result result = compiler.compile(extern, SourceFile.fromCode(inputName, input), options);
 		if (result.success)
 		{
 			logger.debug(Messages.OUTPUT_FROM_MINIFIER, errorStream.toString());
-			try
-			{
-				readers.add( new InputStreamReader( new ByteArrayInputStream(compiler.toSource().getBytes()), "UTF-8") );
-			}
-			catch (UnsupportedEncodingException e)
-			{
-				throw new ContentProcessingException(e);
-			}
+			return compiler.toSource();
 		}
 		else
 		{
 			throw new ContentProcessingException(String.format(Messages.ERROR_WHILE_BUNDLING_MSG, errorStream.toString()));
 		}
-		
-		return new ConcatReader( readers.toArray(new Reader[0]) );
-	}
-	
-	@Override
-	public Reader generateSourceMap(String minifierLevel, List<InputSource> inputSources) throws ContentProcessingException {
-		// TODO: implement this method
-		return new StringReader("");
 	}
 	
-	
-	private InputStream getSingleInputStreamForInputSources(List<InputSource> inputSources) throws ContentProcessingException, ResourceNotFoundException
+	private synchronized ExecutorService getMinifierExecutor() throws ContentProcessingException
 	{
-		Vector<InputStream> inputStreams = new Vector<InputStream>();
-		for (InputSource inputSource : inputSources)
-		{
-			Reader reader = inputSource.getContentPluginReader();
-			inputStreams.add( new ReaderInputStream(reader, "UTF-8") );
+		if (minifierExecutor == null) {
+			try {
+				minifierExecutor = Executors.newFixedThreadPool(brjs.bladerunnerConf().getMinifierThreads(), new ThreadFactory() {
+					private final AtomicInteger threadCount = new AtomicInteger();
+					
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "closure-minifier-" + threadCount.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+			catch (ConfigException ex) {
+				throw new ContentProcessingException(ex);
+			}
 		}
-		return new SequenceInputStream( inputStreams.elements() );
+		return minifierExecutor;
 	}
 	
 	private CompilerOptions getCompilerOptions(String settingName)
@@ -0,0 +1,41 @@
+package org.bladerunnerjs.plugin.minifiers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bladerunnerjs.api.memoization.PersistentDependencyCache;
+
+/**
+ * A content addressed cache of minifier output, keyed by the minifier setting and a hash of the unminified content. The least recently used
+ * entries are evicted once the cached output exceeds the given number of characters.
+ */
+class MinifiedContentCache
+{
+	private final Map<String, String> minifiedContent = new LinkedHashMap<>(16, 0.75f, true);
+	private final long maxCachedChars;
+	private long cachedChars = 0;
+
+	MinifiedContentCache(long maxCachedChars) {
+		this.maxCachedChars = maxCachedChars;
+	}
+
+	static String key(String settingName, String content) {
+		return settingName + ":" + PersistentDependencyCache.hash(content);
+	}
+
+	synchronized String get(String key) {
+		return minifiedContent.get(key);
+	}
+
+	synchronized void put(String key, String content) {
+		String previousContent = minifiedContent.put(key, content);
+		cachedChars += content.length() - ((previousContent == null) ? 0 : previousContent.length());
+
+		Iterator<String> eldestContent = minifiedContent.values().iterator();
+		while (cachedChars > maxCachedChars && eldestContent.hasNext()) {
+			cachedChars -= eldestContent.next().length();
+			eldestContent.remove();
+		}
+	}
+}
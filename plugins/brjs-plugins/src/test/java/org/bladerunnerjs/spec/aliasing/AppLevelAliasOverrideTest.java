@@ -96,6 +96,18 @@ public class AppLevelAliasOverrideTest extends SpecTest {
 			.and(response).doesNotContainText("br/LibAliasClass");
 	}
 	
+	@Test
+	public void appAliasesAreOnlyBundledOnceWhenTheAspectAliasesFileContainsOtherAliases() throws Exception {
+		given(aspect).hasClasses("appns/AspectAliasClass1", "appns/AspectAliasClass2", "appns/AppAliasClass")
+			.and(aspectAliasesFile).hasAlias("appns.aspectAlias1", "appns.AspectAliasClass1")
+			.and(aspectAliasesFile).hasAlias("appns.aspectAlias2", "appns.AspectAliasClass2")
+			.and(appAliasesFile).hasAlias("appns.appAlias", "appns.AppAliasClass")
+			.and(aspect).indexPageHasContent("'appns.aspectAlias1' 'appns.aspectAlias2' 'appns.appAlias'");
+		when(aspect).requestReceivedInDev("js/dev/combined/bundle.js", response);
+		then(response).containsCommonJsClasses("appns/AspectAliasClass1", "appns/AspectAliasClass2", "appns/AppAliasClass")
+			.and(response).containsTextOnce("define('alias!appns.appAlias'");
+	}
+
 	@Test
 	public void aliasDefinitionsInAspectAreOverridenByTheAppAliases() throws Exception {
 		given(aspect).hasClasses("appns/AspectConfiguredAlias", "appns/AppConfiguredAlias")
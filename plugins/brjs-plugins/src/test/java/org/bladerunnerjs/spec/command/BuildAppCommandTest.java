@@ -4,6 +4,7 @@ import static org.bladerunnerjs.plugin.commands.standard.BuildAppCommand.Message
 
 import java.io.File;
 
+import org.apache.commons.lang3.StringUtils;
 import org.bladerunnerjs.api.App;
 import org.bladerunnerjs.api.Aspect;
 import org.bladerunnerjs.api.Blade;
@@ -633,4 +634,137 @@ public class BuildAppCommandTest extends SpecTest
 		then(exceptions).verifyException(TokenReplacementException.class, "PropertyFileTokenFinder", "SOME.TOKEN");
 	}
 	
+	@Test
+	public void incrementalBuildsReflectChangesToTheAppSource() throws Exception
+	{
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", "original content")
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).commandHasBeenRun("build-app", "app", "-i", "-v", "123")
+				.and(defaultAspect).containsFileWithContents("src/App.js", "content after the first build");
+		when(brjs).runCommand("build-app", "app", "-i", "-v", "123");
+		then(brjs).fileContentsContains("generated/built-apps/app/v/123/js/prod/combined/bundle.js", "content after the first build")
+			.and(brjs).hasFile("generated/built-apps/app/index.html")
+			.and(exceptions).verifyNoOutstandingExceptions();
+	}
+	
+	@Test
+	public void incrementalBuildsDontRegenerateFilesWhoseInputsAreUnchanged() throws Exception
+	{
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", "original content")
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).commandHasBeenRun("build-app", "app", "-i", "-v", "123")
+				.and(brjs).containsFileWithContents("generated/built-apps/app/v/123/js/prod/combined/bundle.js", "previously built content");
+		when(brjs).runCommand("build-app", "app", "-i", "-v", "123");
+		then(brjs).fileContentsContains("generated/built-apps/app/v/123/js/prod/combined/bundle.js", "previously built content");
+	}
+	
+	@Test
+	public void incrementalBuildsDontRegenerateFilesWhenOnlyFilesOutsideOfTheBundleSetChange() throws Exception
+	{
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", "original content")
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).commandHasBeenRun("build-app", "app", "-i", "-v", "123")
+				.and(brjs).containsFileWithContents("generated/built-apps/app/v/123/js/prod/combined/bundle.js", "previously built content")
+				.and(defaultAspect).containsFileWithContents("src/Unused.js", "content that isn't required by the aspect");
+		when(brjs).runCommand("build-app", "app", "-i", "-v", "123");
+		then(brjs).fileContentsContains("generated/built-apps/app/v/123/js/prod/combined/bundle.js", "previously built content");
+	}
+
+	@Test
+	public void incrementalBuildsRemoveFilesThatAreNoLongerGenerated() throws Exception
+	{
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", "original content")
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).commandHasBeenRun("build-app", "app", "-i", "-v", "123");
+		when(brjs).runCommand("build-app", "app", "-i", "-v", "456");
+		then(brjs).hasFile("generated/built-apps/app/v/456/js/prod/combined/bundle.js")
+			.and(brjs).doesNotHaveFile("generated/built-apps/app/v/123/js/prod/combined/bundle.js");
+	}
+	
+	@Test
+	public void incrementalBuildsCanBeMadeToASpecifiedDirectoryContainingAPreviousIncrementalBuild() throws Exception
+	{
+		given(app).hasBeenCreated()
+			.and(app.defaultAspect()).indexPageHasContent("index page")
+			.and(app.appConf()).supportsLocales("en")
+			.and(brjs).localeSwitcherHasContents("locale-forwarder.js")
+			.and(brjs).hasDir("sdk/target")
+			.and(brjs).commandHasBeenRun("build-app", "app", "target", "-i");
+		when(brjs).runCommand("build-app", "app", "target", "-i");
+		then(brjs).fileContentsContains("sdk/target/index.html", "index page")
+			.and(exceptions).verifyNoOutstandingExceptions();
+	}
+	
+	@Test
+	public void gzipVariantsAreWrittenAlongsideBundles() throws Exception
+	{
+		recreateBrjsWithMockVersionGenerator();
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", StringUtils.repeat("var someContent = 'some content';\n", 100))
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).hasVersion("123");
+		when(brjs).runCommand("build-app", "app");
+		then(brjs).hasFile("generated/built-apps/app/v/123/js/prod/combined/bundle.js")
+			.and(brjs).hasFile("generated/built-apps/app/v/123/js/prod/combined/bundle.js.gz");
+	}
+	
+	@Test
+	public void gzipVariantsArentWrittenForBundlesThatContainTokensToBeReplacedWhenTheyAreServed() throws Exception
+	{
+		recreateBrjsWithMockVersionGenerator();
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(app).containsFolder("WEB-INF")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", StringUtils.repeat("var someContent = '@SOME.TOKEN@';\n", 100))
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).hasVersion("123");
+		when(brjs).runCommand("build-app", "app", "-w").and(brjs).zipFileIsExtractedTo("generated/built-apps/app.war", "generated/built-apps/app.war.exploded");
+		then(brjs).hasFile("generated/built-apps/app.war.exploded/v/123/js/prod/combined/bundle.js")
+			.and(brjs).doesNotHaveFile("generated/built-apps/app.war.exploded/v/123/js/prod/combined/bundle.js.gz");
+	}
+	
+	@Test
+	public void gzipVariantsArentWrittenForBundlesThatContainTokensWithNonAsciiCharacters() throws Exception
+	{
+		recreateBrjsWithMockVersionGenerator();
+		given(app).hasBeenCreated()
+				.and(app).containsFileWithContents("app.conf", "localeCookieName: BRJS.LOCALE\n"
+				+ "locales: en\n"
+				+ "requirePrefix: appns")
+				.and(defaultAspect).hasBeenCreated()
+				.and(defaultAspect).containsFileWithContents("src/App.js", StringUtils.repeat("var someContent = '@ÉTAT.TOKEN@';\n", 100))
+				.and(defaultAspect).indexPageHasContent("<@js.bundle@/>\n"+"require('appns/App');")
+				.and(brjs).hasVersion("123");
+		when(brjs).runCommand("build-app", "app");
+		then(brjs).hasFile("generated/built-apps/app/v/123/js/prod/combined/bundle.js")
+			.and(brjs).doesNotHaveFile("generated/built-apps/app/v/123/js/prod/combined/bundle.js.gz");
+	}
+	
 }
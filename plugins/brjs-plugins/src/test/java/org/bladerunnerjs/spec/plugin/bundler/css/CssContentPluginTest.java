@@ -1,9 +1,13 @@
 package org.bladerunnerjs.spec.plugin.bundler.css;
 
+import static org.junit.Assert.*;
+
 import java.io.File;
+import java.util.Map;
 
 import org.bladerunnerjs.api.App;
 import org.bladerunnerjs.api.AppConf;
+import org.bladerunnerjs.api.Asset;
 import org.bladerunnerjs.api.Aspect;
 import org.bladerunnerjs.api.Blade;
 import org.bladerunnerjs.api.BladerunnerConf;
@@ -541,4 +545,23 @@ public class CssContentPluginTest extends SpecTest {
 			.and(targetDir).doesNotContainFile("v/1234/css/unusedtheme/bundle.css");
 	}
 	
+	@Test
+	public void rewrittenCssIsNoLongerKeptOnceItsAssetIsRemoved() throws Exception {
+		given(aspect).indexPageHasContent("index page")
+			.and(aspect).containsFileWithContents("themes/common/style1.css", "@style1")
+			.and(aspect).containsFileWithContents("themes/common/style2.css", "@style2");
+		when(aspect).requestReceivedInDev("css/common/bundle.css", requestResponse);
+		
+		FileUtils.deleteQuietly(aspect, aspect.file("themes/common/style2.css"));
+		StringBuffer secondResponse = new StringBuffer();
+		when(aspect).requestReceivedInDev("css/common/bundle.css", secondResponse);
+		
+		then(secondResponse).containsText("@style1")
+			.and(secondResponse).doesNotContainText("@style2");
+		@SuppressWarnings("unchecked")
+		Map<Asset, ?> rewrittenCssCache = (Map<Asset, ?>) aspect.nodeProperties("CssRewriter").getTransientProperty("RewrittenCss");
+		assertEquals(1, rewrittenCssCache.size());
+		assertTrue(aspect.assets().containsAll(rewrittenCssCache.keySet()));
+	}
+	
 }
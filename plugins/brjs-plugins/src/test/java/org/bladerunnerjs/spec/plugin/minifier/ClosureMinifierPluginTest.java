@@ -21,6 +21,7 @@ public class ClosureMinifierPluginTest extends SpecTest
 	
 	private BladerunnerConf bladerunnerConf;
 	private StringBuffer response = new StringBuffer();
+	private StringBuffer unminifiedResponse = new StringBuffer();
 	private String unminifiedContent;
 	private String unminifiedContentReserved;
 	private String minifyWhitespaceContent;
@@ -132,6 +133,32 @@ public class ClosureMinifierPluginTest extends SpecTest
 		then(response).containsText(minifyAdvancedContent);
 	}
 	
+	@Test
+	public void changesToAClassAreReflectedInTheMinifiedOutputAfterThePreviousOutputHasBeenCached() throws Exception
+	{
+		given(aspect).hasClass("appns/Class1")
+			.and(aspect).indexPageRefersTo("appns.Class1")
+			.and(aspect).classFileHasContent("appns.Class1", unminifiedContent)
+			.and(aspect).hasReceivedRequest("js/prod/closure-whitespace/bundle.js")
+			.and(aspect).classFileHasContent("appns.Class1", "var bar={}; alert(bar);");
+		when(aspect).requestReceivedInDev("js/prod/closure-whitespace/bundle.js", response);
+		then(response).containsText("var bar={};alert(bar)")
+			.and(response).doesNotContainText("publicProperty");
+	}
+	
+	@Test
+	public void changesToAClassAreReflectedInTheAdvancedMinifiedOutputAfterThePreviousOutputHasBeenCached() throws Exception
+	{
+		given(aspect).hasClass("appns/Class1")
+			.and(aspect).indexPageRefersTo("appns.Class1")
+			.and(aspect).classFileHasContent("appns.Class1", unminifiedContent)
+			.and(aspect).hasReceivedRequest("js/prod/closure-advanced/bundle.js")
+			.and(aspect).classFileHasContent("appns.Class1", "alert('changed');");
+		when(aspect).requestReceivedInDev("js/prod/closure-advanced/bundle.js", response);
+		then(response).containsText("alert(\"changed\")")
+			.and(response).doesNotContainText("_privateProperty2");
+	}
+	
 	@Test
 	public void closureMinifierHandlesRequestsWithMultipleFiles() throws Exception
 	{
@@ -143,6 +170,19 @@ public class ClosureMinifierPluginTest extends SpecTest
 		then(response).containsMinifiedClasses("appns.bs.b1.Class1", "appns.bs.b1.Class2");
 	}
 	
+	@Test
+	public void closureWhitespaceOptionHasTheSameModulesInTheSameOrderAsTheUnminifiedProdBundle() throws Exception
+	{
+		given(aspect).hasNamespacedJsPackageStyle("src/appns/cjs")
+			.and(aspect).hasClasses("appns.cjs.Class1", "appns.cjs.Class2")
+			.and(aspect).classExtends("appns.cjs.Class2", "appns.cjs.Class1")
+			.and(aspect).indexPageRefersTo("appns.cjs.Class2");
+		when(aspect).requestReceivedInDev("js/prod/combined/bundle.js", unminifiedResponse)
+			.and(aspect).requestReceivedInDev("js/prod/closure-whitespace/bundle.js", response);
+		then(unminifiedResponse).containsOrderedTextFragments("appns.cjs.Class1 = function()", "appns.cjs.Class2 = function()", "mergePackageBlock(window, {\"appns\":{\"cjs\":{}}});")
+			.and(response).containsOrderedTextFragments("appns.cjs.Class1=function()", "appns.cjs.Class2=function()", "mergePackageBlock(window,{\"appns\":{\"cjs\":{}}});");
+	}
+	
 	@Test
 	public void closureMinifierHandlesAMixOfSourceFileTypes() throws Exception
 	{
@@ -160,7 +160,13 @@ public class RestApiServlet extends HttpServlet
 				File targetDir = FileUtils.createTemporaryDirectory( this.getClass() );
 				try {
     				File warTempFile = new File(targetDir, "x.war");
-    				apiService.exportWar(appName, brjs.getMemoizedFile(warTempFile));
+    				ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+    				try {
+    					apiService.exportWar(appName, brjs.getMemoizedFile(warTempFile));
+    				}
+    				finally {
+    					ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+    				}
     				response.setContentType("application/octet-stream");
     				response.setHeader("Content-Disposition", "attachment; filename=\""+appName+".war\"");
     				
@@ -236,7 +242,13 @@ public class RestApiServlet extends HttpServlet
 				{
 					if (command.equals(CREATE_APP_COMMAND))
 					{
-						apiService.createApp(appName, requestJson.get(NAMESPACE_PARAM).getAsString());
+						ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+						try {
+							apiService.createApp(appName, requestJson.get(NAMESPACE_PARAM).getAsString());
+						}
+						finally {
+							ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+						}
 						responseHandled = true;
 					}
 					else if (command.equals(GENERATE_DOCS_COMMAND))
@@ -244,9 +256,11 @@ public class RestApiServlet extends HttpServlet
 						Lock appLock = getAppLock(appName);
 						
 						if (appLock.tryLock()) {
+							ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
 							try {
 								apiService.getJsdocForApp(appName);
 							} finally {
+								ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
 								appLock.unlock();
 							}
 						} else {
@@ -285,7 +299,13 @@ public class RestApiServlet extends HttpServlet
 							
 							bladesetsMap.put(thisBladesetName, newBladesetMap);
 						}
-						apiService.importBladeset(requestJson.get(APP_PARAM).getAsString(), bladesetsMap, appName);
+						ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+						try {
+							apiService.importBladeset(requestJson.get(APP_PARAM).getAsString(), bladesetsMap, appName);
+						}
+						finally {
+							ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+						}
 						responseHandled = true;
 					}
 				}
@@ -293,7 +313,13 @@ public class RestApiServlet extends HttpServlet
 				{
 					if (command.equals(CREATE_BLADESET_COMMAND))
 					{
-						apiService.createBladeset(appName, bladesetName);
+						ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+						try {
+							apiService.createBladeset(appName, bladesetName);
+						}
+						finally {
+							ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+						}
 						responseHandled = true;
 					}
 				}
@@ -301,18 +327,36 @@ public class RestApiServlet extends HttpServlet
 				{
 					if (command.equals(CREATE_BLADE_COMMAND))
 					{
-						apiService.createBlade(appName, bladesetName, bladeName);
+						ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+						try {
+							apiService.createBlade(appName, bladesetName, bladeName);
+						}
+						finally {
+							ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+						}
 						responseHandled = true;
 					}
 				}
 				else if (TEST_BLADESET_PATTERN.matcher(requestPath).matches())
 				{
-					serviceResponse = apiService.runBladesetTests(appName, bladesetName, TEST_TYPE);
+					ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+					try {
+						serviceResponse = apiService.runBladesetTests(appName, bladesetName, TEST_TYPE);
+					}
+					finally {
+						ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+					}
 					responseHandled = true;
 				}
 				else if (TEST_BLADE_PATTERN.matcher(requestPath).matches())
 				{
-					serviceResponse = apiService.runBladeTests(appName, bladesetName, bladeName, TEST_TYPE);
+					ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+					try {
+						serviceResponse = apiService.runBladeTests(appName, bladesetName, bladeName, TEST_TYPE);
+					}
+					finally {
+						ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+					}
 					responseHandled = true;
 				}
 			}
@@ -378,7 +422,13 @@ public class RestApiServlet extends HttpServlet
 
 		if (!namespace.equals("") && zipFile != null && command.equals(IMPORT_MOTIF))
 		{
-			apiService.importMotif(appName, namespace, brjs.getMemoizedFile(zipFile));
+			ThreadSafeStaticBRJSAccessor.acquireModelForUpdate();
+			try {
+				apiService.importMotif(appName, namespace, brjs.getMemoizedFile(zipFile));
+			}
+			finally {
+				ThreadSafeStaticBRJSAccessor.releaseModelForUpdate();
+			}
 			responseHandled = true;
 		}
 		return responseHandled;
@@ -22,15 +22,23 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.RandomAccessFile;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.zip.GZIPOutputStream;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -53,6 +61,7 @@ public class FileServlet extends HttpServlet {
 	private static final int DEFAULT_BUFFER_SIZE = 10240; // ..bytes = 10KB.
 //	private static final long DEFAULT_EXPIRE_TIME = 604800000L; // ..ms = 1 week.
 	private static final String MULTIPART_BOUNDARY = "MULTIPART_BYTERANGES";
+	private static final long ASYNC_WRITE_THRESHOLD = 1048576L; // ..bytes = 1MB.
 
 	// Properties ---------------------------------------------------------------------------------
 
@@ -123,18 +132,53 @@ public class FileServlet extends HttpServlet {
 		// URL-decode the file name (might contain spaces and on) and prepare file object.
 		File file = new File(basePath, URLDecoder.decode(requestedFile, "UTF-8"));
 
-		// Check if file actually exists in filesystem.
-		if (!file.exists()) {
-			// Do your thing if the file appears to be non-existing.
-			// Throw an exception, or send 404, or show default/warning page, or just ignore it.
-			response.sendError(HttpServletResponse.SC_NOT_FOUND);
-			return;
+		// Open the file, and check that it actually exists in the filesystem. The length is taken from the open channel, and the last
+		// modified time is read once it has been opened, so that the headers always describe the content that is streamed.
+		Path path = file.toPath();
+		FileChannel input = null;
+		boolean writingAsync = false;
+		try {
+			BasicFileAttributes attributes = null;
+			try {
+				input = FileChannel.open(path, StandardOpenOption.READ);
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			} catch (NoSuchFileException ignore) {
+				// The file is reported as missing below.
+			}
+
+			if (attributes == null || !attributes.isRegularFile()) {
+				// Do your thing if the file appears to be non-existing.
+				// Throw an exception, or send 404, or show default/warning page, or just ignore it.
+				response.sendError(HttpServletResponse.SC_NOT_FOUND);
+				return;
+			}
+
+			writingAsync = processFile(request, response, content, file.getName(), input, input.size(), attributes.lastModifiedTime().toMillis());
+		} finally {
+			// The input is closed by the asynchronous writer once it has finished with it.
+			if (!writingAsync) {
+				close(input);
+			}
 		}
+	}
 
-		// Prepare some variables. The ETag is an unique identifier of the file.
-		String fileName = file.getName();
-		long length = file.length();
-		long lastModified = file.lastModified();
+	/**
+	 * Process the request for an existing file.
+	 * @param request The request to be processed.
+	 * @param response The response to be created.
+	 * @param content Whether the request body should be written (GET) or not (HEAD).
+	 * @param fileName The name of the requested file.
+	 * @param input The open channel to read the file from.
+	 * @param length The length of the file.
+	 * @param lastModified The last modified time of the file.
+	 * @return True if the file is being written asynchronously, in which case the input will be closed once it has been written.
+	 * @throws IOException If something fails at I/O level.
+	 */
+	private boolean processFile(HttpServletRequest request, HttpServletResponse response, boolean content,
+		String fileName, FileChannel input, long length, long lastModified)
+			throws IOException
+	{
+		// The ETag is an unique identifier of the file.
 		String eTag = fileName + "_" + length + "_" + lastModified;
 
 
@@ -145,7 +189,7 @@ public class FileServlet extends HttpServlet {
 		if (ifNoneMatch != null && matches(ifNoneMatch, eTag)) {
 			response.setHeader("ETag", eTag); // Required in 304.
 			response.sendError(HttpServletResponse.SC_NOT_MODIFIED);
-			return;
+			return false;
 		}
 
 		// If-Modified-Since header should be greater than LastModified. If so, then return 304.
@@ -154,7 +198,7 @@ public class FileServlet extends HttpServlet {
 		if (ifNoneMatch == null && ifModifiedSince != -1 && ifModifiedSince + 1000 > lastModified) {
 			response.setHeader("ETag", eTag); // Required in 304.
 			response.sendError(HttpServletResponse.SC_NOT_MODIFIED);
-			return;
+			return false;
 		}
 
 
@@ -164,14 +208,14 @@ public class FileServlet extends HttpServlet {
 		String ifMatch = request.getHeader("If-Match");
 		if (ifMatch != null && !matches(ifMatch, eTag)) {
 			response.sendError(HttpServletResponse.SC_PRECONDITION_FAILED);
-			return;
+			return false;
 		}
 
 		// If-Unmodified-Since header should be greater than LastModified. If not, then return 412.
 		long ifUnmodifiedSince = request.getDateHeader("If-Unmodified-Since");
 		if (ifUnmodifiedSince != -1 && ifUnmodifiedSince + 1000 <= lastModified) {
 			response.sendError(HttpServletResponse.SC_PRECONDITION_FAILED);
-			return;
+			return false;
 		}
 
 
@@ -189,7 +233,7 @@ public class FileServlet extends HttpServlet {
 			if (!range.matches("^bytes=\\d*-\\d*(,\\d*-\\d*)*$")) {
 				response.setHeader("Content-Range", "bytes */" + length); // Required in 416.
 				response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
-				return;
+				return false;
 			}
 
 			// If-Range header should either match ETag or be greater then LastModified. If not,
@@ -225,7 +269,7 @@ public class FileServlet extends HttpServlet {
 					if (start > end) {
 						response.setHeader("Content-Range", "bytes */" + length); // Required in 416.
 						response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
-						return;
+						return false;
 					}
 
 					// Add range.
@@ -280,12 +324,10 @@ public class FileServlet extends HttpServlet {
 		// Send requested file (part(s)) to client ------------------------------------------------
 
 		// Prepare streams.
-		RandomAccessFile input = null;
 		OutputStream output = null;
 
 		try {
 			// Open streams.
-			input = new RandomAccessFile(file, "r");
 			output = response.getOutputStream();
 
 			if (ranges.isEmpty() || ranges.get(0) == full) {
@@ -306,7 +348,11 @@ public class FileServlet extends HttpServlet {
 						response.setHeader("Content-Length", String.valueOf(r.length));
 					}
 
-					// Copy full range.
+					// Copy full range, writing large uncompressed files without holding on to the request thread.
+					if (!acceptsGzip && writeAsync(request, input, r.start, r.length)) {
+						output = null;
+						return true;
+					}
 					copy(input, output, r.start, r.length);
 				}
 
@@ -320,7 +366,11 @@ public class FileServlet extends HttpServlet {
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT); // 206.
 
 				if (content) {
-					// Copy single part range.
+					// Copy single part range, writing large ranges without holding on to the request thread.
+					if (writeAsync(request, input, r.start, r.length)) {
+						output = null;
+						return true;
+					}
 					copy(input, output, r.start, r.length);
 				}
 
@@ -354,8 +404,33 @@ public class FileServlet extends HttpServlet {
 		} finally {
 			// Gently close streams.
 			close(output);
-			close(input);
 		}
+
+		return false;
+	}
+
+	/**
+	 * Writes the given byte range of the given input using a non-blocking write listener if the range is large enough to be worth
+	 * it and the request supports asynchronous processing. The input is closed once the range has been written.
+	 * @param request The request being processed.
+	 * @param input The input to write the given range from.
+	 * @param start Start of the byte range.
+	 * @param length Length of the byte range.
+	 * @return True if the range is being written asynchronously, false if it must be copied by the caller.
+	 * @throws IOException If something fails at I/O level.
+	 */
+	private static boolean writeAsync(HttpServletRequest request, FileChannel input, long start, long length)
+		throws IOException
+	{
+		if (length < ASYNC_WRITE_THRESHOLD || !request.isAsyncSupported()) {
+			return false;
+		}
+
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(0);
+		ServletOutputStream output = asyncContext.getResponse().getOutputStream();
+		output.setWriteListener(new ChannelContentWriter(asyncContext, output, input, start, length));
+		return true;
 	}
 
 	// Helpers (can be refactored to public utility class) ----------------------------------------
@@ -401,38 +476,47 @@ public class FileServlet extends HttpServlet {
 	}
 
 	/**
-	 * Copy the given byte range of the given input to the given output.
+	 * Copy the given byte range of the given input to the given output. The range is read from its
+	 * position in the channel, so the channel can be shared by several ranges.
 	 * @param input The input to copy the given range to the given output for.
 	 * @param output The output to copy the given range from the given input for.
 	 * @param start Start of the byte range.
 	 * @param length Length of the byte range.
 	 * @throws IOException If something fails at I/O level.
 	 */
-	private static void copy(RandomAccessFile input, OutputStream output, long start, long length)
+	private static void copy(FileChannel input, OutputStream output, long start, long length)
 		throws IOException
 	{
-		byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-		int read;
+		ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+		long position = start;
+		long end = start + length;
+
+		while (position < end) {
+			int read = read(input, buffer, position, end);
+			output.write(buffer.array(), 0, read);
+			position += read;
+		}
+	}
 
-		if (input.length() == length) {
-			// Write full range.
-			while ((read = input.read(buffer)) > 0) {
-				output.write(buffer, 0, read);
-			}
-		} else {
-			// Write partial range.
-			input.seek(start);
-			long toRead = length;
-
-			while ((read = input.read(buffer)) > 0) {
-				if ((toRead -= read) > 0) {
-					output.write(buffer, 0, read);
-				} else {
-					output.write(buffer, 0, (int) toRead + read);
-					break;
-				}
-			}
+	/**
+	 * Read the next chunk of the given byte range of the given input into the given buffer.
+	 * @param input The input to read from.
+	 * @param buffer The buffer to read into, which is cleared first.
+	 * @param position The position to read from.
+	 * @param end The end of the byte range, exclusive.
+	 * @return The number of bytes read.
+	 * @throws IOException If something fails at I/O level, or the file is shorter than the byte range.
+	 */
+	private static int read(FileChannel input, ByteBuffer buffer, long position, long end)
+		throws IOException
+	{
+		buffer.clear();
+		buffer.limit((int) Math.min(buffer.capacity(), end - position));
+		int read = input.read(buffer, position);
+		if (read <= 0) {
+			throw new IOException("Unable to read past byte " + position + " of a file with " + input.size() + " bytes.");
 		}
+		return read;
 	}
 
 	/**
@@ -452,6 +536,49 @@ public class FileServlet extends HttpServlet {
 
 	// Inner classes ------------------------------------------------------------------------------
 
+	/**
+	 * This class writes a byte range of a file to a non-blocking output whenever it is ready
+	 * to accept more content, completing the request once the whole range has been written.
+	 */
+	private static class ChannelContentWriter implements WriteListener {
+		private final AsyncContext asyncContext;
+		private final ServletOutputStream output;
+		private final FileChannel input;
+		private final long end;
+		private final ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+		private long position;
+
+		ChannelContentWriter(AsyncContext asyncContext, ServletOutputStream output, FileChannel input, long start, long length) {
+			this.asyncContext = asyncContext;
+			this.output = output;
+			this.input = input;
+			this.position = start;
+			this.end = start + length;
+		}
+
+		@Override
+		public void onWritePossible() throws IOException {
+			while (output.isReady()) {
+				if (position >= end) {
+					close(input);
+					asyncContext.complete();
+					return;
+				}
+
+				int read = read(input, buffer, position, end);
+				output.write(buffer.array(), 0, read);
+				position += read;
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			// Generally the client aborted the request, so there's nothing left to write to.
+			close(input);
+			asyncContext.complete();
+		}
+	}
+
 	/**
 	 * This class represents a byte range.
 	 */
@@ -0,0 +1,167 @@
+package org.bladerunnerjs.servlet;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileServletTest
+{
+	private File filesDir;
+	private Server server;
+	private CloseableHttpClient client;
+	private String urlBase;
+
+	@Before
+	public void setup() throws Exception
+	{
+		File resourceBase = new File(".build/file-servlet");
+		FileUtils.deleteQuietly(resourceBase);
+		filesDir = new File(resourceBase, "files");
+		FileUtils.write(new File(filesDir, "file.bin"), "0123456789");
+		new File(filesDir, "dir").mkdirs();
+
+		server = new Server(0);
+		ServletContextHandler context = new ServletContextHandler();
+		context.setContextPath("/");
+		context.setResourceBase(resourceBase.getAbsolutePath());
+		ServletHolder servletHolder = new ServletHolder(new FileServlet());
+		servletHolder.setInitParameter("basePath", "files");
+		servletHolder.setAsyncSupported(true);
+		context.addServlet(servletHolder, "/*");
+		server.setHandler(context);
+		server.start();
+
+		urlBase = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+		client = HttpClientBuilder.create().disableContentCompression().build();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		client.close();
+		server.stop();
+	}
+
+	@Test
+	public void theWholeFileIsServedWithItsLength() throws Exception
+	{
+		HttpResponse response = get("/file.bin");
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertEquals("10", response.getFirstHeader("Content-Length").getValue());
+		assertEquals("0123456789", EntityUtils.toString(response.getEntity()));
+	}
+
+	@Test
+	public void filesThatDontExistAndDirectoriesAreNotFound() throws Exception
+	{
+		assertEquals(404, consume(get("/does-not-exist.bin")).getStatusLine().getStatusCode());
+		assertEquals(404, consume(get("/dir")).getStatusLine().getStatusCode());
+	}
+
+	@Test
+	public void requestsWithAMatchingETagAreNotModified() throws Exception
+	{
+		String eTag = consume(get("/file.bin")).getFirstHeader("ETag").getValue();
+
+		HttpResponse response = get("/file.bin", "If-None-Match", eTag);
+		assertEquals(304, consume(response).getStatusLine().getStatusCode());
+		assertEquals(eTag, response.getFirstHeader("ETag").getValue());
+	}
+
+	@Test
+	public void requestsModifiedSinceTheFileWasLastModifiedAreNotModified() throws Exception
+	{
+		String lastModified = DateUtils.formatDate(new Date(System.currentTimeMillis() + 60000));
+
+		assertEquals(304, consume(get("/file.bin", "If-Modified-Since", lastModified)).getStatusLine().getStatusCode());
+	}
+
+	@Test
+	public void theETagChangesAsSoonAsTheFileChanges() throws Exception
+	{
+		String eTag = consume(get("/file.bin")).getFirstHeader("ETag").getValue();
+		FileUtils.write(new File(filesDir, "file.bin"), "01234567890123");
+
+		HttpResponse response = get("/file.bin", "If-None-Match", eTag);
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertEquals("14", response.getFirstHeader("Content-Length").getValue());
+		assertEquals("01234567890123", EntityUtils.toString(response.getEntity()));
+	}
+
+	@Test
+	public void aSingleRangeOfTheFileCanBeRequested() throws Exception
+	{
+		HttpResponse response = get("/file.bin", "Range", "bytes=2-5");
+		assertEquals(206, response.getStatusLine().getStatusCode());
+		assertEquals("bytes 2-5/10", response.getFirstHeader("Content-Range").getValue());
+		assertEquals("2345", EntityUtils.toString(response.getEntity()));
+	}
+
+	@Test
+	public void multipleRangesOfTheFileCanBeRequested() throws Exception
+	{
+		HttpResponse response = get("/file.bin", "Range", "bytes=0-1,-2");
+		assertEquals(206, response.getStatusLine().getStatusCode());
+		String content = EntityUtils.toString(response.getEntity());
+		assertTrue(content.contains("Content-Range: bytes 0-1/10"));
+		assertTrue(content.contains("Content-Range: bytes 8-9/10"));
+	}
+
+	@Test
+	public void unsatisfiableRangesAreRejected() throws Exception
+	{
+		HttpResponse response = consume(get("/file.bin", "Range", "bytes=8-2"));
+		assertEquals(416, response.getStatusLine().getStatusCode());
+		assertEquals("bytes */10", response.getFirstHeader("Content-Range").getValue());
+	}
+
+	@Test
+	public void largeFilesAndRangesAreWrittenAsynchronously() throws Exception
+	{
+		byte[] largeFile = new byte[3 * 1024 * 1024 + 17];
+		new Random(1).nextBytes(largeFile);
+		FileUtils.writeByteArrayToFile(new File(filesDir, "large.bin"), largeFile);
+
+		HttpResponse response = get("/large.bin");
+		assertEquals(200, response.getStatusLine().getStatusCode());
+		assertArrayEquals(largeFile, EntityUtils.toByteArray(response.getEntity()));
+
+		response = get("/large.bin", "Range", "bytes=100-");
+		assertEquals(206, response.getStatusLine().getStatusCode());
+		assertArrayEquals(Arrays.copyOfRange(largeFile, 100, largeFile.length), EntityUtils.toByteArray(response.getEntity()));
+	}
+
+	private HttpResponse get(String path, String... headers) throws Exception
+	{
+		HttpGet request = new HttpGet(urlBase + path);
+		for (int i = 0; i < headers.length; i += 2)
+		{
+			request.setHeader(headers[i], headers[i + 1]);
+		}
+		return client.execute(request);
+	}
+
+	private HttpResponse consume(HttpResponse response) throws Exception
+	{
+		EntityUtils.consume(response.getEntity());
+		return response;
+	}
+}